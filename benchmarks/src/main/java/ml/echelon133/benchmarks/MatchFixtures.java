@@ -0,0 +1,65 @@
+package ml.echelon133.benchmarks;
+
+import ml.echelon133.matchservice.match.model.Lineup;
+import ml.echelon133.matchservice.player.model.Player;
+import ml.echelon133.matchservice.player.model.Position;
+import ml.echelon133.matchservice.team.model.Team;
+import ml.echelon133.matchservice.team.model.TeamPlayer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates entities needed by matches whose events are processed by the benchmarks.
+ */
+public class MatchFixtures {
+
+    public static final int STARTING_PLAYERS = 11;
+    public static final int SUBSTITUTE_PLAYERS = 7;
+
+    private MatchFixtures() {}
+
+    /**
+     * Creates players of a team, the first one of which is a goalkeeper.
+     *
+     * @param team team of the players
+     * @param count number of players
+     * @param firstNumber shirt number of the first player, shirt numbers of other players follow it
+     * @return players of the team
+     */
+    public static List<TeamPlayer> createPlayers(Team team, int count, int firstNumber) {
+        List<TeamPlayer> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var number = firstNumber + i;
+            var position = i == 0 ? Position.GOALKEEPER : Position.values()[1 + i % 3];
+            var player = new Player(team.getName() + " Player " + number, position, LocalDate.of(1995, 1, 1), "PL");
+            players.add(new TeamPlayer(team, player, position, number));
+        }
+        return players;
+    }
+
+    /**
+     * Creates a full lineup of a team, with starting and substitute players.
+     *
+     * @param team team of the lineup
+     * @return lineup of the team
+     */
+    public static Lineup createLineup(Team team) {
+        return new Lineup(
+                createPlayers(team, STARTING_PLAYERS, 1),
+                createPlayers(team, SUBSTITUTE_PLAYERS, STARTING_PLAYERS + 1),
+                "4-4-2"
+        );
+    }
+
+    /**
+     * Returns the id of a player of a team in the form expected by dtos of events.
+     *
+     * @param teamPlayer player of a team
+     * @return id of the player of the team
+     */
+    public static String id(TeamPlayer teamPlayer) {
+        return teamPlayer.getId().toString();
+    }
+}
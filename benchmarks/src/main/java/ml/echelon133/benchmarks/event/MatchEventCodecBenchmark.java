@@ -0,0 +1,107 @@
+package ml.echelon133.benchmarks.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ml.echelon133.common.event.MatchEventType;
+import ml.echelon133.common.event.dto.*;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDetails;
+import ml.echelon133.matchservice.event.model.MatchEventBinaryCodec;
+import ml.echelon133.matchservice.event.model.StringToEventDetailsConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of storing details of match events as JSON and in the compact binary format
+ * of {@link MatchEventBinaryCodec}.
+ *
+ * <p>
+ *     Sizes of both representations of the benchmarked event are printed once per trial.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class MatchEventCodecBenchmark {
+
+    @Param({"STATUS", "COMMENTARY", "CARD", "GOAL", "SUBSTITUTION", "PENALTY"})
+    private MatchEventType eventType;
+
+    private ObjectMapper objectMapper;
+    private StringToEventDetailsConverter jsonConverter;
+    private MatchEventDetails details;
+    private String json;
+    private byte[] binary;
+
+    private static SerializedPlayer player(String name) {
+        return new SerializedPlayer(UUID.randomUUID(), UUID.randomUUID(), name);
+    }
+
+    private static MatchEventDetails detailsOfType(MatchEventType eventType) {
+        var competitionId = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+        return switch (eventType) {
+            case STATUS -> new StatusEventDetailsDto(
+                    "90", competitionId, MatchStatus.FINISHED,
+                    new SerializedTeam(teamId, UUID.randomUUID()), MatchResult.HOME_WIN, new SerializedScore(2, 1)
+            );
+            case COMMENTARY -> new CommentaryEventDetailsDto(
+                    "35", competitionId, "The home side keeps the ball in the middle of the pitch"
+            );
+            case CARD -> new CardEventDetailsDto(
+                    "41", competitionId, teamId, CardEventDetailsDto.CardType.YELLOW, player("Carded Player")
+            );
+            case GOAL -> new GoalEventDetailsDto(
+                    "52", competitionId, teamId, player("Scoring Player"), player("Assisting Player"), false
+            );
+            case SUBSTITUTION -> new SubstitutionEventDetailsDto(
+                    "67", competitionId, teamId, player("Player In"), player("Player Out")
+            );
+            case PENALTY -> new PenaltyEventDetailsDto(
+                    "80", competitionId, teamId, player("Shooting Player"), true, true
+            );
+        };
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws JsonProcessingException {
+        objectMapper = MatchServiceApplication.objectMapper();
+        jsonConverter = new StringToEventDetailsConverter(objectMapper);
+        details = detailsOfType(eventType);
+        json = objectMapper.writeValueAsString(details);
+        binary = MatchEventBinaryCodec.encode(details);
+
+        System.out.printf(
+                "%n%s event: %d bytes as JSON, %d bytes in the binary format%n",
+                eventType, json.getBytes(StandardCharsets.UTF_8).length, binary.length
+        );
+    }
+
+    @Benchmark
+    public String encodeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(details);
+    }
+
+    @Benchmark
+    public EncodedMatchEventDetails decodeJson() {
+        return jsonConverter.convertToEntityAttribute(json);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return MatchEventBinaryCodec.encode(details);
+    }
+
+    @Benchmark
+    public MatchEventDetails decodeBinary() {
+        return MatchEventBinaryCodec.decode(binary);
+    }
+}
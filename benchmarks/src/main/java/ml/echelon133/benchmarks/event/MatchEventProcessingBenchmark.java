@@ -0,0 +1,242 @@
+package ml.echelon133.benchmarks.event;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import ml.echelon133.common.event.dto.MatchEventDetails;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.coach.model.Coach;
+import ml.echelon133.matchservice.event.model.LiveMatchState;
+import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.model.dto.*;
+import ml.echelon133.matchservice.event.repository.MatchEventRepository;
+import ml.echelon133.matchservice.event.service.LiveMatchStateRegistry;
+import ml.echelon133.matchservice.event.service.MatchEventService;
+import ml.echelon133.matchservice.match.model.Lineup;
+import ml.echelon133.matchservice.match.model.LineupDto;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.match.service.MatchService;
+import ml.echelon133.matchservice.team.model.Team;
+import ml.echelon133.matchservice.team.model.TeamPlayer;
+import ml.echelon133.matchservice.venue.model.Venue;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static ml.echelon133.benchmarks.MatchFixtures.*;
+
+/**
+ * Measures how processing of a single match event scales with the number of events which a match already has.
+ *
+ * <p>
+ *     Every trial starts the whole match service against an in-memory H2 database and creates a match with full
+ *     lineups, whose first half already contains a history of events (mostly commentary, with goals, yellow cards
+ *     and substitutions of the away team mixed in). Benchmarked events involve players of the home team,
+ *     so that they are always valid.
+ * </p>
+ * <p>
+ *     Every benchmarked event is processed, saved and flushed in a transaction which is then rolled back,
+ *     therefore the history of the match stays the same during the whole trial. The in-memory state of the match
+ *     is either already present (like while the match is followed live), or has to be hydrated from the history
+ *     (like after a restart of the service).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class MatchEventProcessingBenchmark {
+
+    private static final int AWAY_SUBSTITUTIONS = 5;
+
+    @Param({"50", "200", "1000"})
+    private int historySize;
+
+    @Param({"warm", "cold"})
+    private String liveState;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MatchEventService matchEventService;
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    private UUID matchId;
+    private Match matchWithHistory;
+    private LineupDto lineup;
+    private List<MatchEventDetails> history;
+
+    private UpsertCardEventDto cardEvent;
+    private UpsertGoalEventDto goalEvent;
+    private UpsertSubstitutionEventDto substitutionEvent;
+    private UpsertPenaltyEventDto penaltyEvent;
+    private UpsertCommentaryEventDto commentaryEvent;
+
+    /**
+     * Creates events which happen in the first half of a match, every one of them valid in the context of events
+     * which precede it.
+     */
+    private static List<UpsertMatchEvent> createHistory(int size, Lineup awayLineup) {
+        var starting = awayLineup.getStartingPlayers();
+        var substitutes = awayLineup.getSubstitutePlayers();
+        // players who are never substituted off, so that they can always score
+        var scoringPlayer = starting.get(STARTING_PLAYERS - 1);
+        var assistingPlayer = starting.get(STARTING_PLAYERS - 2);
+
+        List<TeamPlayer> playersToCard = new ArrayList<>(starting);
+        playersToCard.addAll(substitutes);
+
+        List<UpsertMatchEvent> events = new ArrayList<>(size);
+        events.add(new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name()));
+        int cards = 0;
+        int substitutions = 0;
+        for (int i = 1; i < size; i++) {
+            var minute = String.valueOf(1 + (i * 44 / size));
+            if (i % 10 == 0) {
+                events.add(new UpsertGoalEventDto(minute, id(scoringPlayer), id(assistingPlayer), false));
+            } else if (i % 10 == 5 && cards < playersToCard.size()) {
+                events.add(new UpsertCardEventDto(minute, id(playersToCard.get(cards++)), false));
+            } else if (i % 25 == 3 && substitutions < AWAY_SUBSTITUTIONS) {
+                // starting players from the second one onwards are substituted off
+                var playerOut = starting.get(1 + substitutions);
+                var playerIn = substitutes.get(substitutions++);
+                events.add(new UpsertSubstitutionEventDto(minute, id(playerIn), id(playerOut)));
+            } else {
+                events.add(new UpsertCommentaryEventDto(minute, "Commentary of the event number " + i));
+            }
+        }
+        return events;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(MatchServiceApplication.class)
+                // passed as arguments, because they have to override the configuration of the service
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.main.banner-mode=off",
+                        "--spring.cloud.kubernetes.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        // messages from the outbox are never relayed, because there is no Kafka broker
+                        "--spring.kafka.bootstrap-servers=localhost:9092",
+                        "--spring.kafka.admin.auto-create=false",
+                        "--outbox.relay.interval-ms=" + Integer.MAX_VALUE,
+                        "--match-events.broadcast.bus=local",
+                        "--socket-io.port=0",
+                        "--logging.level.root=WARN"
+                );
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        matchEventService = context.getBean(MatchEventService.class);
+        liveMatchStateRegistry = context.getBean(LiveMatchStateRegistry.class);
+        var matchRepository = context.getBean(MatchRepository.class);
+        var matchEventRepository = context.getBean(MatchEventRepository.class);
+        var matchService = context.getBean(MatchService.class);
+
+        var homeTeam = new Team("Home Team", "", "PL", new Coach("Home Coach"));
+        var awayTeam = new Team("Away Team", "", "PL", new Coach("Away Coach"));
+        var match = new Match();
+        match.setHomeTeam(homeTeam);
+        match.setAwayTeam(awayTeam);
+        match.setVenue(new Venue("Stadium", 50000));
+        match.setStartTimeUTC(LocalDateTime.now());
+        match.setCompetitionId(UUID.randomUUID());
+        match.setHomeLineup(createLineup(homeTeam));
+        match.setAwayLineup(createLineup(awayTeam));
+        transactionTemplate.executeWithoutResult(status -> matchRepository.save(match));
+        matchId = match.getId();
+
+        matchEventService.processEvents(matchId, createHistory(historySize, match.getAwayLineup()));
+
+        matchWithHistory = transactionTemplate.execute(status -> {
+            try {
+                return matchService.findEntityById(matchId);
+            } catch (ResourceNotFoundException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        history = transactionTemplate.execute(status ->
+                matchEventRepository.findAllInOrderByMatchId(matchId)
+                        .stream().map(MatchEvent::getEvent).toList()
+        );
+        lineup = matchService.findMatchLineup(matchId);
+
+        var homeStarting = match.getHomeLineup().getStartingPlayers();
+        var homeSubstitutes = match.getHomeLineup().getSubstitutePlayers();
+        cardEvent = new UpsertCardEventDto("45", id(homeStarting.get(1)), false);
+        goalEvent = new UpsertGoalEventDto("45", id(homeStarting.get(10)), id(homeStarting.get(9)), false);
+        substitutionEvent = new UpsertSubstitutionEventDto("45", id(homeSubstitutes.get(0)), id(homeStarting.get(2)));
+        penaltyEvent = new UpsertPenaltyEventDto("45", id(homeStarting.get(10)), true);
+        commentaryEvent = new UpsertCommentaryEventDto("45", "Commentary of the benchmarked event");
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareLiveState() {
+        // the state is evicted after every rolled back event, so the warm state has to be registered again
+        if (liveState.equals("warm")) {
+            liveMatchStateRegistry.register(LiveMatchState.hydrate(matchWithHistory, lineup, history));
+        } else {
+            liveMatchStateRegistry.evict(matchId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // the socket.io server is not stopped together with the context, and its threads would keep the fork alive
+        context.getBean(SocketIOServer.class).stop();
+        context.close();
+    }
+
+    private void processAndRollback(UpsertMatchEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                matchEventService.processEvent(matchId, event);
+            } catch (Exception ex) {
+                throw new IllegalStateException("benchmarked event has been rejected", ex);
+            }
+            status.flush();
+            status.setRollbackOnly();
+        });
+    }
+
+    @Benchmark
+    public void processCardEvent() {
+        processAndRollback(cardEvent);
+    }
+
+    @Benchmark
+    public void processGoalEvent() {
+        processAndRollback(goalEvent);
+    }
+
+    @Benchmark
+    public void processSubstitutionEvent() {
+        processAndRollback(substitutionEvent);
+    }
+
+    @Benchmark
+    public void processPenaltyEvent() {
+        processAndRollback(penaltyEvent);
+    }
+
+    /**
+     * Commentary does not involve any players, therefore this is the baseline cost of processing an event.
+     */
+    @Benchmark
+    public void processCommentaryEvent() {
+        processAndRollback(commentaryEvent);
+    }
+}
@@ -0,0 +1,55 @@
+package ml.echelon133.benchmarks.socket;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latencies of delivered messages, and summarizes them as percentiles.
+ */
+class LatencyRecorder {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private long[] latencies = new long[1024];
+    private int count;
+
+    synchronized void record(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Summarizes all recorded latencies.
+     *
+     * @return percentiles and the maximum of latencies, in milliseconds
+     */
+    synchronized String summary() {
+        if (count == 0) {
+            return "no messages delivered";
+        }
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        var summary = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            summary.append(String.format("p%s=%.2fms ", format(percentile), toMillis(sorted[Math.max(index, 0)])));
+        }
+        summary.append(String.format("max=%.2fms", toMillis(sorted[count - 1])));
+        return summary.toString();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,144 @@
+package ml.echelon133.benchmarks.socket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+
+/**
+ * Minimal Socket.IO client, which only does what the load test needs: connects to a single namespace over
+ * a websocket, answers pings of the server and passes received events to a handler.
+ *
+ * <p>
+ *     Speaks the protocol of Socket.IO v4 (Engine.IO v4) directly, without falling back to polling,
+ *     therefore thousands of clients can share a single {@link HttpClient}.
+ * </p>
+ */
+class SocketIoTestClient implements WebSocket.Listener {
+
+    private final ObjectMapper objectMapper;
+    private final String namespace;
+    private final BiConsumer<String, JsonNode> eventHandler;
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    private final StringBuilder partialMessage = new StringBuilder();
+    private WebSocket webSocket;
+
+    /**
+     * Creates a client which does not connect until {@link #connect} is called.
+     *
+     * @param objectMapper mapper used for reading payloads of events
+     * @param namespace namespace to which the client connects
+     * @param eventHandler receiver of names and payloads of all events received by the client
+     */
+    SocketIoTestClient(ObjectMapper objectMapper, String namespace, BiConsumer<String, JsonNode> eventHandler) {
+        this.objectMapper = objectMapper;
+        this.namespace = namespace;
+        this.eventHandler = eventHandler;
+    }
+
+    /**
+     * Connects to the namespace of the client.
+     *
+     * @param httpClient client which holds the websocket
+     * @param host address of the Socket.IO server, e.g. {@code localhost:81}
+     * @param query params of the handshake, e.g. {@code match_id=...}
+     * @return future completed once the server accepts the connection to the namespace
+     */
+    CompletableFuture<Void> connect(HttpClient httpClient, String host, String query) {
+        var uri = URI.create("ws://" + host + "/socket.io/?EIO=4&transport=websocket&" + query);
+        httpClient.newWebSocketBuilder()
+                .buildAsync(uri, this)
+                .exceptionally(ex -> {
+                    connected.completeExceptionally(ex);
+                    return null;
+                });
+        return connected;
+    }
+
+    /**
+     * Returns a future which is completed once the connection is closed (by either side).
+     *
+     * @return future of the closing of the connection
+     */
+    CompletableFuture<Void> closed() {
+        return closed;
+    }
+
+    void disconnect() {
+        if (webSocket != null && !webSocket.isOutputClosed()) {
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "");
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.webSocket = webSocket;
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partialMessage.append(data);
+        if (last) {
+            var message = partialMessage.toString();
+            partialMessage.setLength(0);
+            handle(message);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    private void handle(String message) {
+        var prefix = "4" + packetPrefix();
+        if (message.startsWith("0")) {
+            // Engine.IO handshake, after which the client connects to its namespace
+            webSocket.sendText("40" + namespace + ",", true);
+        } else if (message.equals("2")) {
+            // ping of the server
+            webSocket.sendText("3", true);
+        } else if (message.startsWith("40" + namespace)) {
+            connected.complete(null);
+        } else if (message.startsWith("44" + namespace)) {
+            connected.completeExceptionally(new IllegalStateException("connection refused: " + message));
+        } else if (message.startsWith("41" + namespace)) {
+            // disconnected from the namespace by the server
+            connected.completeExceptionally(new IllegalStateException("disconnected during the handshake"));
+            closed.complete(null);
+        } else if (message.startsWith(prefix)) {
+            readEvent(message.substring(prefix.length()));
+        }
+    }
+
+    private String packetPrefix() {
+        // prefix of event packets, e.g. `2/api/ws/match-events,`
+        return "2" + namespace + ",";
+    }
+
+    private void readEvent(String json) {
+        try {
+            var packet = objectMapper.readTree(json);
+            eventHandler.accept(packet.get(0).asText(), packet.get(1));
+        } catch (Exception ex) {
+            throw new IllegalStateException("event could not be read: " + json, ex);
+        }
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        connected.completeExceptionally(new IllegalStateException("closed during the handshake"));
+        closed.complete(null);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        connected.completeExceptionally(error);
+        closed.complete(null);
+    }
+}
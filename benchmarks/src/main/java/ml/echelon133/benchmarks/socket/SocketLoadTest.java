@@ -0,0 +1,426 @@
+package ml.echelon133.benchmarks.socket;
+
+import com.corundumstudio.socketio.SocketIOServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.coach.model.Coach;
+import ml.echelon133.matchservice.event.model.dto.*;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.team.model.Team;
+import ml.echelon133.matchservice.venue.model.Venue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static ml.echelon133.benchmarks.MatchFixtures.createLineup;
+import static ml.echelon133.benchmarks.MatchFixtures.id;
+
+/**
+ * Load test of the websocket server, which finds out how many watchers of matches a single replica of the service
+ * can serve, and how quickly events reach them.
+ *
+ * <p>
+ *     Starts the whole match service against an in-memory H2 database, with the local broadcast bus standing in
+ *     for Kafka, and creates matches with full lineups. Then it connects watchers of these matches (spread evenly
+ *     across the rooms of all matches) and watchers of global events, and posts a scripted feed of events of every
+ *     match through {@code POST /api/matches/{id}/events}.
+ * </p>
+ * <p>
+ *     Reports the latency between posting an event and its delivery to watchers (events of matches are
+ *     identified by their sequence numbers, global events by the order of goals of their matches), and the number
+ *     of events which have never been delivered.
+ * </p>
+ * <p>
+ *     Runs with {@code mvn -f benchmarks/pom.xml exec:exec -Dbenchmark.main=ml.echelon133.benchmarks.socket.SocketLoadTest
+ *     -Dbenchmark.args="--matches=50 --match-watchers=5000"}, where all options are:
+ *     <ul>
+ *         <li>matches - number of matches played at the same time (default 10)</li>
+ *         <li>match-watchers - number of watchers of events of matches (default 1000)</li>
+ *         <li>global-watchers - number of watchers of global events (default 100)</li>
+ *         <li>global-format - format of frames of global events, json or compact (default json)</li>
+ *         <li>events-per-match - number of events posted to every match (default 50)</li>
+ *         <li>events-per-second - number of events posted to every match every second (default 2)</li>
+ *         <li>connect-batch - number of watchers which connect at the same time (default 200)</li>
+ *         <li>server.* - properties of the service, with the prefix removed (e.g.
+ *         {@code --server.socket-io.websocket-compression=true}), which override its configuration</li>
+ *     </ul>
+ * </p>
+ */
+public class SocketLoadTest {
+
+    private static final String MATCH_NAMESPACE = "/api/ws/match-events";
+    private static final String GLOBAL_NAMESPACE = "/api/ws/global-match-events";
+    // every GOAL_EVERY-th event of a match is a goal, all other events (except the first and the last one,
+    // which change the status of the match) are commentary
+    private static final int GOAL_EVERY = 10;
+    // options with this prefix are passed to the service as its properties (without the prefix)
+    private static final String SERVER_PROPERTY_PREFIX = "server.";
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = MatchServiceApplication.objectMapper();
+    private final ObjectWriter eventWriter = objectMapper.writerFor(UpsertMatchEvent.class);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final List<SocketIoTestClient> clients = new ArrayList<>();
+
+    private final LatencyRecorder matchLatencies = new LatencyRecorder();
+    private final LatencyRecorder globalLatencies = new LatencyRecorder();
+    private final AtomicLong matchEventsReceived = new AtomicLong();
+    private final AtomicLong globalGoalsReceived = new AtomicLong();
+    private final AtomicInteger rejectedEvents = new AtomicInteger();
+    private final AtomicInteger failedConnections = new AtomicInteger();
+
+    /**
+     * Match whose events are posted by the load test.
+     */
+    private static class WatchedMatch {
+        final UUID id;
+        final String scoringPlayerId;
+        final int watchers;
+        // times at which events were posted, by their sequence numbers
+        final long[] postedAtNanos;
+        // times at which goals were posted, in the order of goals
+        final List<Long> goalsPostedAtNanos = new CopyOnWriteArrayList<>();
+        volatile int acceptedEvents;
+
+        WatchedMatch(UUID id, String scoringPlayerId, int watchers, int events) {
+            this.id = id;
+            this.scoringPlayerId = scoringPlayerId;
+            this.watchers = watchers;
+            this.postedAtNanos = new long[events + 1];
+        }
+    }
+
+    private SocketLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    private int option(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("options have to be given as --name=value, got " + arg);
+            }
+            var separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new SocketLoadTest(parseOptions(args)).run();
+        // threads of the http client and the socket.io server are not daemons
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        int matchCount = option("matches", 10);
+        int matchWatchers = option("match-watchers", 1000);
+        int globalWatchers = option("global-watchers", 100);
+        int eventsPerMatch = option("events-per-match", 50);
+        int eventsPerSecond = option("events-per-second", 2);
+        boolean compact = options.getOrDefault("global-format", "json").equals("compact");
+
+        int socketPort = findFreePort();
+        var context = startService(socketPort);
+        try {
+            int httpPort = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            var socketHost = "localhost:" + socketPort;
+
+            var matches = createMatches(context, matchCount, matchWatchers, eventsPerMatch);
+            Map<UUID, WatchedMatch> matchesById = new HashMap<>();
+            matches.forEach(match -> matchesById.put(match.id, match));
+
+            long connectStart = System.nanoTime();
+            connectMatchWatchers(socketHost, matches);
+            connectGlobalWatchers(socketHost, globalWatchers, compact, matchesById);
+            System.out.printf("Connected %d watchers in %d ms (%d failed)%n",
+                    clients.size() - failedConnections.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart),
+                    failedConnections.get());
+
+            long feedStart = System.nanoTime();
+            postFeeds(httpPort, matches, eventsPerMatch, eventsPerSecond);
+            long feedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - feedStart);
+            // gives the last events (and the last frame of global events) time to reach all watchers
+            Thread.sleep(2000);
+
+            report(context, matches, globalWatchers, feedMillis);
+        } finally {
+            clients.forEach(SocketIoTestClient::disconnect);
+            context.getBean(SocketIOServer.class).stop();
+            context.close();
+        }
+    }
+
+    private static int findFreePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private ConfigurableApplicationContext startService(int socketPort) {
+        // passed as arguments, because they have to override the configuration of the service
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.cloud.kubernetes.enabled", "false");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:socket-load-test;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        // messages from the outbox are never relayed, because there is no Kafka broker
+        properties.put("spring.kafka.bootstrap-servers", "localhost:9092");
+        properties.put("spring.kafka.admin.auto-create", "false");
+        properties.put("outbox.relay.interval-ms", String.valueOf(Integer.MAX_VALUE));
+        // events are broadcast in-process, instead of through Kafka
+        properties.put("match-events.broadcast.bus", "local");
+        properties.put("socket-io.port", String.valueOf(socketPort));
+        properties.put("logging.level.root", "WARN");
+        // replaced rather than repeated, because values of repeated arguments are joined with commas
+        options.forEach((name, value) -> {
+            if (name.startsWith(SERVER_PROPERTY_PREFIX)) {
+                properties.put(name.substring(SERVER_PROPERTY_PREFIX.length()), value);
+            }
+        });
+
+        var args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MatchServiceApplication.class).run(args);
+    }
+
+    private static List<WatchedMatch> createMatches(
+            ConfigurableApplicationContext context, int count, int watchers, int eventsPerMatch
+    ) {
+        var transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        var matchRepository = context.getBean(MatchRepository.class);
+
+        List<WatchedMatch> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var homeTeam = new Team("Home Team " + i, "", "PL", new Coach("Home Coach " + i));
+            var awayTeam = new Team("Away Team " + i, "", "PL", new Coach("Away Coach " + i));
+            var match = new Match();
+            match.setHomeTeam(homeTeam);
+            match.setAwayTeam(awayTeam);
+            match.setVenue(new Venue("Stadium " + i, 50000));
+            match.setStartTimeUTC(LocalDateTime.now());
+            match.setCompetitionId(UUID.randomUUID());
+            match.setHomeLineup(createLineup(homeTeam));
+            match.setAwayLineup(createLineup(awayTeam));
+            transactionTemplate.executeWithoutResult(status -> matchRepository.save(match));
+
+            // watchers are spread as evenly as possible across all matches
+            int watchersOfMatch = watchers / count + (i < watchers % count ? 1 : 0);
+            var scoringPlayer = match.getHomeLineup().getStartingPlayers().get(10);
+            matches.add(new WatchedMatch(match.getId(), id(scoringPlayer), watchersOfMatch, eventsPerMatch));
+        }
+        return matches;
+    }
+
+    private void connectMatchWatchers(String socketHost, List<WatchedMatch> matches) throws InterruptedException {
+        List<SocketIoTestClient> watchers = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (var match : matches) {
+            for (int i = 0; i < match.watchers; i++) {
+                watchers.add(new SocketIoTestClient(objectMapper, MATCH_NAMESPACE, (name, payload) -> {
+                    if (name.equals("match-event")) {
+                        var sequence = payload.get("sequence").asInt();
+                        matchLatencies.record(System.nanoTime() - match.postedAtNanos[sequence]);
+                        matchEventsReceived.incrementAndGet();
+                    }
+                }));
+                queries.add("match_id=" + match.id);
+            }
+        }
+        connectAll(socketHost, watchers, queries);
+    }
+
+    private void connectGlobalWatchers(
+            String socketHost, int count, boolean compact, Map<UUID, WatchedMatch> matchesById
+    ) throws InterruptedException {
+        List<SocketIoTestClient> watchers = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // number of goals of every match received by this watcher, and handles of matches of compact frames
+            Map<UUID, Integer> receivedGoals = new ConcurrentHashMap<>();
+            Map<Integer, UUID> handles = new ConcurrentHashMap<>();
+            watchers.add(new SocketIoTestClient(objectMapper, GLOBAL_NAMESPACE, (name, payload) -> {
+                switch (name) {
+                    case "global-match-events" -> payload.get("events").forEach(event -> {
+                        if (event.get("type").asText().equals("GOAL")) {
+                            recordGoal(matchesById.get(UUID.fromString(event.get("matchId").asText())), receivedGoals);
+                        }
+                    });
+                    case "compact-global-match-events-legend" -> readHandles(payload.get("matches"), handles);
+                    case "compact-global-match-events" -> {
+                        readHandles(payload.get("m"), handles);
+                        payload.get("e").forEach(event -> {
+                            // goals have the type with index 0
+                            if (event.get(1).asInt() == 0) {
+                                recordGoal(matchesById.get(handles.get(event.get(0).asInt())), receivedGoals);
+                            }
+                        });
+                    }
+                    default -> {}
+                }
+            }));
+            queries.add(compact ? "format=compact" : "format=json");
+        }
+        connectAll(socketHost, watchers, queries);
+    }
+
+    private static void readHandles(JsonNode matches, Map<Integer, UUID> handles) {
+        if (matches != null) {
+            matches.fields().forEachRemaining(entry ->
+                    handles.put(Integer.valueOf(entry.getKey()), UUID.fromString(entry.getValue().asText()))
+            );
+        }
+    }
+
+    private void recordGoal(WatchedMatch match, Map<UUID, Integer> receivedGoals) {
+        int goal = receivedGoals.merge(match.id, 1, Integer::sum) - 1;
+        globalLatencies.record(System.nanoTime() - match.goalsPostedAtNanos.get(goal));
+        globalGoalsReceived.incrementAndGet();
+    }
+
+    private void connectAll(String socketHost, List<SocketIoTestClient> watchers, List<String> queries)
+            throws InterruptedException {
+        int batchSize = option("connect-batch", 200);
+        for (int from = 0; from < watchers.size(); from += batchSize) {
+            List<CompletableFuture<Void>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, watchers.size()); i++) {
+                var watcher = watchers.get(i);
+                clients.add(watcher);
+                batch.add(watcher.connect(httpClient, socketHost, queries.get(i)));
+            }
+            for (var connection : batch) {
+                try {
+                    connection.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException ex) {
+                    failedConnections.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static UpsertMatchEvent scriptedEvent(WatchedMatch match, int index, int eventsPerMatch) {
+        var minute = String.valueOf(1 + (index * 44 / eventsPerMatch));
+        if (index == 0) {
+            return new UpsertStatusEventDto(minute, MatchStatus.FIRST_HALF.name());
+        } else if (index == eventsPerMatch - 1) {
+            return new UpsertStatusEventDto(minute, MatchStatus.HALF_TIME.name());
+        } else if (index % GOAL_EVERY == 0) {
+            return new UpsertGoalEventDto(minute, match.scoringPlayerId, null, false);
+        }
+        return new UpsertCommentaryEventDto(minute, "Commentary of the event number " + index);
+    }
+
+    /**
+     * Posts all events of every match (events of a single match one after another), at the given rate.
+     */
+    private void postFeeds(int httpPort, List<WatchedMatch> matches, int eventsPerMatch, int eventsPerSecond)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond;
+        var feeds = Executors.newFixedThreadPool(Math.min(matches.size(), 64));
+        for (var match : matches) {
+            feeds.execute(() -> {
+                long nextPostAt = System.nanoTime();
+                for (int i = 0; i < eventsPerMatch; i++) {
+                    var event = scriptedEvent(match, i, eventsPerMatch);
+                    // the event gets the next sequence number if it's accepted
+                    int sequence = match.acceptedEvents + 1;
+                    long postedAt = System.nanoTime();
+                    match.postedAtNanos[sequence] = postedAt;
+                    if (event instanceof UpsertGoalEventDto) {
+                        match.goalsPostedAtNanos.add(postedAt);
+                    }
+                    if (post(httpPort, match.id, event)) {
+                        match.acceptedEvents = sequence;
+                    } else {
+                        rejectedEvents.incrementAndGet();
+                        if (event instanceof UpsertGoalEventDto) {
+                            match.goalsPostedAtNanos.remove(match.goalsPostedAtNanos.size() - 1);
+                        }
+                    }
+
+                    nextPostAt += intervalNanos;
+                    long sleepNanos = nextPostAt - System.nanoTime();
+                    if (sleepNanos > 0) {
+                        LockSupport.parkNanos(sleepNanos);
+                    }
+                }
+            });
+        }
+        feeds.shutdown();
+        feeds.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private boolean post(int httpPort, UUID matchId, UpsertMatchEvent event) {
+        try {
+            var request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + httpPort + "/api/matches/" + matchId + "/events"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(eventWriter.writeValueAsString(event)))
+                    .build();
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200;
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void report(ConfigurableApplicationContext context, List<WatchedMatch> matches, int globalWatchers, long feedMillis) {
+        long postedEvents = 0;
+        long expectedMatchEvents = 0;
+        long expectedGlobalGoals = 0;
+        for (var match : matches) {
+            postedEvents += match.acceptedEvents;
+            expectedMatchEvents += (long) match.acceptedEvents * match.watchers;
+            expectedGlobalGoals += (long) match.goalsPostedAtNanos.size() * globalWatchers;
+        }
+        var meterRegistry = context.getBean(MeterRegistry.class);
+
+        System.out.printf("Posted %d events in %d ms (%d rejected)%n", postedEvents, feedMillis, rejectedEvents.get());
+        System.out.printf("Events of matches: %d of %d delivered, %d dropped%n",
+                matchEventsReceived.get(), expectedMatchEvents, expectedMatchEvents - matchEventsReceived.get());
+        System.out.printf("  latency: %s%n", matchLatencies.summary());
+        System.out.printf("Global goals: %d of %d delivered, %d dropped%n",
+                globalGoalsReceived.get(), expectedGlobalGoals, expectedGlobalGoals - globalGoalsReceived.get());
+        System.out.printf("  latency: %s%n", globalLatencies.summary());
+        System.out.printf("Server: %.0f frames dropped for slow clients, %.0f clients evicted%n",
+                counterValue(meterRegistry, "match.events.websocket.frames.dropped"),
+                counterValue(meterRegistry, "match.events.websocket.evictions"));
+    }
+
+    private static double counterValue(MeterRegistry meterRegistry, String name) {
+        var counter = meterRegistry.find(name).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -3,4 +3,6 @@ package ml.echelon133.common.event;
 public class KafkaTopicNames {
     public static final String MATCH_INFO = "match-info";
     public static final String MATCH_EVENTS = "match-events";
+    public static final String MATCH_BROADCASTS = "match-broadcasts";
+    public static final String COMPETITION_INFO = "competition-info";
 }
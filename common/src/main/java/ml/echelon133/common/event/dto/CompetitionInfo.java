@@ -0,0 +1,37 @@
+package ml.echelon133.common.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.UUID;
+
+/**
+ * Event used for invalidating information about a competition which other services keep locally.
+ */
+@JsonTypeInfo(
+        use = JsonTypeInfo.Id.NAME,
+        include = JsonTypeInfo.As.EXTERNAL_PROPERTY,
+        property = "type",
+        visible = true
+)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = CompetitionInfo.DeletionEvent.class, name = "DELETION"),
+})
+@JsonIgnoreProperties(value = "type")
+public sealed interface CompetitionInfo permits CompetitionInfo.DeletionEvent {
+
+    enum EventType {
+        DELETION
+    }
+
+    String type();
+    UUID competitionId();
+
+    record DeletionEvent(UUID competitionId) implements CompetitionInfo {
+        @Override
+        public String type() {
+            return EventType.DELETION.name();
+        }
+    }
+}
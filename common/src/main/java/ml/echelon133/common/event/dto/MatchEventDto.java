@@ -4,6 +4,11 @@ import java.util.UUID;
 
 /**
  * Represents already processed match events presented to the client of the API.
+ *
+ * @param id id of the event
+ * @param sequence number of the event in its match (starting from 1), which increases monotonically
+ *                 with every event of that match. Events saved before sequence numbers existed have `null` here
+ * @param event details of the event
  */
-public record MatchEventDto(UUID id, MatchEventDetails event) {
+public record MatchEventDto(UUID id, Long sequence, MatchEventDetails event) {
 }
@@ -0,0 +1,32 @@
+package ml.echelon133.common.event.dto.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ml.echelon133.common.event.dto.CompetitionInfo;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Serializer of {@link ml.echelon133.common.event.dto.CompetitionInfo} used by Kafka.
+ */
+public class CompetitionInfoSerializer implements Serializer<CompetitionInfo> {
+
+    private static final ObjectMapper mapper = KafkaObjectMapper.getInstance();
+    private final Logger logger = LoggerFactory.getLogger(CompetitionInfoSerializer.class);
+
+    @Override
+    public byte[] serialize(String s, CompetitionInfo competitionInfo) {
+        try {
+            if (competitionInfo == null) {
+                logger.warn("null passed to the serializer");
+                return null;
+            }
+            return mapper.writeValueAsBytes(competitionInfo);
+        } catch (IOException e) {
+            throw new SerializationException("failed to serialize CompetitionInfo to byte[]: " + e.getMessage());
+        }
+    }
+}
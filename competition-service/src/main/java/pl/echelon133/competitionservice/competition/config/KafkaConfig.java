@@ -1,22 +1,32 @@
 package pl.echelon133.competitionservice.competition.config;
 
 import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.common.event.dto.CompetitionInfo;
 import ml.echelon133.common.event.dto.MatchEventDetails;
 import ml.echelon133.common.event.dto.MatchInfo;
+import ml.echelon133.common.event.dto.kafka.CompetitionInfoSerializer;
 import ml.echelon133.common.event.dto.kafka.MatchEventDetailsDeserializer;
 import ml.echelon133.common.event.dto.kafka.MatchInfoDeserializer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.UUIDDeserializer;
+import org.apache.kafka.common.serialization.UUIDSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.echelon133.competitionservice.competition.repository.CompetitionMatchRepository;
+import pl.echelon133.competitionservice.competition.repository.ProcessedMatchEventRepository;
 import pl.echelon133.competitionservice.competition.repository.UnassignedMatchRepository;
 import pl.echelon133.competitionservice.competition.service.MatchEventDetailsMessageListener;
 import pl.echelon133.competitionservice.competition.service.MatchInfoMessageListener;
@@ -35,6 +45,8 @@ public class KafkaConfig {
 
     private final PlayerStatsService playerStatsService; // required by the MatchEventDetailsMessageListener
     private final TeamStatsService teamStatsService;     // required by the MatchEventDetailsMessageListener
+    private final ProcessedMatchEventRepository processedMatchEventRepository; // required by the MatchEventDetailsMessageListener
+    private final PlatformTransactionManager transactionManager; // required by the MatchEventDetailsMessageListener
     private final UnassignedMatchRepository unassignedMatchRepository; // required by the MatchInfoMessageListener
     private final CompetitionMatchRepository competitionMatchRepository; // required by the MatchInfoMessageListener
 
@@ -42,11 +54,15 @@ public class KafkaConfig {
     public KafkaConfig(
             PlayerStatsService playerStatsService,
             TeamStatsService teamStatsService,
+            ProcessedMatchEventRepository processedMatchEventRepository,
+            PlatformTransactionManager transactionManager,
             UnassignedMatchRepository unassignedMatchRepository,
             CompetitionMatchRepository competitionMatchRepository
     ) {
         this.playerStatsService = playerStatsService;
         this.teamStatsService = teamStatsService;
+        this.processedMatchEventRepository = processedMatchEventRepository;
+        this.transactionManager = transactionManager;
         this.unassignedMatchRepository = unassignedMatchRepository;
         this.competitionMatchRepository = competitionMatchRepository;
     }
@@ -55,7 +71,12 @@ public class KafkaConfig {
     KafkaMessageListenerContainer<UUID, MatchEventDetails> matchEventDetailsListenerContainer() {
         ContainerProperties containerProps = new ContainerProperties(KafkaTopicNames.MATCH_EVENTS);
         containerProps.setMessageListener(
-                new MatchEventDetailsMessageListener(playerStatsService, teamStatsService)
+                new MatchEventDetailsMessageListener(
+                        playerStatsService,
+                        teamStatsService,
+                        processedMatchEventRepository,
+                        new TransactionTemplate(transactionManager)
+                )
         );
 
         ConsumerFactory<UUID, MatchEventDetails> consumerFactory = matchEventDetailsConsumerFactory();
@@ -100,4 +121,27 @@ public class KafkaConfig {
                 new MatchInfoDeserializer()
         );
     }
+
+    // records of this topic are sent by the CompetitionInfoPublisher
+    @Bean
+    public NewTopic competitionInfoTopic() {
+        return TopicBuilder
+                .name(KafkaTopicNames.COMPETITION_INFO)
+                .partitions(2)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public KafkaProducer<UUID, CompetitionInfo> competitionInfoKafkaProducer() {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, "all"
+        );
+        return new KafkaProducer<>(
+                props,
+                new UUIDSerializer(),
+                new CompetitionInfoSerializer()
+        );
+    }
 }
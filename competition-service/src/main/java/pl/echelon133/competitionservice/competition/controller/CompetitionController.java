@@ -16,6 +16,7 @@ import pl.echelon133.competitionservice.competition.service.CompetitionService;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -102,6 +103,11 @@ public class CompetitionController {
         return competitionService.findCompetitionsByName(name, pageable);
     }
 
+    @GetMapping(params = "competitionIds")
+    public List<CompetitionDto> getCompetitionsByIds(@RequestParam Set<UUID> competitionIds) {
+        return competitionService.findAllByIds(competitionIds);
+    }
+
     @GetMapping("/pinned")
     public List<CompetitionDto> getPinnedCompetitions() {
         return competitionService.findPinnedCompetitions();
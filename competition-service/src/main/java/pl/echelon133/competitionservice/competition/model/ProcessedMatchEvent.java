@@ -0,0 +1,49 @@
+package pl.echelon133.competitionservice.competition.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Id;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Id of a match event received from Kafka, whose processing has already updated the statistics.
+ *
+ * Records with match events can be delivered more than once (e.g. when the match-service sends them again,
+ * because it did not learn that Kafka has acknowledged them), therefore ids of processed events are saved
+ * in the same transaction as the statistics, and events whose ids have already been saved are skipped.
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class ProcessedMatchEvent {
+
+    @Id
+    private UUID id;
+
+    @CreatedDate
+    private Date dateProcessed;
+
+    public ProcessedMatchEvent() {}
+    public ProcessedMatchEvent(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Date getDateProcessed() {
+        return dateProcessed;
+    }
+
+    public void setDateProcessed(Date dateProcessed) {
+        this.dateProcessed = dateProcessed;
+    }
+}
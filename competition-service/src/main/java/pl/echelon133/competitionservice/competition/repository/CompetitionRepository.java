@@ -10,6 +10,7 @@ import pl.echelon133.competitionservice.competition.model.CompetitionDto;
 import pl.echelon133.competitionservice.competition.model.LabeledMatch;
 import pl.echelon133.competitionservice.competition.model.PlayerStatsDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +37,26 @@ public interface CompetitionRepository extends JpaRepository<Competition, UUID>
     )
     Optional<CompetitionDto> findCompetitionById(UUID competitionId);
 
+    /**
+     * Finds all non-deleted competitions with the specified ids.
+     *
+     * @param competitionIds ids of the competitions
+     * @return a list of non-deleted competitions whose ids are among the specified ids (in no particular order)
+     */
+    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
+    @Query(
+            value = """
+                    SELECT CAST(c.id as varchar) as id, c.name as name, c.season as season, c.logo_url as logoUrl, \
+                    c.league_phase_id IS NOT NULL as leaguePhase, c.knockout_phase_id IS NOT NULL as knockoutPhase, \
+                    CASE WHEN c.league_phase_id IS NULL THEN 0 ELSE lp.max_rounds END as maxRounds \
+                    FROM competition c \
+                    LEFT JOIN league_phase lp ON lp.id = c.league_phase_id \
+                    WHERE c.id IN :competitionIds AND c.deleted = false \
+                    """,
+            nativeQuery = true
+    )
+    List<CompetitionDto> findAllCompetitionsByIds(Collection<UUID> competitionIds);
+
     /**
      * Marks the competition with the specified id as deleted.
      *
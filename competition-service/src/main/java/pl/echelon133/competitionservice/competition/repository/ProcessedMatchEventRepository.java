@@ -0,0 +1,9 @@
+package pl.echelon133.competitionservice.competition.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import pl.echelon133.competitionservice.competition.model.ProcessedMatchEvent;
+
+import java.util.UUID;
+
+public interface ProcessedMatchEventRepository extends JpaRepository<ProcessedMatchEvent, UUID> {
+}
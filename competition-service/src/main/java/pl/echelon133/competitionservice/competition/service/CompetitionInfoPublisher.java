@@ -0,0 +1,63 @@
+package pl.echelon133.competitionservice.competition.service;
+
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.common.event.dto.CompetitionInfo;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Lets other services know that information about a competition, which they might keep locally
+ * (e.g. match-service caches competitions displayed next to their matches), is no longer valid.
+ */
+@Service
+public class CompetitionInfoPublisher {
+
+    private final static Logger logger = LoggerFactory.getLogger(CompetitionInfoPublisher.class);
+
+    private final KafkaProducer<UUID, CompetitionInfo> competitionInfoKafkaProducer;
+
+    @Autowired
+    public CompetitionInfoPublisher(KafkaProducer<UUID, CompetitionInfo> competitionInfoKafkaProducer) {
+        this.competitionInfoKafkaProducer = competitionInfoKafkaProducer;
+    }
+
+    /**
+     * Publishes the event once the current transaction commits (or right away if there is no transaction),
+     * so that other services never drop information about a competition whose change has been rolled back.
+     *
+     * @param competitionInfo event to publish
+     */
+    public void publishAfterCommit(CompetitionInfo competitionInfo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(competitionInfo);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(competitionInfo);
+            }
+        });
+    }
+
+    private void publish(CompetitionInfo competitionInfo) {
+        var competitionId = competitionInfo.competitionId();
+        competitionInfoKafkaProducer.send(
+                new ProducerRecord<>(KafkaTopicNames.COMPETITION_INFO, competitionId, competitionInfo),
+                (metadata, ex) -> {
+                    // other services stop using outdated information once it expires from their caches
+                    if (ex != null) {
+                        logger.error("Event {} of competition {} could not be sent", competitionInfo.type(), competitionId, ex);
+                    }
+                }
+        );
+    }
+}
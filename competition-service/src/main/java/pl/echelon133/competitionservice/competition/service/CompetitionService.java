@@ -1,6 +1,7 @@
 package pl.echelon133.competitionservice.competition.service;
 
 import jakarta.transaction.Transactional;
+import ml.echelon133.common.event.dto.CompetitionInfo;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -35,6 +36,7 @@ public class CompetitionService {
     private final UnassignedMatchRepository unassignedMatchRepository;
     private final LeagueSlotRepository leagueSlotRepository;
     private final Executor asyncExecutor;
+    private final CompetitionInfoPublisher competitionInfoPublisher;
 
     @Autowired
     public CompetitionService(
@@ -42,13 +44,15 @@ public class CompetitionService {
             MatchServiceClient matchServiceClient,
             UnassignedMatchRepository unassignedMatchRepository,
             LeagueSlotRepository leagueSlotRepository,
-            Executor asyncExecutor
+            Executor asyncExecutor,
+            CompetitionInfoPublisher competitionInfoPublisher
     ) {
         this.competitionRepository = competitionRepository;
         this.matchServiceClient = matchServiceClient;
         this.unassignedMatchRepository = unassignedMatchRepository;
         this.leagueSlotRepository = leagueSlotRepository;
         this.asyncExecutor = asyncExecutor;
+        this.competitionInfoPublisher = competitionInfoPublisher;
     }
 
     /**
@@ -64,6 +68,20 @@ public class CompetitionService {
                 .orElseThrow(() -> new ResourceNotFoundException(Competition.class, competitionId));
     }
 
+    /**
+     * Returns the information about all non-deleted competitions with specified ids. Competitions which
+     * do not exist (or are deleted) are omitted from the result.
+     *
+     * @param competitionIds ids of the competitions
+     * @return a list of dtos representing the found competitions
+     */
+    public List<CompetitionDto> findAllByIds(Collection<UUID> competitionIds) {
+        if (competitionIds.isEmpty()) {
+            return List.of();
+        }
+        return competitionRepository.findAllCompetitionsByIds(competitionIds);
+    }
+
     /**
      * Returns the entity representing a competition with the specified id.
      * @param competitionId id of the competition's entity
@@ -525,7 +543,12 @@ public class CompetitionService {
      * @return how many entities have been affected
      */
     public Integer markCompetitionAsDeleted(UUID id)  {
-        return competitionRepository.markCompetitionAsDeleted(id);
+        var deleted = competitionRepository.markCompetitionAsDeleted(id);
+        if (deleted > 0) {
+            // other services should stop displaying the competition next to its matches
+            competitionInfoPublisher.publishAfterCommit(new CompetitionInfo.DeletionEvent(id));
+        }
+        return deleted;
     }
 
     /**
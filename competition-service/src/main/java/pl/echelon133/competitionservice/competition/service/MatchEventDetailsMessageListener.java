@@ -1,6 +1,5 @@
 package pl.echelon133.competitionservice.competition.service;
 
-import jakarta.transaction.Transactional;
 import ml.echelon133.common.event.dto.*;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchResult;
@@ -10,21 +9,41 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.listener.MessageListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.echelon133.competitionservice.competition.model.PlayerStats;
+import pl.echelon133.competitionservice.competition.model.ProcessedMatchEvent;
+import pl.echelon133.competitionservice.competition.repository.ProcessedMatchEventRepository;
 
 import java.util.List;
 import java.util.UUID;
 
-@Transactional
+/**
+ * Updates the statistics of teams and players based on match events received from Kafka.
+ *
+ * <p>
+ *     Every record is processed in a single transaction, which also saves the id of the event (the key of the record)
+ *     as a {@link ProcessedMatchEvent}. Records whose events have already been processed are skipped, therefore
+ *     records delivered more than once do not update the statistics more than once.
+ * </p>
+ */
 public class MatchEventDetailsMessageListener implements MessageListener<UUID, MatchEventDetails> {
 
     private final Logger logger = LoggerFactory.getLogger(MatchEventDetailsMessageListener.class);
     private final PlayerStatsService playerStatsService;
     private final TeamStatsService teamStatsService;
+    private final ProcessedMatchEventRepository processedMatchEventRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public MatchEventDetailsMessageListener(PlayerStatsService playerStatsService, TeamStatsService teamStatsService) {
+    public MatchEventDetailsMessageListener(
+            PlayerStatsService playerStatsService,
+            TeamStatsService teamStatsService,
+            ProcessedMatchEventRepository processedMatchEventRepository,
+            TransactionTemplate transactionTemplate
+    ) {
         this.playerStatsService = playerStatsService;
         this.teamStatsService = teamStatsService;
+        this.processedMatchEventRepository = processedMatchEventRepository;
+        this.transactionTemplate = transactionTemplate;
 
         logger.info(
                 "Initialized with PlayerStatsService {} and TeamStatsService {}",
@@ -39,17 +58,47 @@ public class MatchEventDetailsMessageListener implements MessageListener<UUID, M
         var recordId = record.key();
         var event = record.value();
 
-        try {
-            switch (event) {
-                case StatusEventDetailsDto statusEvent -> processStatusEvent(recordId, statusEvent);
-                case CardEventDetailsDto cardEvent -> processCardEvent(recordId, cardEvent);
-                case GoalEventDetailsDto goalEvent -> processGoalEvent(recordId, goalEvent);
-                case PenaltyEventDetailsDto penaltyEvent -> processPenaltyEvent(recordId, penaltyEvent);
-                default -> logNoOperation(recordId, "The event does not contain any data about teams or players");
-            }
-        } catch (ResourceNotFoundException ex) {
-            logProcessingFailure(recordId, ex.getMessage());
+        if (!updatesStatistics(event)) {
+            logNoOperation(recordId, "The event does not contain any data about teams or players");
+            return;
         }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (processedMatchEventRepository.existsById(recordId)) {
+                logNoOperation(recordId, "The event has already been processed");
+                return;
+            }
+
+            try {
+                switch (event) {
+                    case StatusEventDetailsDto statusEvent -> processStatusEvent(recordId, statusEvent);
+                    case CardEventDetailsDto cardEvent -> processCardEvent(recordId, cardEvent);
+                    case GoalEventDetailsDto goalEvent -> processGoalEvent(recordId, goalEvent);
+                    case PenaltyEventDetailsDto penaltyEvent -> processPenaltyEvent(recordId, penaltyEvent);
+                    default -> {}
+                }
+                processedMatchEventRepository.save(new ProcessedMatchEvent(recordId));
+            } catch (ResourceNotFoundException ex) {
+                // statistics which have already been updated by this event are rolled back, because the event
+                // is not marked as processed, and its redelivery would update them again
+                status.setRollbackOnly();
+                logProcessingFailure(recordId, ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Checks whether an event might update the statistics. Only ids of such events are saved, so that
+     * other events (e.g. commentary) do not fill the table of processed events.
+     *
+     * @param event event received from Kafka
+     * @return `true` if the event might update the statistics
+     */
+    private static boolean updatesStatistics(MatchEventDetails event) {
+        return event instanceof StatusEventDetailsDto ||
+                event instanceof CardEventDetailsDto ||
+                event instanceof GoalEventDetailsDto ||
+                event instanceof PenaltyEventDetailsDto;
     }
 
     /**
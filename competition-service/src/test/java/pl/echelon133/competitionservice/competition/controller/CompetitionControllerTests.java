@@ -273,6 +273,43 @@ public class CompetitionControllerTests {
                 .andExpect(jsonPath("$.content[0].name", is(pValue)));
     }
 
+    @Test
+    @DisplayName("GET /api/competitions?competitionIds= returns 200 and the competitions with the requested ids")
+    public void getCompetitionsByIds_IdsProvided_StatusOk() throws Exception {
+        var competitionId0 = UUID.randomUUID();
+        var competitionId1 = UUID.randomUUID();
+        var expectedContent = List.of(
+                CompetitionDto.from(competitionId0, "Competition 0", "test2", "test3", true, 1, true)
+        );
+
+        // given
+        given(competitionService.findAllByIds(Set.of(competitionId0, competitionId1))).willReturn(expectedContent);
+
+        // when
+        mvc.perform(
+                        get("/api/competitions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .param("competitionIds", competitionId0.toString(), competitionId1.toString())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$.[0].id", is(competitionId0.toString())));
+        verify(competitionService, never()).findCompetitionsByName(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/competitions?competitionIds= returns 400 when an id is not a valid uuid")
+    public void getCompetitionsByIds_InvalidId_StatusBadRequest() throws Exception {
+        mvc.perform(
+                        get("/api/competitions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .param("competitionIds", "a")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/competitions/pinned returns 200")
     public void getPinnedCompetitions_NoRequestParameters_StatusOk() throws Exception {
@@ -285,6 +285,27 @@ public class CompetitionRepositoryTests {
         assertTrue(receivedCompetition.getKnockoutPhase());
     }
 
+    @Test
+    @DisplayName("findAllCompetitionsByIds native query only fetches non-deleted competitions with the specified ids")
+    public void findAllCompetitionsByIds_MultipleCombinationsOfCompetitions_OnlyFindsRequestedNonDeletedCompetitions() {
+        var deletedCompetition = competitionRepository.save(TestCompetition.builder().deleted(true).build());
+        // competition which is not requested
+        competitionRepository.save(TestCompetition.builder().build());
+        var expectedCompetition0 = competitionRepository.save(TestCompetition.builder().name("Competition0").build());
+        var expectedCompetition1 = competitionRepository.save(TestCompetition.builder().name("Competition1").build());
+
+        // when
+        var result = competitionRepository.findAllCompetitionsByIds(List.of(
+                deletedCompetition.getId(), expectedCompetition0.getId(), expectedCompetition1.getId(), UUID.randomUUID()
+        ));
+
+        // then
+        assertEquals(2, result.size());
+        var resultById = result.stream().collect(toMap(CompetitionDto::getId, c -> c));
+        assertEntityAndDtoEqual(expectedCompetition0, resultById.get(expectedCompetition0.getId()));
+        assertEntityAndDtoEqual(expectedCompetition1, resultById.get(expectedCompetition1.getId()));
+    }
+
     @Test
     @DisplayName("findAllPinned native query only fetches non-deleted competitions which are marked as pinned")
     public void findAllPinned_MultipleCombinationsOfCompetitions_OnlyFindsPinnedNonDeletedCompetitions() {
@@ -1,5 +1,6 @@
 package pl.echelon133.competitionservice.competition.service;
 
+import ml.echelon133.common.event.dto.CompetitionInfo;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,6 +52,9 @@ public class CompetitionServiceTests {
     @Spy
     private Executor executor = Executors.newFixedThreadPool(2);
 
+    @Mock
+    private CompetitionInfoPublisher competitionInfoPublisher;
+
     @InjectMocks
     private CompetitionService competitionService;
 
@@ -180,6 +184,23 @@ public class CompetitionServiceTests {
 
         // then
         assertEquals(1, countDeleted);
+        verify(competitionInfoPublisher).publishAfterCommit(new CompetitionInfo.DeletionEvent(idToDelete));
+    }
+
+    @Test
+    @DisplayName("markCompetitionAsDeleted does not publish anything when no competition has been marked as deleted")
+    public void markCompetitionAsDeleted_NothingDeleted_DoesNotPublish() {
+        var idToDelete = UUID.randomUUID();
+
+        // given
+        given(competitionRepository.markCompetitionAsDeleted(idToDelete)).willReturn(0);
+
+        // when
+        Integer countDeleted = competitionService.markCompetitionAsDeleted(idToDelete);
+
+        // then
+        assertEquals(0, countDeleted);
+        verify(competitionInfoPublisher, never()).publishAfterCommit(any());
     }
 
     @Test
@@ -203,6 +224,33 @@ public class CompetitionServiceTests {
         assertEquals(1, result.getNumberOfElements());
     }
 
+    @Test
+    @DisplayName("findAllByIds calls the repository method")
+    public void findAllByIds_MultipleIds_CorrectlyCallsRepository() {
+        var competitionIds = Set.of(UUID.randomUUID(), UUID.randomUUID());
+        var expectedDto = CompetitionDto.from(UUID.randomUUID(), "test1", "test2", "test3", true, 1, true);
+
+        // given
+        given(competitionRepository.findAllCompetitionsByIds(competitionIds)).willReturn(List.of(expectedDto));
+
+        // when
+        var result = competitionService.findAllByIds(competitionIds);
+
+        // then
+        assertEquals(List.of(expectedDto), result);
+    }
+
+    @Test
+    @DisplayName("findAllByIds does not query the database when no ids are provided")
+    public void findAllByIds_NoIds_DoesNotCallRepository() {
+        // when
+        var result = competitionService.findAllByIds(Set.of());
+
+        // then
+        assertTrue(result.isEmpty());
+        verify(competitionRepository, never()).findAllCompetitionsByIds(any());
+    }
+
     @Test
     @DisplayName("findPinnedCompetitions calls the repository method")
     public void findPinnedCompetitions_NoArguments_CorrectlyCallsRepository() {
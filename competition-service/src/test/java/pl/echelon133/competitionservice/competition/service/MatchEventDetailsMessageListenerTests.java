@@ -12,15 +12,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.echelon133.competitionservice.competition.model.Competition;
 import pl.echelon133.competitionservice.competition.model.PlayerStats;
 import pl.echelon133.competitionservice.competition.model.TeamStats;
+import pl.echelon133.competitionservice.competition.repository.ProcessedMatchEventRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
@@ -35,6 +44,27 @@ public class MatchEventDetailsMessageListenerTests {
     @Mock
     private TeamStatsService teamStatsService;
 
+    @Mock
+    private ProcessedMatchEventRepository processedMatchEventRepository;
+
+    // status of the last transaction, which shows whether it would have been rolled back
+    private final SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+
+    // runs every callback right away, without an actual transaction
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return transactionStatus;
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {}
+
+        @Override
+        public void rollback(TransactionStatus status) {}
+    });
+
     @InjectMocks
     private MatchEventDetailsMessageListener matchEventDetailsMessageListener;
 
@@ -131,6 +161,9 @@ public class MatchEventDetailsMessageListenerTests {
 
         // then
         assertNoOperation();
+        // commentary and substitution events are not recorded as processed
+        verify(processedMatchEventRepository, never()).existsById(noopConsumerRecords.get(0).key());
+        verify(processedMatchEventRepository, never()).existsById(noopConsumerRecords.get(noopConsumerRecords.size() - 1).key());
     }
 
     @Test
@@ -616,6 +649,56 @@ public class MatchEventDetailsMessageListenerTests {
         verify(playerStatsService).save(argThat(new PlayerStatsMatcher(expectedPlayerStats)));
     }
 
+    @Test
+    @DisplayName("onMessage (GoalEvent) saves the id of the processed event")
+    public void onMessage_GoalEventProcessed_SavesEventId() throws ResourceNotFoundException {
+        var teamId = UUID.randomUUID();
+        var competitionId = UUID.randomUUID();
+        var playerId = UUID.randomUUID();
+        var playerName = "Test Name";
+        var record = createTestConsumerRecord(0,
+                new GoalEventDetailsDto(
+                        "1", competitionId, teamId, new SerializedPlayer(null, playerId, playerName), null, false
+                )
+        );
+
+        // given
+        given(playerStatsService.findPlayerStatsOrDefault(playerId, competitionId, teamId, playerName))
+                .willReturn(new PlayerStats(playerId, teamId, playerName));
+
+        // when
+        matchEventDetailsMessageListener.onMessage(record);
+
+        // then
+        verify(processedMatchEventRepository).save(argThat(e -> e.getId().equals(record.key())));
+        assertFalse(transactionStatus.isRollbackOnly());
+    }
+
+    @Test
+    @DisplayName("onMessage (GoalEvent) does nothing when the event has already been processed")
+    public void onMessage_GoalEventAlreadyProcessed_DoesNothing() {
+        var record = createTestConsumerRecord(0,
+                new GoalEventDetailsDto(
+                        "1",
+                        UUID.randomUUID(),
+                        UUID.randomUUID(),
+                        new SerializedPlayer(null, UUID.randomUUID(), "Test Name"),
+                        null,
+                        false
+                )
+        );
+
+        // given
+        given(processedMatchEventRepository.existsById(record.key())).willReturn(true);
+
+        // when
+        matchEventDetailsMessageListener.onMessage(record);
+
+        // then
+        assertNoOperation();
+        verify(processedMatchEventRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("onMessage (GoalEvent) increments the goal count and the assist count of players involved in a goal")
     public void onMessage_GoalEventPlayerScoresGoalWithAssist_IncrementsPlayerGoalsAndAssists() throws ResourceNotFoundException {
@@ -669,6 +752,44 @@ public class MatchEventDetailsMessageListenerTests {
         );
     }
 
+    @Test
+    @DisplayName("onMessage (GoalEvent) rolls back the goal of the scoring player when the assisting player cannot be updated")
+    public void onMessage_GoalEventAssistingPlayerNotFound_RollsBack() throws ResourceNotFoundException {
+        var teamId = UUID.randomUUID();
+        var competitionId = UUID.randomUUID();
+        var scoringPlayerId = UUID.randomUUID();
+        var assistingPlayerId = UUID.randomUUID();
+        var playerName = "Test Name";
+
+        var record = createTestConsumerRecord(0,
+                new GoalEventDetailsDto(
+                        "1",
+                        competitionId,
+                        teamId,
+                        new SerializedPlayer(
+                                null, scoringPlayerId, playerName
+                        ),
+                        new SerializedPlayer(
+                                null, assistingPlayerId, playerName
+                        ),
+                        false
+                )
+        );
+
+        // given
+        given(playerStatsService.findPlayerStatsOrDefault(scoringPlayerId, competitionId, teamId, playerName))
+                .willReturn(new PlayerStats(scoringPlayerId, teamId, playerName));
+        given(playerStatsService.findPlayerStatsOrDefault(assistingPlayerId, competitionId, teamId, playerName))
+                .willThrow(new ResourceNotFoundException(Competition.class, competitionId));
+
+        // when
+        matchEventDetailsMessageListener.onMessage(record);
+
+        // then
+        assertTrue(transactionStatus.isRollbackOnly());
+        verify(processedMatchEventRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("onMessage (GoalEvent) does nothing when the competition is not found in the database")
     public void onMessage_GoalEventCompetitionNotFound_NoDatabaseOperations() throws ResourceNotFoundException {
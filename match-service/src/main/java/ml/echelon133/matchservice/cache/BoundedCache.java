@@ -0,0 +1,190 @@
+package ml.echelon133.matchservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe map which holds a bounded number of entries, evicts the least recently used entry first, and counts
+ * lookups which found a usable entry (tagged with `result=hit`) and lookups which did not (`result=miss`).
+ *
+ * <p>
+ *     Values loaded without holding any lock of the caller (e.g. read from the database, or fetched from another
+ *     service) are only cached if no entry has been explicitly evicted while they were being loaded, because such
+ *     a value might have been loaded before the change which caused the eviction.
+ * </p>
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, V> entries;
+    // incremented by every explicit eviction (but not by evictions of the least recently used entries)
+    private long evictions;
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates a cache with the specified capacity.
+     *
+     * @param maxEntries maximum number of cached entries
+     * @param meterName name of the counter of lookups
+     * @param meterDescription description of the counter of lookups
+     * @param meterRegistry registry of the counter of lookups
+     */
+    public BoundedCache(int maxEntries, String meterName, String meterDescription, MeterRegistry meterRegistry) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder(meterName)
+                .description(meterDescription)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(meterName)
+                .description(meterDescription)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the cached value of the key, and counts the lookup.
+     *
+     * @param key key of the value
+     * @return cached value, or an empty optional if the key is not cached
+     */
+    public Optional<V> find(K key) {
+        return find(key, value -> true);
+    }
+
+    /**
+     * Finds the cached value of the key, and counts the lookup.
+     *
+     * @param key key of the value
+     * @param usable checks whether the cached value can still be used (e.g. has not expired)
+     * @return cached value, or an empty optional if the key is not cached or its value cannot be used
+     */
+    public synchronized Optional<V> find(K key, Predicate<V> usable) {
+        var value = entries.get(key);
+        if (value != null && usable.test(value)) {
+            hits.increment();
+            return Optional.of(value);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the cached value of the key, loading it (without holding the lock of the cache) if it's not cached.
+     *
+     * @param key key of the value
+     * @param loader loads the value, returns an empty optional if there is no value (which is not cached then)
+     * @return cached or loaded value, or an empty optional if there is no value
+     */
+    public Optional<V> findOrLoad(K key, Function<K, Optional<V>> loader) {
+        return findOrLoad(key, value -> true, loader);
+    }
+
+    /**
+     * Finds the cached value of the key, loading it (without holding the lock of the cache) if it's not cached
+     * or cannot be used anymore.
+     *
+     * @param key key of the value
+     * @param usable checks whether the cached value can still be used (e.g. has not expired)
+     * @param loader loads the value, returns an empty optional if there is no value (which is not cached then)
+     * @return cached or loaded value, or an empty optional if there is no value
+     */
+    public Optional<V> findOrLoad(K key, Predicate<V> usable, Function<K, Optional<V>> loader) {
+        long evictionsBeforeLoad = evictions();
+        var cached = find(key, usable);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        var loaded = loader.apply(key);
+        loaded.ifPresent(value -> putAllIfNotEvictedSince(evictionsBeforeLoad, Map.of(key, value)));
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value of the key without counting the lookup, e.g. to update the value.
+     *
+     * @param key key of the value
+     * @return cached value, or {@code null} if the key is not cached
+     */
+    public synchronized V peek(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the value of the key, replacing its previous value.
+     *
+     * @param key key of the value
+     * @param value value to cache
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Returns the number of explicit evictions so far, which has to be read before loading values
+     * cached with {@link #putAllIfNotEvictedSince(long, Map)}.
+     *
+     * @return number of explicit evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Caches loaded values, unless any entry has been explicitly evicted since they started being loaded.
+     *
+     * @param evictionsBeforeLoad value of {@link #evictions()} read before the values started being loaded
+     * @param values loaded values
+     */
+    public synchronized void putAllIfNotEvictedSince(long evictionsBeforeLoad, Map<K, V> values) {
+        if (evictions == evictionsBeforeLoad) {
+            entries.putAll(values);
+        }
+    }
+
+    /**
+     * Removes the cached value of the key.
+     *
+     * @param key key whose value should no longer be cached
+     */
+    public synchronized void evict(K key) {
+        entries.remove(key);
+        evictions++;
+    }
+
+    /**
+     * Removes all cached values which match the condition.
+     *
+     * @param condition checks whether a value should no longer be cached
+     * @return keys of the removed values
+     */
+    public synchronized List<K> evictIf(Predicate<V> condition) {
+        List<K> evictedKeys = new ArrayList<>();
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (condition.test(entry.getValue())) {
+                evictedKeys.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        evictions++;
+        return evictedKeys;
+    }
+}
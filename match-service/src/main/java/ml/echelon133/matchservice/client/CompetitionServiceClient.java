@@ -4,7 +4,10 @@ import ml.echelon133.matchservice.match.model.CompetitionDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(name = "competition-service", url = "http://competition-service:80")
@@ -12,4 +15,7 @@ public interface CompetitionServiceClient {
 
     @GetMapping("/api/competitions/{competitionId}")
     CompetitionDto getCompetitionById(@PathVariable UUID competitionId);
+
+    @GetMapping("/api/competitions")
+    List<CompetitionDto> getCompetitionsByIds(@RequestParam Collection<UUID> competitionIds);
 }
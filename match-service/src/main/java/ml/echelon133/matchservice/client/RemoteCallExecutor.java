@@ -0,0 +1,117 @@
+package ml.echelon133.matchservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executes calls to other services (i.e. fetching information which enriches matches of this service) on
+ * a dedicated, bounded pool of threads.
+ *
+ * <p>
+ *     Callers wait for the result of a call for a limited time. When the call fails, does not finish in time,
+ *     or cannot even be started because all threads are busy and too many calls are waiting, the caller receives
+ *     the result of its fallback instead. Therefore a slow or unavailable service neither holds the threads
+ *     (and transactions) of requests handled by this service for long, nor occupies threads shared with
+ *     unrelated work (such as the common ForkJoin pool).
+ * </p>
+ */
+@Service
+public class RemoteCallExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter timeouts;
+    private final Counter rejections;
+
+    @Autowired
+    public RemoteCallExecutor(
+            @Value("${remote-calls.threads:16}") int threads,
+            @Value("${remote-calls.queue-capacity:100}") int queueCapacity,
+            @Value("${remote-calls.timeout-ms:2000}") long timeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "remote-calls");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("match.remote.calls.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of threads which are executing calls to other services")
+                .register(meterRegistry);
+        Gauge.builder("match.remote.calls.queued", executor, e -> e.getQueue().size())
+                .description("Number of calls to other services waiting for a free thread")
+                .register(meterRegistry);
+        this.successes = countCalls(meterRegistry, "success");
+        this.failures = countCalls(meterRegistry, "failure");
+        this.timeouts = countCalls(meterRegistry, "timeout");
+        this.rejections = countCalls(meterRegistry, "rejected");
+    }
+
+    private static Counter countCalls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("match.remote.calls")
+                .description("Number of calls to other services")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executes a call to another service and waits for its result.
+     *
+     * @param remoteCall call to execute
+     * @param fallback provides the result when the call fails (receives the exception thrown by the call),
+     *                 does not finish in time ({@link TimeoutException}), or is rejected because too many calls
+     *                 are waiting ({@link RejectedExecutionException})
+     * @return result of the call, or the result of the fallback
+     * @param <T> type of the result
+     */
+    public <T> T call(Supplier<T> remoteCall, Function<Exception, T> fallback) {
+        Future<T> result;
+        try {
+            result = executor.submit(remoteCall::get);
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            return fallback.apply(ex);
+        }
+
+        try {
+            var value = result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            successes.increment();
+            return value;
+        } catch (TimeoutException ex) {
+            result.cancel(true);
+            timeouts.increment();
+            return fallback.apply(ex);
+        } catch (ExecutionException ex) {
+            failures.increment();
+            return fallback.apply(ex.getCause() instanceof Exception cause ? cause : ex);
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            failures.increment();
+            return fallback.apply(ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
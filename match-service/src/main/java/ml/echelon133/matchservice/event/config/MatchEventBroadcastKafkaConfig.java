@@ -0,0 +1,88 @@
+package ml.echelon133.matchservice.event.config;
+
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.matchservice.event.service.KafkaMatchEventBroadcaster;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.serialization.UUIDDeserializer;
+import org.apache.kafka.common.serialization.UUIDSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kafka infrastructure of {@link KafkaMatchEventBroadcaster}, only created when events are broadcast
+ * to other replicas of the service through Kafka.
+ */
+@Configuration
+@ConditionalOnProperty(name = "match-events.broadcast.bus", havingValue = "kafka")
+public class MatchEventBroadcastKafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public NewTopic matchBroadcastTopic() {
+        return TopicBuilder
+                .name(KafkaTopicNames.MATCH_BROADCASTS)
+                .partitions(2)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Producer of records which carry events to other replicas. Broadcasting is best-effort, therefore
+     * records only need to be acknowledged by the leader of the partition.
+     */
+    @Bean
+    public KafkaProducer<UUID, String> matchBroadcastKafkaProducer() {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+                ProducerConfig.ACKS_CONFIG, "1",
+                ProducerConfig.LINGER_MS_CONFIG, 5
+        );
+        return new KafkaProducer<>(
+                props,
+                new UUIDSerializer(),
+                new StringSerializer()
+        );
+    }
+
+    /**
+     * Listener of the broadcast topic. Every replica uses its own consumer group, so that every replica
+     * receives all records, and only reads the records published after it has started.
+     */
+    @Bean
+    KafkaMessageListenerContainer<UUID, String> matchBroadcastListenerContainer(KafkaMatchEventBroadcaster broadcaster) {
+        ContainerProperties containerProps = new ContainerProperties(KafkaTopicNames.MATCH_BROADCASTS);
+        containerProps.setMessageListener(broadcaster);
+
+        Map<String, Object> props = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.GROUP_ID_CONFIG, "match-service-broadcast-" + broadcaster.getInstanceId(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"
+        );
+        var consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new UUIDDeserializer(),
+                new StringDeserializer()
+        );
+
+        return new KafkaMessageListenerContainer<>(
+                consumerFactory, containerProps
+        );
+    }
+}
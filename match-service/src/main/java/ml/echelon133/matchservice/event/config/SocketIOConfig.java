@@ -1,24 +1,66 @@
 package ml.echelon133.matchservice.event.config;
 
 import com.corundumstudio.socketio.SocketIOServer;
-import org.springframework.beans.factory.annotation.Value;
+import io.netty.channel.epoll.Epoll;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(SocketIOProperties.class)
 public class SocketIOConfig {
 
-    @Value("${socket-io.host}")
-    private String host;
+    private final static Logger logger = LoggerFactory.getLogger(SocketIOConfig.class);
 
-    @Value("${socket-io.port}")
-    private Integer port;
+    /**
+     * Translates the properties of the server into the configuration of netty-socketio.
+     *
+     * @param properties properties of the server
+     * @param epollAvailable whether the native epoll transport can be used on this machine
+     * @return configuration of the server
+     */
+    static com.corundumstudio.socketio.Configuration createConfiguration(
+            SocketIOProperties properties,
+            boolean epollAvailable
+    ) {
+        var config = new com.corundumstudio.socketio.Configuration();
+        config.setHostname(properties.host());
+        config.setPort(properties.port());
+
+        config.setBossThreads(properties.bossThreads());
+        config.setWorkerThreads(properties.effectiveWorkerThreads());
+        config.setUseLinuxNativeEpoll(properties.nativeEpoll() && epollAvailable);
+
+        config.setPingInterval((int) properties.pingInterval().toMillis());
+        config.setPingTimeout((int) properties.pingTimeout().toMillis());
+        config.setMaxFramePayloadLength(properties.maxFramePayloadLength());
+        config.setMaxHttpContentLength(properties.maxHttpContentLength());
+        config.setWebsocketCompression(properties.websocketCompression());
+
+        var socketConfig = config.getSocketConfig();
+        socketConfig.setTcpNoDelay(properties.tcpNoDelay());
+        socketConfig.setTcpSendBufferSize(properties.tcpSendBufferSize());
+        socketConfig.setTcpReceiveBufferSize(properties.tcpReceiveBufferSize());
+        socketConfig.setAcceptBackLog(properties.acceptBacklog());
+        // writability of the channel of a client is used by SlowClientGuard to detect slow clients
+        socketConfig.setWriteBufferWaterMarkHigh(properties.writeBufferHighWaterMark());
+        socketConfig.setWriteBufferWaterMarkLow(properties.writeBufferLowWaterMark());
+        return config;
+    }
 
     @Bean
-    public SocketIOServer socketIOServer() {
-        var config = new com.corundumstudio.socketio.Configuration();
-        config.setHostname(host);
-        config.setPort(port);
+    public SocketIOServer socketIOServer(SocketIOProperties properties) {
+        // the native transport is only available on Linux, with native libraries of Netty on the classpath
+        var epollAvailable = Epoll.isAvailable();
+        if (properties.nativeEpoll() && !epollAvailable) {
+            logger.info("Native epoll transport is not available, falling back to NIO: {}",
+                    Epoll.unavailabilityCause().toString());
+        }
+        var config = createConfiguration(properties, epollAvailable);
+        logger.info("Socket.IO server uses {} worker threads, native epoll: {}",
+                config.getWorkerThreads(), config.isUseLinuxNativeEpoll());
         return new SocketIOServer(config);
     }
 }
@@ -0,0 +1,64 @@
+package ml.echelon133.matchservice.event.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the Socket.IO server and its Netty transport.
+ *
+ * <p>
+ *     Unless stated otherwise, defaults are the same as the defaults of netty-socketio. Buffer sizes set to -1
+ *     are left at the defaults of the operating system.
+ * </p>
+ *
+ * @param host address on which the server listens
+ * @param port port on which the server listens
+ * @param bossThreads number of threads which accept connections
+ * @param workerThreads number of threads which handle connections, 0 means one thread per available core
+ *                      (instead of two per core, which is the default of Netty)
+ * @param nativeEpoll whether the native epoll transport is used on Linux (it's only used if it's available)
+ * @param tcpNoDelay whether small messages are sent right away instead of being coalesced (Nagle's algorithm)
+ * @param tcpSendBufferSize size of the send buffer of every socket
+ * @param tcpReceiveBufferSize size of the receive buffer of every socket
+ * @param acceptBacklog maximum number of connections waiting to be accepted
+ * @param writeBufferHighWaterMark number of bytes waiting to be written to a client above which the client
+ *                                 stops being writable (see {@link ml.echelon133.matchservice.event.service.SlowClientGuard})
+ * @param writeBufferLowWaterMark number of bytes waiting to be written to a client below which the client
+ *                                becomes writable again
+ * @param pingInterval how often clients are pinged
+ * @param pingTimeout time after which a client which has not answered a ping is disconnected
+ * @param maxFramePayloadLength maximum length of the payload of a single websocket frame
+ * @param maxHttpContentLength maximum length of the content of a single polling request
+ * @param websocketCompression whether websocket messages are compressed (separately for every client)
+ */
+@ConfigurationProperties(prefix = "socket-io")
+public record SocketIOProperties(
+        String host,
+        int port,
+        @DefaultValue("1") int bossThreads,
+        @DefaultValue("0") int workerThreads,
+        @DefaultValue("true") boolean nativeEpoll,
+        @DefaultValue("true") boolean tcpNoDelay,
+        @DefaultValue("-1") int tcpSendBufferSize,
+        @DefaultValue("-1") int tcpReceiveBufferSize,
+        @DefaultValue("1024") int acceptBacklog,
+        @DefaultValue("65536") int writeBufferHighWaterMark,
+        @DefaultValue("32768") int writeBufferLowWaterMark,
+        @DefaultValue("25s") Duration pingInterval,
+        @DefaultValue("60s") Duration pingTimeout,
+        @DefaultValue("65536") int maxFramePayloadLength,
+        @DefaultValue("65536") int maxHttpContentLength,
+        @DefaultValue("true") boolean websocketCompression
+) {
+
+    /**
+     * Finds the number of worker threads which should be used by the server.
+     *
+     * @return configured number of worker threads, or the number of available cores if it's not configured
+     */
+    public int effectiveWorkerThreads() {
+        return workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -1,18 +1,28 @@
 package ml.echelon133.matchservice.event.controller;
 
 import jakarta.validation.Valid;
-import ml.echelon133.common.event.dto.MatchEventDto;
 import ml.echelon133.common.exception.RequestBodyContentInvalidException;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.exception.ValidationResultMapper;
 import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.MatchAggregateVerificationSummary;
 import ml.echelon133.matchservice.event.model.dto.UpsertMatchEvent;
+import ml.echelon133.matchservice.event.model.dto.UpsertMatchEventBatchDto;
+import ml.echelon133.matchservice.event.service.MatchAggregateVerificationJob;
+import ml.echelon133.matchservice.event.service.MatchEventSequencer;
 import ml.echelon133.matchservice.event.service.MatchEventService;
+import ml.echelon133.matchservice.event.service.MatchEventStorageMigrationJob;
+import ml.echelon133.matchservice.event.service.MatchEventStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -20,16 +30,55 @@ import java.util.UUID;
 public class MatchEventController {
 
     private final MatchEventService matchEventService;
+    private final MatchEventSequencer matchEventSequencer;
+    private final MatchAggregateVerificationJob matchAggregateVerificationJob;
+    private final MatchEventStorageMigrationJob matchEventStorageMigrationJob;
+    private final MatchEventStreamService matchEventStreamService;
 
     @Autowired
-    public MatchEventController(MatchEventService matchEventService) {
+    public MatchEventController(
+            MatchEventService matchEventService,
+            MatchEventSequencer matchEventSequencer,
+            MatchAggregateVerificationJob matchAggregateVerificationJob,
+            MatchEventStorageMigrationJob matchEventStorageMigrationJob,
+            MatchEventStreamService matchEventStreamService
+    ) {
         this.matchEventService = matchEventService;
+        this.matchEventSequencer = matchEventSequencer;
+        this.matchAggregateVerificationJob = matchAggregateVerificationJob;
+        this.matchEventStorageMigrationJob = matchEventStorageMigrationJob;
+        this.matchEventStreamService = matchEventStreamService;
     }
 
     @GetMapping("/{matchId}/events")
-    public List<MatchEventDto> getEvents(@PathVariable UUID matchId) {
+    public List<EncodedMatchEventDto> getEvents(@PathVariable UUID matchId, @RequestParam(required = false) Long afterSeq) {
+        // clients which reconnect only need the events they have missed, so they can provide the sequence
+        // number of the last event they know about
+        if (afterSeq != null) {
+            return matchEventService.findAllByMatchIdAfterSequence(matchId, afterSeq);
+        }
         return matchEventService.findAllByMatchId(matchId);
     }
+
+    @GetMapping(value = "/{matchId}/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @PathVariable UUID matchId, @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) throws ResourceNotFoundException {
+        // clients which reconnect automatically send the id of the last event they have received, which is
+        // the sequence number of that event
+        return matchEventStreamService.streamMatchEvents(matchId, lastEventId);
+    }
+
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGlobalEvents(
+            @RequestParam(name = "competition_id", required = false) String competitionIds,
+            @RequestParam(name = "team_id", required = false) String teamIds
+    ) {
+        // the same comma-separated ids as the ids given to the global websocket namespace
+        return matchEventStreamService.streamGlobalMatchEvents(
+                GlobalMatchEventFilter.fromUrlParams(competitionIds, teamIds)
+        );
+    }
     
     @PostMapping("/{matchId}/events")
     public void processMatchEventNew(
@@ -40,6 +89,37 @@ public class MatchEventController {
             throw new RequestBodyContentInvalidException(ValidationResultMapper.resultIntoErrorMap(result));
         }
 
-        matchEventService.processEvent(matchId, eventDto);
+        // events of a single match are processed one at a time, in the order in which they arrive
+        matchEventSequencer.processEvent(matchId, eventDto);
+    }
+
+    @PostMapping("/{matchId}/events/batch")
+    public Map<String, Integer> processMatchEvents(
+            @PathVariable UUID matchId, @Valid @RequestBody UpsertMatchEventBatchDto batchDto, BindingResult result
+    ) throws RequestBodyContentInvalidException, ResourceNotFoundException, MatchEventInvalidException {
+
+        if (result.hasErrors()){
+            throw new RequestBodyContentInvalidException(ValidationResultMapper.resultIntoErrorMap(result));
+        }
+
+        // either all events are processed, or none of them are (in which case the index of the first rejected
+        // event is a part of the error message)
+        return Map.of("processed", matchEventSequencer.processEvents(matchId, batchDto.events()));
+    }
+
+    @PostMapping("/{matchId}/events/rebuild")
+    public Map<String, Boolean> rebuildMatchFromEvents(@PathVariable UUID matchId) throws ResourceNotFoundException {
+        // used after events of a match have been modified manually, so that the match reflects its events again
+        return Map.of("drifted", matchEventSequencer.rebuildAggregate(matchId, true));
+    }
+
+    @PostMapping("/events/verification")
+    public MatchAggregateVerificationSummary verifyMatchesAgainstEvents(@RequestParam(defaultValue = "false") boolean repair) {
+        return matchAggregateVerificationJob.verifyAll(repair);
+    }
+
+    @PostMapping("/events/storage/migration")
+    public Map<String, Integer> migrateEventsToBinaryStorage() {
+        return Map.of("migrated", matchEventStorageMigrationJob.migrateAllToBinary());
     }
 }
@@ -2,6 +2,7 @@ package ml.echelon133.matchservice.event.controller;
 
 import ml.echelon133.common.exception.AbstractExceptionHandler;
 import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventLaneBusyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,4 +17,10 @@ public class MatchEventExceptionHandler extends AbstractExceptionHandler {
         ErrorMessage error = new ErrorMessage(HttpStatus.UNPROCESSABLE_ENTITY, request, ex.getMessage());
         return error.asResponseEntity();
     }
+
+    @ExceptionHandler(value = MatchEventLaneBusyException.class)
+    protected ResponseEntity<ErrorMessage> handleMatchEventLaneBusyException(MatchEventLaneBusyException ex, WebRequest request) {
+        ErrorMessage error = new ErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, request, ex.getMessage());
+        return error.asResponseEntity();
+    }
 }
@@ -0,0 +1,19 @@
+package ml.echelon133.matchservice.event.exceptions;
+
+/**
+ * Exception thrown when one of the events processed together fails to satisfy some invariant. Contains the index
+ * of the first rejected event, since none of the events following it have been processed.
+ */
+public class MatchEventBatchInvalidException extends MatchEventInvalidException {
+
+    private final int index;
+
+    public MatchEventBatchInvalidException(int index, String message) {
+        super(String.format("event at index %d rejected: %s", index, message));
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,15 @@
+package ml.echelon133.matchservice.event.exceptions;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when events of a match cannot be processed, because too many events are already waiting
+ * in the lane of the match, or the events have waited too long to be started. Such events are never processed,
+ * therefore they can safely be sent again.
+ */
+public class MatchEventLaneBusyException extends RuntimeException {
+
+    public MatchEventLaneBusyException(UUID matchId) {
+        super(String.format("events of match %s could not be processed in time, try again", matchId));
+    }
+}
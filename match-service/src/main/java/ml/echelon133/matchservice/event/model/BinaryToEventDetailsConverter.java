@@ -0,0 +1,28 @@
+package ml.echelon133.matchservice.event.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores details of match events in the format of {@link MatchEventBinaryCodec}.
+ */
+@Converter
+public class BinaryToEventDetailsConverter implements AttributeConverter<EncodedMatchEventDetails, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(EncodedMatchEventDetails encodedEvent) {
+        if (encodedEvent == null) {
+            return null;
+        }
+        return MatchEventBinaryCodec.encode(encodedEvent.getDetails());
+    }
+
+    @Override
+    public EncodedMatchEventDetails convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        // details read from the binary column have no JSON representation until they are serialized
+        return new EncodedMatchEventDetails(MatchEventBinaryCodec.decode(bytes), null);
+    }
+}
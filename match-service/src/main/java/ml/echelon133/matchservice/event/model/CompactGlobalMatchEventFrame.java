@@ -0,0 +1,25 @@
+package ml.echelon133.matchservice.event.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Compact form of {@link GlobalMatchEventFrame}, sent to clients of the global namespace which asked for it.
+ *
+ * Serializes into `{"m": {...}, "e": [...]}`, where:
+ * <ul>
+ *     <li>`m` (only present if needed) maps handles of matches which are used for the first time to ids
+ *     of these matches, e.g. `{"12": "6c8cfd96-3d88-46a3-919b-eabc2aa6ebd5"}`</li>
+ *     <li>`e` is an array of events, each of which is an array of numbers, e.g. `[12,0,1]`
+ *     (see {@link CompactGlobalMatchEventLegend} for the meaning of these numbers)</li>
+ * </ul>
+ *
+ * @param matches JSON object with ids of matches whose handles are new, or {@code null} if there are none
+ * @param events JSON array of compact events, in the order in which they happened
+ */
+public record CompactGlobalMatchEventFrame(
+        @JsonProperty("m") @JsonInclude(JsonInclude.Include.NON_NULL) @JsonRawValue String matches,
+        @JsonProperty("e") @JsonRawValue String events
+) {
+}
@@ -0,0 +1,34 @@
+package ml.echelon133.matchservice.event.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * First message received by a client of the global namespace which asked for compact frames, which lets that
+ * client decode all events of {@link CompactGlobalMatchEventFrame}.
+ *
+ * <p>
+ *     Every compact event is an array which starts with the handle of the match and the index of the type
+ *     of the event, followed by:
+ *     <ul>
+ *         <li>GOAL - the index of the side which scored the goal, e.g. `[12,0,1]`</li>
+ *         <li>CARD - the index of the side whose player got the red card, e.g. `[12,1,0]`</li>
+ *         <li>STATUS - indexes of the new status and the result of the match, e.g. `[12,2,4,1]`</li>
+ *     </ul>
+ * </p>
+ *
+ * @param matches ids of matches with their handles, which are only valid until the client disconnects
+ * @param types names of types of events
+ * @param sides names of sides of a match
+ * @param statuses names of statuses of a match
+ * @param results names of results of a match
+ */
+public record CompactGlobalMatchEventLegend(
+        Map<Integer, UUID> matches,
+        List<String> types,
+        List<String> sides,
+        List<String> statuses,
+        List<String> results
+) {
+}
@@ -0,0 +1,41 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.common.event.dto.MatchEventDetails;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Details of a match event together with their JSON representation.
+ *
+ * <p>
+ *     Match events are serialized exactly once, and the same JSON is then reused as the content of the database
+ *     column, the value of the Kafka record, and the payload of the websocket frame and REST responses.
+ * </p>
+ * <p>
+ *     Instances are immutable, which lets Hibernate skip creating snapshots of this value (which it would
+ *     otherwise do by serializing and deserializing the value through the converter).
+ * </p>
+ */
+@Immutable
+public final class EncodedMatchEventDetails {
+
+    private final MatchEventDetails details;
+    private final String json;
+
+    public EncodedMatchEventDetails(MatchEventDetails details, String json) {
+        this.details = details;
+        this.json = json;
+    }
+
+    public MatchEventDetails getDetails() {
+        return details;
+    }
+
+    /**
+     * Returns the JSON representation of the details.
+     *
+     * @return JSON representation of the details, or `null` if the details have not been serialized yet
+     */
+    public String getJson() {
+        return json;
+    }
+}
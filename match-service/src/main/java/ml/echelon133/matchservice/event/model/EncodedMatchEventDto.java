@@ -0,0 +1,18 @@
+package ml.echelon133.matchservice.event.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.UUID;
+
+/**
+ * Already processed match event presented to the client of the API, whose details are already serialized.
+ *
+ * Serializes into exactly the same JSON as {@link ml.echelon133.common.event.dto.MatchEventDto}, but
+ * the details of the event are written as they are, without being serialized again.
+ *
+ * @param id id of the event
+ * @param sequence number of the event in its match
+ * @param event JSON representation of the details of the event
+ */
+public record EncodedMatchEventDto(UUID id, Long sequence, @JsonRawValue String event) {
+}
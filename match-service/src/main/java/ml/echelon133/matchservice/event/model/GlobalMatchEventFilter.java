@@ -0,0 +1,97 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Competitions and teams whose global match events a client of the global namespace wants to receive.
+ *
+ * <p>
+ *     An event matches the filter if its match is played in one of the competitions, or if one of the teams
+ *     plays in that match. A filter without any competitions and teams matches all events.
+ * </p>
+ * <p>
+ *     All clients with an equal filter are placed in the same room, so that every event is sent to a client
+ *     at most once, even if it matches both a competition and a team of the client.
+ * </p>
+ *
+ * @param competitionIds ids of competitions whose events should be received
+ * @param teamIds ids of teams whose events should be received
+ */
+public record GlobalMatchEventFilter(Set<UUID> competitionIds, Set<UUID> teamIds) {
+
+    /**
+     * Filter which matches events of all matches.
+     */
+    public static final GlobalMatchEventFilter ALL = new GlobalMatchEventFilter(Set.of(), Set.of());
+
+    private static final String ALL_ROOM = "all";
+
+    public GlobalMatchEventFilter {
+        competitionIds = Set.copyOf(competitionIds);
+        teamIds = Set.copyOf(teamIds);
+    }
+
+    /**
+     * Creates a filter from values of url params of the websocket handshake. Both values are optional,
+     * and contain comma-separated ids, e.g. {@code competition_id=id1,id2&team_id=id3}.
+     *
+     * @param competitionIdParam value of the param with ids of competitions, or null if it's not present
+     * @param teamIdParam value of the param with ids of teams, or null if it's not present
+     * @return filter with all ids from both params
+     * @throws IllegalArgumentException thrown when any of the ids is not a valid uuid
+     */
+    public static GlobalMatchEventFilter fromUrlParams(String competitionIdParam, String teamIdParam)
+            throws IllegalArgumentException {
+        return new GlobalMatchEventFilter(parseIds(competitionIdParam), parseIds(teamIdParam));
+    }
+
+    private static Set<UUID> parseIds(String param) throws IllegalArgumentException {
+        if (param == null || param.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(param.split(","))
+                .map(String::trim)
+                .map(UUID::fromString)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks whether a global event should be sent to clients with this filter.
+     *
+     * @param event global event
+     * @return {@code true} if the event should be sent
+     */
+    public boolean matches(GlobalMatchEvent event) {
+        if (this.equals(ALL)) {
+            return true;
+        }
+        return contains(competitionIds, event.competitionId()) ||
+                contains(teamIds, event.homeTeamId()) ||
+                contains(teamIds, event.awayTeamId());
+    }
+
+    // immutable sets throw when asked whether they contain null
+    private static boolean contains(Set<UUID> ids, UUID id) {
+        return id != null && ids.contains(id);
+    }
+
+    /**
+     * Name of the room of all clients with this filter. Equal filters always have the same name,
+     * regardless of the order in which ids were given by the clients.
+     *
+     * @return name of the room
+     */
+    public String roomName() {
+        if (this.equals(ALL)) {
+            return ALL_ROOM;
+        }
+        return "competitions:" + joinSorted(competitionIds) + ";teams:" + joinSorted(teamIds);
+    }
+
+    private static String joinSorted(Set<UUID> ids) {
+        return ids.stream().sorted().map(UUID::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,15 @@
+package ml.echelon133.matchservice.event.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * Single websocket frame which carries all global match events that happened during a short window of time.
+ *
+ * Serializes into `{"events": [...]}`, where every element has the same JSON as a single
+ * {@link ml.echelon133.matchservice.match.model.GlobalMatchEvent}. Events are already serialized, therefore
+ * they are written as they are, without being serialized again for every client.
+ *
+ * @param events JSON array of global match events, in the order in which they happened
+ */
+public record GlobalMatchEventFrame(@JsonRawValue String events) {
+}
@@ -0,0 +1,167 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.common.event.dto.CardEventDetailsDto;
+import ml.echelon133.common.event.dto.MatchEventDetails;
+import ml.echelon133.common.event.dto.SubstitutionEventDetailsDto;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.match.model.LineupDto;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.ScoreInfo;
+import ml.echelon133.matchservice.team.model.TeamPlayerDto;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory representation of the state of a live match, which holds everything that's needed to validate
+ * incoming match events without reading the history of the match from the database.
+ *
+ * <p>
+ *     The state is hydrated once (from the lineups and the already saved events of the match),
+ *     and then updated incrementally with every accepted event.
+ * </p>
+ */
+public class LiveMatchState {
+
+    private final UUID matchId;
+
+    private final Set<UUID> homeStartingPlayers;
+    private final Set<UUID> homeSubstitutePlayers;
+    private final Set<UUID> awayStartingPlayers;
+    private final Set<UUID> awaySubstitutePlayers;
+
+    private final Set<UUID> yellowCardedPlayers = new HashSet<>();
+    private final Set<UUID> sentOffPlayers = new HashSet<>();
+    private final Set<UUID> substitutedOnPlayers = new HashSet<>();
+    private final Set<UUID> substitutedOffPlayers = new HashSet<>();
+
+    private MatchStatus status;
+    private ScoreInfo scoreInfo;
+    private Long lastEventSequence;
+
+    public LiveMatchState(UUID matchId, LineupDto lineup) {
+        this.matchId = matchId;
+        this.homeStartingPlayers = toIdSet(lineup.home().startingPlayers());
+        this.homeSubstitutePlayers = toIdSet(lineup.home().substitutePlayers());
+        this.awayStartingPlayers = toIdSet(lineup.away().startingPlayers());
+        this.awaySubstitutePlayers = toIdSet(lineup.away().substitutePlayers());
+        this.status = MatchStatus.NOT_STARTED;
+        this.scoreInfo = new ScoreInfo();
+    }
+
+    private static Set<UUID> toIdSet(List<TeamPlayerDto> players) {
+        return players.stream().map(TeamPlayerDto::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Creates the state of a match by replaying all of its already saved events on top of its lineup.
+     *
+     * @param match entity representing the match whose state is being created
+     * @param lineup lineup of the match
+     * @param history already saved events of the match, in the order of their creation
+     * @return state of the match which reflects all events from its history
+     */
+    public static LiveMatchState hydrate(Match match, LineupDto lineup, List<MatchEventDetails> history) {
+        var state = new LiveMatchState(match.getId(), lineup);
+        history.forEach(state::apply);
+        state.copyStatusAndScore(match);
+        // the history has been read together with the match, therefore it ends with the most recent event
+        state.lastEventSequence = match.getLastEventSequence();
+        return state;
+    }
+
+    /**
+     * Updates the state of players based on an accepted event.
+     *
+     * Only card and substitution events affect which players are on the pitch, all other events are ignored.
+     *
+     * @param event accepted event of the match
+     */
+    private void apply(MatchEventDetails event) {
+        if (event instanceof CardEventDetailsDto card) {
+            var playerId = card.cardedPlayer().teamPlayerId();
+            switch (card.cardType()) {
+                case YELLOW -> yellowCardedPlayers.add(playerId);
+                case SECOND_YELLOW, DIRECT_RED -> sentOffPlayers.add(playerId);
+            }
+        } else if (event instanceof SubstitutionEventDetailsDto substitution) {
+            substitutedOnPlayers.add(substitution.playerIn().teamPlayerId());
+            substitutedOffPlayers.add(substitution.playerOut().teamPlayerId());
+        }
+    }
+
+    private void copyStatusAndScore(Match match) {
+        this.status = match.getStatus();
+        var score = match.getScoreInfo();
+        this.scoreInfo = ScoreInfo.of(score.getHomeGoals(), score.getAwayGoals());
+    }
+
+    /**
+     * Updates this state with an accepted event, but only if the event directly follows the most recent event
+     * seen by this state. Otherwise the state has missed an event (e.g. one accepted by another replica),
+     * and applying this event would make an incomplete state look up-to-date.
+     *
+     * @param event accepted event of the match
+     * @param sequence sequence number of the accepted event
+     * @param match entity representing the match which is the source of truth for its status and scoreline
+     * @return `false` if the state has missed an event and has not been updated (and therefore should be evicted)
+     */
+    public synchronized boolean applyNext(MatchEventDetails event, Long sequence, Match match) {
+        // matches created before sequence numbers existed have their counter set to `null`
+        var previousSequence = lastEventSequence == null ? 0L : lastEventSequence;
+        if (sequence == null || previousSequence + 1 != sequence) {
+            return false;
+        }
+        apply(event);
+        copyStatusAndScore(match);
+        this.lastEventSequence = sequence;
+        return true;
+    }
+
+    public UUID getMatchId() {
+        return matchId;
+    }
+
+    public synchronized MatchStatus getStatus() {
+        return status;
+    }
+
+    public synchronized ScoreInfo getScoreInfo() {
+        return scoreInfo;
+    }
+
+    public synchronized Long getLastEventSequence() {
+        return lastEventSequence;
+    }
+
+    public synchronized boolean isInLineup(boolean homeSide, UUID teamPlayerId) {
+        return isStartingPlayer(homeSide, teamPlayerId) || isSubstitutePlayer(homeSide, teamPlayerId);
+    }
+
+    public synchronized boolean isStartingPlayer(boolean homeSide, UUID teamPlayerId) {
+        return (homeSide ? homeStartingPlayers : awayStartingPlayers).contains(teamPlayerId);
+    }
+
+    public synchronized boolean isSubstitutePlayer(boolean homeSide, UUID teamPlayerId) {
+        return (homeSide ? homeSubstitutePlayers : awaySubstitutePlayers).contains(teamPlayerId);
+    }
+
+    public synchronized boolean hasYellowCard(UUID teamPlayerId) {
+        return yellowCardedPlayers.contains(teamPlayerId);
+    }
+
+    public synchronized boolean isSentOff(UUID teamPlayerId) {
+        return sentOffPlayers.contains(teamPlayerId);
+    }
+
+    public synchronized boolean isSubstitutedOn(UUID teamPlayerId) {
+        return substitutedOnPlayers.contains(teamPlayerId);
+    }
+
+    public synchronized boolean isSubstitutedOff(UUID teamPlayerId) {
+        return substitutedOffPlayers.contains(teamPlayerId);
+    }
+}
@@ -0,0 +1,168 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.common.event.dto.*;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.RedCardInfo;
+import ml.echelon133.matchservice.match.model.ScoreInfo;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Columns of {@link Match} which are derived from the events of the match (i.e. its status, result, scorelines and
+ * red cards), rebuilt by folding the events of the match in the order in which they were accepted.
+ *
+ * <p>
+ *     Events are folded with exactly the same rules which are used to update a {@link Match} while its events are
+ *     being processed, therefore the aggregate of a match whose events have never been modified is always
+ *     equal to the columns of that match.
+ * </p>
+ */
+public class MatchAggregate {
+
+    private final UUID homeTeamId;
+
+    private MatchStatus status;
+    private MatchResult result;
+    private ScoreInfo halfTimeScoreInfo;
+    private final ScoreInfo scoreInfo;
+    private final ScoreInfo penaltiesInfo;
+    private final RedCardInfo redCardInfo;
+
+    public MatchAggregate(UUID homeTeamId) {
+        this.homeTeamId = homeTeamId;
+        this.status = MatchStatus.NOT_STARTED;
+        this.result = MatchResult.NONE;
+        this.halfTimeScoreInfo = new ScoreInfo();
+        this.scoreInfo = new ScoreInfo();
+        this.penaltiesInfo = new ScoreInfo();
+        this.redCardInfo = new RedCardInfo();
+    }
+
+    /**
+     * Rebuilds the aggregate of a match by folding all of its events.
+     *
+     * @param homeTeamId id of the home team of the match
+     * @param events events of the match, in the order of their sequence numbers
+     * @return aggregate which reflects all events of the match
+     */
+    public static MatchAggregate replay(UUID homeTeamId, List<MatchEventDetails> events) {
+        var aggregate = new MatchAggregate(homeTeamId);
+        events.forEach(aggregate::apply);
+        return aggregate;
+    }
+
+    /**
+     * Updates the aggregate based on an accepted event.
+     *
+     * Commentary and substitution events do not affect the aggregate, therefore they are ignored.
+     *
+     * @param event accepted event of the match
+     */
+    public void apply(MatchEventDetails event) {
+        switch (event) {
+            case StatusEventDetailsDto statusEvent -> {
+                if (statusEvent.targetStatus().equals(MatchStatus.FINISHED)) {
+                    result = statusEvent.result();
+                }
+                status = statusEvent.targetStatus();
+            }
+            case GoalEventDetailsDto goalEvent -> incrementScoreline(homeTeamId.equals(goalEvent.teamId()));
+            case PenaltyEventDetailsDto penaltyEvent -> {
+                if (penaltyEvent.scored()) {
+                    incrementScoreline(homeTeamId.equals(penaltyEvent.teamId()));
+                }
+            }
+            case CardEventDetailsDto cardEvent -> {
+                var redOrSecondYellow = switch (cardEvent.cardType()) {
+                    case SECOND_YELLOW, DIRECT_RED -> true;
+                    case YELLOW -> false;
+                };
+                if (redOrSecondYellow) {
+                    if (homeTeamId.equals(cardEvent.teamId())) {
+                        redCardInfo.incrementHomeCards();
+                    } else {
+                        redCardInfo.incrementAwayCards();
+                    }
+                }
+            }
+            case CommentaryEventDetailsDto ignore -> {}
+            case SubstitutionEventDetailsDto ignore -> {}
+        }
+    }
+
+    // mirrors the way the scoreline of a match is incremented while its events are being processed
+    private void incrementScoreline(boolean homeGoal) {
+        if (status.equals(MatchStatus.PENALTIES)) {
+            if (homeGoal) {
+                penaltiesInfo.incrementHomeGoals();
+            } else {
+                penaltiesInfo.incrementAwayGoals();
+            }
+        } else {
+            if (homeGoal) {
+                scoreInfo.incrementHomeGoals();
+            } else {
+                scoreInfo.incrementAwayGoals();
+            }
+            if (status.equals(MatchStatus.FIRST_HALF)) {
+                halfTimeScoreInfo = ScoreInfo.of(scoreInfo.getHomeGoals(), scoreInfo.getAwayGoals());
+            }
+        }
+    }
+
+    /**
+     * Checks whether the columns of the match are equal to this aggregate.
+     *
+     * @param match entity representing the match whose columns are checked
+     * @return `true` if none of the columns of the match have drifted from the aggregate
+     */
+    public boolean isReflectedIn(Match match) {
+        return status.equals(match.getStatus()) &&
+                result.equals(match.getResult()) &&
+                halfTimeScoreInfo.equals(match.getHalfTimeScoreInfo()) &&
+                scoreInfo.equals(match.getScoreInfo()) &&
+                penaltiesInfo.equals(match.getPenaltiesInfo()) &&
+                redCardInfo.equals(match.getRedCardInfo());
+    }
+
+    /**
+     * Overwrites the columns of the match with this aggregate.
+     *
+     * @param match entity representing the match whose columns are overwritten
+     */
+    public void copyInto(Match match) {
+        match.setStatus(status);
+        match.setResult(result);
+        match.setHalfTimeScoreInfo(ScoreInfo.of(halfTimeScoreInfo.getHomeGoals(), halfTimeScoreInfo.getAwayGoals()));
+        match.setScoreInfo(ScoreInfo.of(scoreInfo.getHomeGoals(), scoreInfo.getAwayGoals()));
+        match.setPenaltiesInfo(ScoreInfo.of(penaltiesInfo.getHomeGoals(), penaltiesInfo.getAwayGoals()));
+        match.setRedCardInfo(RedCardInfo.of(redCardInfo.getHomeRedCards(), redCardInfo.getAwayRedCards()));
+    }
+
+    public MatchStatus getStatus() {
+        return status;
+    }
+
+    public MatchResult getResult() {
+        return result;
+    }
+
+    public ScoreInfo getHalfTimeScoreInfo() {
+        return halfTimeScoreInfo;
+    }
+
+    public ScoreInfo getScoreInfo() {
+        return scoreInfo;
+    }
+
+    public ScoreInfo getPenaltiesInfo() {
+        return penaltiesInfo;
+    }
+
+    public RedCardInfo getRedCardInfo() {
+        return redCardInfo;
+    }
+}
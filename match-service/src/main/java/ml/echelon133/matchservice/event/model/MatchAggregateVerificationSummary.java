@@ -0,0 +1,11 @@
+package ml.echelon133.matchservice.event.model;
+
+/**
+ * Summary of a single run of the verification of match columns derived from match events.
+ *
+ * @param verified number of verified matches
+ * @param drifted number of matches whose columns did not reflect their events
+ * @param repaired `true` if the columns of drifted matches have been rebuilt from their events
+ */
+public record MatchAggregateVerificationSummary(int verified, int drifted, boolean repaired) {
+}
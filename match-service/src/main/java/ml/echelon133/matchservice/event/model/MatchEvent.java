@@ -12,6 +12,12 @@ import java.util.UUID;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(
+        indexes = {
+                // backs incremental fetching of events which happened after the event with a known sequence number
+                @Index(columnList = "match_id, sequence", name = "match_id_sequence_index", unique = true),
+        }
+)
 public class MatchEvent {
 
     @Id
@@ -28,14 +34,31 @@ public class MatchEvent {
     @JoinColumn(name = "match_id", nullable = false)
     private Match match;
 
+    // number of the event in its match, assigned from the counter kept by the match
+    @Column(name = "sequence")
+    private Long sequence;
+
+    // details of the event stored as JSON (only one of the two columns with details is ever set)
     @Convert(converter = StringToEventDetailsConverter.class)
-    @Column(length = 2000, nullable = false)
-    private MatchEventDetails event;
+    @Column(length = 2000)
+    private EncodedMatchEventDetails event;
+
+    // details of the event stored in the format of MatchEventBinaryCodec
+    @Convert(converter = BinaryToEventDetailsConverter.class)
+    @Column(name = "event_binary", length = 2000)
+    private EncodedMatchEventDetails binaryEvent;
 
     public MatchEvent() {}
-    public MatchEvent(Match match, MatchEventDetails eventDto) {
+    public MatchEvent(Match match, EncodedMatchEventDetails encodedEvent) {
         this.match = match;
-        this.event = eventDto;
+        this.event = encodedEvent;
+    }
+    public MatchEvent(Match match, MatchEventDetails eventDto) {
+        this(match, new EncodedMatchEventDetails(eventDto, null));
+    }
+    public MatchEvent(Match match, Long sequence, MatchEventDetails eventDto) {
+        this(match, eventDto);
+        this.sequence = sequence;
     }
 
     public UUID getId() {
@@ -70,11 +93,48 @@ public class MatchEvent {
         this.match = match;
     }
 
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
     public MatchEventDetails getEvent() {
-        return event;
+        return getEncodedEvent().getDetails();
     }
 
     public void setEvent(MatchEventDetails event) {
-        this.event = event;
+        setEncodedEvent(new EncodedMatchEventDetails(event, null));
+    }
+
+    public EncodedMatchEventDetails getEncodedEvent() {
+        return event != null ? event : binaryEvent;
+    }
+
+    public void setEncodedEvent(EncodedMatchEventDetails encodedEvent) {
+        this.event = encodedEvent;
+        this.binaryEvent = null;
+    }
+
+    /**
+     * Checks whether the details of this event are stored in the binary format.
+     *
+     * @return `true` if the details are stored in the binary format, `false` if they are stored as JSON
+     */
+    public boolean isStoredAsBinary() {
+        return binaryEvent != null;
+    }
+
+    /**
+     * Moves the details of this event from the JSON column to the binary column. The details remain
+     * unchanged, only the way in which they are stored changes.
+     */
+    public void storeAsBinary() {
+        if (event != null) {
+            this.binaryEvent = event;
+            this.event = null;
+        }
     }
 }
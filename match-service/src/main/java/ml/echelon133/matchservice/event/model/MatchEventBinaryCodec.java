@@ -0,0 +1,175 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.common.event.dto.*;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+
+import java.io.*;
+import java.util.UUID;
+
+/**
+ * Compact binary format of {@link MatchEventDetails}, which can be read without the polymorphic
+ * deserialization that's needed to read the JSON form of the details.
+ *
+ * <p>
+ *     Every encoded event starts with the version of the format and a tag of the type of the event, followed
+ *     by the fields of the event in the order of their declaration. UUIDs are stored as 16 bytes, enums as
+ *     the ordinals of their constants (therefore new constants can only ever be added at the end
+ *     of an enum), strings as modified UTF-8 prefixed with their length, and optional players are
+ *     prefixed with a flag which tells whether they are present.
+ * </p>
+ */
+public final class MatchEventBinaryCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte STATUS = 1;
+    private static final byte COMMENTARY = 2;
+    private static final byte CARD = 3;
+    private static final byte GOAL = 4;
+    private static final byte SUBSTITUTION = 5;
+    private static final byte PENALTY = 6;
+
+    private MatchEventBinaryCodec() {}
+
+    /**
+     * Encodes the details of a match event.
+     *
+     * @param details details of the event to encode
+     * @return details of the event in the binary format
+     */
+    public static byte[] encode(MatchEventDetails details) {
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            switch (details) {
+                case StatusEventDetailsDto status -> {
+                    writeHeader(out, STATUS, status);
+                    out.writeByte(status.targetStatus().ordinal());
+                    writeUuid(out, status.teams().homeTeamId());
+                    writeUuid(out, status.teams().awayTeamId());
+                    out.writeByte(status.result().ordinal());
+                    out.writeShort(status.mainScore().homeGoals());
+                    out.writeShort(status.mainScore().awayGoals());
+                }
+                case CommentaryEventDetailsDto commentary -> {
+                    writeHeader(out, COMMENTARY, commentary);
+                    out.writeUTF(commentary.message());
+                }
+                case CardEventDetailsDto card -> {
+                    writeHeader(out, CARD, card);
+                    writeUuid(out, card.teamId());
+                    out.writeByte(card.cardType().ordinal());
+                    writePlayer(out, card.cardedPlayer());
+                }
+                case GoalEventDetailsDto goal -> {
+                    writeHeader(out, GOAL, goal);
+                    writeUuid(out, goal.teamId());
+                    writePlayer(out, goal.scoringPlayer());
+                    out.writeBoolean(goal.assistingPlayer() != null);
+                    if (goal.assistingPlayer() != null) {
+                        writePlayer(out, goal.assistingPlayer());
+                    }
+                    out.writeBoolean(goal.ownGoal());
+                }
+                case SubstitutionEventDetailsDto substitution -> {
+                    writeHeader(out, SUBSTITUTION, substitution);
+                    writeUuid(out, substitution.teamId());
+                    writePlayer(out, substitution.playerIn());
+                    writePlayer(out, substitution.playerOut());
+                }
+                case PenaltyEventDetailsDto penalty -> {
+                    writeHeader(out, PENALTY, penalty);
+                    writeUuid(out, penalty.teamId());
+                    writePlayer(out, penalty.shootingPlayer());
+                    out.writeBoolean(penalty.countAsGoal());
+                    out.writeBoolean(penalty.scored());
+                }
+            }
+        } catch (IOException ex) {
+            // writing to an in-memory stream never fails
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the details of a match event.
+     *
+     * @param encoded details of the event in the binary format
+     * @return decoded details of the event
+     * @throws IllegalArgumentException thrown when the content is not a valid encoded event
+     */
+    public static MatchEventDetails decode(byte[] encoded) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            var version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("unsupported version of the format: " + version);
+            }
+
+            var type = in.readByte();
+            var minute = in.readUTF();
+            var competitionId = readUuid(in);
+            return switch (type) {
+                case STATUS -> new StatusEventDetailsDto(
+                        minute,
+                        competitionId,
+                        MatchStatus.values()[in.readByte()],
+                        new SerializedTeam(readUuid(in), readUuid(in)),
+                        MatchResult.values()[in.readByte()],
+                        new SerializedScore(in.readShort(), in.readShort())
+                );
+                case COMMENTARY -> new CommentaryEventDetailsDto(minute, competitionId, in.readUTF());
+                case CARD -> new CardEventDetailsDto(
+                        minute,
+                        competitionId,
+                        readUuid(in),
+                        CardEventDetailsDto.CardType.values()[in.readByte()],
+                        readPlayer(in)
+                );
+                case GOAL -> new GoalEventDetailsDto(
+                        minute,
+                        competitionId,
+                        readUuid(in),
+                        readPlayer(in),
+                        in.readBoolean() ? readPlayer(in) : null,
+                        in.readBoolean()
+                );
+                case SUBSTITUTION -> new SubstitutionEventDetailsDto(
+                        minute, competitionId, readUuid(in), readPlayer(in), readPlayer(in)
+                );
+                case PENALTY -> new PenaltyEventDetailsDto(
+                        minute, competitionId, readUuid(in), readPlayer(in), in.readBoolean(), in.readBoolean()
+                );
+                default -> throw new IllegalArgumentException("unknown type of the event: " + type);
+            };
+        } catch (IOException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("failed decoding of an event", ex);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, byte type, MatchEventDetails details) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(details.minute());
+        writeUuid(out, details.competitionId());
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writePlayer(DataOutputStream out, SerializedPlayer player) throws IOException {
+        writeUuid(out, player.teamPlayerId());
+        writeUuid(out, player.playerId());
+        out.writeUTF(player.name());
+    }
+
+    private static SerializedPlayer readPlayer(DataInputStream in) throws IOException {
+        return new SerializedPlayer(readUuid(in), readUuid(in), in.readUTF());
+    }
+}
@@ -0,0 +1,17 @@
+package ml.echelon133.matchservice.event.model;
+
+/**
+ * Projection of a saved match event, which contains the details of the event in the same form as they are
+ * stored in the database.
+ *
+ * <p>
+ *     Details are either stored as JSON (returned by {@link #getEvent()}), or in the format of
+ *     {@link MatchEventBinaryCodec} (returned by {@link #getEventBinary()}). The other one is always `null`.
+ * </p>
+ */
+public interface MatchEventJson {
+    String getId();
+    Long getSequence();
+    String getEvent();
+    byte[] getEventBinary();
+}
@@ -0,0 +1,68 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.ScoreInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact state of a match sent as the first message to a client which starts listening to the events
+ * of that match, so that the client does not have to fetch the match and its events separately.
+ *
+ * @param matchId id of the match
+ * @param status current status of the match
+ * @param statusLastModifiedUTC time of the most recent change of the status of the match
+ * @param result current result of the match
+ * @param scoreInfo current scoreline of the match
+ * @param lastSequence sequence number of the most recent event of the match (0 if there are none), events with
+ *                     a sequence number which is not greater than this one are already reflected in the snapshot
+ * @param events most recent events of the match, in the order of their sequence numbers
+ */
+public record MatchSnapshotDto(
+        UUID matchId,
+        String status,
+        LocalDateTime statusLastModifiedUTC,
+        String result,
+        ScoreInfoDto scoreInfo,
+        long lastSequence,
+        List<EncodedMatchEventDto> events
+) {
+
+    /**
+     * Creates a snapshot which reflects the current state of a match and some of its events.
+     *
+     * @param match entity representing the match
+     * @param events events of the match, in the order of their sequence numbers
+     * @return snapshot of the match
+     */
+    public static MatchSnapshotDto of(Match match, List<EncodedMatchEventDto> events) {
+        var score = match.getScoreInfo();
+        return new MatchSnapshotDto(
+                match.getId(),
+                match.getStatus().name(),
+                match.getStatusLastModifiedUTC(),
+                match.getResult().name(),
+                new ScoreInfoDto(score.getHomeGoals(), score.getAwayGoals()),
+                lastSequenceOf(events),
+                List.copyOf(events)
+        );
+    }
+
+    /**
+     * Finds the sequence number of the most recent event which has one.
+     *
+     * @param events events in the order of their sequence numbers
+     * @return the most recent sequence number, or 0 if none of the events have one
+     */
+    public static long lastSequenceOf(List<EncodedMatchEventDto> events) {
+        // events saved before sequence numbers existed have `null` sequence numbers
+        return events.stream()
+                .map(EncodedMatchEventDto::sequence)
+                .filter(Objects::nonNull)
+                .reduce((first, second) -> second)
+                .orElse(0L);
+    }
+}
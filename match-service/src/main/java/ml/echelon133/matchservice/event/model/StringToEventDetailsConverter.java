@@ -13,7 +13,7 @@ import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
 @Converter
-public class StringToEventDetailsConverter implements AttributeConverter<MatchEventDetails, String> {
+public class StringToEventDetailsConverter implements AttributeConverter<EncodedMatchEventDetails, String> {
 
     private final ObjectMapper objectMapper;
     private final Logger logger = LoggerFactory.getLogger(StringToEventDetailsConverter.class.getName());
@@ -24,24 +24,38 @@ public class StringToEventDetailsConverter implements AttributeConverter<MatchEv
     }
 
     @Override
-    public String convertToDatabaseColumn(MatchEventDetails baseEventDto) {
+    public String convertToDatabaseColumn(EncodedMatchEventDetails encodedEvent) {
+        // events stored in the binary format do not have their JSON stored
+        if (encodedEvent == null) {
+            return null;
+        }
+
+        // events processed by the service are already serialized, so their JSON can be stored as it is
+        if (encodedEvent.getJson() != null) {
+            return encodedEvent.getJson();
+        }
+
         String result = "";
         try {
-            result = objectMapper.writeValueAsString(baseEventDto);
+            result = objectMapper.writeValueAsString(encodedEvent.getDetails());
         } catch (JsonProcessingException ex) {
-            logger.error("failed serialization of event of type " + baseEventDto.getClass());
+            logger.error("failed serialization of event of type " + encodedEvent.getDetails().getClass());
         }
         return result;
     }
 
     @Override
-    public MatchEventDetails convertToEntityAttribute(String s) {
+    public EncodedMatchEventDetails convertToEntityAttribute(String s) {
+        if (s == null) {
+            return null;
+        }
+
         MatchEventDetails eventDto = null;
         try {
             eventDto = objectMapper.readValue(s, new TypeReference<MatchEventDetails>() {});
         } catch (JsonProcessingException ex) {
             logger.error("failed deserialization of event with content " + s);
         }
-        return eventDto;
+        return new EncodedMatchEventDetails(eventDto, s);
     }
 }
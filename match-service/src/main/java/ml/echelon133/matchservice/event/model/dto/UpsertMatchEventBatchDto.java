@@ -0,0 +1,19 @@
+package ml.echelon133.matchservice.event.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Represents an ordered list of events of the match which should be processed together (e.g. while importing
+ * the feed of a match).
+ *
+ * @param events events of the match, in the order in which they happened
+ */
+public record UpsertMatchEventBatchDto(
+    @NotNull @Size(min = 1, max = 1000, message = "should contain between {min} and {max} events")
+    List<@Valid @NotNull UpsertMatchEvent> events
+) {
+}
@@ -1,11 +1,72 @@
 package ml.echelon133.matchservice.event.repository;
 
 import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.model.MatchEventJson;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface MatchEventRepository extends JpaRepository<MatchEvent, UUID> {
-    List<MatchEvent> findAllByMatch_IdOrderByDateCreatedAsc(UUID matchId);
+
+    /**
+     * Finds all events of the match with the specified id whose sequence numbers are greater than the specified one,
+     * without deserializing their details.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @param sequence sequence number of the last event already known to the client
+     * @return a list of match events (with their details in the form in which they are stored), ordered by
+     *      their sequence numbers
+     */
+    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
+    @Query(
+            value = """
+                    SELECT CAST(e.id as varchar) as id, e.sequence as sequence, e.event as event, e.event_binary as eventBinary \
+                    FROM match_event e \
+                    WHERE e.match_id = :matchId AND e.sequence > :sequence \
+                    ORDER BY e.sequence ASC \
+                    """,
+            nativeQuery = true
+    )
+    List<MatchEventJson> findAllJsonByMatchIdAfterSequence(UUID matchId, long sequence);
+
+    /**
+     * Finds all events of the match with the specified id, without deserializing their details.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @return a list of match events (with their details in the form in which they are stored), ordered by
+     *      their sequence numbers (events saved before sequence numbers existed come first, in the order of their creation)
+     */
+    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
+    @Query(
+            value = """
+                    SELECT CAST(e.id as varchar) as id, e.sequence as sequence, e.event as event, e.event_binary as eventBinary \
+                    FROM match_event e \
+                    WHERE e.match_id = :matchId \
+                    ORDER BY e.sequence ASC NULLS FIRST, e.date_created ASC \
+                    """,
+            nativeQuery = true
+    )
+    List<MatchEventJson> findAllJsonByMatchId(UUID matchId);
+
+    /**
+     * Finds all events of the match with the specified id, in the order in which they have been accepted.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @return a list of match events ordered by their sequence numbers (events saved before
+     *      sequence numbers existed come first, in the order of their creation)
+     */
+    @Query("SELECT e FROM MatchEvent e WHERE e.match.id = :matchId ORDER BY e.sequence ASC NULLS FIRST, e.dateCreated ASC")
+    List<MatchEvent> findAllInOrderByMatchId(UUID matchId);
+
+    /**
+     * Finds events whose details are stored as JSON.
+     *
+     * @param pageable information about the size of the page
+     * @return a list of match events whose details are stored as JSON
+     */
+    @Query("SELECT e FROM MatchEvent e WHERE e.event IS NOT NULL ORDER BY e.id ASC")
+    List<MatchEvent> findAllStoredAsJson(Pageable pageable);
 }
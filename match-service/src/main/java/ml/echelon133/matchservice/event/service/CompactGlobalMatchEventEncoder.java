@@ -0,0 +1,129 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.common.event.MatchEventType;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.event.model.CompactGlobalMatchEventLegend;
+import ml.echelon133.matchservice.match.model.GlobalGoalEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.model.GlobalRedCardEventDto;
+import ml.echelon133.matchservice.match.model.GlobalStatusEventDto;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes global match events into the compact form sent in {@link ml.echelon133.matchservice.event.model.CompactGlobalMatchEventFrame}.
+ *
+ * <p>
+ *     Instead of ids of matches, competitions and teams, compact events only carry short numeric handles of
+ *     their matches, and indexes of names listed in the {@link CompactGlobalMatchEventLegend}. Handles are
+ *     assigned by every replica of the service on its own, once per match, and are never reused, therefore
+ *     a client needs to receive the legend again after it reconnects.
+ * </p>
+ * <p>
+ *     Only handles of matches which are not over are kept (and listed in the legend). The handle of a match is
+ *     released once its final status (one which cannot change anymore) has been encoded and then sent, see
+ *     {@link #releaseFinishedMatches()}.
+ * </p>
+ */
+public class CompactGlobalMatchEventEncoder {
+
+    // indexes of values of these lists are sent instead of the values
+    private static final List<String> TYPES = List.of(
+            MatchEventType.GOAL.name(), MatchEventType.CARD.name(), MatchEventType.STATUS.name()
+    );
+    private static final List<String> SIDES = names(GlobalMatchEvent.EventSide.values());
+    private static final List<String> STATUSES = names(MatchStatus.values());
+    private static final List<String> RESULTS = names(MatchResult.values());
+
+    private final Map<UUID, Integer> handles = new ConcurrentHashMap<>();
+    private final AtomicInteger nextHandle = new AtomicInteger();
+    // matches whose final status has been encoded, but whose handles might not have been sent yet
+    private final Queue<UUID> finishedMatches = new ConcurrentLinkedQueue<>();
+    // matches whose final status has already been sent, and whose handles are released by the next call
+    private List<UUID> releasableMatches = List.of();
+
+    /**
+     * Global event in its compact form.
+     *
+     * @param matchId id of the match of the event
+     * @param handle handle of the match of the event
+     * @param newHandle whether the handle has been assigned while encoding this event
+     * @param json JSON array which represents the event
+     */
+    public record CompactEvent(UUID matchId, int handle, boolean newHandle, String json) {}
+
+    private static List<String> names(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).toList();
+    }
+
+    /**
+     * Encodes a global event, assigning a handle to its match if the match does not have one yet.
+     *
+     * @param event global event which will be encoded
+     * @return compact form of the event
+     */
+    public CompactEvent encode(GlobalMatchEvent event) {
+        var assigned = new boolean[1];
+        int handle = handles.computeIfAbsent(event.matchId(), id -> {
+            assigned[0] = true;
+            return nextHandle.getAndIncrement();
+        });
+
+        int type = TYPES.indexOf(event.type());
+        String json = switch (event) {
+            case GlobalGoalEventDto goal -> array(handle, type, goal.side().ordinal());
+            case GlobalRedCardEventDto redCard -> array(handle, type, redCard.side().ordinal());
+            case GlobalStatusEventDto status ->
+                    array(handle, type, status.targetStatus().ordinal(), status.result().ordinal());
+        };
+        if (event instanceof GlobalStatusEventDto status && isFinal(status.targetStatus())) {
+            finishedMatches.add(event.matchId());
+        }
+        return new CompactEvent(event.matchId(), handle, assigned[0], json);
+    }
+
+    private static boolean isFinal(MatchStatus status) {
+        return MatchStatus.VALID_STATUS_CHANGES.get(status).isEmpty();
+    }
+
+    /**
+     * Releases handles of matches which are over, so that they are no longer kept, nor listed in the legend.
+     *
+     * Meant to be called before the events encoded since the previous call are sent. Handles of matches whose final
+     * status has been encoded before the previous call are released, therefore a client which joined right before
+     * such a status was sent, and receives the legend only afterwards, still finds the handle in the legend.
+     */
+    public synchronized void releaseFinishedMatches() {
+        releasableMatches.forEach(handles::remove);
+
+        List<UUID> finished = new ArrayList<>();
+        for (UUID matchId = finishedMatches.poll(); matchId != null; matchId = finishedMatches.poll()) {
+            finished.add(matchId);
+        }
+        releasableMatches = finished;
+    }
+
+    private static String array(int... values) {
+        var joiner = new StringJoiner(",", "[", "]");
+        for (int value : values) {
+            joiner.add(String.valueOf(value));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Creates the legend of all handles which have not been released, and all names whose indexes are sent
+     * in compact events.
+     *
+     * @return legend which lets a client decode compact events
+     */
+    public CompactGlobalMatchEventLegend legend() {
+        Map<Integer, UUID> matches = new TreeMap<>();
+        handles.forEach((matchId, handle) -> matches.put(handle, matchId));
+        return new CompactGlobalMatchEventLegend(matches, TYPES, SIDES, STATUSES, RESULTS);
+    }
+}
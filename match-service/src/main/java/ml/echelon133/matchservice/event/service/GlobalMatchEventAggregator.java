@@ -0,0 +1,279 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.event.model.CompactGlobalMatchEventFrame;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFrame;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.model.GlobalStatusEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects global match events which happen during a short window of time, and sends them as a single frame
+ * to every room of clients once the window ends.
+ *
+ * <p>
+ *     Every room only receives the events which match its {@link GlobalMatchEventFilter}, and no frame is sent
+ *     to a room if none of the events match its filter.
+ * </p>
+ * <p>
+ *     Every event is serialized exactly once, when it's added, regardless of the number of rooms. If the status
+ *     of a match changes more than once during a single window, only the most recent status is sent, because
+ *     it supersedes all previous ones. Goals and red cards are never dropped.
+ * </p>
+ * <p>
+ *     Rooms of clients which asked for compact frames receive {@link CompactGlobalMatchEventFrame}s instead,
+ *     whose events are encoded once by {@link CompactGlobalMatchEventEncoder}.
+ * </p>
+ */
+public class GlobalMatchEventAggregator implements AutoCloseable {
+
+    private final static Logger logger = LoggerFactory.getLogger(GlobalMatchEventAggregator.class);
+
+    private final ObjectWriter eventWriter;
+    private final long windowMs;
+    private final Supplier<Collection<GlobalMatchEventFilter>> subscribedFilters;
+    private final BiConsumer<GlobalMatchEventFilter, GlobalMatchEventFrame> frameSink;
+    private final CompactGlobalMatchEventEncoder compactEncoder;
+    private final Supplier<Collection<GlobalMatchEventFilter>> compactSubscribedFilters;
+    private final BiConsumer<GlobalMatchEventFilter, CompactGlobalMatchEventFrame> compactFrameSink;
+    private final ScheduledExecutorService scheduler;
+    private final Counter sentFrames;
+    private final Counter savedFrames;
+    private final Counter supersededEvents;
+    private List<PendingEvent> pending = new ArrayList<>();
+
+    private record PendingEvent(
+            GlobalMatchEvent event, String json, CompactGlobalMatchEventEncoder.CompactEvent compact
+    ) {
+        boolean status() {
+            return event instanceof GlobalStatusEventDto;
+        }
+    }
+
+    /**
+     * Creates an aggregator which does not send anything until it gets started, and only sends frames
+     * in the regular (not compact) form.
+     *
+     * @param objectMapper mapper used for serializing events
+     * @param windowMs length of a window during which events are collected into a single frame
+     * @param subscribedFilters supplier of filters of all rooms which currently have clients
+     * @param frameSink receiver of frames, which sends every frame to the room of clients with the given filter
+     * @param meterRegistry registry of the metrics of the aggregator
+     */
+    public GlobalMatchEventAggregator(
+            ObjectMapper objectMapper,
+            long windowMs,
+            Supplier<Collection<GlobalMatchEventFilter>> subscribedFilters,
+            BiConsumer<GlobalMatchEventFilter, GlobalMatchEventFrame> frameSink,
+            MeterRegistry meterRegistry
+    ) {
+        this(
+                objectMapper, windowMs, subscribedFilters, frameSink,
+                new CompactGlobalMatchEventEncoder(), List::of, (filter, frame) -> {},
+                meterRegistry
+        );
+    }
+
+    /**
+     * Creates an aggregator which does not send anything until it gets started.
+     *
+     * @param objectMapper mapper used for serializing events
+     * @param windowMs length of a window during which events are collected into a single frame
+     * @param subscribedFilters supplier of filters of all rooms which currently have clients
+     * @param frameSink receiver of frames, which sends every frame to the room of clients with the given filter
+     * @param compactEncoder encoder of events sent in compact frames
+     * @param compactSubscribedFilters supplier of filters of all rooms whose clients want compact frames
+     * @param compactFrameSink receiver of compact frames, which sends every frame to the room of clients
+     *                         with the given filter
+     * @param meterRegistry registry of the metrics of the aggregator
+     */
+    public GlobalMatchEventAggregator(
+            ObjectMapper objectMapper,
+            long windowMs,
+            Supplier<Collection<GlobalMatchEventFilter>> subscribedFilters,
+            BiConsumer<GlobalMatchEventFilter, GlobalMatchEventFrame> frameSink,
+            CompactGlobalMatchEventEncoder compactEncoder,
+            Supplier<Collection<GlobalMatchEventFilter>> compactSubscribedFilters,
+            BiConsumer<GlobalMatchEventFilter, CompactGlobalMatchEventFrame> compactFrameSink,
+            MeterRegistry meterRegistry
+    ) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("window of global match events has to be positive");
+        }
+        // writing events as GlobalMatchEvent (and not their concrete type) adds the "type" property to their JSON
+        this.eventWriter = objectMapper.writerFor(GlobalMatchEvent.class);
+        this.windowMs = windowMs;
+        this.subscribedFilters = subscribedFilters;
+        this.frameSink = frameSink;
+        this.compactEncoder = compactEncoder;
+        this.compactSubscribedFilters = compactSubscribedFilters;
+        this.compactFrameSink = compactFrameSink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "global-match-event-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sentFrames = Counter.builder("match.events.global.frames.sent")
+                .description("Number of frames with global match events sent to clients")
+                .register(meterRegistry);
+        this.savedFrames = Counter.builder("match.events.global.frames.saved")
+                .description("Number of frames not sent thanks to sending multiple global match events in one frame")
+                .register(meterRegistry);
+        this.supersededEvents = Counter.builder("match.events.global.superseded")
+                .description("Number of status events superseded by a newer status of the same match before being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts sending a frame at the end of every window.
+     *
+     * @return this aggregator
+     */
+    public GlobalMatchEventAggregator start() {
+        scheduler.scheduleAtFixedRate(this::flushSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Adds an event to the frame of the current window.
+     *
+     * @param event global event which will be sent to all clients whose filter matches it
+     */
+    public void add(GlobalMatchEvent event) {
+        String json;
+        try {
+            json = eventWriter.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            logger.error("Global event of match {} could not be serialized", event.matchId(), ex);
+            return;
+        }
+
+        var pendingEvent = new PendingEvent(event, json, compactEncoder.encode(event));
+        synchronized (this) {
+            pending.add(pendingEvent);
+        }
+    }
+
+    /**
+     * Sends all events collected since the previous frame as a single frame to every room, where each room
+     * only receives the events matching its filter. Does not send anything if no events have been collected.
+     */
+    public void flush() {
+        // handles of matches which were over when the previous frame was sent are not needed anymore
+        compactEncoder.releaseFinishedMatches();
+
+        List<PendingEvent> events;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = pending;
+            pending = new ArrayList<>();
+        }
+
+        // only the most recent status of every match is sent
+        Map<UUID, Integer> lastStatusIndexes = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).status()) {
+                lastStatusIndexes.put(events.get(i).event().matchId(), i);
+            }
+        }
+
+        List<PendingEvent> eventsToSend = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            var event = events.get(i);
+            if (event.status() && lastStatusIndexes.get(event.event().matchId()) != i) {
+                continue;
+            }
+            eventsToSend.add(event);
+        }
+        supersededEvents.increment(events.size() - eventsToSend.size());
+
+        for (var filter : subscribedFilters.get()) {
+            var frame = new StringJoiner(",", "[", "]");
+            int matchingEvents = 0;
+            for (var event : eventsToSend) {
+                if (filter.matches(event.event())) {
+                    frame.add(event.json());
+                    matchingEvents++;
+                }
+            }
+            if (matchingEvents == 0) {
+                continue;
+            }
+
+            frameSink.accept(filter, new GlobalMatchEventFrame(frame.toString()));
+            sentFrames.increment();
+            savedFrames.increment(matchingEvents - 1);
+        }
+
+        // handles assigned during this window, even if to events which have been superseded, have to be sent
+        // together with the ids of their matches
+        Set<Integer> newHandles = new HashSet<>();
+        for (var event : events) {
+            if (event.compact().newHandle()) {
+                newHandles.add(event.compact().handle());
+            }
+        }
+
+        for (var filter : compactSubscribedFilters.get()) {
+            var frame = new StringJoiner(",", "[", "]");
+            Map<Integer, UUID> newMatches = new LinkedHashMap<>();
+            int matchingEvents = 0;
+            for (var event : eventsToSend) {
+                if (filter.matches(event.event())) {
+                    var compact = event.compact();
+                    frame.add(compact.json());
+                    if (newHandles.contains(compact.handle())) {
+                        newMatches.put(compact.handle(), compact.matchId());
+                    }
+                    matchingEvents++;
+                }
+            }
+            if (matchingEvents == 0) {
+                continue;
+            }
+
+            String matches = null;
+            if (!newMatches.isEmpty()) {
+                var joiner = new StringJoiner(",", "{", "}");
+                newMatches.forEach((handle, matchId) -> joiner.add("\"" + handle + "\":\"" + matchId + "\""));
+                matches = joiner.toString();
+            }
+            compactFrameSink.accept(filter, new CompactGlobalMatchEventFrame(matches, frame.toString()));
+            sentFrames.increment();
+            savedFrames.increment(matchingEvents - 1);
+        }
+    }
+
+    private void flushSafely() {
+        // an exception thrown by a scheduled task would cancel all of its future executions
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            logger.error("Frame with global match events could not be sent", ex);
+        }
+    }
+
+    /**
+     * Stops sending frames, and sends all events which have already been collected.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flushSafely();
+    }
+}
@@ -0,0 +1,226 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.service.MatchLineupCache;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Broadcasts match events to websocket clients connected to every replica of the service, using a Kafka topic
+ * as the bus between the replicas.
+ *
+ * <p>
+ *     The event is delivered to the clients of this replica right away, and then published to the topic.
+ *     Every replica consumes all records of the topic (each replica is the only member of its own consumer group),
+ *     and delivers events published by other replicas to its own clients. Records are keyed by the id of the match,
+ *     therefore events of a single match are delivered in the order in which they were published.
+ * </p>
+ * <p>
+ *     Besides delivering events to its clients, every replica also keeps its own in-memory copies of the state of
+ *     matches in line with events, lineup changes and player changes published by other replicas: it appends events
+ *     to its cached feeds, and evicts its cached snapshots, live states and lineups of the affected matches.
+ * </p>
+ * <p>
+ *     Broadcasting is best-effort, just like the websocket itself: events which could not be published are
+ *     only logged, since clients can always fetch missed events from the REST API.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "match-events.broadcast.bus", havingValue = "kafka")
+public class KafkaMatchEventBroadcaster implements MatchEventBroadcaster, MessageListener<UUID, String> {
+
+    private final static Logger logger = LoggerFactory.getLogger(KafkaMatchEventBroadcaster.class);
+
+    // headers of every record
+    final static String TYPE_HEADER = "broadcast-type";
+    final static String ORIGIN_HEADER = "broadcast-origin";
+    // headers of records which carry events of a specific match, whose value is the JSON of the event's details
+    final static String EVENT_ID_HEADER = "event-id";
+    final static String EVENT_SEQUENCE_HEADER = "event-sequence";
+
+    final static String MATCH_EVENT_TYPE = "MATCH_EVENT";
+    final static String GLOBAL_MATCH_EVENT_TYPE = "GLOBAL_MATCH_EVENT";
+    final static String LINEUP_CHANGE_TYPE = "LINEUP_CHANGE";
+    // unlike records of other types, records of this type are keyed by the id of the player
+    final static String PLAYER_CHANGE_TYPE = "PLAYER_CHANGE";
+
+    private final UUID instanceId = UUID.randomUUID();
+    private final MatchEventWebsocketService matchEventWebsocketService;
+    private final MatchEventFeedCache matchEventFeedCache;
+    private final MatchSnapshotCache matchSnapshotCache;
+    private final LiveMatchStateRegistry liveMatchStateRegistry;
+    private final MatchLineupCache matchLineupCache;
+    private final Producer<UUID, String> producer;
+    private final ObjectMapper objectMapper;
+    private final Counter receivedEvents;
+    private final Counter failedEvents;
+
+    @Autowired
+    public KafkaMatchEventBroadcaster(
+            MatchEventWebsocketService matchEventWebsocketService,
+            MatchEventFeedCache matchEventFeedCache,
+            MatchSnapshotCache matchSnapshotCache,
+            LiveMatchStateRegistry liveMatchStateRegistry,
+            MatchLineupCache matchLineupCache,
+            @Qualifier("matchBroadcastKafkaProducer") Producer<UUID, String> producer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.matchEventWebsocketService = matchEventWebsocketService;
+        this.matchEventFeedCache = matchEventFeedCache;
+        this.matchSnapshotCache = matchSnapshotCache;
+        this.liveMatchStateRegistry = liveMatchStateRegistry;
+        this.matchLineupCache = matchLineupCache;
+        this.producer = producer;
+        this.objectMapper = objectMapper;
+        this.receivedEvents = Counter.builder("match.events.broadcast.received")
+                .description("Number of events, lineup and player changes published by other replicas and handled by this replica")
+                .register(meterRegistry);
+        this.failedEvents = Counter.builder("match.events.broadcast.failures")
+                .description("Number of events which could not be published to, or read from, the broadcast topic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the id of this replica, which is unique for every start of the service.
+     *
+     * @return id of this replica
+     */
+    public UUID getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public void broadcastMatchEvent(UUID matchId, EncodedMatchEventDto matchEventDto) {
+        matchEventWebsocketService.sendMatchEvent(matchId, matchEventDto);
+
+        // details of the event are already serialized, so they are published as they are
+        var record = createRecord(MATCH_EVENT_TYPE, matchId, matchEventDto.event());
+        record.headers().add(EVENT_ID_HEADER, toBytes(matchEventDto.id().toString()));
+        if (matchEventDto.sequence() != null) {
+            record.headers().add(EVENT_SEQUENCE_HEADER, toBytes(matchEventDto.sequence().toString()));
+        }
+        publish(record);
+    }
+
+    @Override
+    public void broadcastGlobalMatchEvent(GlobalMatchEvent globalMatchEvent) {
+        matchEventWebsocketService.sendGlobalMatchEvent(globalMatchEvent);
+
+        String payload;
+        try {
+            payload = objectMapper.writerFor(GlobalMatchEvent.class).writeValueAsString(globalMatchEvent);
+        } catch (JsonProcessingException ex) {
+            failedEvents.increment();
+            logger.error("Global event of match {} could not be serialized", globalMatchEvent.matchId(), ex);
+            return;
+        }
+        publish(createRecord(GLOBAL_MATCH_EVENT_TYPE, globalMatchEvent.matchId(), payload));
+    }
+
+    @Override
+    public void broadcastLineupChange(UUID matchId) {
+        // this replica has already evicted its copies of the lineup, the record only needs the id of the match
+        publish(createRecord(LINEUP_CHANGE_TYPE, matchId, ""));
+    }
+
+    @Override
+    public void broadcastPlayerChange(UUID playerId) {
+        // this replica has already evicted its copies of the lineups, the record only needs the id of the player
+        publish(createRecord(PLAYER_CHANGE_TYPE, playerId, ""));
+    }
+
+    private ProducerRecord<UUID, String> createRecord(String type, UUID key, String payload) {
+        var record = new ProducerRecord<>(KafkaTopicNames.MATCH_BROADCASTS, key, payload);
+        record.headers().add(TYPE_HEADER, toBytes(type));
+        record.headers().add(ORIGIN_HEADER, toBytes(instanceId.toString()));
+        return record;
+    }
+
+    private void publish(ProducerRecord<UUID, String> record) {
+        producer.send(record, (metadata, ex) -> {
+            if (ex != null) {
+                failedEvents.increment();
+                logger.warn("Broadcast record with key {} could not be published to other replicas", record.key(), ex);
+            }
+        });
+    }
+
+    /**
+     * Delivers an event published by another replica to the websocket clients of this replica, and updates
+     * the in-memory copies of the state of the match which are kept by this replica.
+     *
+     * @param record record of the broadcast topic
+     */
+    @Override
+    public void onMessage(ConsumerRecord<UUID, String> record) {
+        var headers = record.headers();
+        // events published by this replica have already been delivered to its clients
+        if (instanceId.toString().equals(readHeader(headers, ORIGIN_HEADER))) {
+            return;
+        }
+
+        var type = readHeader(headers, TYPE_HEADER);
+        try {
+            if (MATCH_EVENT_TYPE.equals(type)) {
+                var sequence = readHeader(headers, EVENT_SEQUENCE_HEADER);
+                var matchEventDto = new EncodedMatchEventDto(
+                        UUID.fromString(readHeader(headers, EVENT_ID_HEADER)),
+                        sequence == null ? null : Long.valueOf(sequence),
+                        record.value()
+                );
+                // the event has been committed by another replica, therefore the feed of the match is extended with it,
+                // while its snapshot and live state (which cannot be rebuilt from the event alone) are reloaded
+                // from the database when they are needed again
+                matchEventFeedCache.append(record.key(), matchEventDto);
+                matchSnapshotCache.evict(record.key());
+                liveMatchStateRegistry.evict(record.key());
+                matchEventWebsocketService.sendMatchEvent(record.key(), matchEventDto);
+            } else if (GLOBAL_MATCH_EVENT_TYPE.equals(type)) {
+                var globalMatchEvent = objectMapper.readValue(record.value(), GlobalMatchEvent.class);
+                matchEventWebsocketService.sendGlobalMatchEvent(globalMatchEvent);
+            } else if (LINEUP_CHANGE_TYPE.equals(type)) {
+                // the in-memory state of a live match holds a copy of its lineup as well
+                liveMatchStateRegistry.evict(record.key());
+                matchLineupCache.evict(record.key());
+            } else if (PLAYER_CHANGE_TYPE.equals(type)) {
+                matchLineupCache.evictPlayer(record.key()).forEach(liveMatchStateRegistry::evict);
+            } else {
+                logger.warn("Broadcast record with key {} has an unknown type {}", record.key(), type);
+                return;
+            }
+            receivedEvents.increment();
+        } catch (JsonProcessingException | RuntimeException ex) {
+            failedEvents.increment();
+            logger.error("Broadcast record with key {} could not be delivered", record.key(), ex);
+        }
+    }
+
+    private static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
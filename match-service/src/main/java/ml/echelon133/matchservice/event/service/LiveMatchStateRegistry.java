@@ -0,0 +1,48 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.matchservice.event.model.LiveMatchState;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds in-memory states of live matches, so that the validation of match events does not require
+ * reading the entire history of a match from the database.
+ */
+@Service
+public class LiveMatchStateRegistry {
+
+    private final Map<UUID, LiveMatchState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Finds the state of the match with the specified id.
+     *
+     * @param matchId id of the match
+     * @return empty {@link Optional} if the state of the match has not been hydrated yet, or has been evicted
+     */
+    public Optional<LiveMatchState> find(UUID matchId) {
+        return Optional.ofNullable(states.get(matchId));
+    }
+
+    /**
+     * Registers the state of a match, replacing any state of that match that was registered before.
+     *
+     * @param state state to register
+     */
+    public void register(LiveMatchState state) {
+        states.put(state.getMatchId(), state);
+    }
+
+    /**
+     * Removes the state of the match with the specified id. The next event of that match which needs the state
+     * will hydrate it from the database.
+     *
+     * @param matchId id of the match whose state should be removed
+     */
+    public void evict(UUID matchId) {
+        states.remove(matchId);
+    }
+}
@@ -0,0 +1,46 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts match events only to websocket clients connected to this replica of the service.
+ *
+ * Used when the service runs as a single replica, and as an in-JVM stand-in for the Kafka bus.
+ */
+@Service
+@ConditionalOnProperty(name = "match-events.broadcast.bus", havingValue = "local", matchIfMissing = true)
+public class LocalMatchEventBroadcaster implements MatchEventBroadcaster {
+
+    private final MatchEventWebsocketService matchEventWebsocketService;
+
+    @Autowired
+    public LocalMatchEventBroadcaster(MatchEventWebsocketService matchEventWebsocketService) {
+        this.matchEventWebsocketService = matchEventWebsocketService;
+    }
+
+    @Override
+    public void broadcastMatchEvent(UUID matchId, EncodedMatchEventDto matchEventDto) {
+        matchEventWebsocketService.sendMatchEvent(matchId, matchEventDto);
+    }
+
+    @Override
+    public void broadcastGlobalMatchEvent(GlobalMatchEvent globalMatchEvent) {
+        matchEventWebsocketService.sendGlobalMatchEvent(globalMatchEvent);
+    }
+
+    @Override
+    public void broadcastLineupChange(UUID matchId) {
+        // the only replica is the one which made the change and has already evicted its copies of the lineup
+    }
+
+    @Override
+    public void broadcastPlayerChange(UUID playerId) {
+        // the only replica is the one which made the change and has already evicted its copies of the lineups
+    }
+}
@@ -0,0 +1,97 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.event.model.MatchAggregate;
+import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.repository.MatchEventRepository;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
+import ml.echelon133.matchservice.match.service.MatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Verifies (and optionally repairs) the columns of matches which are derived from their events, by replaying
+ * the events of a match into a {@link MatchAggregate} and comparing it with the match.
+ *
+ * <p>
+ *     Every match is verified in its own transaction, therefore only the events of a single match are
+ *     kept in memory at a time.
+ * </p>
+ */
+@Service
+@Transactional
+public class MatchAggregateService {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchAggregateService.class);
+
+    private final MatchService matchService;
+    private final MatchEventRepository matchEventRepository;
+    private final LiveMatchStateRegistry liveMatchStateRegistry;
+    private final MatchEventFeedCache matchEventFeedCache;
+    private final MatchSnapshotCache matchSnapshotCache;
+    private final MatchScheduleService matchScheduleService;
+    private final Counter driftedMatches;
+
+    @Autowired
+    public MatchAggregateService(
+            MatchService matchService,
+            MatchEventRepository matchEventRepository,
+            LiveMatchStateRegistry liveMatchStateRegistry,
+            MatchEventFeedCache matchEventFeedCache,
+            MatchSnapshotCache matchSnapshotCache,
+            MatchScheduleService matchScheduleService,
+            MeterRegistry meterRegistry
+    ) {
+        this.matchService = matchService;
+        this.matchEventRepository = matchEventRepository;
+        this.liveMatchStateRegistry = liveMatchStateRegistry;
+        this.matchEventFeedCache = matchEventFeedCache;
+        this.matchSnapshotCache = matchSnapshotCache;
+        this.matchScheduleService = matchScheduleService;
+        this.driftedMatches = Counter.builder("match.aggregates.drifted")
+                .description("Number of matches whose columns did not reflect their events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays the events of a match and compares the result with the columns of the match.
+     *
+     * When repairing, the columns of the match are overwritten with the replayed values, and everything that's
+     * cached about the match is evicted (even if the columns have not drifted), so that events deleted
+     * manually are neither served to clients nor used to validate new events.
+     *
+     * @param matchId id of the match to verify
+     * @param repair if `true`, the columns of the match are rebuilt from its events
+     * @return `true` if the columns of the match did not reflect its events
+     * @throws ResourceNotFoundException thrown when the match with the provided id does not exist or is marked as deleted
+     */
+    public boolean rebuild(UUID matchId, boolean repair) throws ResourceNotFoundException {
+        Match match = matchService.findEntityById(matchId);
+        var events = matchEventRepository.findAllInOrderByMatchId(matchId)
+                .stream().map(MatchEvent::getEvent).toList();
+        var aggregate = MatchAggregate.replay(match.getHomeTeam().getId(), events);
+
+        var drifted = !aggregate.isReflectedIn(match);
+        if (drifted) {
+            driftedMatches.increment();
+            logger.warn("Columns of match {} do not reflect its {} events (repair: {})", matchId, events.size(), repair);
+        }
+
+        if (repair) {
+            aggregate.copyInto(match);
+            liveMatchStateRegistry.evict(matchId);
+            matchEventFeedCache.evict(matchId);
+            matchSnapshotCache.evict(matchId);
+            matchScheduleService.refresh(match);
+        }
+        return drifted;
+    }
+}
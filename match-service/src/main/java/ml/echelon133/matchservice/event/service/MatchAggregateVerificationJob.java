@@ -0,0 +1,96 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventLaneBusyException;
+import ml.echelon133.matchservice.event.model.MatchAggregateVerificationSummary;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies (and optionally repairs) the columns of all matches which are derived from their events.
+ *
+ * <p>
+ *     Ids of matches are read page by page (using the last visited id instead of an offset), and every match is
+ *     verified in its own transaction, in the lane of that match, so that the job never competes with
+ *     the processing of new events, and its memory usage does not depend on the number of matches.
+ * </p>
+ */
+@Service
+public class MatchAggregateVerificationJob {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchAggregateVerificationJob.class);
+
+    // smallest possible id, which is the starting point of the iteration over all matches
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final MatchRepository matchRepository;
+    private final MatchEventSequencer matchEventSequencer;
+    private final int pageSize;
+    private final boolean repairOnSchedule;
+
+    @Autowired
+    public MatchAggregateVerificationJob(
+            MatchRepository matchRepository,
+            MatchEventSequencer matchEventSequencer,
+            @Value("${match-aggregates.verification.page-size:500}") int pageSize,
+            @Value("${match-aggregates.verification.repair:false}") boolean repairOnSchedule
+    ) {
+        this.matchRepository = matchRepository;
+        this.matchEventSequencer = matchEventSequencer;
+        this.pageSize = pageSize;
+        this.repairOnSchedule = repairOnSchedule;
+    }
+
+    /**
+     * Runs the verification of all matches on the configured schedule (disabled by default).
+     */
+    @Scheduled(cron = "${match-aggregates.verification.cron:-}")
+    public void verifyOnSchedule() {
+        var summary = verifyAll(repairOnSchedule);
+        logger.info("Verified {} matches, {} of them drifted (repaired: {})",
+                summary.verified(), summary.drifted(), summary.repaired());
+    }
+
+    /**
+     * Verifies all non-deleted matches.
+     *
+     * @param repair if `true`, the columns of drifted matches are rebuilt from their events
+     * @return summary of the verification
+     */
+    public MatchAggregateVerificationSummary verifyAll(boolean repair) {
+        int verified = 0;
+        int drifted = 0;
+
+        var lastId = FIRST_ID;
+        List<UUID> matchIds;
+        do {
+            matchIds = matchRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize));
+            for (UUID matchId : matchIds) {
+                try {
+                    if (matchEventSequencer.rebuildAggregate(matchId, repair)) {
+                        drifted++;
+                    }
+                    verified++;
+                } catch (ResourceNotFoundException ignore) {
+                    // the match has been deleted after its id was read
+                } catch (MatchEventLaneBusyException ignore) {
+                    // the lane of the match is too busy, the match gets verified by the next run
+                }
+            }
+            if (!matchIds.isEmpty()) {
+                lastId = matchIds.get(matchIds.size() - 1);
+            }
+        } while (matchIds.size() == pageSize);
+
+        return new MatchAggregateVerificationSummary(verified, drifted, repair);
+    }
+}
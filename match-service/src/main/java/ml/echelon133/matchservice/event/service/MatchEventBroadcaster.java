@@ -0,0 +1,52 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts processed match events to websocket clients connected to every replica of the service,
+ * not only to the clients of the replica which processed the event.
+ *
+ * <p>
+ *     The implementation is selected with the `match-events.broadcast.bus` property:
+ *     <ul>
+ *         <li>local - {@link LocalMatchEventBroadcaster}, which only reaches clients of this replica</li>
+ *         <li>kafka - {@link KafkaMatchEventBroadcaster}, which reaches clients of all replicas</li>
+ *     </ul>
+ * </p>
+ */
+public interface MatchEventBroadcaster {
+
+    /**
+     * Broadcasts a match event to all clients who listen to events of a particular match.
+     *
+     * @param matchId id of the match during which the event took place
+     * @param matchEventDto dto representing the event
+     */
+    void broadcastMatchEvent(UUID matchId, EncodedMatchEventDto matchEventDto);
+
+    /**
+     * Broadcasts a match event to all clients who listen to the most important events of all matches.
+     *
+     * @param globalMatchEvent dto representing the global event
+     */
+    void broadcastGlobalMatchEvent(GlobalMatchEvent globalMatchEvent);
+
+    /**
+     * Lets every replica know that the lineup of a match has changed, so that replicas which did not make
+     * the change evict their cached copies of that lineup.
+     *
+     * @param matchId id of the match whose lineup has changed
+     */
+    void broadcastLineupChange(UUID matchId);
+
+    /**
+     * Lets every replica know that the information about a player has changed, so that replicas which did not
+     * make the change evict their cached copies of lineups which list that player.
+     *
+     * @param playerId id of the player whose information has changed
+     */
+    void broadcastPlayerChange(UUID playerId);
+}
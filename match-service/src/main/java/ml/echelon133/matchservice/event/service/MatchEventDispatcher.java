@@ -0,0 +1,152 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the results of processed match events (websocket messages) outside of the request
+ * which processed them.
+ *
+ * <p>
+ *     Actions are only queued after the transaction in which the event was saved commits, therefore
+ *     events which get rolled back are never published. Queued actions are executed in the order
+ *     in which they were queued, in batches, by a single dedicated thread, so that slow websocket clients
+ *     do not slow down the processing of events.
+ * </p>
+ *
+ * <p>
+ *     The queue is bounded. When it's full, the thread which tries to queue an action waits for a free place
+ *     for a limited time, which slows down the producers of events. An action which still does not fit is dropped
+ *     (never executed out of order), and clients which miss its event notice the gap in sequence numbers.
+ * </p>
+ */
+@Service
+public class MatchEventDispatcher implements DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchEventDispatcher.class);
+
+    private final BlockingQueue<PendingDispatch> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final Thread worker;
+    private final Timer dispatchLag;
+    private final Counter overflows;
+    private volatile boolean running = true;
+
+    private record PendingDispatch(Runnable action, long queuedAtNanos) {}
+
+    @Autowired
+    public MatchEventDispatcher(
+            @Value("${match-events.dispatch.queue-capacity:10000}") int queueCapacity,
+            @Value("${match-events.dispatch.batch-size:100}") int batchSize,
+            @Value("${match-events.dispatch.offer-timeout-ms:1000}") long offerTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        Gauge.builder("match.events.dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Number of actions waiting to be dispatched")
+                .register(meterRegistry);
+        this.dispatchLag = Timer.builder("match.events.dispatch.lag")
+                .description("Time between the commit of an event and the dispatch of an action")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("match.events.dispatch.overflows")
+                .description("Number of actions dropped because the queue stayed full")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::dispatchInBatches, "match-event-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Dispatches an action once the current transaction commits. If there is no active transaction,
+     * the action is queued right away.
+     *
+     * @param action action which publishes the result of a processed event
+     */
+    public void dispatchAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(action);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(action);
+            }
+        });
+    }
+
+    private void enqueue(Runnable action) {
+        var pending = new PendingDispatch(action, System.nanoTime());
+        try {
+            if (queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        overflows.increment();
+        logger.warn("Dropped a match event action, because the dispatch queue stayed full for {} ms", offerTimeoutMs);
+    }
+
+    private void dispatch(PendingDispatch pending) {
+        dispatchLag.record(System.nanoTime() - pending.queuedAtNanos(), TimeUnit.NANOSECONDS);
+        try {
+            pending.action().run();
+        } catch (RuntimeException ex) {
+            logger.error("Dispatch of a match event action failed", ex);
+        }
+    }
+
+    private void dispatchInBatches() {
+        List<PendingDispatch> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // wait for at least one action, then take everything else that's already waiting
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(this::dispatch);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops the dispatching thread and dispatches all actions which are still queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<PendingDispatch> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::dispatch);
+    }
+}
@@ -0,0 +1,80 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.common.event.MatchEventType;
+import ml.echelon133.common.event.dto.MatchEventDetails;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serializes details of match events into JSON, which is then reused by every consumer of the event
+ * (the database, Kafka, the websocket and REST clients).
+ *
+ * <p>
+ *     If the binary storage is enabled, details are stored in the database in the format of
+ *     {@link ml.echelon133.matchservice.event.model.MatchEventBinaryCodec} instead of JSON.
+ * </p>
+ */
+@Service
+public class MatchEventEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Counter> encodings;
+    private final boolean binaryStorage;
+
+    @Autowired
+    public MatchEventEncoder(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${match-events.storage.binary:false}") boolean binaryStorage
+    ) {
+        this.objectMapper = objectMapper;
+        this.encodings = Arrays.stream(MatchEventType.values()).collect(Collectors.toUnmodifiableMap(
+                MatchEventType::name,
+                type -> Counter.builder("match.events.encodings")
+                        .description("Number of serializations of match event details")
+                        .tag("type", type.name())
+                        .register(meterRegistry)
+        ));
+        this.binaryStorage = binaryStorage;
+    }
+
+    /**
+     * Checks whether details of new events should be stored in the binary format.
+     *
+     * @return `true` if details of new events should be stored in the binary format, `false` if as JSON
+     */
+    public boolean isBinaryStorageEnabled() {
+        return binaryStorage;
+    }
+
+    /**
+     * Serializes the details of a match event.
+     *
+     * Every serialization is counted by the <i>match.events.encodings</i> counter (tagged with the type
+     * of the event), which makes it possible to compare the number of serializations with the number
+     * of accepted events.
+     *
+     * @param details details of the event which will be serialized
+     * @return details of the event together with their JSON representation
+     */
+    public EncodedMatchEventDetails encode(MatchEventDetails details) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("failed serialization of event of type " + details.getClass(), ex);
+        }
+        encodings.get(details.type()).increment();
+        return new EncodedMatchEventDetails(details, json);
+    }
+}
@@ -0,0 +1,161 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.cache.BoundedCache;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Holds already serialized events of the most recently requested matches, so that fetching the events of a match
+ * neither reads nor deserializes them from the database.
+ *
+ * <p>
+ *     Feeds of matches are loaded on the first request, then new events are appended to them after their
+ *     transactions commit. The number of cached feeds is bounded, and the least recently used feed is
+ *     evicted first.
+ * </p>
+ */
+@Service
+public class MatchEventFeedCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Events of a match, to which committed events are appended without copying the events which are
+     * already cached.
+     *
+     * Events are only ever written past the current size (while holding the lock of the match), therefore
+     * the lists returned by {@link Feed#events()} never change, even when more events get appended afterwards.
+     */
+    private static final class Feed {
+        private EncodedMatchEventDto[] events;
+        private int size;
+        // sequence number of the last event which has one (events saved before sequence numbers existed do not)
+        private long lastSequence;
+
+        private Feed(List<EncodedMatchEventDto> events) {
+            this.events = events.toArray(new EncodedMatchEventDto[0]);
+            this.size = this.events.length;
+            for (var event : this.events) {
+                if (event.sequence() != null) {
+                    this.lastSequence = event.sequence();
+                }
+            }
+        }
+
+        private void append(EncodedMatchEventDto event) {
+            if (size == events.length) {
+                // lists returned before the growth keep reading the previous array, which is never written again
+                events = Arrays.copyOf(events, Math.max(16, size * 2));
+            }
+            events[size++] = event;
+            lastSequence = event.sequence();
+        }
+
+        private List<EncodedMatchEventDto> events() {
+            return Collections.unmodifiableList(Arrays.asList(events).subList(0, size));
+        }
+    }
+
+    private final BoundedCache<UUID, Feed> feeds;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public MatchEventFeedCache(
+            @Value("${match-events.feed-cache.max-matches:1000}") int maxCachedMatches,
+            MeterRegistry meterRegistry
+    ) {
+        this.feeds = new BoundedCache<>(
+                maxCachedMatches, "match.events.feed.cache", "Number of requests for the events of a match", meterRegistry
+        );
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private Object lockOf(UUID matchId) {
+        return locks[Math.floorMod(matchId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Finds the cached events of the match with the specified id, without loading them when they are not cached.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @return an immutable list of events of the match, or an empty optional if the events are not cached
+     */
+    public Optional<List<EncodedMatchEventDto>> find(UUID matchId) {
+        synchronized (lockOf(matchId)) {
+            return feeds.find(matchId).map(Feed::events);
+        }
+    }
+
+    /**
+     * Finds all events of the match with the specified id.
+     *
+     * The loader is only called when the events of the match are not cached. Loading happens while holding
+     * the lock of the match, which guarantees that an event committed during the loading is either
+     * already present in the loaded list, or is appended to it afterwards.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @param loader function which loads all events of the match from the database
+     * @return an immutable list of events of the match
+     */
+    public List<EncodedMatchEventDto> findAll(UUID matchId, Function<UUID, List<EncodedMatchEventDto>> loader) {
+        synchronized (lockOf(matchId)) {
+            var feed = feeds.find(matchId);
+            if (feed.isPresent()) {
+                return feed.get().events();
+            }
+            var loadedFeed = new Feed(loader.apply(matchId));
+            feeds.put(matchId, loadedFeed);
+            return loadedFeed.events();
+        }
+    }
+
+    /**
+     * Appends a committed event to the cached events of its match (if they are cached).
+     *
+     * Events which are already cached (e.g. loaded from the database after they had been committed, or broadcast
+     * by another replica more than once) are skipped. If the sequence number of the event does not directly follow
+     * the sequence number of the last cached event, the cached events are evicted, because some event must have
+     * been missed.
+     *
+     * @param matchId id of the match to which the event belongs
+     * @param event the committed event
+     */
+    public void append(UUID matchId, EncodedMatchEventDto event) {
+        synchronized (lockOf(matchId)) {
+            var feed = feeds.peek(matchId);
+            if (feed == null) {
+                return;
+            }
+
+            if (event.sequence() != null && event.sequence() <= feed.lastSequence) {
+                return;
+            }
+            if (event.sequence() == null || event.sequence() != feed.lastSequence + 1) {
+                evict(matchId);
+                return;
+            }
+            feed.append(event);
+        }
+    }
+
+    /**
+     * Removes the cached events of the match with the specified id.
+     *
+     * @param matchId id of the match whose events should no longer be cached
+     */
+    public void evict(UUID matchId) {
+        feeds.evict(matchId);
+    }
+}
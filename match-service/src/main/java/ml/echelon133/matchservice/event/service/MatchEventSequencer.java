@@ -0,0 +1,230 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventLaneBusyException;
+import ml.echelon133.matchservice.event.model.dto.UpsertMatchEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Processes events of every match in a single lane, in the order in which they arrive.
+ *
+ * <p>
+ *     Every match is assigned to one of a fixed number of lanes (based on its id), and every lane is served
+ *     by a single thread. Events of a single match are therefore never processed concurrently, which means
+ *     that they neither compete for the optimistic lock of the match, nor validate against a state
+ *     that's being modified. Events of matches assigned to different lanes are processed in parallel.
+ * </p>
+ * <p>
+ *     Lanes are bounded. Events are rejected (see {@link MatchEventLaneBusyException}) when too many events
+ *     are already waiting in their lane, or when they have not been started within the wait timeout, so that
+ *     a slow lane neither piles up events nor holds the threads of requests for long. Rejected events are never
+ *     processed. Events which have been started are always waited for, since they may already be committed.
+ * </p>
+ * <p>
+ *     Lanes only exist within a single replica of the service. When events of the same match are sent to
+ *     different replicas at the same time, only the optimistic lock of the match keeps them apart: the event
+ *     whose transaction commits second is rejected and has to be sent again.
+ * </p>
+ */
+@Service
+public class MatchEventSequencer implements DisposableBean {
+
+    private final MatchEventService matchEventService;
+    private final MatchAggregateService matchAggregateService;
+    private final ThreadPoolExecutor[] lanes;
+    private final long waitTimeoutMs;
+    private final Timer laneWait;
+    private final Counter fullRejections;
+    private final Counter timeoutRejections;
+
+    @Autowired
+    public MatchEventSequencer(
+            MatchEventService matchEventService,
+            MatchAggregateService matchAggregateService,
+            @Value("${match-events.lanes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int laneCount,
+            @Value("${match-events.lane.queue-capacity:1000}") int queueCapacity,
+            @Value("${match-events.lane.wait-timeout-ms:10000}") long waitTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.matchEventService = matchEventService;
+        this.matchAggregateService = matchAggregateService;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            var laneName = "match-event-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(
+                    1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> new Thread(r, laneName)
+            );
+        }
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.laneWait = Timer.builder("match.events.lane.wait")
+                .description("Time an event waits in its lane before being processed")
+                .register(meterRegistry);
+        this.fullRejections = countRejections(meterRegistry, "full");
+        this.timeoutRejections = countRejections(meterRegistry, "timeout");
+    }
+
+    private static Counter countRejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("match.events.lane.rejections")
+                .description("Number of tasks rejected without being processed, because their lane was too busy")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private ThreadPoolExecutor laneOf(UUID matchId) {
+        return lanes[Math.floorMod(matchId.hashCode(), lanes.length)];
+    }
+
+    /**
+     * Action which processes events of a match.
+     *
+     * @param <T> type of the result of processing
+     */
+    @FunctionalInterface
+    private interface LaneTask<T> {
+        T run() throws ResourceNotFoundException, MatchEventInvalidException;
+    }
+
+    /**
+     * Runs a task in the lane of the match, and waits until the task is finished.
+     *
+     * The task is rejected if the lane is full, or if it has not been started within the wait timeout. Once
+     * the task has been started, it's waited for until it's finished.
+     *
+     * @param matchId id of the match whose events are processed by the task
+     * @param task task to run
+     * @return result of the task
+     * @param <T> type of the result of the task
+     * @throws ResourceNotFoundException rethrown from the task
+     * @throws MatchEventInvalidException rethrown from the task
+     * @throws MatchEventLaneBusyException thrown when the task has been rejected without being run
+     */
+    private <T> T runInLane(UUID matchId, LaneTask<T> task)
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        var queuedAt = System.nanoTime();
+        // claimed either by the lane which starts the task, or by the caller which stops waiting for the start
+        var claimed = new AtomicBoolean();
+        Future<T> result;
+        try {
+            result = laneOf(matchId).submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                laneWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.run();
+            });
+        } catch (RejectedExecutionException ex) {
+            fullRejections.increment();
+            throw new MatchEventLaneBusyException(matchId);
+        }
+
+        try {
+            try {
+                return result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                // a task which has not been started yet is never going to run, but a started task may already have
+                // committed its events, therefore it's waited for, so that its caller never sends them again
+                if (claimed.compareAndSet(false, true)) {
+                    result.cancel(false);
+                    timeoutRejections.increment();
+                    throw new MatchEventLaneBusyException(matchId);
+                }
+                return result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the events to be processed", ex);
+        } catch (ExecutionException ex) {
+            switch (ex.getCause()) {
+                case ResourceNotFoundException notFound -> throw notFound;
+                case MatchEventInvalidException invalid -> throw invalid;
+                case RuntimeException runtime -> throw runtime;
+                case Error error -> throw error;
+                default -> throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Processes an event in the lane of its match, and waits until the processing is finished.
+     *
+     * @param matchId id of the match to which this event belongs to
+     * @param eventDto dto containing information about the event
+     * @throws ResourceNotFoundException thrown when the match with the provided id does not exist or is marked as deleted
+     * @throws MatchEventInvalidException thrown when processing of the event is not possible for some reason
+     * @throws MatchEventLaneBusyException thrown when the lane of the match is too busy, nothing has been processed
+     * @see MatchEventService#processEvent(UUID, UpsertMatchEvent)
+     */
+    public void processEvent(UUID matchId, UpsertMatchEvent eventDto)
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        runInLane(matchId, () -> {
+            matchEventService.processEvent(matchId, eventDto);
+            return null;
+        });
+    }
+
+    /**
+     * Processes an ordered list of events in the lane of their match, and waits until the processing is finished.
+     *
+     * @param matchId id of the match to which these events belong to
+     * @param eventDtos dtos containing information about the events, in the order in which they happened
+     * @return number of processed events
+     * @throws ResourceNotFoundException thrown when the match with the provided id does not exist or is marked as deleted
+     * @throws MatchEventInvalidException thrown when processing of any event is not possible for some reason
+     * @throws MatchEventLaneBusyException thrown when the lane of the match is too busy, nothing has been processed
+     * @see MatchEventService#processEvents(UUID, List)
+     */
+    public int processEvents(UUID matchId, List<UpsertMatchEvent> eventDtos)
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        return runInLane(matchId, () -> matchEventService.processEvents(matchId, eventDtos));
+    }
+
+    /**
+     * Verifies (and optionally repairs) the columns of a match derived from its events in the lane of the match,
+     * so that events processed at the same time never modify the match in the middle of its verification.
+     *
+     * @param matchId id of the match to verify
+     * @param repair if `true`, the columns of the match are rebuilt from its events
+     * @return `true` if the columns of the match did not reflect its events
+     * @throws ResourceNotFoundException thrown when the match with the provided id does not exist or is marked as deleted
+     * @throws MatchEventLaneBusyException thrown when the lane of the match is too busy, nothing has been processed
+     * @see MatchAggregateService#rebuild(UUID, boolean)
+     */
+    public boolean rebuildAggregate(UUID matchId, boolean repair) throws ResourceNotFoundException {
+        try {
+            return runInLane(matchId, () -> matchAggregateService.rebuild(matchId, repair));
+        } catch (MatchEventInvalidException ex) {
+            // rebuilding does not validate any events, therefore this is never thrown
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
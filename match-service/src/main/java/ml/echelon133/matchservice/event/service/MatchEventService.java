@@ -6,26 +6,35 @@ import ml.echelon133.common.event.dto.*;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchResult;
 import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.event.exceptions.MatchEventBatchInvalidException;
 import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.LiveMatchState;
 import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.model.MatchEventBinaryCodec;
+import ml.echelon133.matchservice.event.model.MatchEventJson;
+import ml.echelon133.matchservice.event.model.MatchSnapshotDto;
 import ml.echelon133.matchservice.event.model.dto.*;
 import ml.echelon133.matchservice.event.repository.MatchEventRepository;
 import ml.echelon133.matchservice.match.model.*;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
 import ml.echelon133.matchservice.match.service.MatchService;
+import ml.echelon133.matchservice.outbox.service.OutboxService;
 import ml.echelon133.matchservice.team.model.TeamPlayer;
 import ml.echelon133.matchservice.team.service.TeamPlayerService;
-import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static ml.echelon133.common.match.MatchStatus.*;
 
@@ -37,9 +46,14 @@ public class MatchEventService {
     private final MatchService matchService;
     private final TeamPlayerService teamPlayerService;
     private final MatchEventRepository matchEventRepository;
-    private final MatchEventWebsocketService matchEventWebsocketService;
-    private final KafkaProducer<UUID, MatchEventDetails> matchEventDetailsProducer;
-    private final KafkaProducer<UUID, MatchInfo> matchInfoProducer;
+    private final MatchEventBroadcaster matchEventBroadcaster;
+    private final LiveMatchStateRegistry liveMatchStateRegistry;
+    private final MatchEventEncoder matchEventEncoder;
+    private final MatchEventFeedCache matchEventFeedCache;
+    private final MatchSnapshotCache matchSnapshotCache;
+    private final MatchEventDispatcher matchEventDispatcher;
+    private final OutboxService outboxService;
+    private final MatchScheduleService matchScheduleService;
 
     @Autowired
     public MatchEventService(
@@ -47,43 +61,228 @@ public class MatchEventService {
             MatchService matchService,
             TeamPlayerService teamPlayerService,
             MatchEventRepository matchEventRepository,
-            MatchEventWebsocketService matchEventWebsocketService,
-            KafkaProducer<UUID, MatchEventDetails> matchEventDetailsProducer,
-            KafkaProducer<UUID, MatchInfo> matchInfoProducer
+            MatchEventBroadcaster matchEventBroadcaster,
+            LiveMatchStateRegistry liveMatchStateRegistry,
+            MatchEventEncoder matchEventEncoder,
+            MatchEventFeedCache matchEventFeedCache,
+            MatchSnapshotCache matchSnapshotCache,
+            MatchEventDispatcher matchEventDispatcher,
+            OutboxService outboxService,
+            MatchScheduleService matchScheduleService
     ) {
         this.clock = clock;
         this.matchService = matchService;
         this.teamPlayerService = teamPlayerService;
         this.matchEventRepository = matchEventRepository;
-        this.matchEventWebsocketService = matchEventWebsocketService;
-        this.matchEventDetailsProducer = matchEventDetailsProducer;
-        this.matchInfoProducer = matchInfoProducer;
+        this.matchEventBroadcaster = matchEventBroadcaster;
+        this.liveMatchStateRegistry = liveMatchStateRegistry;
+        this.matchEventEncoder = matchEventEncoder;
+        this.matchEventFeedCache = matchEventFeedCache;
+        this.matchSnapshotCache = matchSnapshotCache;
+        this.matchEventDispatcher = matchEventDispatcher;
+        this.outboxService = outboxService;
+        this.matchScheduleService = matchScheduleService;
     }
 
     /**
      * Converts an entity to a dto class that's safe to serialize and display to users.
      *
      * @param event the entity to convert
-     * @return dto converted from an entity
+     * @return dto converted from an entity, which reuses already serialized details of the event
      */
-    private static MatchEventDto convertEntityToDto(MatchEvent event) {
-        return new MatchEventDto(event.getId(), event.getEvent());
+    private static EncodedMatchEventDto convertEntityToDto(MatchEvent event) {
+        return new EncodedMatchEventDto(event.getId(), event.getSequence(), event.getEncodedEvent().getJson());
+    }
+
+    /**
+     * Converts a projection of an event read from the database to a dto class that's safe to serialize and
+     * display to users.
+     *
+     * Details stored as JSON are reused as they are, while details stored in the binary format are serialized.
+     *
+     * @param event the projection to convert
+     * @return dto converted from a projection
+     */
+    private EncodedMatchEventDto convertJsonToDto(MatchEventJson event) {
+        var json = event.getEvent();
+        if (json == null) {
+            json = matchEventEncoder.encode(MatchEventBinaryCodec.decode(event.getEventBinary())).getJson();
+        }
+        return new EncodedMatchEventDto(UUID.fromString(event.getId()), event.getSequence(), json);
     }
 
     /**
      * Finds all events of the match with the specified id.
      *
+     * Events are served from {@link MatchEventFeedCache}, and only read from the database when the events of
+     * the match are not cached. Details of events are never deserialized, because they are returned
+     * in the form in which they are stored.
+     *
      * @param matchId id of the match whose events will be fetched
      * @return a list of match events
      */
-    public List<MatchEventDto> findAllByMatchId(UUID matchId) {
-        return matchEventRepository.findAllByMatch_IdOrderByDateCreatedAsc(matchId)
-                .stream().map(MatchEventService::convertEntityToDto).collect(Collectors.toList());
+    public List<EncodedMatchEventDto> findAllByMatchId(UUID matchId) {
+        return matchEventFeedCache.findAll(matchId, id ->
+                matchEventRepository.findAllJsonByMatchId(id)
+                        .stream().map(this::convertJsonToDto).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Finds all events of the match with the specified id which happened after the event with
+     * the specified sequence number.
+     *
+     * This lets clients which already know some prefix of the events of a match (e.g. after reconnecting)
+     * only fetch the events they have missed. When the events of the match are not cached, only the missed
+     * events are read from the database.
+     *
+     * @param matchId id of the match whose events will be fetched
+     * @param afterSequence sequence number of the last event already known to the client
+     * @return a list of match events ordered by their sequence numbers
+     */
+    public List<EncodedMatchEventDto> findAllByMatchIdAfterSequence(UUID matchId, long afterSequence) {
+        var feed = matchEventFeedCache.find(matchId);
+        if (feed.isPresent()) {
+            return feed.get().stream()
+                    .filter(e -> e.sequence() != null && e.sequence() > afterSequence)
+                    .collect(Collectors.toList());
+        }
+        return matchEventRepository.findAllJsonByMatchIdAfterSequence(matchId, afterSequence)
+                .stream().map(this::convertJsonToDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the snapshot of the match with the specified id, which is sent to the clients who start listening
+     * to the events of that match.
+     *
+     * Snapshots are served from {@link MatchSnapshotCache}, and only built from the database (and the cached
+     * events of the match) when the snapshot of the match is not cached.
+     *
+     * @param matchId id of the match whose snapshot will be fetched
+     * @return snapshot of the match, or an empty optional if the match does not exist or is marked as deleted
+     */
+    public Optional<MatchSnapshotDto> findSnapshot(UUID matchId) {
+        return findCachedSnapshot(matchId).or(() -> loadSnapshot(matchId));
+    }
+
+    /**
+     * Finds the snapshot of the match with the specified id without reading anything from the database.
+     *
+     * @param matchId id of the match whose snapshot will be fetched
+     * @return snapshot of the match, or an empty optional if the snapshot is not cached
+     */
+    public Optional<MatchSnapshotDto> findCachedSnapshot(UUID matchId) {
+        return matchSnapshotCache.findCached(matchId);
+    }
+
+    /**
+     * Builds the snapshot of the match with the specified id from the database (and the cached events
+     * of the match), unless it has been cached in the meantime.
+     *
+     * @param matchId id of the match whose snapshot will be built
+     * @return snapshot of the match, or an empty optional if the match does not exist or is marked as deleted
+     */
+    public Optional<MatchSnapshotDto> loadSnapshot(UUID matchId) {
+        return matchSnapshotCache.load(matchId, id -> {
+            try {
+                var match = matchService.findEntityById(id);
+                return Optional.of(MatchSnapshotDto.of(match, findAllByMatchId(id)));
+            } catch (ResourceNotFoundException ignore) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Updates the caches of a match once the transaction in which its events were saved commits,
+     * so that events which get rolled back are never served to the clients.
+     *
+     * @param update action which updates the caches
+     */
+    private void updateCachesAfterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Finds the in-memory state of a live match. If the state is missing or does not reflect the current status
+     * or the most recent event of the match (e.g. the status was changed while the state was evicted, or the event
+     * was accepted by another replica), the state is hydrated from the lineup and the history of the match.
+     *
+     * @param match entity representing the match whose state is needed
+     * @return in-memory state of the match
+     */
+    private LiveMatchState findLiveMatchState(Match match) {
+        var state = liveMatchStateRegistry.find(match.getId());
+        // the state is only up-to-date if it has seen the most recent event of the match, which is not the case
+        // when another replica of the service has accepted an event in the meantime
+        if (state.isPresent() &&
+                state.get().getStatus().equals(match.getStatus()) &&
+                Objects.equals(state.get().getLastEventSequence(), match.getLastEventSequence())) {
+            return state.get();
+        }
+
+        // events saved together (e.g. by a batch) can share their creation dates, therefore only their
+        // sequence numbers reflect the order in which they have been accepted
+        var history = matchEventRepository.findAllInOrderByMatchId(match.getId())
+                .stream().map(MatchEvent::getEvent).collect(Collectors.toList());
+        var hydratedState = LiveMatchState.hydrate(match, matchService.findMatchLineup(match.getId()), history);
+        liveMatchStateRegistry.register(hydratedState);
+        return hydratedState;
     }
 
     /**
-     * Processes match events. If the processing is successful, events are saved in the database and broadcast
-     * over the websocket of a particular match.
+     * Updates the in-memory state of a match (if it has already been hydrated) with an accepted event.
+     *
+     * The state of a match is evicted when:
+     * <ul>
+     *     <li>the state has not seen the event which precedes the accepted event (e.g. because it was accepted
+     *     by another replica of the service)</li>
+     *     <li>the match is over, because no more events that require the state can be accepted</li>
+     *     <li>the transaction in which the event was saved gets rolled back, because the state would
+     *     otherwise contain an event which does not exist in the database</li>
+     * </ul>
+     *
+     * @param match entity representing the match to which the event belongs
+     * @param matchEvent event which has been accepted
+     */
+    private void updateLiveMatchState(Match match, MatchEvent matchEvent) {
+        var matchId = match.getId();
+        if (RESULT_TYPE_STATUSES.contains(match.getStatus().name())) {
+            liveMatchStateRegistry.evict(matchId);
+            return;
+        }
+
+        liveMatchStateRegistry.find(matchId).ifPresent(state -> {
+            if (!state.applyNext(matchEvent.getEvent(), matchEvent.getSequence(), match)) {
+                liveMatchStateRegistry.evict(matchId);
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liveMatchStateRegistry.evict(matchId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Processes match events. If the processing is successful, events are saved in the database and, once
+     * the transaction commits, broadcast over the websocket of a particular match by {@link MatchEventDispatcher}.
      *
      * @param matchId id of the match to which this event belongs to
      * @param eventDto dto containing information about the event
@@ -93,7 +292,57 @@ public class MatchEventService {
     public void processEvent(UUID matchId, UpsertMatchEvent eventDto)
             throws ResourceNotFoundException, MatchEventInvalidException {
         var match = matchService.findEntityById(matchId);
+        var matchEvent = applyEvent(match, eventDto);
+        matchEventRepository.save(matchEvent);
+        publishEvents(match, List.of(matchEvent));
+    }
+
+    /**
+     * Processes an ordered list of match events (e.g. while importing the feed of a match) in a single transaction.
+     *
+     * Every event is validated against the state of the match which already reflects all events that precede it
+     * in the list. If any event is rejected, none of the events are saved. Accepted events are saved together
+     * (in JDBC batches), and, once the transaction commits, broadcast over the websocket of a particular match
+     * as a single dispatch.
+     *
+     * @param matchId id of the match to which these events belong to
+     * @param eventDtos dtos containing information about the events, in the order in which they happened
+     * @return number of processed events
+     * @throws ResourceNotFoundException thrown when the match with the provided id does not exist or is marked as deleted
+     * @throws MatchEventBatchInvalidException thrown when processing of any event is not possible for some reason,
+     *                                         including events which refer to entities which do not exist
+     */
+    @Transactional(rollbackOn = {ResourceNotFoundException.class, MatchEventInvalidException.class})
+    public int processEvents(UUID matchId, List<UpsertMatchEvent> eventDtos)
+            throws ResourceNotFoundException, MatchEventBatchInvalidException {
+        var match = matchService.findEntityById(matchId);
 
+        List<MatchEvent> matchEvents = new ArrayList<>(eventDtos.size());
+        for (int i = 0; i < eventDtos.size(); i++) {
+            try {
+                matchEvents.add(applyEvent(match, eventDtos.get(i)));
+            } catch (MatchEventInvalidException | ResourceNotFoundException ex) {
+                // e.g. the event refers to a player who does not exist
+                throw new MatchEventBatchInvalidException(i, ex.getMessage());
+            }
+        }
+
+        matchEventRepository.saveAll(matchEvents);
+        publishEvents(match, matchEvents);
+        return matchEvents.size();
+    }
+
+    /**
+     * Validates a single match event and applies it to the match and its in-memory state.
+     *
+     * @param match entity representing the match to which this event belongs to
+     * @param eventDto dto containing information about the event
+     * @return match event that is ready to be saved
+     * @throws ResourceNotFoundException thrown when any entity referenced by the event does not exist
+     * @throws MatchEventInvalidException thrown when processing of the event is not possible for some reason
+     */
+    private MatchEvent applyEvent(Match match, UpsertMatchEvent eventDto)
+            throws ResourceNotFoundException, MatchEventInvalidException {
         MatchEvent matchEvent = switch (eventDto) {
             case UpsertStatusEventDto statusEventDto -> {
                 var event = processStatusEvent(match, statusEventDto);
@@ -101,12 +350,10 @@ public class MatchEventService {
                 // finished will reject all subsequent StatusEvents)
                 if (match.getStatus().equals(FINISHED)) {
                     // let other services know about this match being finished
-                    matchInfoProducer.send(
-                            new ProducerRecord<>(
-                                    KafkaTopicNames.MATCH_INFO,
-                                    match.getId(),
-                                    new MatchInfo.FinishEvent(match.getCompetitionId(), match.getId())
-                            )
+                    outboxService.save(
+                            KafkaTopicNames.MATCH_INFO,
+                            match.getId(),
+                            new MatchInfo.FinishEvent(match.getCompetitionId(), match.getId())
                     );
                 }
                 yield event;
@@ -118,13 +365,60 @@ public class MatchEventService {
             case UpsertPenaltyEventDto penaltyEventDto -> processPenaltyEvent(match, penaltyEventDto);
         };
 
-        matchEventRepository.save(matchEvent);
-        matchEventWebsocketService.sendMatchEvent(
-                matchEvent.getMatch().getId(),
-                convertEntityToDto(matchEvent)
-        );
-        matchEventDetailsProducer.send(
-                new ProducerRecord<>(KafkaTopicNames.MATCH_EVENTS, matchEvent.getId(), matchEvent.getEvent())
+        matchEvent.setSequence(match.nextEventSequence());
+        if (matchEventEncoder.isBinaryStorageEnabled()) {
+            matchEvent.storeAsBinary();
+        }
+        updateLiveMatchState(match, matchEvent);
+        return matchEvent;
+    }
+
+    /**
+     * Checks whether an event changes any information about its match which is listed in the schedule, i.e.
+     * the status, the result, the score, the penalties or the red cards of the match.
+     *
+     * @param event accepted event of the match
+     * @return `true` if the schedule entry of the match needs to be refreshed
+     */
+    private static boolean changesScheduleEntry(MatchEventDetails event) {
+        return event instanceof StatusEventDetailsDto ||
+                event instanceof GoalEventDetailsDto ||
+                (event instanceof PenaltyEventDetailsDto penalty && penalty.scored()) ||
+                (event instanceof CardEventDetailsDto card && card.cardType() != CardEventDetailsDto.CardType.YELLOW);
+    }
+
+    /**
+     * Publishes saved events of a match to the REST clients, other services and websocket clients.
+     *
+     * @param match entity representing the match to which the events belong to, with all events already applied
+     * @param matchEvents saved events, in the order of their sequence numbers
+     */
+    private void publishEvents(Match match, List<MatchEvent> matchEvents) {
+        var matchId = match.getId();
+        // details of the event have been serialized exactly once, and that JSON is shared by the database,
+        // the websocket, Kafka and the caches of events served to the REST and websocket clients
+        var matchEventDtos = matchEvents.stream().map(MatchEventService::convertEntityToDto).toList();
+        // the state of the match is captured right away, because the entity is not supposed to be read
+        // after the transaction ends
+        var latestSnapshot = MatchSnapshotDto.of(match, matchEventDtos);
+        updateCachesAfterCommit(() -> {
+            matchEventDtos.forEach(matchEventDto -> matchEventFeedCache.append(matchId, matchEventDto));
+            matchSnapshotCache.update(latestSnapshot);
+        });
+        // the status, score and red cards listed in the schedule change in the same transaction as the match,
+        // while events which change none of them (e.g. commentary) do not rewrite the schedule entry
+        if (matchEvents.stream().anyMatch(matchEvent -> changesScheduleEntry(matchEvent.getEvent()))) {
+            matchScheduleService.refresh(match);
+        }
+        for (EncodedMatchEventDto matchEventDto : matchEventDtos) {
+            // the record is saved in the same transaction as the event, and sent to Kafka by the OutboxRelay
+            // once the transaction commits, therefore other services never miss events, nor receive rolled back ones
+            outboxService.save(KafkaTopicNames.MATCH_EVENTS, matchEventDto.id(), matchEventDto.event());
+        }
+        // broadcasting happens after the commit and outside of this request, so that slow websocket clients
+        // do not keep the transaction open
+        matchEventDispatcher.dispatchAfterCommit(() ->
+                matchEventDtos.forEach(matchEventDto -> matchEventBroadcaster.broadcastMatchEvent(matchId, matchEventDto))
         );
     }
 
@@ -204,11 +498,15 @@ public class MatchEventService {
         );
 
         // globally broadcast a match changing its status
-        matchEventWebsocketService.sendGlobalMatchEvent(new GlobalStatusEventDto(
+        var globalStatusEvent = new GlobalStatusEventDto(
                 match.getId(),
+                match.getCompetitionId(),
+                match.getHomeTeam().getId(),
+                match.getAwayTeam().getId(),
                 targetStatus,
                 match.getResult()
-        ));
+        );
+        matchEventDispatcher.dispatchAfterCommit(() -> matchEventBroadcaster.broadcastGlobalMatchEvent(globalStatusEvent));
 
         match.setStatus(targetStatus);
 
@@ -216,7 +514,7 @@ public class MatchEventService {
         // to approximate the match clock of live matches
         match.setStatusLastModifiedUTC(LocalDateTime.now(clock));
 
-        return new MatchEvent(match, eventDetails);
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -235,40 +533,7 @@ public class MatchEventService {
                 match.getCompetitionId(),
                 commentaryDto.message()
         );
-        return new MatchEvent(match, eventDetails);
-    }
-
-    /**
-     * Predicate that returns `true` if a {@link MatchEventDto} is a card event that belongs to a player with
-     * a particular id.
-     *
-     * @param event the event which is being checked
-     * @param teamPlayerId id of the player who is being checked for having been carded
-     * @return `true` if the described conditions are satisfied
-     */
-    private static boolean isCardEventOfPlayer(MatchEventDto event, UUID teamPlayerId) {
-        if (event.event() instanceof CardEventDetailsDto e) {
-            return e.cardedPlayer().teamPlayerId().equals(teamPlayerId);
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Predicate that returns `true` if a {@link MatchEventDto} is a card event holding a card of one of the types
-     * that's listed in the arguments.
-     *
-     * @param event the event which is being checked
-     * @param cardTypes one or more card types which we want to filter by
-     * @return `true` if the described conditions are satisfied
-     */
-    private static boolean isCardEventOfCardType(MatchEventDto event, CardEventDetailsDto.CardType... cardTypes) {
-        if (event.event() instanceof CardEventDetailsDto cDto) {
-            var foundCardType= cDto.cardType();
-            return Arrays.asList(cardTypes).contains(foundCardType);
-        } else {
-            return false;
-        }
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -310,36 +575,19 @@ public class MatchEventService {
                 CardEventDetailsDto.CardType.DIRECT_RED :
                 CardEventDetailsDto.CardType.YELLOW;
 
-        // fetch all card events of the player to prepare for checking if they can even get yet another card
-        var playerCardEvents = this.findAllByMatchId(match.getId()).stream()
-                .filter(e -> isCardEventOfPlayer(e, cardedTeamPlayer.getId())).collect(Collectors.toList());
-
-        // only do additional checks if the player had any prior cards
-        if (!playerCardEvents.isEmpty()) {
-            var secondYellowOrRed = playerCardEvents.stream().anyMatch(
-                    e -> isCardEventOfCardType(
-                            e,
-                            CardEventDetailsDto.CardType.SECOND_YELLOW,
-                            CardEventDetailsDto.CardType.DIRECT_RED
-                    )
-            );
-
-            // throw if the player has had a second yellow or a direct red card because it should not be possible
-            // to give them any more cards
-            if (secondYellowOrRed) {
-                throw new MatchEventInvalidException("the player is already ejected");
-            }
+        // check the cards the player has already received to make sure they can even get yet another card
+        var state = findLiveMatchState(match);
 
-            // check if the player has a single yellow card, which is important in case the target card is yellow
-            var singleYellow = playerCardEvents.stream().anyMatch(
-                    e -> isCardEventOfCardType(e, CardEventDetailsDto.CardType.YELLOW)
-            );
+        // throw if the player has had a second yellow or a direct red card because it should not be possible
+        // to give them any more cards
+        if (state.isSentOff(cardedTeamPlayer.getId())) {
+            throw new MatchEventInvalidException("the player is already ejected");
+        }
 
-            // if the player already has a yellow card and receives another one - mark it as a second yellow,
-            // otherwise allow direct red cards even if the player already has a yellow card
-            if (singleYellow && !cardDto.redCard()) {
-                cardType = CardEventDetailsDto.CardType.SECOND_YELLOW;
-            }
+        // if the player already has a yellow card and receives another one - mark it as a second yellow,
+        // otherwise allow direct red cards even if the player already has a yellow card
+        if (state.hasYellowCard(cardedTeamPlayer.getId()) && !cardDto.redCard()) {
+            cardType = CardEventDetailsDto.CardType.SECOND_YELLOW;
         }
 
         var eventDetails = new CardEventDetailsDto(
@@ -367,13 +615,17 @@ public class MatchEventService {
             }
 
             // globally broadcast a red card for the side which got it
-            matchEventWebsocketService.sendGlobalMatchEvent(new GlobalRedCardEventDto(
+            var globalRedCardEvent = new GlobalRedCardEventDto(
                     match.getId(),
-                    homeTeamCarded ? GlobalMatchEvent.EventSide.HOME : GlobalMatchEvent.EventSide.AWAY)
+                    match.getCompetitionId(),
+                    match.getHomeTeam().getId(),
+                    match.getAwayTeam().getId(),
+                    homeTeamCarded ? GlobalMatchEvent.EventSide.HOME : GlobalMatchEvent.EventSide.AWAY
             );
+            matchEventDispatcher.dispatchAfterCommit(() -> matchEventBroadcaster.broadcastGlobalMatchEvent(globalRedCardEvent));
         }
 
-        return new MatchEvent(match, eventDetails);
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -448,7 +700,7 @@ public class MatchEventService {
         );
 
         incrementMatchScoreline(match, scoredByHomeTeam);
-        return new MatchEvent(match, eventDetails);
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -512,7 +764,7 @@ public class MatchEventService {
                 playerOutInfo
         );
 
-        return new MatchEvent(match, eventDetails);
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -574,7 +826,7 @@ public class MatchEventService {
                 penaltyDto.scored()
         );
 
-        return new MatchEvent(match, eventDetails);
+        return new MatchEvent(match, matchEventEncoder.encode(eventDetails));
     }
 
     /**
@@ -613,13 +865,8 @@ public class MatchEventService {
             );
         }
 
-        var lineup = matchService.findMatchLineup(match.getId());
-        LineupDto.TeamLineup teamLineup = match.getHomeTeam().equals(teamPlayerTeam) ? lineup.home() : lineup.away();
-
-        var playerInLineup = Stream.concat(
-                teamLineup.startingPlayers().stream(),
-                teamLineup.substitutePlayers().stream()
-        ).anyMatch(tPlayer -> tPlayer.getId().equals(teamPlayer.getId()));
+        var state = findLiveMatchState(match);
+        var playerInLineup = state.isInLineup(homeTeam.equals(teamPlayerTeam), teamPlayer.getId());
 
         if (!playerInLineup) {
             throw new MatchEventInvalidException(
@@ -662,38 +909,22 @@ public class MatchEventService {
      * @throws MatchEventInvalidException the exception thrown when the conditions are not met
      */
     private void throwIfPlayerNotOnPitch(Match match, TeamPlayer player) throws MatchEventInvalidException {
-        var matchEvents = this.findAllByMatchId(match.getId());
+        var state = findLiveMatchState(match);
         var exception = new MatchEventInvalidException(
                 String.format("the player %s is not on the pitch", player.getId())
         );
 
-        boolean sentOff = matchEvents.stream()
-                .filter(e -> isCardEventOfPlayer(e, player.getId()))
-                .anyMatch(
-                        e -> isCardEventOfCardType(
-                                e,
-                                CardEventDetailsDto.CardType.SECOND_YELLOW,
-                                CardEventDetailsDto.CardType.DIRECT_RED
-                        )
-                );
-        if (sentOff) {
+        if (state.isSentOff(player.getId())) {
             throw exception;
         }
 
-        boolean substitutedOff = matchEvents.stream().anyMatch(
-                e -> isSubstitutionOffEventOfPlayer(e, player.getId())
-        );
-        if (substitutedOff) {
+        if (state.isSubstitutedOff(player.getId())) {
             throw exception;
         }
 
-        var lineup = matchService.findMatchLineup(match.getId());
-        LineupDto.TeamLineup teamLineup = match.getHomeTeam().equals(player.getTeam()) ? lineup.home() : lineup.away();
-
-        boolean substitutedOn = matchEvents.stream().anyMatch(
-                e -> isSubstitutionOnEventOfPlayer(e, player.getId()));
-        boolean startingPlayer = teamLineup.startingPlayers().stream().anyMatch(
-                teamPlayer -> teamPlayer.getId().equals(player.getId()));
+        var homeSide = match.getHomeTeam().equals(player.getTeam());
+        boolean substitutedOn = state.isSubstitutedOn(player.getId());
+        boolean startingPlayer = state.isStartingPlayer(homeSide, player.getId());
 
         if (!(startingPlayer || substitutedOn)) {
             throw exception;
@@ -718,76 +949,28 @@ public class MatchEventService {
      * @throws MatchEventInvalidException the exception thrown when the conditions are not met
      */
     private void throwIfPlayerCannotBeSubbedOn(Match match, TeamPlayer player) throws MatchEventInvalidException {
-        var matchEvents = this.findAllByMatchId(match.getId());
+        var state = findLiveMatchState(match);
         var exception = new MatchEventInvalidException(
                 String.format("the player %s cannot enter the pitch", player.getId())
         );
 
-        var lineup = matchService.findMatchLineup(match.getId());
-        LineupDto.TeamLineup teamLineup = match.getHomeTeam().equals(player.getTeam()) ? lineup.home() : lineup.away();
-
-        boolean substitutePlayer= teamLineup.substitutePlayers().stream()
-                .anyMatch(teamPlayer -> teamPlayer.getId().equals(player.getId()));
+        var homeSide = match.getHomeTeam().equals(player.getTeam());
         // a player who started the game on the pitch cannot be subbed on in the game
-        if (!substitutePlayer) {
+        if (!state.isSubstitutePlayer(homeSide, player.getId())) {
             throw exception;
         }
 
-        boolean sentOff = matchEvents.stream()
-                .filter(e -> isCardEventOfPlayer(e, player.getId()))
-                .anyMatch(
-                        e -> isCardEventOfCardType(
-                                e,
-                                CardEventDetailsDto.CardType.SECOND_YELLOW,
-                                CardEventDetailsDto.CardType.DIRECT_RED
-                        )
-                );
         // if the player got two yellows or a red while on the bench, they cannot be subbed on
-        if (sentOff) {
+        if (state.isSentOff(player.getId())) {
             throw exception;
         }
 
-        boolean substitutionOn = matchEvents.stream().anyMatch(
-                e -> isSubstitutionOnEventOfPlayer(e, player.getId())
-        );
         // a player once subbed on cannot be subbed on again
-        if (substitutionOn) {
+        if (state.isSubstitutedOn(player.getId())) {
             throw exception;
         }
     }
 
-    /**
-     * Predicate that returns `true` if a {@link MatchEventDto} is a substitution event that signifies
-     * player with a particular id being substituted off in the match.
-     *
-     * @param event the event which is being checked
-     * @param teamPlayerId the id of the player who is being checked for being substituted off
-     * @return `true` if the described conditions are satisfied
-     */
-    private static boolean isSubstitutionOffEventOfPlayer(MatchEventDto event, UUID teamPlayerId) {
-        if (event.event() instanceof SubstitutionEventDetailsDto e) {
-            return e.playerOut().teamPlayerId().equals(teamPlayerId);
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Predicate that returns `true` if a {@link MatchEventDto} is a substitution event that signifies
-     * player with a particular id being substituted on in the match.
-     *
-     * @param event the event which is being checked
-     * @param teamPlayerId the id of the player who is being checked for being substituted on
-     * @return `true` if the described conditions are satisfied
-     */
-    private static boolean isSubstitutionOnEventOfPlayer(MatchEventDto event, UUID teamPlayerId) {
-        if (event.event() instanceof SubstitutionEventDetailsDto e) {
-            return e.playerIn().teamPlayerId().equals(teamPlayerId);
-        } else {
-            return false;
-        }
-    }
-
     /**
      * Helper method which increments the scoreline in the match differently depending on multiple conditions.
      *
@@ -817,16 +1000,21 @@ public class MatchEventService {
                 score.incrementAwayGoals();
             }
 
-            // set the half-time score in case we are in the FIRST_HALF
+            // set the half-time score in case we are in the FIRST_HALF (as a copy, because sharing the instance
+            // would keep updating the half-time score with goals from the second half of the same transaction)
             if (match.getStatus().equals(FIRST_HALF)) {
-                match.setHalfTimeScoreInfo(score);
+                match.setHalfTimeScoreInfo(ScoreInfo.of(score.getHomeGoals(), score.getAwayGoals()));
             }
 
             // globally broadcast a goal being scored
-            matchEventWebsocketService.sendGlobalMatchEvent(new GlobalGoalEventDto(
+            var globalGoalEvent = new GlobalGoalEventDto(
                     match.getId(),
+                    match.getCompetitionId(),
+                    match.getHomeTeam().getId(),
+                    match.getAwayTeam().getId(),
                     homeGoal ? GlobalMatchEvent.EventSide.HOME : GlobalMatchEvent.EventSide.AWAY
-            ));
+            );
+            matchEventDispatcher.dispatchAfterCommit(() -> matchEventBroadcaster.broadcastGlobalMatchEvent(globalGoalEvent));
         }
     }
 
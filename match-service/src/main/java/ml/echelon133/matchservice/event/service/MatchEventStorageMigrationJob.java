@@ -0,0 +1,52 @@
+package ml.echelon133.matchservice.event.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Migrates details of all match events stored as JSON to the binary format, one batch (and one transaction)
+ * at a time, so that the migration never holds more than a single batch of events in memory.
+ *
+ * <p>
+ *     Before the first event is stored in the binary format, the JSON column has to be made nullable
+ *     (<i>ALTER TABLE match_event ALTER COLUMN event DROP NOT NULL</i>), because schema updates
+ *     never relax existing constraints.
+ * </p>
+ */
+@Service
+public class MatchEventStorageMigrationJob {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchEventStorageMigrationJob.class);
+
+    private final MatchEventStorageService matchEventStorageService;
+    private final int batchSize;
+
+    @Autowired
+    public MatchEventStorageMigrationJob(
+            MatchEventStorageService matchEventStorageService,
+            @Value("${match-events.storage.migration-batch-size:500}") int batchSize
+    ) {
+        this.matchEventStorageService = matchEventStorageService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Migrates details of all events stored as JSON to the binary format.
+     *
+     * @return number of migrated events
+     */
+    public int migrateAllToBinary() {
+        int migrated = 0;
+        int migratedInBatch;
+        do {
+            migratedInBatch = matchEventStorageService.migrateBatchToBinary(batchSize);
+            migrated += migratedInBatch;
+        } while (migratedInBatch == batchSize);
+
+        logger.info("Migrated {} match events to the binary format", migrated);
+        return migrated;
+    }
+}
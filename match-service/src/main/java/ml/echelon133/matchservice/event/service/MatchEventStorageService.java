@@ -0,0 +1,40 @@
+package ml.echelon133.matchservice.event.service;
+
+import jakarta.transaction.Transactional;
+import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.repository.MatchEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves details of already saved match events from the JSON column to the binary column.
+ *
+ * <p>
+ *     Events stored in either format can be read at any time, therefore events can be migrated
+ *     while the service is running, in batches, each in its own transaction.
+ * </p>
+ */
+@Service
+@Transactional
+public class MatchEventStorageService {
+
+    private final MatchEventRepository matchEventRepository;
+
+    @Autowired
+    public MatchEventStorageService(MatchEventRepository matchEventRepository) {
+        this.matchEventRepository = matchEventRepository;
+    }
+
+    /**
+     * Moves details of a batch of events whose details are stored as JSON to the binary column.
+     *
+     * @param batchSize maximum number of events to migrate
+     * @return number of migrated events (if smaller than the size of the batch, there is nothing left to migrate)
+     */
+    public int migrateBatchToBinary(int batchSize) {
+        var events = matchEventRepository.findAllStoredAsJson(PageRequest.of(0, batchSize));
+        events.forEach(MatchEvent::storeAsBinary);
+        return events.size();
+    }
+}
@@ -0,0 +1,542 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFrame;
+import ml.echelon133.matchservice.match.model.Match;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams match events to HTTP clients as server-sent events, as a lightweight alternative to the websocket
+ * namespaces of {@link MatchEventWebsocketService}, for clients which only need one-way updates.
+ *
+ * <p>
+ *     Streams receive exactly the same events as the websocket clients, since {@link MatchEventWebsocketService}
+ *     hands every event (and every frame of global events) delivered to this replica over to this service.
+ *     Streams are asynchronous requests, therefore an open stream does not hold any thread of the server.
+ *     Every stream has its own bounded queue of events waiting to be written to it, and queued events are
+ *     written by a small pool of dedicated threads, each of which writes to a single stream at a time. Therefore
+ *     neither the processing nor the websocket broadcasts of events wait for HTTP clients, and a client which
+ *     does not read its stream only delays its own events. A stream whose queue is full is closed instead of
+ *     skipping events, and its client reconnects with the `Last-Event-ID` header. A stream whose write does not
+ *     finish within the write timeout is closed as well, and its sender thread is replaced until the write
+ *     fails, so that clients which stopped reading do not take the sender threads from the other streams.
+ * </p>
+ * <p>
+ *     Every event of a match carries its sequence number as the id of the server-sent event. Clients which
+ *     reconnect with the `Last-Event-ID` header first receive all events which they have missed, while
+ *     clients which connect for the first time first receive the snapshot of the match.
+ * </p>
+ */
+@Service
+public class MatchEventStreamService implements DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchEventStreamService.class);
+
+    // names of server-sent events are the same as the names of websocket messages with the same content
+    private final static String SPECIFIC_MATCH_EVENT_TYPE = "match-event";
+    private final static String SPECIFIC_MATCH_SNAPSHOT_TYPE = "match-snapshot";
+    private final static String GLOBAL_MATCH_EVENT_TYPE = "global-match-events";
+
+    private final MatchEventService matchEventService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int maxQueuedEvents;
+    private final long writeTimeoutNanos;
+    private final int senderThreads;
+    private final Map<UUID, Set<MatchStream>> matchStreams = new ConcurrentHashMap<>();
+    private final Map<GlobalMatchEventFilter, Set<Stream>> globalStreams = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender;
+    private final Counter overflows;
+    private final Counter stalls;
+    // number of sender threads added in place of threads stuck on writes to closed streams, guarded by sender
+    private int replacedSenders;
+
+    /**
+     * Server-sent event which carries a single event of a match, formatted once for all streams of the match.
+     *
+     * @param sequence sequence number of the event, {@code null} for events saved before sequence numbers existed
+     * @param data formatted server-sent event
+     */
+    private record StreamedEvent(Long sequence, Set<DataWithMediaType> data) {}
+
+    /**
+     * Open stream, with its own queue of server-sent events waiting to be written to it.
+     *
+     * Events are queued without waiting for the client, and then written by one of the sender threads. At most
+     * one sender thread writes to a stream at a time, and it does not hold the lock of the stream while writing,
+     * therefore a client which does not read its stream never blocks the code which queues events.
+     */
+    private class Stream {
+        final SseEmitter emitter;
+        private final Consumer<Stream> unregister;
+        private final Deque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean writing;
+        private boolean closed;
+        private Throwable closeError;
+        // when the write in progress has started, 0 when no write is in progress
+        private long writeStartedNanos;
+        // whether another sender thread has been added in place of the thread stuck on the write in progress
+        private boolean replaced;
+
+        Stream(SseEmitter emitter, Consumer<Stream> unregister) {
+            this.emitter = emitter;
+            this.unregister = unregister;
+        }
+
+        /**
+         * Removes the stream from the streams which receive events.
+         */
+        void unregister() {
+            unregister.accept(this);
+        }
+
+        /**
+         * Queues an event, closing the stream instead if too many events are already waiting to be written to it.
+         */
+        synchronized void send(Set<DataWithMediaType> data) {
+            if (!closed && queue.size() >= maxQueuedEvents) {
+                overflows.increment();
+                close(null);
+                return;
+            }
+            enqueue(data);
+        }
+
+        /**
+         * Queues an event regardless of the number of events which are already waiting to be written.
+         */
+        synchronized void enqueue(Set<DataWithMediaType> data) {
+            if (closed) {
+                return;
+            }
+            queue.add(data);
+            if (!writing) {
+                writing = true;
+                try {
+                    sender.execute(this::write);
+                } catch (RejectedExecutionException ex) {
+                    writing = false;
+                    overflows.increment();
+                    close(null);
+                }
+            }
+        }
+
+        private void write() {
+            while (true) {
+                Set<DataWithMediaType> data;
+                synchronized (this) {
+                    data = closed ? null : queue.poll();
+                    if (data == null) {
+                        writing = false;
+                        if (!closed) {
+                            return;
+                        }
+                    } else {
+                        writeStartedNanos = System.nanoTime();
+                    }
+                }
+                if (data == null) {
+                    // the stream has been closed, and no write is in progress anymore
+                    complete();
+                    return;
+                }
+                Throwable error = null;
+                try {
+                    emitter.send(data);
+                } catch (IOException | IllegalStateException ex) {
+                    error = ex;
+                }
+                synchronized (this) {
+                    writeStartedNanos = 0;
+                    if (replaced) {
+                        replaced = false;
+                        removeReplacedSender();
+                    }
+                    if (error != null) {
+                        close(error);
+                    }
+                }
+            }
+        }
+
+        private void complete() {
+            if (closeError == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(closeError);
+            }
+        }
+
+        /**
+         * Closes the stream if its write in progress has not finished within the write timeout, and adds another
+         * sender thread in place of the thread stuck on the write.
+         *
+         * @return {@code true} if the stream has been closed
+         */
+        synchronized boolean closeIfStalled(long nowNanos) {
+            if (closed || writeStartedNanos == 0 || nowNanos - writeStartedNanos < writeTimeoutNanos) {
+                return false;
+            }
+            close(null);
+            replaced = addReplacedSender();
+            return true;
+        }
+
+        /**
+         * Stops queueing events and completes the emitter. The client reconnects with the id of the last event
+         * it has received.
+         */
+        private void close(Throwable ex) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeError = ex;
+            queue.clear();
+            // the stream is not supposed to receive any more events, even before its emitter gets completed
+            unregister();
+            // completing the emitter waits for the write in progress, which may be blocked by the client,
+            // therefore the emitter is completed by the thread which writes to the stream once its write is done
+            if (!writing) {
+                writing = true;
+                try {
+                    sender.execute(this::write);
+                } catch (RejectedExecutionException ignore) {
+                    writing = false;
+                    complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream of events of a single match.
+     *
+     * Events which arrive while the snapshot (or the missed events) is being queued for a new stream wait until
+     * it has been queued, and events already reflected in what has been queued are skipped, so that the client
+     * receives every event exactly once, in order.
+     */
+    private class MatchStream extends Stream {
+        private List<StreamedEvent> waiting = new ArrayList<>();
+        private long lastSequence;
+
+        MatchStream(SseEmitter emitter, Consumer<Stream> unregister) {
+            super(emitter, unregister);
+        }
+
+        synchronized void send(StreamedEvent event) {
+            if (waiting != null) {
+                waiting.add(event);
+                return;
+            }
+            if (isNew(event)) {
+                send(event.data());
+            }
+        }
+
+        synchronized void start(Set<DataWithMediaType> snapshot, long lastSequence, List<StreamedEvent> missedEvents) {
+            // everything the client needs to catch up is queued, no matter how many events it has missed
+            if (snapshot != null) {
+                enqueue(snapshot);
+            }
+            this.lastSequence = lastSequence;
+            for (var event : missedEvents) {
+                if (isNew(event)) {
+                    enqueue(event.data());
+                }
+            }
+            var waitingEvents = waiting;
+            waiting = null;
+            for (var event : waitingEvents) {
+                send(event);
+            }
+        }
+
+        private boolean isNew(StreamedEvent event) {
+            if (event.sequence() != null) {
+                if (event.sequence() <= lastSequence) {
+                    return false;
+                }
+                lastSequence = event.sequence();
+            }
+            return true;
+        }
+    }
+
+    @Autowired
+    public MatchEventStreamService(
+            // lazy, because MatchEventService broadcasts its events through this service
+            @Lazy MatchEventService matchEventService,
+            ObjectMapper objectMapper,
+            @Value("${match-events.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${match-events.stream.sender-threads:4}") int senderThreads,
+            @Value("${match-events.stream.max-queued-events:100}") int maxQueuedEvents,
+            @Value("${match-events.stream.write-timeout-ms:5000}") long writeTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.matchEventService = matchEventService;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.senderThreads = senderThreads;
+        // every stream waits for a sender thread at most once at a time, therefore the number of waiting tasks
+        // is bounded by the number of open streams
+        this.sender = new ThreadPoolExecutor(
+                senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable, "match-event-streams");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        Gauge.builder("match.events.stream.clients", matchStreams, MatchEventStreamService::countStreams)
+                .description("Number of open streams of server-sent events")
+                .tag("stream", "match")
+                .register(meterRegistry);
+        Gauge.builder("match.events.stream.clients", globalStreams, MatchEventStreamService::countStreams)
+                .description("Number of open streams of server-sent events")
+                .tag("stream", "global")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("match.events.stream.overflows")
+                .description("Number of streams closed because too many events were waiting to be written to them")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("match.events.stream.stalls")
+                .description("Number of streams closed because a write to them did not finish within the write timeout")
+                .register(meterRegistry);
+    }
+
+    private static int countStreams(Map<?, ? extends Set<?>> streams) {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Opens a stream of events of the match with the specified id.
+     *
+     * @param matchId id of the match whose events will be streamed
+     * @param lastEventId sequence number of the last event received by a reconnecting client, or {@code null}
+     *                    if the client should receive the snapshot of the match first
+     * @return emitter of the stream
+     * @throws ResourceNotFoundException thrown when the match does not exist or is marked as deleted
+     */
+    public SseEmitter streamMatchEvents(UUID matchId, Long lastEventId) throws ResourceNotFoundException {
+        var snapshot = matchEventService.findSnapshot(matchId)
+                .orElseThrow(() -> new ResourceNotFoundException(Match.class, matchId));
+
+        var emitter = new SseEmitter(timeoutMs);
+        var stream = new MatchStream(emitter, closed -> matchStreams.computeIfPresent(matchId, (id, streams) -> {
+            streams.remove(closed);
+            return streams.isEmpty() ? null : streams;
+        }));
+        // the stream is registered before the initial events are read, so that no event can be missed in between
+        matchStreams.computeIfAbsent(matchId, id -> ConcurrentHashMap.newKeySet()).add(stream);
+        onClosed(stream);
+
+        try {
+            if (lastEventId == null) {
+                var data = SseEmitter.event()
+                        .id(String.valueOf(snapshot.lastSequence()))
+                        .name(SPECIFIC_MATCH_SNAPSHOT_TYPE)
+                        .data(objectMapper.writeValueAsString(snapshot))
+                        .build();
+                stream.start(data, snapshot.lastSequence(), List.of());
+            } else {
+                List<StreamedEvent> missedEvents = new ArrayList<>();
+                for (var event : matchEventService.findAllByMatchIdAfterSequence(matchId, lastEventId)) {
+                    missedEvents.add(streamedEvent(event));
+                }
+                stream.start(null, lastEventId, missedEvents);
+            }
+        } catch (JsonProcessingException ex) {
+            stream.unregister();
+            emitter.completeWithError(ex);
+        }
+        logger.debug("Stream of events of match {} opened, resumed after event {}", matchId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Opens a stream of frames of global match events which match the filter.
+     *
+     * @param filter filter of global events which should be received
+     * @return emitter of the stream
+     */
+    public SseEmitter streamGlobalMatchEvents(GlobalMatchEventFilter filter) {
+        var emitter = new SseEmitter(timeoutMs);
+        var stream = new Stream(emitter, closed -> globalStreams.computeIfPresent(filter, (f, streams) -> {
+            streams.remove(closed);
+            return streams.isEmpty() ? null : streams;
+        }));
+        globalStreams.computeIfAbsent(filter, f -> ConcurrentHashMap.newKeySet()).add(stream);
+        onClosed(stream);
+        logger.debug("Stream of global events with filter {} opened", filter.roomName());
+        return emitter;
+    }
+
+    private static void onClosed(Stream stream) {
+        stream.emitter.onCompletion(stream::unregister);
+        stream.emitter.onError(ex -> stream.unregister());
+        // clients of streams which time out reconnect on their own, with the id of the last received event
+        stream.emitter.onTimeout(stream.emitter::complete);
+    }
+
+    /**
+     * Returns filters of all global streams which are currently open.
+     *
+     * @return filters of open global streams
+     */
+    public Set<GlobalMatchEventFilter> subscribedFilters() {
+        return globalStreams.keySet();
+    }
+
+    /**
+     * Sends a match event to all streams of events of a particular match.
+     *
+     * @param matchId id of the match during which the event took place
+     * @param matchEventDto dto representing the event
+     */
+    public void sendMatchEvent(UUID matchId, EncodedMatchEventDto matchEventDto) {
+        var streams = matchStreams.get(matchId);
+        if (streams == null) {
+            return;
+        }
+        // the event is formatted once, regardless of the number of streams
+        StreamedEvent event;
+        try {
+            event = streamedEvent(matchEventDto);
+        } catch (JsonProcessingException ex) {
+            logger.error("Event {} of match {} could not be serialized", matchEventDto.id(), matchId, ex);
+            return;
+        }
+        for (var stream : streams) {
+            stream.send(event);
+        }
+    }
+
+    /**
+     * Sends a frame of global match events to all global streams with the specified filter.
+     *
+     * @param filter filter of the streams which should receive the frame
+     * @param frame frame with global events which match the filter
+     */
+    public void sendGlobalMatchEventFrame(GlobalMatchEventFilter filter, GlobalMatchEventFrame frame) {
+        var streams = globalStreams.get(filter);
+        if (streams == null) {
+            return;
+        }
+        Set<DataWithMediaType> data;
+        try {
+            data = SseEmitter.event()
+                    .name(GLOBAL_MATCH_EVENT_TYPE)
+                    .data(objectMapper.writeValueAsString(frame))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            logger.error("Frame of global events with filter {} could not be serialized", filter.roomName(), ex);
+            return;
+        }
+        streams.forEach(stream -> stream.send(data));
+    }
+
+    /**
+     * Sends a comment to all open streams, so that connections which have been closed by clients get
+     * detected, and intermediaries do not close idle connections. Heartbeats count towards the events waiting
+     * to be written to a stream, therefore streams of clients which stopped reading get closed even when
+     * their match is idle.
+     */
+    @Scheduled(fixedDelayString = "${match-events.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        var data = SseEmitter.event().comment("heartbeat").build();
+        matchStreams.values().forEach(streams -> streams.forEach(stream -> stream.send(data)));
+        globalStreams.values().forEach(streams -> streams.forEach(stream -> stream.send(data)));
+    }
+
+    /**
+     * Closes all streams whose write in progress has not finished within the write timeout, so that clients
+     * which stopped reading do not hold the sender threads until their connections time out.
+     */
+    @Scheduled(fixedDelayString = "${match-events.stream.stall-check-ms:1000}")
+    public void closeStalledStreams() {
+        var now = System.nanoTime();
+        Consumer<Stream> closeIfStalled = stream -> {
+            if (stream.closeIfStalled(now)) {
+                stalls.increment();
+                logger.debug("Stream closed, because its write did not finish in time");
+            }
+        };
+        matchStreams.values().forEach(streams -> streams.forEach(closeIfStalled));
+        globalStreams.values().forEach(streams -> streams.forEach(closeIfStalled));
+    }
+
+    /**
+     * Adds a sender thread in place of a thread stuck on a write to a stalled stream. At most as many threads
+     * as configured are added, so that many stalled clients cannot make the pool grow without limits.
+     *
+     * @return {@code true} if a sender thread has been added
+     */
+    private boolean addReplacedSender() {
+        synchronized (sender) {
+            if (replacedSenders >= senderThreads) {
+                return false;
+            }
+            replacedSenders++;
+            sender.setMaximumPoolSize(senderThreads + replacedSenders);
+            sender.setCorePoolSize(senderThreads + replacedSenders);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the sender thread added in place of a thread whose stuck write has finished.
+     */
+    private void removeReplacedSender() {
+        synchronized (sender) {
+            replacedSenders--;
+            sender.setCorePoolSize(senderThreads + replacedSenders);
+            sender.setMaximumPoolSize(senderThreads + replacedSenders);
+        }
+    }
+
+    private StreamedEvent streamedEvent(EncodedMatchEventDto event) throws JsonProcessingException {
+        var builder = SseEmitter.event();
+        if (event.sequence() != null) {
+            builder.id(event.sequence().toString());
+        }
+        builder.name(SPECIFIC_MATCH_EVENT_TYPE).data(objectMapper.writeValueAsString(event));
+        return new StreamedEvent(event.sequence(), builder.build());
+    }
+
+    /**
+     * Completes all open streams, whose clients will reconnect to another replica of the service.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+        matchStreams.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+        globalStreams.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+    }
+}
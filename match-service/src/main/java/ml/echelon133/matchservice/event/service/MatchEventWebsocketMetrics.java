@@ -0,0 +1,163 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.SocketIONamespace;
+import com.corundumstudio.socketio.namespace.Namespace;
+import io.micrometer.core.instrument.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Metrics of websocket connections of {@link MatchEventWebsocketService}, which let us know how many clients
+ * every replica of the service holds, which rooms are the busiest and how much is sent to the clients.
+ *
+ * <p>
+ *     Sizes of rooms are not updated on every join, because there can be a room for every match and every filter
+ *     of global events. Instead, only the largest rooms are periodically published as a multi-gauge.
+ * </p>
+ */
+public class MatchEventWebsocketMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final int topRooms;
+    private final MultiGauge roomClients;
+
+    private record RoomSize(String room, int clients) {}
+
+    private record BroadcastMeters(Timer broadcasts, Counter framesSent, Counter bytesSent) {}
+
+    // meters of broadcasts are registered once for every namespace, instead of being looked up on every broadcast
+    private final Map<String, BroadcastMeters> broadcastMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates metrics which are published via the given registry.
+     *
+     * @param meterRegistry registry of the metrics
+     * @param topRooms number of the largest rooms whose sizes are published
+     */
+    public MatchEventWebsocketMetrics(MeterRegistry meterRegistry, int topRooms) {
+        this.meterRegistry = meterRegistry;
+        this.topRooms = topRooms;
+        this.roomClients = MultiGauge.builder("match.events.websocket.room.clients")
+                .description("Number of clients in the largest rooms")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts publishing the number of clients connected to a namespace.
+     *
+     * @param namespace namespace whose clients are counted
+     */
+    public void registerNamespace(SocketIONamespace namespace) {
+        broadcastMetersOf(namespace);
+        Gauge.builder("match.events.websocket.clients", namespace, ns -> ns.getAllClients().size())
+                .description("Number of clients connected to a namespace")
+                .tag("namespace", namespace.getName())
+                .register(meterRegistry);
+    }
+
+    private BroadcastMeters broadcastMetersOf(SocketIONamespace namespace) {
+        return broadcastMeters.computeIfAbsent(namespace.getName(), name -> {
+            var namespaceTag = Tags.of("namespace", name);
+            return new BroadcastMeters(
+                    Timer.builder("match.events.websocket.broadcast")
+                            .description("Time it takes to send an event to all clients of a room")
+                            .tags(namespaceTag)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry),
+                    Counter.builder("match.events.websocket.frames.sent")
+                            .description("Number of messages sent to clients")
+                            .tags(namespaceTag)
+                            .register(meterRegistry),
+                    Counter.builder("match.events.websocket.bytes.sent")
+                            .description("Approximate number of bytes of payloads sent to clients")
+                            .baseUnit("bytes")
+                            .tags(namespaceTag)
+                            .register(meterRegistry)
+            );
+        });
+    }
+
+    /**
+     * Counts a client which has been disconnected during the handshake.
+     *
+     * @param namespace namespace to which the client tried to connect
+     * @param reason short name of the reason of the rejection
+     */
+    public void recordHandshakeRejected(SocketIONamespace namespace, String reason) {
+        Counter.builder("match.events.websocket.handshakes.rejected")
+                .description("Number of clients disconnected during the handshake")
+                .tag("namespace", namespace.getName())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Sends an event to all given clients (except the excluded ones), and measures how long it took and how much
+     * has been sent.
+     *
+     * @param namespace namespace of the clients
+     * @param recipients clients which receive the event
+     * @param excluded predicate which decides which clients should not receive the event
+     * @param eventName name of the sent event
+     * @param payload object sent to the clients
+     * @param payloadLength length of the JSON of the payload, which approximates the number of bytes
+     *                      sent to every client
+     */
+    public void broadcast(
+            SocketIONamespace namespace,
+            BroadcastOperations recipients,
+            Predicate<SocketIOClient> excluded,
+            String eventName,
+            Object payload,
+            int payloadLength
+    ) {
+        var meters = broadcastMetersOf(namespace);
+        // the predicate is called by the thread which sends the event, once for every client
+        int[] clients = new int[1];
+        Predicate<SocketIOClient> countedExcluded = client -> {
+            if (excluded.test(client)) {
+                return true;
+            }
+            clients[0]++;
+            return false;
+        };
+
+        meters.broadcasts().record(() -> recipients.sendEvent(eventName, countedExcluded, payload));
+        meters.framesSent().increment(clients[0]);
+        meters.bytesSent().increment((double) clients[0] * payloadLength);
+    }
+
+    /**
+     * Publishes the sizes of the largest rooms of the given namespaces, replacing the previously published sizes.
+     *
+     * @param namespaces namespaces whose rooms are measured
+     */
+    public void refreshRoomSizes(Collection<SocketIONamespace> namespaces) {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (var socketNamespace : namespaces) {
+            if (!(socketNamespace instanceof Namespace namespace)) {
+                continue;
+            }
+            namespace.getRooms().stream()
+                    // every client is also placed in the default room of its namespace, which is not interesting
+                    .filter(room -> !room.isEmpty() && !room.equals(namespace.getName()))
+                    .map(room -> new RoomSize(room, namespace.getRoomOperations(room).getClients().size()))
+                    .sorted(Comparator.comparingInt(RoomSize::clients).reversed())
+                    .limit(topRooms)
+                    .forEach(roomSize -> rows.add(MultiGauge.Row.of(
+                            Tags.of("namespace", namespace.getName(), "room", roomSize.room()),
+                            roomSize.clients()
+                    )));
+        }
+        roomClients.register(rows, true);
+    }
+}
@@ -3,65 +3,216 @@ package ml.echelon133.matchservice.event.service;
 import com.corundumstudio.socketio.SocketIOServer;
 import com.corundumstudio.socketio.listener.ConnectListener;
 import com.corundumstudio.socketio.listener.DisconnectListener;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import ml.echelon133.common.event.dto.MatchEventDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.event.model.CompactGlobalMatchEventFrame;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFrame;
 import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class MatchEventWebsocketService {
+public class MatchEventWebsocketService implements DisposableBean {
 
 
     // used for connections where the client wants to listen to all events happening in a match with particular
     // id (therefore that id needs to be specified while establishing the connection)
     private final static String SPECIFIC_MATCH_EVENT_TYPE = "match-event";
+    // first message received by a client after it starts listening to the events of a match
+    private final static String SPECIFIC_MATCH_SNAPSHOT_TYPE = "match-snapshot";
     private final static String SPECIFIC_MATCH_EVENT_NAMESPACE = "/api/ws/match-events";
 
     // used for connections where the client wants to listen to the most important events (goals, red cards)
-    // happening in all live matches played at a particular moment
-    private final static String GLOBAL_MATCH_EVENT_TYPE = "global-match-event";
+    // happening in all live matches played at a particular moment (every message carries a frame with all
+    // events which happened during a short window of time), optionally only in selected competitions
+    // or of selected teams
+    private final static String GLOBAL_MATCH_EVENT_TYPE = "global-match-events";
     private final static String GLOBAL_MATCH_EVENT_NAMESPACE = "/api/ws/global-match-events";
 
+    // used instead of GLOBAL_MATCH_EVENT_TYPE for clients of the global namespace which asked for compact frames,
+    // which first receive the legend that lets them decode these frames
+    private final static String COMPACT_GLOBAL_MATCH_EVENT_TYPE = "compact-global-match-events";
+    private final static String COMPACT_GLOBAL_MATCH_EVENT_LEGEND_TYPE = "compact-global-match-events-legend";
+    private final static String COMPACT_FORMAT = "compact";
+    private final static String JSON_FORMAT = "json";
+
+    // keys under which the filter and the format of frames of a client of the global namespace are stored
+    // on that client
+    private final static String GLOBAL_MATCH_EVENT_FILTER_KEY = "global-match-event-filter";
+    private final static String GLOBAL_MATCH_EVENT_FORMAT_KEY = "global-match-event-format";
+
     private final SocketIOServer server;
-    private final ObjectMapper objectMapper;
+    private final MatchEventService matchEventService;
+    // filters of all rooms of the global namespace, with the number of clients in each room
+    private final Map<GlobalMatchEventFilter, Integer> globalMatchEventSubscriptions = new ConcurrentHashMap<>();
+    // filters of all rooms of the global namespace whose clients receive compact frames
+    private final Map<GlobalMatchEventFilter, Integer> compactGlobalMatchEventSubscriptions = new ConcurrentHashMap<>();
+    private final CompactGlobalMatchEventEncoder compactGlobalMatchEventEncoder = new CompactGlobalMatchEventEncoder();
+    private final GlobalMatchEventAggregator globalMatchEventAggregator;
+    private final MatchEventWebsocketMetrics websocketMetrics;
+    private final SlowClientGuard slowClientGuard;
+    // streams of server-sent events receive everything that's sent to websocket clients
+    private final MatchEventStreamService matchEventStreamService;
+    // loads snapshots which are not cached, because connect listeners run on the threads of the socket server,
+    // which must never wait for the database
+    private final ThreadPoolExecutor snapshotLoader;
     private final static Logger logger = LoggerFactory.getLogger(MatchEventWebsocketService.class);
 
     @Autowired
-    public MatchEventWebsocketService(SocketIOServer server, ObjectMapper objectMapper) {
+    public MatchEventWebsocketService(
+            SocketIOServer server,
+            // lazy, because MatchEventService broadcasts its events through this service
+            @Lazy MatchEventService matchEventService,
+            MatchEventStreamService matchEventStreamService,
+            ObjectMapper objectMapper,
+            @Value("${match-events.global.window-ms:250}") long globalWindowMs,
+            @Value("${match-events.websocket.metrics.top-rooms:10}") int topRooms,
+            @Value("${match-events.websocket.backpressure.max-queued-packets:100}") int maxQueuedPackets,
+            @Value("${match-events.websocket.backpressure.max-dropped-frames:20}") int maxDroppedFrames,
+            @Value("${match-events.websocket.snapshot-loader.threads:4}") int snapshotLoaderThreads,
+            @Value("${match-events.websocket.snapshot-loader.queue-capacity:10000}") int snapshotLoaderQueueCapacity,
+            MeterRegistry meterRegistry
+    ) {
         this.server = server;
-        this.objectMapper = objectMapper;
+        this.matchEventService = matchEventService;
+        this.matchEventStreamService = matchEventStreamService;
+        this.globalMatchEventAggregator = new GlobalMatchEventAggregator(
+                objectMapper,
+                globalWindowMs,
+                this::subscribedGlobalMatchEventFilters,
+                this::sendGlobalMatchEventFrame,
+                compactGlobalMatchEventEncoder,
+                compactGlobalMatchEventSubscriptions::keySet,
+                this::sendCompactGlobalMatchEventFrame,
+                meterRegistry
+        );
+        this.websocketMetrics = new MatchEventWebsocketMetrics(meterRegistry, topRooms);
+        this.slowClientGuard = new SlowClientGuard(maxQueuedPackets, maxDroppedFrames, meterRegistry);
+        this.snapshotLoader = new ThreadPoolExecutor(
+                snapshotLoaderThreads, snapshotLoaderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(snapshotLoaderQueueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "match-snapshot-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
 
         // create a namespace which allows for listening to events happening in a specific match,
         // and bind both connection and disconnection handlers to that namespace
         var eventsOfSpecificMatchNamespace = server.addNamespace(SPECIFIC_MATCH_EVENT_NAMESPACE);
         eventsOfSpecificMatchNamespace.addConnectListener(onConnectedSingleMatchEvents());
         eventsOfSpecificMatchNamespace.addDisconnectListener(onDisconnected());
+        websocketMetrics.registerNamespace(eventsOfSpecificMatchNamespace);
 
         // create a namespace which allows for listening to the most important global events,
         // and bind both connection and disconnection handlers to that namespace
         var importantGlobalEventsNamespace = server.addNamespace(GLOBAL_MATCH_EVENT_NAMESPACE);
         importantGlobalEventsNamespace.addConnectListener(onConnectedGlobalMatchEvents());
-        importantGlobalEventsNamespace.addDisconnectListener(onDisconnected());
+        importantGlobalEventsNamespace.addDisconnectListener(onDisconnectedGlobalMatchEvents());
+        websocketMetrics.registerNamespace(importantGlobalEventsNamespace);
 
         server.start();
+        globalMatchEventAggregator.start();
     }
 
     private ConnectListener onConnectedGlobalMatchEvents() {
         return (client) -> {
             var sessionId = client.getSessionId();
             logger.debug("Connection with session-id {}", sessionId);
-            logger.debug("Session-id {} joins namespace {}",
-                    sessionId, client.getNamespace().getName());
+
+            // to only listen to events of selected competitions or teams, the client needs to connect to a
+            // websocket using a URL which contains comma-separated ids of these competitions and teams, e.g.
+            // ws://host:port/api/ws/global-match-events?competition_id=<uuid>,<uuid>&team_id=<uuid>
+            //
+            // clients which do not give any ids receive events of all matches
+            //
+            // clients which add format=compact to the URL receive compact frames, whose events carry short
+            // handles of matches (instead of ids of matches, competitions and teams) and indexes of names
+            String competitionIds = client.getHandshakeData().getSingleUrlParam("competition_id");
+            String teamIds = client.getHandshakeData().getSingleUrlParam("team_id");
+            String format = client.getHandshakeData().getSingleUrlParam("format");
+
+            if (format != null && !format.equals(COMPACT_FORMAT) && !format.equals(JSON_FORMAT)) {
+                client.disconnect();
+                websocketMetrics.recordHandshakeRejected(client.getNamespace(), "invalid_format");
+                logger.debug("Session-id {} disconnected because format {} is not valid", sessionId, format);
+                return;
+            }
+            boolean compact = COMPACT_FORMAT.equals(format);
+
+            GlobalMatchEventFilter filter;
+            try {
+                // make sure that all ids are valid UUIDs, otherwise disconnect the client
+                filter = GlobalMatchEventFilter.fromUrlParams(competitionIds, teamIds);
+            } catch (IllegalArgumentException ignore) {
+                client.disconnect();
+                websocketMetrics.recordHandshakeRejected(client.getNamespace(), "invalid_filter");
+                logger.debug("Session-id {} disconnected because competition_id {} or team_id {} is not valid",
+                        sessionId, competitionIds, teamIds);
+                return;
+            }
+
+            // all clients with the same filter (and format) share a room, therefore every frame is built
+            // once per room
+            client.set(GLOBAL_MATCH_EVENT_FILTER_KEY, filter);
+            client.set(GLOBAL_MATCH_EVENT_FORMAT_KEY, compact ? COMPACT_FORMAT : JSON_FORMAT);
+            var roomName = compact ? compactRoomName(filter) : filter.roomName();
+            subscriptionsOf(compact).merge(filter, 1, Integer::sum);
+            client.joinRoom(roomName);
+            logger.debug("Session-id {} joins room {} with namespace {}",
+                    sessionId, roomName, client.getNamespace().getName());
+
+            // the client joins the room before receiving the legend, so that every handle used in the frames
+            // received by the client is either in the legend, or in the frame which uses it for the first time
+            if (compact) {
+                client.sendEvent(COMPACT_GLOBAL_MATCH_EVENT_LEGEND_TYPE, compactGlobalMatchEventEncoder.legend());
+            }
+        };
+    }
+
+    private DisconnectListener onDisconnectedGlobalMatchEvents() {
+        return (client) -> {
+            logger.debug("Disconnection of session-id {}", client.getSessionId());
+            slowClientGuard.forget(client);
+
+            // clients disconnected during the handshake never joined any room
+            GlobalMatchEventFilter filter = client.get(GLOBAL_MATCH_EVENT_FILTER_KEY);
+            if (filter != null) {
+                boolean compact = COMPACT_FORMAT.equals(client.get(GLOBAL_MATCH_EVENT_FORMAT_KEY));
+                subscriptionsOf(compact).computeIfPresent(filter, (f, count) -> count == 1 ? null : count - 1);
+            }
         };
     }
 
+    private Map<GlobalMatchEventFilter, Integer> subscriptionsOf(boolean compact) {
+        return compact ? compactGlobalMatchEventSubscriptions : globalMatchEventSubscriptions;
+    }
+
+    private static String compactRoomName(GlobalMatchEventFilter filter) {
+        // names of rooms of filters never contain '/'
+        return filter.roomName() + "/" + COMPACT_FORMAT;
+    }
+
     private ConnectListener onConnectedSingleMatchEvents() {
         return (client) -> {
             var sessionId = client.getSessionId();
@@ -81,6 +232,7 @@ public class MatchEventWebsocketService {
                 roomId = UUID.fromString(matchId);
             } catch (IllegalArgumentException ignore) {
                 client.disconnect();
+                websocketMetrics.recordHandshakeRejected(client.getNamespace(), "invalid_match_id");
                 logger.debug("Session-id {} disconnected because match_id {} is not a valid uuid",
                         sessionId, matchId);
                 return;
@@ -88,53 +240,133 @@ public class MatchEventWebsocketService {
             client.joinRoom(roomId.toString());
             logger.debug("Session-id {} joins room {} with namespace {}",
                     sessionId, roomId, client.getNamespace().getName());
+
+            // the client joins the room before receiving the snapshot, so that no event can be missed
+            // in between; events whose sequence numbers are not greater than the last sequence number
+            // of the snapshot are already reflected in it, and should be ignored by the client
+            //
+            // snapshots which are not cached are loaded (and sent) by another thread, therefore the client
+            // might receive events which happened after the snapshot before the snapshot itself; clients of
+            // matches which do not exist never receive a snapshot
+            var snapshot = matchEventService.findCachedSnapshot(roomId);
+            if (snapshot.isPresent()) {
+                client.sendEvent(SPECIFIC_MATCH_SNAPSHOT_TYPE, snapshot.get());
+                return;
+            }
+            try {
+                snapshotLoader.execute(() -> matchEventService.loadSnapshot(roomId).ifPresent(loaded ->
+                        client.sendEvent(SPECIFIC_MATCH_SNAPSHOT_TYPE, loaded)
+                ));
+            } catch (RejectedExecutionException ignore) {
+                // the client reconnects and asks for the snapshot again
+                client.disconnect();
+                websocketMetrics.recordHandshakeRejected(client.getNamespace(), "snapshot_unavailable");
+                logger.debug("Session-id {} disconnected because too many snapshots are being loaded", sessionId);
+            }
         };
     }
 
     private DisconnectListener onDisconnected() {
         return (client) -> {
             logger.debug("Disconnection of session-id {}", client.getSessionId());
+            slowClientGuard.forget(client);
         };
     }
 
     /**
-     * Sends a match event to all clients who listen to events of a particular match.
+     * Sends a match event to all clients (and all streams of server-sent events) which listen to events
+     * of a particular match.
      *
      * @param matchId id of the match during which the event took place
      * @param matchEventDto dto representing the event
      */
-    public void sendMatchEvent(UUID matchId, MatchEventDto matchEventDto) {
+    public void sendMatchEvent(UUID matchId, EncodedMatchEventDto matchEventDto) {
+        matchEventStreamService.sendMatchEvent(matchId, matchEventDto);
+
         var eventsOfSpecificMatchNamespace = server.getNamespace(SPECIFIC_MATCH_EVENT_NAMESPACE);
-        eventsOfSpecificMatchNamespace
-                .getRoomOperations(matchId.toString())
-                .sendEvent(SPECIFIC_MATCH_EVENT_TYPE, matchEventDto);
+        websocketMetrics.broadcast(
+                eventsOfSpecificMatchNamespace,
+                eventsOfSpecificMatchNamespace.getRoomOperations(matchId.toString()),
+                slowClientGuard,
+                SPECIFIC_MATCH_EVENT_TYPE,
+                matchEventDto,
+                matchEventDto.event().length()
+        );
+        slowClientGuard.evictPending();
         logger.debug("Sent match event {} to all clients in room {}, namespace {}",
                 matchEventDto.id(), matchId, eventsOfSpecificMatchNamespace.getName());
     }
 
     /**
-     * Sends a match event globally to all clients.
+     * Sends a match event globally to all clients whose filter matches it, together with all other global events
+     * which happen during the same short window of time.
      *
      * @param globalMatchEventDto dto representing the global event
      */
     public void sendGlobalMatchEvent(GlobalMatchEvent globalMatchEventDto) {
-        // @JsonTypeInfo and @JsonSubTypes annotations on the GlobalMatchEvent provide information that
-        // should make "type" property to appear in the output after the serialization,
-        // yet it does not happen, which seems to be a bug in the underlying library, since
-        // the default ObjectMapper used by the SocketIOServer should absolutely be able to "understand"
-        // these annotations
-        //
-        // as a quick fix, we can convert GlobalMatchEvent into a Map by directly using an ObjectMapper
-        // (this conversion correctly adds the "type" property to the output)
-        Map<String, Object> event = objectMapper.convertValue(
-                globalMatchEventDto,
-                new TypeReference<Map<String, Object>>() {}
+        globalMatchEventAggregator.add(globalMatchEventDto);
+    }
+
+    private Collection<GlobalMatchEventFilter> subscribedGlobalMatchEventFilters() {
+        var filters = new HashSet<>(globalMatchEventSubscriptions.keySet());
+        filters.addAll(matchEventStreamService.subscribedFilters());
+        return filters;
+    }
+
+    private void sendGlobalMatchEventFrame(GlobalMatchEventFilter filter, GlobalMatchEventFrame frame) {
+        matchEventStreamService.sendGlobalMatchEventFrame(filter, frame);
+        // the filter might only be used by streams of server-sent events
+        if (!globalMatchEventSubscriptions.containsKey(filter)) {
+            return;
+        }
+
+        var importantGlobalEventsNamespace = server.getNamespace(GLOBAL_MATCH_EVENT_NAMESPACE);
+        websocketMetrics.broadcast(
+                importantGlobalEventsNamespace,
+                importantGlobalEventsNamespace.getRoomOperations(filter.roomName()),
+                slowClientGuard,
+                GLOBAL_MATCH_EVENT_TYPE,
+                frame,
+                frame.events().length()
         );
+        slowClientGuard.evictPending();
+        logger.debug("Sent frame of match events to all clients in room {}, namespace {}",
+                filter.roomName(), importantGlobalEventsNamespace.getName());
+    }
 
+    private void sendCompactGlobalMatchEventFrame(GlobalMatchEventFilter filter, CompactGlobalMatchEventFrame frame) {
         var importantGlobalEventsNamespace = server.getNamespace(GLOBAL_MATCH_EVENT_NAMESPACE);
-        importantGlobalEventsNamespace
-                .getBroadcastOperations()
-                .sendEvent(GLOBAL_MATCH_EVENT_TYPE, event);
-        logger.debug("Sent match event to all clients, namespace {}", importantGlobalEventsNamespace.getName());
+        var roomName = compactRoomName(filter);
+        websocketMetrics.broadcast(
+                importantGlobalEventsNamespace,
+                importantGlobalEventsNamespace.getRoomOperations(roomName),
+                slowClientGuard,
+                COMPACT_GLOBAL_MATCH_EVENT_TYPE,
+                frame,
+                frame.events().length() + (frame.matches() == null ? 0 : frame.matches().length())
+        );
+        slowClientGuard.evictPending();
+        logger.debug("Sent compact frame of match events to all clients in room {}, namespace {}",
+                roomName, importantGlobalEventsNamespace.getName());
+    }
+
+    /**
+     * Publishes the number of clients in the largest rooms of all namespaces.
+     */
+    @Scheduled(fixedDelayString = "${match-events.websocket.metrics.refresh-ms:10000}")
+    public void refreshRoomMetrics() {
+        websocketMetrics.refreshRoomSizes(List.of(
+                server.getNamespace(SPECIFIC_MATCH_EVENT_NAMESPACE),
+                server.getNamespace(GLOBAL_MATCH_EVENT_NAMESPACE)
+        ));
+    }
+
+    /**
+     * Sends global events which have been collected, but not sent yet, and stops loading snapshots.
+     */
+    @Override
+    public void destroy() {
+        globalMatchEventAggregator.close();
+        snapshotLoader.shutdownNow();
     }
 }
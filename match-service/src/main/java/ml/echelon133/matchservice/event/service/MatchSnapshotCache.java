@@ -0,0 +1,165 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.cache.BoundedCache;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.MatchSnapshotDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Holds snapshots of the most recently watched matches, so that clients which start listening to the events
+ * of a match (e.g. everyone at the kickoff, or after reconnecting) receive its current state without reading
+ * anything from the database.
+ *
+ * <p>
+ *     Snapshots are loaded when the first client starts listening to a match, then updated with new events
+ *     after their transactions commit. Every snapshot only keeps a bounded number of the most recent events.
+ *     The number of cached snapshots is bounded, and the least recently used snapshot is evicted first.
+ * </p>
+ */
+@Service
+public class MatchSnapshotCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final BoundedCache<UUID, MatchSnapshotDto> snapshots;
+    private final int maxEvents;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public MatchSnapshotCache(
+            @Value("${match-events.snapshot.max-matches:1000}") int maxCachedMatches,
+            @Value("${match-events.snapshot.max-events:20}") int maxEvents,
+            MeterRegistry meterRegistry
+    ) {
+        this.snapshots = new BoundedCache<>(
+                maxCachedMatches,
+                "match.events.snapshot.cache",
+                "Number of requests for the snapshot of a match",
+                meterRegistry
+        );
+        this.maxEvents = maxEvents;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private Object lockOf(UUID matchId) {
+        return locks[Math.floorMod(matchId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private List<EncodedMatchEventDto> mostRecent(List<EncodedMatchEventDto> events) {
+        return List.copyOf(events.subList(Math.max(0, events.size() - maxEvents), events.size()));
+    }
+
+    /**
+     * Finds the snapshot of the match with the specified id.
+     *
+     * The loader is only called when the snapshot of the match is not cached (see {@link #load(UUID, Function)}).
+     *
+     * @param matchId id of the match whose snapshot will be fetched
+     * @param loader function which loads the snapshot of the match, returns an empty optional if the match
+     *               does not exist
+     * @return snapshot of the match, or an empty optional if the match does not exist
+     */
+    public Optional<MatchSnapshotDto> find(UUID matchId, Function<UUID, Optional<MatchSnapshotDto>> loader) {
+        return findCached(matchId).or(() -> load(matchId, loader));
+    }
+
+    /**
+     * Finds the snapshot of the match with the specified id, but only if it's already cached.
+     *
+     * @param matchId id of the match whose snapshot will be fetched
+     * @return cached snapshot of the match, or an empty optional if it's not cached
+     */
+    public Optional<MatchSnapshotDto> findCached(UUID matchId) {
+        return snapshots.find(matchId);
+    }
+
+    /**
+     * Loads the snapshot of the match with the specified id, unless it has been cached in the meantime.
+     *
+     * Loading happens while holding the lock of the match, which guarantees that an event committed during
+     * the loading is either already reflected in the loaded snapshot, or is applied to it afterwards.
+     *
+     * @param matchId id of the match whose snapshot will be loaded
+     * @param loader function which loads the snapshot of the match, returns an empty optional if the match
+     *               does not exist
+     * @return snapshot of the match, or an empty optional if the match does not exist
+     */
+    public Optional<MatchSnapshotDto> load(UUID matchId, Function<UUID, Optional<MatchSnapshotDto>> loader) {
+        synchronized (lockOf(matchId)) {
+            var cached = snapshots.peek(matchId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            var loadedSnapshot = loader.apply(matchId).map(loaded ->
+                    new MatchSnapshotDto(
+                            loaded.matchId(),
+                            loaded.status(),
+                            loaded.statusLastModifiedUTC(),
+                            loaded.result(),
+                            loaded.scoreInfo(),
+                            loaded.lastSequence(),
+                            mostRecent(loaded.events())
+                    )
+            );
+            loadedSnapshot.ifPresent(loaded -> snapshots.put(matchId, loaded));
+            return loadedSnapshot;
+        }
+    }
+
+    /**
+     * Applies committed events to the cached snapshot of their match (if it's cached).
+     *
+     * If the sequence number of the first committed event does not directly follow the last sequence number
+     * of the cached snapshot, the snapshot is evicted, because some event must have been missed.
+     *
+     * @param latest snapshot which reflects the state of the match right after the committed events,
+     *               and only contains these events
+     */
+    public void update(MatchSnapshotDto latest) {
+        var matchId = latest.matchId();
+        synchronized (lockOf(matchId)) {
+            var cached = snapshots.peek(matchId);
+            if (cached == null) {
+                return;
+            }
+
+            var firstSequence = latest.events().isEmpty() ? null : latest.events().get(0).sequence();
+            if (firstSequence == null || firstSequence != cached.lastSequence() + 1) {
+                evict(matchId);
+                return;
+            }
+
+            var events = new ArrayList<>(cached.events());
+            events.addAll(latest.events());
+            snapshots.put(matchId, new MatchSnapshotDto(
+                    matchId,
+                    latest.status(),
+                    latest.statusLastModifiedUTC(),
+                    latest.result(),
+                    latest.scoreInfo(),
+                    latest.lastSequence(),
+                    mostRecent(events)
+            ));
+        }
+    }
+
+    /**
+     * Removes the cached snapshot of the match with the specified id.
+     *
+     * @param matchId id of the match whose snapshot should no longer be cached
+     */
+    public void evict(UUID matchId) {
+        snapshots.evict(matchId);
+    }
+}
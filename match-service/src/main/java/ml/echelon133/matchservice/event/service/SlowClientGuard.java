@@ -0,0 +1,131 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Protects the service from websocket clients which cannot receive messages as fast as they are sent
+ * (e.g. mobile clients on bad networks), whose unsent messages would otherwise be buffered without any limit.
+ *
+ * <p>
+ *     A client is considered backlogged when its websocket channel is not writable (i.e. more bytes than
+ *     the high water mark of the write buffer are waiting to be sent), or when too many messages are queued
+ *     for its polling transport. Messages are not sent to backlogged clients, and clients which stay backlogged
+ *     for too many consecutive messages are disconnected. Clients detect dropped messages using sequence numbers
+ *     of events, and receive a new snapshot of the match after reconnecting.
+ * </p>
+ *
+ * <p>
+ *     The guard is used as the predicate which excludes clients from a broadcast, and clients which should be
+ *     disconnected are only disconnected after the broadcast, by {@link #evictPending()}.
+ * </p>
+ */
+public class SlowClientGuard implements Predicate<SocketIOClient> {
+
+    private final static Logger logger = LoggerFactory.getLogger(SlowClientGuard.class);
+
+    private final int maxQueuedPackets;
+    private final int maxDroppedFrames;
+    private final Map<UUID, Integer> droppedFrames = new ConcurrentHashMap<>();
+    private final Map<UUID, SocketIOClient> pendingEvictions = new ConcurrentHashMap<>();
+    private final Counter droppedFramesCounter;
+    private final Counter evictionsCounter;
+
+    /**
+     * Creates a guard with the given limits.
+     *
+     * @param maxQueuedPackets number of messages queued for a client above which the client is backlogged
+     * @param maxDroppedFrames number of consecutive messages not sent to a client after which it's disconnected
+     * @param meterRegistry registry of the metrics of the guard
+     */
+    public SlowClientGuard(int maxQueuedPackets, int maxDroppedFrames, MeterRegistry meterRegistry) {
+        if (maxQueuedPackets <= 0 || maxDroppedFrames <= 0) {
+            throw new IllegalArgumentException("limits of slow websocket clients have to be positive");
+        }
+        this.maxQueuedPackets = maxQueuedPackets;
+        this.maxDroppedFrames = maxDroppedFrames;
+        this.droppedFramesCounter = Counter.builder("match.events.websocket.frames.dropped")
+                .description("Number of messages not sent to clients because too many messages were waiting to be sent to them")
+                .register(meterRegistry);
+        this.evictionsCounter = Counter.builder("match.events.websocket.evictions")
+                .description("Number of clients disconnected because they could not keep up with sent messages")
+                .register(meterRegistry);
+    }
+
+    private boolean isBacklogged(SocketIOClient client) {
+        if (client.getTransport() == Transport.WEBSOCKET && !client.isWritable()) {
+            return true;
+        }
+        // polling clients do not have a channel between their requests, so only their queues can be checked
+        if (client instanceof NamespaceClient namespaceClient) {
+            var queue = namespaceClient.getBaseClient().getPacketsQueue(client.getTransport());
+            return queue != null && queue.size() > maxQueuedPackets;
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether a message should not be sent to a client.
+     *
+     * @param client client which is about to receive a message
+     * @return {@code true} if the client is backlogged, and the message should be dropped
+     */
+    @Override
+    public boolean test(SocketIOClient client) {
+        var sessionId = client.getSessionId();
+        if (!isBacklogged(client)) {
+            // most clients are never backlogged, therefore the map is only modified when needed
+            if (droppedFrames.containsKey(sessionId)) {
+                droppedFrames.remove(sessionId);
+            }
+            return false;
+        }
+
+        droppedFramesCounter.increment();
+        int dropped = droppedFrames.merge(sessionId, 1, Integer::sum);
+        if (dropped >= maxDroppedFrames) {
+            pendingEvictions.put(sessionId, client);
+        }
+        return true;
+    }
+
+    /**
+     * Disconnects all clients which have stayed backlogged for too many consecutive messages.
+     */
+    public void evictPending() {
+        if (pendingEvictions.isEmpty()) {
+            return;
+        }
+        List<SocketIOClient> clients = new ArrayList<>(pendingEvictions.values());
+        for (var client : clients) {
+            pendingEvictions.remove(client.getSessionId());
+            droppedFrames.remove(client.getSessionId());
+            evictionsCounter.increment();
+            logger.debug("Session-id {} disconnected because it could not keep up with sent messages",
+                    client.getSessionId());
+            client.disconnect();
+        }
+    }
+
+    /**
+     * Forgets everything about a client which has disconnected.
+     *
+     * @param client disconnected client
+     */
+    public void forget(SocketIOClient client) {
+        droppedFrames.remove(client.getSessionId());
+        pendingEvictions.remove(client.getSessionId());
+    }
+}
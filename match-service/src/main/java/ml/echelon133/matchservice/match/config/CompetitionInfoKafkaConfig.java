@@ -0,0 +1,52 @@
+package ml.echelon133.matchservice.match.config;
+
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.common.event.dto.CompetitionInfo;
+import ml.echelon133.common.event.dto.kafka.CompetitionInfoDeserializer;
+import ml.echelon133.matchservice.match.service.CompetitionInfoMessageListener;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.UUIDDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Configuration
+public class CompetitionInfoKafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    /**
+     * Listener of the topic to which the competition-service publishes changes of competitions. Every replica
+     * uses its own consumer group, so that every replica evicts competitions from its own cache, and only reads
+     * the records published after it has started (its cache is empty before that).
+     */
+    @Bean
+    KafkaMessageListenerContainer<UUID, CompetitionInfo> competitionInfoListenerContainer(
+            CompetitionInfoMessageListener listener
+    ) {
+        ContainerProperties containerProps = new ContainerProperties(KafkaTopicNames.COMPETITION_INFO);
+        containerProps.setMessageListener(listener);
+
+        Map<String, Object> props = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.GROUP_ID_CONFIG, "match-service-competitions-" + listener.getInstanceId(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"
+        );
+        var consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new UUIDDeserializer(),
+                new CompetitionInfoDeserializer()
+        );
+
+        return new KafkaMessageListenerContainer<>(
+                consumerFactory, containerProps
+        );
+    }
+}
@@ -8,6 +8,7 @@ import ml.echelon133.common.exception.ValidationResultMapper;
 import ml.echelon133.matchservice.match.controller.validators.MatchCriteriaValidator;
 import ml.echelon133.matchservice.match.exceptions.LineupPlayerInvalidException;
 import ml.echelon133.matchservice.match.model.*;
+import ml.echelon133.matchservice.match.service.MatchScheduleRebuildJob;
 import ml.echelon133.matchservice.match.service.MatchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
@@ -26,11 +27,17 @@ public class MatchController {
 
     private final MatchService matchService;
     private final MatchCriteriaValidator matchCriteriaValidator;
+    private final MatchScheduleRebuildJob matchScheduleRebuildJob;
 
     @Autowired
-    public MatchController(MatchService matchService, MatchCriteriaValidator matchCriteriaValidator) {
+    public MatchController(
+            MatchService matchService,
+            MatchCriteriaValidator matchCriteriaValidator,
+            MatchScheduleRebuildJob matchScheduleRebuildJob
+    ) {
         this.matchService = matchService;
         this.matchCriteriaValidator = matchCriteriaValidator;
+        this.matchScheduleRebuildJob = matchScheduleRebuildJob;
     }
 
     @GetMapping("/{matchId}")
@@ -64,6 +71,12 @@ public class MatchController {
         return Map.of("deleted", matchService.markMatchAsDeleted(matchId));
     }
 
+    @PostMapping("/schedule/rebuild")
+    public Map<String, Integer> rebuildSchedule() {
+        // used after the schedule has been introduced, or when some matches are listed without their competitions
+        return Map.of("rebuilt", matchScheduleRebuildJob.rebuildAll());
+    }
+
     @GetMapping
     public List<CompactMatchDto> getMatchesById(@RequestParam List<UUID> matchIds) {
         return matchService.findMatchesByIds(matchIds);
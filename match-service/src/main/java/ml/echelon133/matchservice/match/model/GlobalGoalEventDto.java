@@ -8,9 +8,18 @@ import java.util.UUID;
  * Represents a goal scored in a match, broadcast via websocket.
  *
  * @param matchId id of the match in which a goal happened
+ * @param competitionId id of the competition in which the match is played
+ * @param homeTeamId id of the home team of the match
+ * @param awayTeamId id of the away team of the match
  * @param side side which scored the goal
  */
-public record GlobalGoalEventDto(UUID matchId, GlobalMatchEvent.EventSide side) implements GlobalMatchEvent {
+public record GlobalGoalEventDto(
+        UUID matchId,
+        UUID competitionId,
+        UUID homeTeamId,
+        UUID awayTeamId,
+        GlobalMatchEvent.EventSide side
+) implements GlobalMatchEvent {
 
     @Override
     public String type() {
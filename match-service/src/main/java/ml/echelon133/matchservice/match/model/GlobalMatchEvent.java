@@ -1,5 +1,6 @@
 package ml.echelon133.matchservice.match.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
@@ -13,6 +14,10 @@ import java.util.UUID;
  *     the live view of lists of matches without having to refresh the browser.
  * </p>
  * <p>
+ *     Every event carries the ids of the competition and both teams of its match, so that it's only sent
+ *     to clients who subscribed to that competition or one of these teams.
+ * </p>
+ * <p>
  *     Each event's type name should correspond to one {@link ml.echelon133.common.event.MatchEventType} value.
  * </p>
  */
@@ -27,6 +32,10 @@ import java.util.UUID;
         @JsonSubTypes.Type(value = GlobalStatusEventDto.class, name = "STATUS"),
         @JsonSubTypes.Type(value = GlobalRedCardEventDto.class, name = "CARD")
 })
+// Ignoring "type" property during deserialization (e.g. of events received from other replicas of the service)
+// is required to avoid "UnrecognizedPropertyException", because "type" is not stored as a property on a record,
+// and instead is only a constant accessible via an accessor method.
+@JsonIgnoreProperties(value = "type")
 public sealed interface GlobalMatchEvent permits GlobalGoalEventDto, GlobalRedCardEventDto, GlobalStatusEventDto {
     enum EventSide {
         HOME, AWAY
@@ -34,4 +43,7 @@ public sealed interface GlobalMatchEvent permits GlobalGoalEventDto, GlobalRedCa
 
     String type();
     UUID matchId();
+    UUID competitionId();
+    UUID homeTeamId();
+    UUID awayTeamId();
 }
@@ -8,9 +8,18 @@ import java.util.UUID;
  * Represents a red card given in a match, broadcast via websocket.
  *
  * @param matchId id of the match in which the red card happened
+ * @param competitionId id of the competition in which the match is played
+ * @param homeTeamId id of the home team of the match
+ * @param awayTeamId id of the away team of the match
  * @param side side whose player got the red card
  */
-public record GlobalRedCardEventDto(UUID matchId, GlobalMatchEvent.EventSide side) implements GlobalMatchEvent {
+public record GlobalRedCardEventDto(
+        UUID matchId,
+        UUID competitionId,
+        UUID homeTeamId,
+        UUID awayTeamId,
+        GlobalMatchEvent.EventSide side
+) implements GlobalMatchEvent {
 
     @Override
     public String type() {
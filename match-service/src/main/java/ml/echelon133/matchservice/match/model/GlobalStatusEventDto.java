@@ -10,10 +10,20 @@ import java.util.UUID;
  * Represents a change of match's status, broadcast via websocket.
  *
  * @param matchId id of the match whose status changed
+ * @param competitionId id of the competition in which the match is played
+ * @param homeTeamId id of the home team of the match
+ * @param awayTeamId id of the away team of the match
  * @param targetStatus new status of the match
  * @param result current result of the match
  */
-public record GlobalStatusEventDto(UUID matchId, MatchStatus targetStatus, MatchResult result) implements GlobalMatchEvent {
+public record GlobalStatusEventDto(
+        UUID matchId,
+        UUID competitionId,
+        UUID homeTeamId,
+        UUID awayTeamId,
+        MatchStatus targetStatus,
+        MatchResult result
+) implements GlobalMatchEvent {
 
     @Override
     public String type() {
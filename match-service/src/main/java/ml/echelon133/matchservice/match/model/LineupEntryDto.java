@@ -0,0 +1,104 @@
+package ml.echelon133.matchservice.match.model;
+
+import ml.echelon133.matchservice.team.model.TeamPlayerDto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Single row of the lineups of a match, which either carries the formation of one side of the match,
+ * or one player who is in the lineup of that side.
+ *
+ * Rows of formations have {@link #FORMATION} role and no player, while rows of players
+ * have either {@link #STARTING} or {@link #SUBSTITUTE} role and no formation.
+ */
+public interface LineupEntryDto {
+    String HOME = "HOME";
+    String AWAY = "AWAY";
+    String FORMATION = "FORMATION";
+    String STARTING = "STARTING";
+    String SUBSTITUTE = "SUBSTITUTE";
+
+    String getSide();
+    String getRole();
+    String getFormation();
+    UUID getId();
+    String getPosition();
+    Integer getNumber();
+    String getCountryCode();
+    UUID getPlayerId();
+    String getName();
+    LocalDate getDateOfBirth();
+
+    default TeamPlayerDto toTeamPlayerDto() {
+        return TeamPlayerDto.from(
+                getId(),
+                TeamPlayerDto.PlayerShortInfoDto.from(getPlayerId(), getName(), getDateOfBirth()),
+                getPosition(),
+                getNumber(),
+                getCountryCode()
+        );
+    }
+
+    static LineupEntryDto formation(String side, String formation) {
+        return from(side, FORMATION, formation, null);
+    }
+
+    static LineupEntryDto player(String side, String role, TeamPlayerDto teamPlayer) {
+        return from(side, role, null, teamPlayer);
+    }
+
+    private static LineupEntryDto from(String side, String role, String formation, TeamPlayerDto teamPlayer) {
+        return new LineupEntryDto() {
+            @Override
+            public String getSide() {
+                return side;
+            }
+
+            @Override
+            public String getRole() {
+                return role;
+            }
+
+            @Override
+            public String getFormation() {
+                return formation;
+            }
+
+            @Override
+            public UUID getId() {
+                return teamPlayer == null ? null : teamPlayer.getId();
+            }
+
+            @Override
+            public String getPosition() {
+                return teamPlayer == null ? null : teamPlayer.getPosition();
+            }
+
+            @Override
+            public Integer getNumber() {
+                return teamPlayer == null ? null : teamPlayer.getNumber();
+            }
+
+            @Override
+            public String getCountryCode() {
+                return teamPlayer == null ? null : teamPlayer.getCountryCode();
+            }
+
+            @Override
+            public UUID getPlayerId() {
+                return teamPlayer == null ? null : teamPlayer.getPlayer().getId();
+            }
+
+            @Override
+            public String getName() {
+                return teamPlayer == null ? null : teamPlayer.getPlayer().getName();
+            }
+
+            @Override
+            public LocalDate getDateOfBirth() {
+                return teamPlayer == null ? null : teamPlayer.getPlayer().getDateOfBirth();
+            }
+        };
+    }
+}
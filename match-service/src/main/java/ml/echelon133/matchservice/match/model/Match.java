@@ -72,6 +72,10 @@ public class Match extends BaseEntity {
     @Embedded
     private RedCardInfo redCardInfo;
 
+    // sequence number of the most recent event of this match, matches without events have it set to 0
+    @Column(name = "last_event_sequence")
+    private Long lastEventSequence;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 15)
     private MatchResult result;
@@ -91,6 +95,7 @@ public class Match extends BaseEntity {
         this.scoreInfo = new ScoreInfo();
         this.penaltiesInfo = new ScoreInfo();
         this.redCardInfo = new RedCardInfo();
+        this.lastEventSequence = 0L;
         this.result = MatchResult.NONE;
         this.homeLineup = new Lineup();
         this.awayLineup = new Lineup();
@@ -208,6 +213,25 @@ public class Match extends BaseEntity {
         this.awayLineup = awayLineup;
     }
 
+    public Long getLastEventSequence() {
+        return lastEventSequence;
+    }
+
+    public void setLastEventSequence(Long lastEventSequence) {
+        this.lastEventSequence = lastEventSequence;
+    }
+
+    /**
+     * Increments the sequence number of the most recent event of this match.
+     *
+     * @return sequence number which should be assigned to the next event of this match
+     */
+    public Long nextEventSequence() {
+        // matches created before the counter existed have it set to `null`
+        this.lastEventSequence = (this.lastEventSequence == null ? 0L : this.lastEventSequence) + 1;
+        return this.lastEventSequence;
+    }
+
     public RedCardInfo getRedCardInfo() {
         return redCardInfo;
     }
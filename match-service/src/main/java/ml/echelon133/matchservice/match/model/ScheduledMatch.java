@@ -0,0 +1,249 @@
+package ml.echelon133.matchservice.match.model;
+
+import ml.echelon133.common.entity.BaseEntity;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.team.model.Team;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Entry of the schedule of matches, which holds everything that's displayed about a match in the lists of matches
+ * of a day, so that these lists are read from a single table, without joining teams, and without asking
+ * the competition-service about competitions.
+ *
+ * <p>
+ *     Entries share ids with their matches, and are grouped into buckets by the UTC hour in which their matches
+ *     start, so that matches of any day (in any time zone) are found in the buckets of the hours of that day.
+ *     Entries are updated in the same transactions as their matches and teams, while information about
+ *     competitions is copied when the competition of a match changes.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "scheduled_match",
+        indexes = {
+                @Index(columnList = "start_hour_utc, start_time_utc", name = "start_hour_utc_index"),
+                @Index(columnList = "home_team_id", name = "scheduled_home_team_id_index"),
+                @Index(columnList = "away_team_id", name = "scheduled_away_team_id_index"),
+                @Index(columnList = "competition_id", name = "scheduled_competition_id_index"),
+        }
+)
+public class ScheduledMatch extends BaseEntity {
+
+    @Column(name = "start_hour_utc", nullable = false)
+    private LocalDateTime startHourUTC;
+
+    @Column(name = "start_time_utc", nullable = false)
+    private LocalDateTime startTimeUTC;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private MatchStatus status;
+
+    @Column(name = "status_last_modified_utc")
+    private LocalDateTime statusLastModifiedUTC;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private MatchResult result;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name="homeGoals", column = @Column(name = "half_time_home_goals")),
+            @AttributeOverride(name="awayGoals", column = @Column(name = "half_time_away_goals"))
+    })
+    private ScoreInfo halfTimeScoreInfo;
+
+    @Embedded
+    private ScoreInfo scoreInfo;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name="homeGoals", column = @Column(name = "home_penalties")),
+            @AttributeOverride(name="awayGoals", column = @Column(name = "away_penalties"))
+    })
+    private ScoreInfo penaltiesInfo;
+
+    @Embedded
+    private RedCardInfo redCardInfo;
+
+    @Column(name = "home_team_id", nullable = false)
+    private UUID homeTeamId;
+
+    @Column(name = "home_team_name", nullable = false, length = 200)
+    private String homeTeamName;
+
+    @Column(name = "home_team_crest_url", nullable = false)
+    private String homeTeamCrestUrl;
+
+    @Column(name = "home_team_deleted")
+    private boolean homeTeamDeleted;
+
+    @Column(name = "away_team_id", nullable = false)
+    private UUID awayTeamId;
+
+    @Column(name = "away_team_name", nullable = false, length = 200)
+    private String awayTeamName;
+
+    @Column(name = "away_team_crest_url", nullable = false)
+    private String awayTeamCrestUrl;
+
+    @Column(name = "away_team_deleted")
+    private boolean awayTeamDeleted;
+
+    @Column(name = "competition_id")
+    private UUID competitionId;
+
+    // information about the competition is null until it's successfully fetched from the competition-service
+    @Column(name = "competition_name")
+    private String competitionName;
+
+    @Column(name = "competition_season")
+    private String competitionSeason;
+
+    @Column(name = "competition_logo_url")
+    private String competitionLogoUrl;
+
+    @Column(name = "competition_league_phase")
+    private Boolean competitionLeaguePhase;
+
+    @Column(name = "competition_max_rounds")
+    private Integer competitionMaxRounds;
+
+    @Column(name = "competition_knockout_phase")
+    private Boolean competitionKnockoutPhase;
+
+    public ScheduledMatch() {}
+
+    public ScheduledMatch(UUID matchId) {
+        setId(matchId);
+    }
+
+    /**
+     * Truncates the start time of a match to the UTC hour which identifies the bucket of the match.
+     *
+     * @param startTimeUTC start time of a match
+     * @return the hour in which the match starts
+     */
+    public static LocalDateTime hourOf(LocalDateTime startTimeUTC) {
+        return startTimeUTC.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public LocalDateTime getStartHourUTC() {
+        return startHourUTC;
+    }
+
+    public LocalDateTime getStartTimeUTC() {
+        return startTimeUTC;
+    }
+
+    public UUID getCompetitionId() {
+        return competitionId;
+    }
+
+    public boolean isCompetitionKnown() {
+        return competitionName != null;
+    }
+
+    /**
+     * Copies the state of a match (and the current information about its teams) into the entry.
+     *
+     * Information about the competition is not touched, even if the competition of the match has changed.
+     *
+     * @param match match whose state will be copied
+     */
+    public void copyFrom(Match match) {
+        this.startTimeUTC = match.getStartTimeUTC();
+        this.startHourUTC = hourOf(startTimeUTC);
+        this.status = match.getStatus();
+        this.statusLastModifiedUTC = match.getStatusLastModifiedUTC();
+        this.result = match.getResult();
+        this.halfTimeScoreInfo = copyOf(match.getHalfTimeScoreInfo());
+        this.scoreInfo = copyOf(match.getScoreInfo());
+        this.penaltiesInfo = copyOf(match.getPenaltiesInfo());
+        this.redCardInfo = RedCardInfo.of(
+                match.getRedCardInfo().getHomeRedCards(), match.getRedCardInfo().getAwayRedCards()
+        );
+        copyHomeTeam(match.getHomeTeam());
+        copyAwayTeam(match.getAwayTeam());
+        this.competitionId = match.getCompetitionId();
+    }
+
+    private static ScoreInfo copyOf(ScoreInfo scoreInfo) {
+        return new ScoreInfo(scoreInfo.getHomeGoals(), scoreInfo.getAwayGoals());
+    }
+
+    private void copyHomeTeam(Team team) {
+        this.homeTeamId = team.getId();
+        this.homeTeamName = team.getName();
+        this.homeTeamCrestUrl = team.getCrestUrl();
+        this.homeTeamDeleted = team.isDeleted();
+    }
+
+    private void copyAwayTeam(Team team) {
+        this.awayTeamId = team.getId();
+        this.awayTeamName = team.getName();
+        this.awayTeamCrestUrl = team.getCrestUrl();
+        this.awayTeamDeleted = team.isDeleted();
+    }
+
+    /**
+     * Copies information about the competition of the match into the entry.
+     *
+     * @param competition information about the competition, or `null` if it's not known
+     */
+    public void copyCompetition(CompetitionDto competition) {
+        this.competitionName = competition == null ? null : competition.name();
+        this.competitionSeason = competition == null ? null : competition.season();
+        this.competitionLogoUrl = competition == null ? null : competition.logoUrl();
+        this.competitionLeaguePhase = competition == null ? null : competition.leaguePhase();
+        this.competitionMaxRounds = competition == null ? null : competition.maxRounds();
+        this.competitionKnockoutPhase = competition == null ? null : competition.knockoutPhase();
+    }
+
+    /**
+     * Returns information about the competition of the match.
+     *
+     * @return information about the competition, or `null` if it's not known
+     */
+    public CompetitionDto toCompetitionDto() {
+        if (!isCompetitionKnown()) {
+            return null;
+        }
+        return new CompetitionDto(
+                competitionId,
+                competitionName,
+                competitionSeason,
+                competitionLogoUrl,
+                competitionLeaguePhase,
+                competitionMaxRounds,
+                competitionKnockoutPhase
+        );
+    }
+
+    /**
+     * Converts the entry into the form in which matches are listed.
+     *
+     * @return dto representing the match, which does not reveal its deleted teams
+     */
+    public CompactMatchDto toCompactMatchDto() {
+        return CompactMatchDto.builder()
+                .id(getId())
+                .status(status.name())
+                .statusLastModifiedUTC(statusLastModifiedUTC)
+                .result(result.name())
+                .competitionId(competitionId)
+                .startTimeUTC(startTimeUTC)
+                .homeTeam(homeTeamDeleted ? null : new ShortTeamDto(homeTeamId, homeTeamName, homeTeamCrestUrl))
+                .awayTeam(awayTeamDeleted ? null : new ShortTeamDto(awayTeamId, awayTeamName, awayTeamCrestUrl))
+                .halfTimeScoreInfo(new ScoreInfoDto(halfTimeScoreInfo.getHomeGoals(), halfTimeScoreInfo.getAwayGoals()))
+                .scoreInfo(new ScoreInfoDto(scoreInfo.getHomeGoals(), scoreInfo.getAwayGoals()))
+                .penaltiesInfo(new ScoreInfoDto(penaltiesInfo.getHomeGoals(), penaltiesInfo.getAwayGoals()))
+                .redCardInfo(new RedCardInfoDto(redCardInfo.getHomeRedCards(), redCardInfo.getAwayRedCards()))
+                .build();
+    }
+}
@@ -1,19 +1,18 @@
 package ml.echelon133.matchservice.match.repository;
 
 import ml.echelon133.matchservice.match.model.CompactMatchDto;
-import ml.echelon133.matchservice.match.model.LineupFormationsDto;
+import ml.echelon133.matchservice.match.model.LineupEntryDto;
 import ml.echelon133.matchservice.match.model.Match;
 import ml.echelon133.matchservice.match.model.MatchDto;
-import ml.echelon133.matchservice.team.model.TeamPlayerDto;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface MatchRepository extends JpaRepository<Match, UUID> {
 
@@ -89,38 +88,6 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
     @Query(value = "UPDATE match SET deleted = true WHERE id = :matchId AND deleted = false", nativeQuery = true)
     Integer markMatchAsDeleted(UUID matchId);
 
-    /**
-     * Finds all matches that start between the two dates specified in the arguments.
-     *
-     * @param startUTC start of the search period (in UTC)
-     * @param endUTC end of the search period (in UTC)
-     * @param pageable information about the wanted page
-     * @return a list of matches that start between the two dates
-     */
-    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
-    @Query(
-            value = """
-                    SELECT CAST(m.id as varchar) as id, m.status as status, m.result as result, \
-                       m.start_time_utc as startTimeUTC, CAST(m.competition_id as varchar) as competitionId, \
-                       m.half_time_home_goals as halfTimeHomeGoals, m.half_time_away_goals as halfTimeAwayGoals, \
-                       m.home_goals as homeGoals, m.away_goals as awayGoals, \
-                       m.home_penalties as homePenalties, m.away_penalties as awayPenalties, \
-                       m.home_red_cards as homeRedCards, m.away_red_cards as awayRedCards, \
-                       m.status_last_modified_utc as statusLastModifiedUTC, \
-                    CAST(ht.id as varchar) as homeTeamId, ht.name as homeTeamName, \
-                       ht.crest_url as homeTeamCrestUrl, ht.deleted as homeTeamDeleted, \
-                    CAST(at.id as varchar) as awayTeamId, at.name as awayTeamName, \
-                       at.crest_url as awayTeamCrestUrl, at.deleted as awayTeamDeleted \
-                    FROM match m \
-                    JOIN team ht ON m.home_team_id = ht.id \
-                    JOIN team at ON m.away_team_id = at.id \
-                    WHERE m.deleted = false AND m.start_time_utc BETWEEN :startUTC AND :endUTC \
-                    ORDER BY m.start_time_utc ASC \
-                    """,
-            nativeQuery = true
-    )
-    List<CompactMatchDto> findAllBetween(LocalDateTime startUTC, LocalDateTime endUTC, Pageable pageable);
-
     /**
      * Finds all matches of a team with the specified id, whose status is on the list
      * of accepted statuses.
@@ -158,88 +125,48 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
     List<CompactMatchDto> findAllByTeamIdAndStatuses(UUID teamId, List<String> acceptedStatuses, Pageable pageable);
 
     /**
-     * Finds all non-deleted starting players who are in the home lineup of a match with the specified id.
+     * Finds both lineups of a match with the specified id in a single query.
      *
-     * @param matchId id of the match whose starting players need to be found
-     * @return a list of starting players of the home side of the match
-     */
-    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
-    @Query(
-            value = """
-                    SELECT CAST(tp.id as varchar) as id, tp.position as position, tp.number as number, \
-                    CAST(p.id as varchar) as playerId, p.name as name, p.date_of_birth as dateOfBirth, \
-                    p.country_code as countryCode \
-                    FROM match m \
-                    JOIN lineup l ON m.home_lineup_id = l.id \
-                    JOIN starting_player stp ON stp.lineup_id = l.id \
-                    JOIN team_player tp ON stp.team_player_id = tp.id \
-                    JOIN player p ON tp.player_id = p.id \
-                    WHERE m.deleted = false AND m.id = :matchId AND p.deleted = false \
-                    """,
-            nativeQuery = true
-    )
-    List<TeamPlayerDto> findHomeStartingPlayersByMatchId(UUID matchId);
-
-    /**
-     * Finds all non-deleted substitute players who are in the home lineup of a match with the specified id.
+     * Every side of the match has a row with its formation (even if the formation is not set), and a row for each
+     * of its non-deleted starting and substitute players. Therefore, no rows are found only when the match
+     * does not exist or is marked as deleted.
+     *
+     * Since the stream reads the rows as they arrive, it has to be consumed inside a transaction and closed afterwards.
      *
-     * @param matchId id of the match whose substitute players need to be found
-     * @return a list of substitute players of the home side of the match
+     * @param matchId id of the match whose lineups need to be found
+     * @return a stream of formations and players of both sides of the match
      */
     // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
     @Query(
             value = """
-                    SELECT CAST(tp.id as varchar) as id, tp.position as position, tp.number as number, \
-                    CAST(p.id as varchar) as playerId, p.name as name, p.date_of_birth as dateOfBirth, \
-                    p.country_code as countryCode \
+                    SELECT 'HOME' as side, 'FORMATION' as role, l.formation as formation, \
+                    CAST(NULL as varchar) as id, CAST(NULL as varchar) as position, CAST(NULL as integer) as number, \
+                    CAST(NULL as varchar) as playerId, CAST(NULL as varchar) as name, CAST(NULL as date) as dateOfBirth, \
+                    CAST(NULL as varchar) as countryCode \
                     FROM match m \
                     JOIN lineup l ON m.home_lineup_id = l.id \
-                    JOIN substitute_player sup ON sup.lineup_id = l.id \
-                    JOIN team_player tp ON sup.team_player_id = tp.id \
-                    JOIN player p ON tp.player_id = p.id \
-                    WHERE m.deleted = false AND m.id = :matchId AND p.deleted = false \
-                    """,
-            nativeQuery = true
-    )
-    List<TeamPlayerDto> findHomeSubstitutePlayersByMatchId(UUID matchId);
-
-    /**
-     * Finds all non-deleted starting players who are in the away lineup of a match with the specified id.
-     *
-     * @param matchId id of the match whose starting players need to be found
-     * @return a list of starting players of the away side of the match
-     */
-    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
-    @Query(
-            value = """
-                    SELECT CAST(tp.id as varchar) as id, tp.position as position, tp.number as number, \
-                    CAST(p.id as varchar) as playerId, p.name as name, p.date_of_birth as dateOfBirth, \
-                    p.country_code as countryCode \
+                    WHERE m.deleted = false AND m.id = :matchId \
+                    UNION ALL \
+                    SELECT 'AWAY', 'FORMATION', l.formation, NULL, NULL, NULL, NULL, NULL, NULL, NULL \
                     FROM match m \
                     JOIN lineup l ON m.away_lineup_id = l.id \
+                    WHERE m.deleted = false AND m.id = :matchId \
+                    UNION ALL \
+                    SELECT CASE WHEN l.id = m.home_lineup_id THEN 'HOME' ELSE 'AWAY' END, 'STARTING', NULL, \
+                    CAST(tp.id as varchar), tp.position, tp.number, \
+                    CAST(p.id as varchar), p.name, p.date_of_birth, p.country_code \
+                    FROM match m \
+                    JOIN lineup l ON l.id IN (m.home_lineup_id, m.away_lineup_id) \
                     JOIN starting_player stp ON stp.lineup_id = l.id \
                     JOIN team_player tp ON stp.team_player_id = tp.id \
                     JOIN player p ON tp.player_id = p.id \
                     WHERE m.deleted = false AND m.id = :matchId AND p.deleted = false \
-                    """,
-            nativeQuery = true
-    )
-    List<TeamPlayerDto> findAwayStartingPlayersByMatchId(UUID matchId);
-
-    /**
-     * Finds all non-deleted substitute players who are in the away lineup of a match with the specified id.
-     *
-     * @param matchId id of the match whose substitute players need to be found
-     * @return a list of substitute players of the away side of the match
-     */
-    // CAST(id as varchar) is a workaround for https://github.com/spring-projects/spring-data-jpa/issues/1796
-    @Query(
-            value = """
-                    SELECT CAST(tp.id as varchar) as id, tp.position as position, tp.number as number, \
-                    CAST(p.id as varchar) as playerId, p.name as name, p.date_of_birth as dateOfBirth, \
-                    p.country_code as countryCode \
+                    UNION ALL \
+                    SELECT CASE WHEN l.id = m.home_lineup_id THEN 'HOME' ELSE 'AWAY' END, 'SUBSTITUTE', NULL, \
+                    CAST(tp.id as varchar), tp.position, tp.number, \
+                    CAST(p.id as varchar), p.name, p.date_of_birth, p.country_code \
                     FROM match m \
-                    JOIN lineup l ON m.away_lineup_id = l.id \
+                    JOIN lineup l ON l.id IN (m.home_lineup_id, m.away_lineup_id) \
                     JOIN substitute_player sup ON sup.lineup_id = l.id \
                     JOIN team_player tp ON sup.team_player_id = tp.id \
                     JOIN player p ON tp.player_id = p.id \
@@ -247,24 +174,18 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
                     """,
             nativeQuery = true
     )
-    List<TeamPlayerDto> findAwaySubstitutePlayersByMatchId(UUID matchId);
+    Stream<LineupEntryDto> findLineupEntriesByMatchId(UUID matchId);
 
     /**
-     * Finds formations of both lineups of a match with the specified id.
+     * Finds ids of non-deleted matches whose ids are greater than the specified id, in ascending order.
+     *
+     * This makes it possible to iterate over all matches page by page, without the cost of skipping
+     * already visited rows that's associated with offset based pagination.
      *
-     * @param matchId id of the match whose lineup formations need to be found
-     * @return an {@link Optional} containing a dto with lineup formations of both teams playing in a match (if the match exists),
-     *      otherwise the optional is empty
+     * @param afterId id of the last already visited match
+     * @param pageable information about the size of the page
+     * @return a list of ids of matches
      */
-    @Query(
-            value = """
-                    SELECT home_lineup.formation as homeFormation, away_lineup.formation as awayFormation \
-                    FROM match m \
-                    JOIN lineup home_lineup ON m.home_lineup_id = home_lineup.id \
-                    JOIN lineup away_lineup ON m.away_lineup_id = away_lineup.id \
-                    WHERE m.deleted = false AND m.id = :matchId \
-                    """,
-            nativeQuery = true
-    )
-    Optional<LineupFormationsDto> findLineupFormationsByMatchId(UUID matchId);
+    @Query("SELECT m.id FROM Match m WHERE m.deleted = false AND m.id > :afterId ORDER BY m.id ASC")
+    List<UUID> findIdsAfter(UUID afterId, Pageable pageable);
 }
@@ -0,0 +1,130 @@
+package ml.echelon133.matchservice.match.repository;
+
+import jakarta.transaction.Transactional;
+import ml.echelon133.matchservice.match.model.ScheduledMatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ScheduledMatchRepository extends JpaRepository<ScheduledMatch, UUID> {
+
+    /**
+     * Finds all scheduled matches that start between the two dates specified in the arguments.
+     *
+     * Only the buckets of the hours between the first and the last hour are read. The exact start and end of
+     * the search period only matter in the first and the last bucket (when the period does not start or end
+     * on a full hour, e.g. in time zones whose offsets are not full hours).
+     *
+     * @param firstHourUTC the hour which contains the start of the search period
+     * @param lastHourUTC the hour which contains the end of the search period
+     * @param startUTC start of the search period (in UTC)
+     * @param endUTC end of the search period (in UTC)
+     * @param pageable information about the wanted page
+     * @return a list of scheduled matches that start between the two dates, ordered by their start times
+     */
+    @Query("""
+            SELECT sm FROM ScheduledMatch sm \
+            WHERE sm.startHourUTC BETWEEN :firstHourUTC AND :lastHourUTC \
+            AND sm.startTimeUTC BETWEEN :startUTC AND :endUTC \
+            ORDER BY sm.startTimeUTC ASC \
+            """)
+    List<ScheduledMatch> findAllInHoursBetween(
+            LocalDateTime firstHourUTC,
+            LocalDateTime lastHourUTC,
+            LocalDateTime startUTC,
+            LocalDateTime endUTC,
+            Pageable pageable
+    );
+
+    /**
+     * Copies the current name and crest of a team into all scheduled matches of that team.
+     *
+     * @param teamId id of the team
+     * @param name name of the team
+     * @param crestUrl url of the crest of the team
+     * @return how many scheduled matches have been updated
+     */
+    @Modifying
+    @Query("""
+            UPDATE ScheduledMatch sm SET \
+            sm.homeTeamName = CASE WHEN sm.homeTeamId = :teamId THEN :name ELSE sm.homeTeamName END, \
+            sm.homeTeamCrestUrl = CASE WHEN sm.homeTeamId = :teamId THEN :crestUrl ELSE sm.homeTeamCrestUrl END, \
+            sm.awayTeamName = CASE WHEN sm.awayTeamId = :teamId THEN :name ELSE sm.awayTeamName END, \
+            sm.awayTeamCrestUrl = CASE WHEN sm.awayTeamId = :teamId THEN :crestUrl ELSE sm.awayTeamCrestUrl END \
+            WHERE sm.homeTeamId = :teamId OR sm.awayTeamId = :teamId \
+            """)
+    Integer updateTeam(UUID teamId, String name, String crestUrl);
+
+    /**
+     * Hides a deleted team in all scheduled matches of that team.
+     *
+     * @param teamId id of the deleted team
+     * @return how many scheduled matches have been updated
+     */
+    @Modifying
+    @Query("""
+            UPDATE ScheduledMatch sm SET \
+            sm.homeTeamDeleted = CASE WHEN sm.homeTeamId = :teamId THEN true ELSE sm.homeTeamDeleted END, \
+            sm.awayTeamDeleted = CASE WHEN sm.awayTeamId = :teamId THEN true ELSE sm.awayTeamDeleted END \
+            WHERE sm.homeTeamId = :teamId OR sm.awayTeamId = :teamId \
+            """)
+    Integer markTeamAsDeleted(UUID teamId);
+
+    /**
+     * Fills in information about the competition of a scheduled match, unless the match has been moved to another
+     * competition in the meantime.
+     *
+     * @param matchId id of the match
+     * @param competitionId id of the competition whose information is filled in
+     * @return how many scheduled matches have been updated
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE ScheduledMatch sm SET \
+            sm.competitionName = :name, sm.competitionSeason = :season, sm.competitionLogoUrl = :logoUrl, \
+            sm.competitionLeaguePhase = :leaguePhase, sm.competitionMaxRounds = :maxRounds, \
+            sm.competitionKnockoutPhase = :knockoutPhase \
+            WHERE sm.id = :matchId AND sm.competitionId = :competitionId \
+            """)
+    Integer updateCompetition(
+            UUID matchId,
+            UUID competitionId,
+            String name,
+            String season,
+            String logoUrl,
+            boolean leaguePhase,
+            int maxRounds,
+            boolean knockoutPhase
+    );
+
+    /**
+     * Removes information about a competition from all scheduled matches of that competition.
+     *
+     * @param competitionId id of the competition
+     * @return how many scheduled matches have been updated
+     */
+    @Modifying
+    @Query("""
+            UPDATE ScheduledMatch sm SET \
+            sm.competitionName = NULL, sm.competitionSeason = NULL, sm.competitionLogoUrl = NULL, \
+            sm.competitionLeaguePhase = NULL, sm.competitionMaxRounds = NULL, sm.competitionKnockoutPhase = NULL \
+            WHERE sm.competitionId = :competitionId \
+            """)
+    Integer clearCompetition(UUID competitionId);
+
+    /**
+     * Removes the scheduled match which shares its id with the specified match.
+     *
+     * @param matchId id of the match
+     * @return how many scheduled matches have been removed
+     */
+    @Modifying
+    @Query("DELETE FROM ScheduledMatch sm WHERE sm.id = :matchId")
+    Integer deleteByMatchId(UUID matchId);
+}
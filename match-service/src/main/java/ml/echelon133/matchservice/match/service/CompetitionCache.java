@@ -0,0 +1,152 @@
+package ml.echelon133.matchservice.match.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.cache.BoundedCache;
+import ml.echelon133.matchservice.client.CompetitionServiceClient;
+import ml.echelon133.matchservice.client.RemoteCallExecutor;
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Holds information about the most recently requested competitions, so that lists of matches grouped by their
+ * competitions do not depend on the latency (nor the availability) of the competition-service.
+ *
+ * <p>
+ *     Competitions are evicted when the competition-service announces that they have changed
+ *     (see {@link CompetitionInfoMessageListener}), and expire after a while in case such an announcement
+ *     has been missed. The number of cached competitions is bounded, and the least recently used
+ *     competition is evicted first.
+ * </p>
+ */
+@Service
+public class CompetitionCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(CompetitionCache.class);
+
+    private record CachedCompetition(CompetitionDto competition, Instant expiresAt) {}
+
+    private final BoundedCache<UUID, CachedCompetition> competitions;
+    private final Duration timeToLive;
+    private final CompetitionServiceClient competitionServiceClient;
+    private final RemoteCallExecutor remoteCallExecutor;
+    private final Clock clock;
+    private final Counter failures;
+
+    @Autowired
+    public CompetitionCache(
+            @Value("${competitions.cache.max-competitions:500}") int maxCachedCompetitions,
+            @Value("${competitions.cache.ttl-seconds:300}") long timeToLiveSeconds,
+            CompetitionServiceClient competitionServiceClient,
+            RemoteCallExecutor remoteCallExecutor,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.competitions = new BoundedCache<>(
+                maxCachedCompetitions,
+                "match.competition.cache",
+                "Number of requests for information about a competition",
+                meterRegistry
+        );
+        this.timeToLive = Duration.ofSeconds(timeToLiveSeconds);
+        this.competitionServiceClient = competitionServiceClient;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.clock = clock;
+        this.failures = Counter.builder("match.competition.fetch.failures")
+                .description("Number of competitions which could not be fetched from the competition-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds information about the competition with the specified id.
+     *
+     * The competition is only fetched from the competition-service when it's not cached, or its cached
+     * information has expired. Competitions which could not be fetched (e.g. in time,
+     * see {@link RemoteCallExecutor}) are not cached, so that they are fetched again by the next request.
+     *
+     * @param competitionId id of the competition
+     * @return information about the competition, or an empty optional if it could not be fetched
+     */
+    public Optional<CompetitionDto> find(UUID competitionId) {
+        var now = clock.instant();
+        return competitions.findOrLoad(
+                competitionId,
+                cached -> now.isBefore(cached.expiresAt()),
+                id -> Optional.ofNullable(remoteCallExecutor.call(
+                        () -> competitionServiceClient.getCompetitionById(id),
+                        ex -> {
+                            failures.increment();
+                            logger.warn("Competition {} could not be fetched: {}", id, ex.toString());
+                            return null;
+                        }
+                )).map(competition -> new CachedCompetition(competition, now.plus(timeToLive)))
+        ).map(CachedCompetition::competition);
+    }
+
+    /**
+     * Finds information about all competitions with the specified ids.
+     *
+     * All competitions which are not cached (or whose cached information has expired) are fetched from
+     * the competition-service with a single request. Competitions which could not be fetched are missing
+     * from the result and are not cached.
+     *
+     * @param competitionIds ids of the competitions
+     * @return `competition's UUID`->`competition` mapping of all competitions which are cached or could be fetched
+     */
+    public Map<UUID, CompetitionDto> findAll(Collection<UUID> competitionIds) {
+        var now = clock.instant();
+        Map<UUID, CompetitionDto> found = new HashMap<>();
+        Set<UUID> missingIds = new HashSet<>();
+        long evictionsBeforeFetch = competitions.evictions();
+        for (var competitionId : competitionIds) {
+            competitions.find(competitionId, cached -> now.isBefore(cached.expiresAt())).ifPresentOrElse(
+                    cached -> found.put(competitionId, cached.competition()),
+                    () -> missingIds.add(competitionId)
+            );
+        }
+        if (missingIds.isEmpty()) {
+            return found;
+        }
+
+        List<CompetitionDto> fetched = remoteCallExecutor.call(
+                () -> competitionServiceClient.getCompetitionsByIds(missingIds),
+                ex -> {
+                    failures.increment(missingIds.size());
+                    logger.warn("{} competitions could not be fetched: {}", missingIds.size(), ex.toString());
+                    return List.of();
+                }
+        );
+        Map<UUID, CachedCompetition> fetchedCompetitions = new HashMap<>();
+        fetched.forEach(competition -> {
+            fetchedCompetitions.put(competition.id(), new CachedCompetition(competition, now.plus(timeToLive)));
+            found.put(competition.id(), competition);
+        });
+        competitions.putAllIfNotEvictedSince(evictionsBeforeFetch, fetchedCompetitions);
+        return found;
+    }
+
+    /**
+     * Removes the cached information about the competition with the specified id.
+     *
+     * @param competitionId id of the competition which should no longer be cached
+     */
+    public void evict(UUID competitionId) {
+        competitions.evict(competitionId);
+    }
+}
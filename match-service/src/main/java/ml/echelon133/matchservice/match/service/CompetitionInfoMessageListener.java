@@ -0,0 +1,59 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.common.event.dto.CompetitionInfo;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Drops information about competitions which the competition-service has announced as changed.
+ *
+ * Every replica of the service consumes all records of the topic (each replica is the only member of its own
+ * consumer group), because every replica has its own {@link CompetitionCache}.
+ */
+@Service
+public class CompetitionInfoMessageListener implements MessageListener<UUID, CompetitionInfo> {
+
+    private final static Logger logger = LoggerFactory.getLogger(CompetitionInfoMessageListener.class);
+
+    private final UUID instanceId = UUID.randomUUID();
+    private final CompetitionCache competitionCache;
+    private final MatchScheduleService matchScheduleService;
+
+    @Autowired
+    public CompetitionInfoMessageListener(CompetitionCache competitionCache, MatchScheduleService matchScheduleService) {
+        this.competitionCache = competitionCache;
+        this.matchScheduleService = matchScheduleService;
+    }
+
+    /**
+     * Returns the id of this replica, which is unique for every start of the service.
+     *
+     * @return id of this replica
+     */
+    public UUID getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<UUID, CompetitionInfo> record) {
+        var competitionInfo = record.value();
+        if (competitionInfo == null) {
+            return;
+        }
+        var competitionId = competitionInfo.competitionId();
+        logger.info("Received {} of competition {}", competitionInfo.type(), competitionId);
+        switch (competitionInfo) {
+            case CompetitionInfo.DeletionEvent deletionEvent -> {
+                competitionCache.evict(competitionId);
+                // matches of a deleted competition are listed without it, just like when it cannot be fetched
+                matchScheduleService.forgetCompetition(competitionId);
+            }
+        }
+    }
+}
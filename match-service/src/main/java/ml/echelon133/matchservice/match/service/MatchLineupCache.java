@@ -0,0 +1,79 @@
+package ml.echelon133.matchservice.match.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ml.echelon133.matchservice.cache.BoundedCache;
+import ml.echelon133.matchservice.match.model.LineupDto;
+import ml.echelon133.matchservice.team.model.TeamPlayerDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Holds lineups of the most recently requested matches, so that neither clients viewing a match, nor
+ * the validation of its events, read the same lineups from the database over and over again.
+ *
+ * <p>
+ *     Lineups are evicted from the cache when they are updated, and when any player listed in them changes
+ *     (see {@link MatchLineupEvictionService}). The number of cached lineups is bounded, and the least recently
+ *     used lineup is evicted first.
+ * </p>
+ */
+@Service
+public class MatchLineupCache {
+
+    private final BoundedCache<UUID, LineupDto> lineups;
+
+    @Autowired
+    public MatchLineupCache(
+            @Value("${match-lineups.cache.max-matches:1000}") int maxCachedMatches,
+            MeterRegistry meterRegistry
+    ) {
+        this.lineups = new BoundedCache<>(
+                maxCachedMatches, "match.lineup.cache", "Number of requests for the lineup of a match", meterRegistry
+        );
+    }
+
+    /**
+     * Finds the lineup of the match with the specified id.
+     *
+     * The loader is only called when the lineup of the match is not cached. Lineups of matches which do not
+     * exist are not cached, neither are lineups loaded while any lineup was evicted.
+     *
+     * @param matchId id of the match whose lineup will be fetched
+     * @param loader function which loads the lineup of the match, returns an empty optional if the match
+     *               does not exist
+     * @return lineup of the match, or an empty optional if the match does not exist
+     */
+    public Optional<LineupDto> find(UUID matchId, Function<UUID, Optional<LineupDto>> loader) {
+        return lineups.findOrLoad(matchId, loader);
+    }
+
+    /**
+     * Removes the cached lineup of the match with the specified id.
+     *
+     * @param matchId id of the match whose lineup should no longer be cached
+     */
+    public void evict(UUID matchId) {
+        lineups.evict(matchId);
+    }
+
+    /**
+     * Removes all cached lineups which list the player with the specified id.
+     *
+     * @param playerId id of the player whose information has changed
+     * @return ids of matches whose lineups have been removed
+     */
+    public List<UUID> evictPlayer(UUID playerId) {
+        return lineups.evictIf(lineup -> Stream.of(lineup.home(), lineup.away())
+                .flatMap(side -> Stream.concat(side.startingPlayers().stream(), side.substitutePlayers().stream()))
+                .map(TeamPlayerDto::getPlayer)
+                .anyMatch(player -> player.getId().equals(playerId))
+        );
+    }
+}
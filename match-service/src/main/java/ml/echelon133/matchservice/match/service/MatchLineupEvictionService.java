@@ -0,0 +1,88 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.matchservice.event.service.LiveMatchStateRegistry;
+import ml.echelon133.matchservice.event.service.MatchEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Evicts cached lineups (see {@link MatchLineupCache}) which are outdated, because either the lineup itself,
+ * or any player listed in it, has changed.
+ *
+ * <p>
+ *     Lineups are evicted both right away and once the current transaction completes, so that a lineup read
+ *     by another request before the transaction commits does not stay cached. Once the change is committed,
+ *     other replicas of the service are told to evict their copies of the lineups as well.
+ * </p>
+ */
+@Service
+public class MatchLineupEvictionService {
+
+    private final MatchLineupCache matchLineupCache;
+    private final LiveMatchStateRegistry liveMatchStateRegistry;
+    private final MatchEventBroadcaster matchEventBroadcaster;
+
+    @Autowired
+    public MatchLineupEvictionService(
+            MatchLineupCache matchLineupCache,
+            LiveMatchStateRegistry liveMatchStateRegistry,
+            MatchEventBroadcaster matchEventBroadcaster
+    ) {
+        this.matchLineupCache = matchLineupCache;
+        this.liveMatchStateRegistry = liveMatchStateRegistry;
+        this.matchEventBroadcaster = matchEventBroadcaster;
+    }
+
+    /**
+     * Evicts the cached lineup of the match with the specified id.
+     *
+     * @param matchId id of the match whose lineup has changed
+     */
+    public void evictLineup(UUID matchId) {
+        matchLineupCache.evict(matchId);
+        afterCompletion(committed -> {
+            matchLineupCache.evict(matchId);
+            if (committed) {
+                matchEventBroadcaster.broadcastLineupChange(matchId);
+            }
+        });
+    }
+
+    /**
+     * Evicts all cached lineups which list the player with the specified id, together with the in-memory
+     * states of their matches (which hold copies of these lineups).
+     *
+     * @param playerId id of the player whose information has changed
+     */
+    public void evictPlayer(UUID playerId) {
+        evictLineupsOfPlayer(playerId);
+        afterCompletion(committed -> {
+            evictLineupsOfPlayer(playerId);
+            if (committed) {
+                matchEventBroadcaster.broadcastPlayerChange(playerId);
+            }
+        });
+    }
+
+    private void evictLineupsOfPlayer(UUID playerId) {
+        matchLineupCache.evictPlayer(playerId).forEach(liveMatchStateRegistry::evict);
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+}
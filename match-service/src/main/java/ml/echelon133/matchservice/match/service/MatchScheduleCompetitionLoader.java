@@ -0,0 +1,113 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.matchservice.match.repository.ScheduledMatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills in information about competitions of entries of the schedule (see {@link MatchScheduleService}).
+ *
+ * <p>
+ *     Competitions are looked up (see {@link CompetitionCache}) only after the transaction which saved the entry
+ *     commits, on a small, bounded pool of dedicated threads, so that transactions which create or update matches
+ *     never wait for the competition-service. Until its competition is filled in, a match is listed without
+ *     information about its competition.
+ * </p>
+ */
+@Service
+public class MatchScheduleCompetitionLoader implements DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchScheduleCompetitionLoader.class);
+
+    private final CompetitionCache competitionCache;
+    private final ScheduledMatchRepository scheduledMatchRepository;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public MatchScheduleCompetitionLoader(
+            CompetitionCache competitionCache,
+            ScheduledMatchRepository scheduledMatchRepository,
+            @Value("${match-schedule.competition-loader.threads:2}") int threads,
+            @Value("${match-schedule.competition-loader.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.competitionCache = competitionCache;
+        this.scheduledMatchRepository = scheduledMatchRepository;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "match-schedule-competitions");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Fills in information about the competition of the entry of a match, once the current transaction commits.
+     * If there is no active transaction, the competition is looked up right away (without waiting for it).
+     *
+     * @param matchId id of the match whose entry needs information about its competition
+     * @param competitionId id of the competition of the match
+     */
+    public void loadAfterCommit(UUID matchId, UUID competitionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            load(matchId, competitionId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                load(matchId, competitionId);
+            }
+        });
+    }
+
+    private void load(UUID matchId, UUID competitionId) {
+        try {
+            executor.execute(() -> fill(matchId, competitionId));
+        } catch (RejectedExecutionException ex) {
+            // the match is listed without information about its competition until its entry is refreshed again
+            logger.warn("Competition {} of match {} not loaded, too many loads are waiting", competitionId, matchId);
+        }
+    }
+
+    private void fill(UUID matchId, UUID competitionId) {
+        try {
+            competitionCache.find(competitionId).ifPresent(competition ->
+                    // the entry is only updated if the match has not been moved to another competition in the meantime
+                    scheduledMatchRepository.updateCompetition(
+                            matchId,
+                            competitionId,
+                            competition.name(),
+                            competition.season(),
+                            competition.logoUrl(),
+                            competition.leaguePhase(),
+                            competition.maxRounds(),
+                            competition.knockoutPhase()
+                    )
+            );
+        } catch (RuntimeException ex) {
+            logger.error("Competition {} of match {} could not be filled in", competitionId, matchId, ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,67 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rebuilds the schedule entries of all matches, e.g. after the schedule has been introduced, or after
+ * information about competitions could not be fetched for some time.
+ *
+ * <p>
+ *     Ids of matches are read page by page (using the last visited id instead of an offset), and the entries
+ *     of every page are rebuilt in their own transaction.
+ * </p>
+ */
+@Service
+public class MatchScheduleRebuildJob {
+
+    private final static Logger logger = LoggerFactory.getLogger(MatchScheduleRebuildJob.class);
+
+    // smallest possible id, which is the starting point of the iteration over all matches
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final MatchRepository matchRepository;
+    private final MatchScheduleService matchScheduleService;
+    private final int pageSize;
+
+    @Autowired
+    public MatchScheduleRebuildJob(
+            MatchRepository matchRepository,
+            MatchScheduleService matchScheduleService,
+            @Value("${match-schedule.rebuild.page-size:500}") int pageSize
+    ) {
+        this.matchRepository = matchRepository;
+        this.matchScheduleService = matchScheduleService;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Rebuilds the schedule entries of all non-deleted matches.
+     *
+     * @return number of rebuilt entries
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+
+        var lastId = FIRST_ID;
+        List<UUID> matchIds;
+        do {
+            matchIds = matchRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize));
+            if (!matchIds.isEmpty()) {
+                rebuilt += matchScheduleService.rebuild(matchIds);
+                lastId = matchIds.get(matchIds.size() - 1);
+            }
+        } while (matchIds.size() == pageSize);
+
+        logger.info("Rebuilt the schedule entries of {} matches", rebuilt);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,188 @@
+package ml.echelon133.matchservice.match.service;
+
+import jakarta.transaction.Transactional;
+import ml.echelon133.matchservice.match.model.CompactMatchDto;
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import ml.echelon133.matchservice.match.model.CompetitionGroupedMatches;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.ScheduledMatch;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.match.repository.ScheduledMatchRepository;
+import ml.echelon133.matchservice.team.model.Team;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the schedule of matches (see {@link ScheduledMatch}), which is the read model of lists of matches
+ * of a day.
+ *
+ * <p>
+ *     Entries of the schedule are refreshed in the same transactions in which their matches are created, updated,
+ *     or have their status or score changed by events, therefore every replica of the service reads
+ *     an up-to-date schedule. Information about a competition is only looked up (see {@link CompetitionCache})
+ *     when a match is placed in it, never while reading the schedule, and it's filled in after the transaction
+ *     commits (see {@link MatchScheduleCompetitionLoader}), so that transactions never wait for
+ *     the competition-service.
+ * </p>
+ */
+@Service
+@Transactional
+public class MatchScheduleService {
+
+    private final ScheduledMatchRepository scheduledMatchRepository;
+    private final MatchRepository matchRepository;
+    private final CompetitionCache competitionCache;
+    private final MatchScheduleCompetitionLoader competitionLoader;
+
+    @Autowired
+    public MatchScheduleService(
+            ScheduledMatchRepository scheduledMatchRepository,
+            MatchRepository matchRepository,
+            CompetitionCache competitionCache,
+            MatchScheduleCompetitionLoader competitionLoader
+    ) {
+        this.scheduledMatchRepository = scheduledMatchRepository;
+        this.matchRepository = matchRepository;
+        this.competitionCache = competitionCache;
+        this.competitionLoader = competitionLoader;
+    }
+
+    /**
+     * Finds all matches that start between the two dates and groups them by the competition they happen in.
+     *
+     * @param startUTC start of the search period (in UTC)
+     * @param endUTC end of the search period (in UTC)
+     * @param pageable information about the wanted page
+     * @return lists of matches grouped by their competition, in the order of the first match of every competition
+     */
+    public List<CompetitionGroupedMatches> findMatchesBetween(
+            LocalDateTime startUTC, LocalDateTime endUTC, Pageable pageable
+    ) {
+        var scheduledMatches = scheduledMatchRepository.findAllInHoursBetween(
+                ScheduledMatch.hourOf(startUTC), ScheduledMatch.hourOf(endUTC), startUTC, endUTC, pageable
+        );
+
+        Map<UUID, CompetitionDto> competitions = new LinkedHashMap<>();
+        Map<UUID, List<CompactMatchDto>> matchesOfCompetitions = new LinkedHashMap<>();
+        for (var scheduledMatch : scheduledMatches) {
+            var competitionId = scheduledMatch.getCompetitionId();
+            competitions.putIfAbsent(competitionId, scheduledMatch.toCompetitionDto());
+            matchesOfCompetitions
+                    .computeIfAbsent(competitionId, id -> new ArrayList<>())
+                    .add(scheduledMatch.toCompactMatchDto());
+        }
+        return matchesOfCompetitions.entrySet().stream()
+                .map(e -> new CompetitionGroupedMatches(competitions.get(e.getKey()), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Copies the current state of a match into its entry of the schedule, creating the entry if it does not exist.
+     *
+     * Information about the competition of the match is fetched (once the transaction commits) when the entry
+     * is created, or when the match has been moved to another competition.
+     *
+     * @param match match whose entry needs to be refreshed
+     */
+    public void refresh(Match match) {
+        refresh(match, false);
+    }
+
+    /**
+     * Copies the current state of a match into its entry of the schedule, creating the entry if it does not exist.
+     *
+     * @param match match whose entry needs to be refreshed
+     * @param refreshCompetition if `true`, information about the competition of the match is fetched even if
+     *                           the competition has not changed (e.g. because it's not known yet)
+     */
+    public void refresh(Match match, boolean refreshCompetition) {
+        var scheduledMatch = scheduledMatchRepository
+                .findById(match.getId())
+                .orElseGet(() -> new ScheduledMatch(match.getId()));
+
+        var competitionChanged = !Objects.equals(match.getCompetitionId(), scheduledMatch.getCompetitionId());
+        scheduledMatch.copyFrom(match);
+        if (competitionChanged) {
+            // information about the previous competition must not be listed until the new one is filled in
+            scheduledMatch.copyCompetition(null);
+        }
+        scheduledMatchRepository.save(scheduledMatch);
+        if ((competitionChanged || refreshCompetition) && match.getCompetitionId() != null) {
+            competitionLoader.loadAfterCommit(match.getId(), match.getCompetitionId());
+        }
+    }
+
+    /**
+     * Rebuilds the entries of matches with the specified ids (e.g. of matches created before the schedule existed).
+     *
+     * Competitions of all these matches are looked up together, with a single request to the competition-service.
+     *
+     * @param matchIds ids of matches whose entries need to be rebuilt
+     * @return number of rebuilt entries
+     */
+    public int rebuild(List<UUID> matchIds) {
+        var matches = matchRepository.findAllById(matchIds).stream().filter(m -> !m.isDeleted()).toList();
+        var competitions = competitionCache.findAll(
+                matches.stream().map(Match::getCompetitionId).filter(Objects::nonNull).collect(Collectors.toSet())
+        );
+        int rebuilt = 0;
+        for (var match : matches) {
+            var scheduledMatch = scheduledMatchRepository
+                    .findById(match.getId())
+                    .orElseGet(() -> new ScheduledMatch(match.getId()));
+            scheduledMatch.copyFrom(match);
+            // competitions which could not be fetched stay unknown until the entry is refreshed again
+            scheduledMatch.copyCompetition(competitions.get(match.getCompetitionId()));
+            scheduledMatchRepository.save(scheduledMatch);
+            rebuilt++;
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Removes the entry of a match from the schedule.
+     *
+     * @param matchId id of the match which should no longer be listed
+     */
+    public void remove(UUID matchId) {
+        scheduledMatchRepository.deleteByMatchId(matchId);
+    }
+
+    /**
+     * Removes information about a competition (e.g. a deleted one) from the entries of all matches of that
+     * competition.
+     *
+     * @param competitionId id of the competition
+     */
+    public void forgetCompetition(UUID competitionId) {
+        scheduledMatchRepository.clearCompetition(competitionId);
+    }
+
+    /**
+     * Copies the current name and crest of a team into the entries of all matches of that team.
+     *
+     * @param team team whose information has changed
+     */
+    public void refreshTeam(Team team) {
+        scheduledMatchRepository.updateTeam(team.getId(), team.getName(), team.getCrestUrl());
+    }
+
+    /**
+     * Hides a deleted team in the entries of all matches of that team.
+     *
+     * @param teamId id of the deleted team
+     */
+    public void hideTeam(UUID teamId) {
+        scheduledMatchRepository.markTeamAsDeleted(teamId);
+    }
+}
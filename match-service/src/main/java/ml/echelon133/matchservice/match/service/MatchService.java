@@ -6,10 +6,11 @@ import ml.echelon133.common.event.KafkaTopicNames;
 import ml.echelon133.common.event.dto.MatchInfo;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchStatus;
-import ml.echelon133.matchservice.client.CompetitionServiceClient;
+import ml.echelon133.matchservice.event.service.LiveMatchStateRegistry;
 import ml.echelon133.matchservice.match.exceptions.LineupPlayerInvalidException;
 import ml.echelon133.matchservice.match.model.*;
 import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.outbox.service.OutboxService;
 import ml.echelon133.matchservice.referee.service.RefereeService;
 import ml.echelon133.matchservice.team.model.Team;
 import ml.echelon133.matchservice.team.model.TeamPlayer;
@@ -17,8 +18,6 @@ import ml.echelon133.matchservice.team.model.TeamPlayerDto;
 import ml.echelon133.matchservice.team.service.TeamPlayerService;
 import ml.echelon133.matchservice.team.service.TeamService;
 import ml.echelon133.matchservice.venue.service.VenueService;
-import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,8 +27,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -46,8 +48,12 @@ public class MatchService {
     private final VenueService venueService;
     private final RefereeService refereeService;
     private final MatchRepository matchRepository;
-    private final KafkaProducer<UUID, MatchInfo> matchInfoKafkaProducer;
-    private final CompetitionServiceClient competitionServiceClient;
+    private final OutboxService outboxService;
+    private final CompetitionCache competitionCache;
+    private final LiveMatchStateRegistry liveMatchStateRegistry;
+    private final MatchLineupCache matchLineupCache;
+    private final MatchScheduleService matchScheduleService;
+    private final MatchLineupEvictionService matchLineupEvictionService;
 
     @Autowired
     public MatchService(TeamService teamService,
@@ -55,16 +61,24 @@ public class MatchService {
                         VenueService venueService,
                         RefereeService refereeService,
                         MatchRepository matchRepository,
-                        KafkaProducer<UUID, MatchInfo> matchInfoKafkaProducer,
-                        CompetitionServiceClient competitionServiceClient
+                        OutboxService outboxService,
+                        CompetitionCache competitionCache,
+                        LiveMatchStateRegistry liveMatchStateRegistry,
+                        MatchLineupCache matchLineupCache,
+                        MatchScheduleService matchScheduleService,
+                        MatchLineupEvictionService matchLineupEvictionService
     ) {
         this.teamService = teamService;
         this.teamPlayerService = teamPlayerService;
         this.venueService = venueService;
         this.refereeService = refereeService;
         this.matchRepository = matchRepository;
-        this.matchInfoKafkaProducer = matchInfoKafkaProducer;
-        this.competitionServiceClient = competitionServiceClient;
+        this.outboxService = outboxService;
+        this.competitionCache = competitionCache;
+        this.liveMatchStateRegistry = liveMatchStateRegistry;
+        this.matchLineupCache = matchLineupCache;
+        this.matchScheduleService = matchScheduleService;
+        this.matchLineupEvictionService = matchLineupEvictionService;
     }
 
     public Match findEntityById(UUID id) throws ResourceNotFoundException {
@@ -94,7 +108,10 @@ public class MatchService {
      * @return how many entities have been affected
      */
     public Integer markMatchAsDeleted(UUID id)  {
-        return matchRepository.markMatchAsDeleted(id);
+        var deleted = matchRepository.markMatchAsDeleted(id);
+        matchLineupEvictionService.evictLineup(id);
+        matchScheduleService.remove(id);
+        return deleted;
     }
 
     /**
@@ -142,16 +159,15 @@ public class MatchService {
         match.setCompetitionId(competitionId);
 
         var savedMatch = matchRepository.save(match);
+        matchScheduleService.refresh(savedMatch);
 
         // let other services know about this match being created for that particular competition,
         // so that it can be assigned to a round (in case of a league competition),
         // or a stage (in case of a knockout competition)
-        matchInfoKafkaProducer.send(
-            new ProducerRecord<>(
-                    KafkaTopicNames.MATCH_INFO,
-                    savedMatch.getId(),
-                    new MatchInfo.CreationEvent(savedMatch.getCompetitionId(), savedMatch.getId())
-            )
+        outboxService.save(
+                KafkaTopicNames.MATCH_INFO,
+                savedMatch.getId(),
+                new MatchInfo.CreationEvent(savedMatch.getCompetitionId(), savedMatch.getId())
         );
 
         return MatchMapper.entityToDto(savedMatch);
@@ -202,25 +218,31 @@ public class MatchService {
         var competitionId = UUID.fromString(matchDto.competitionId());
         matchToUpdate.setCompetitionId(competitionId);
 
-        return MatchMapper.entityToDto(matchRepository.save(matchToUpdate));
+        var savedMatch = matchRepository.save(matchToUpdate);
+        // the competition is fetched again, in case its information could not be fetched when the match was created
+        matchScheduleService.refresh(savedMatch, true);
+
+        return MatchMapper.entityToDto(savedMatch);
     }
 
     /**
-     * Takes a `competition's UUID`->`competition's matches` mapping and fetches full information about that
-     * competition (i.e. name, season, logo, etc.), then returns {@link CompetitionGroupedMatches}, which contains
-     * both the information about the competition, and the information about matches in that competition.
+     * Takes a `competition's UUID`->`competition's matches` mapping and fetches full information about all
+     * these competitions (i.e. name, season, logo, etc.) with a single request, then returns
+     * {@link CompetitionGroupedMatches} of every competition, which contain both the information about
+     * the competition, and the information about matches in that competition.
      *
-     * @param e entry containing a mapping between competition's UUID and its matches
-     * @return object containing information about the competition and the matches in that competition
+     * @param matchesGroupedByCompetitionId mapping between competitions' UUIDs and their matches
+     * @return objects containing information about competitions and the matches in these competitions
      */
-    private CompetitionGroupedMatches enrichWithFullCompetitionInfo(Map.Entry<UUID, List<CompactMatchDto>> e) {
-        CompetitionDto competitionDto = null;
-        try {
-            competitionDto = competitionServiceClient.getCompetitionById(e.getKey());
-        } catch (Exception ignore) {
-            // if the fetch fails, simply let competition remain `null`
-        }
-        return new CompetitionGroupedMatches(competitionDto, e.getValue());
+    private List<CompetitionGroupedMatches> enrichWithFullCompetitionInfo(
+            Map<UUID, List<CompactMatchDto>> matchesGroupedByCompetitionId
+    ) {
+        var competitions = competitionCache.findAll(matchesGroupedByCompetitionId.keySet());
+        return matchesGroupedByCompetitionId
+                .entrySet().stream()
+                // if the fetch fails, simply let competition remain `null`
+                .map(e -> new CompetitionGroupedMatches(competitions.get(e.getKey()), e.getValue()))
+                .toList();
     }
 
     /**
@@ -247,15 +269,7 @@ public class MatchService {
         LocalDateTime endUTC = startUTC
                 .plusHours(23)
                 .plusMinutes(59);
-        ;
-        var matchesGroupedByCompetitionId = matchRepository
-                .findAllBetween(startUTC, endUTC, pageable)
-                .stream()
-                .collect(Collectors.groupingBy(CompactMatchDto::getCompetitionId));
-        return matchesGroupedByCompetitionId
-                .entrySet().parallelStream()
-                .map(this::enrichWithFullCompetitionInfo)
-                .toList();
+        return matchScheduleService.findMatchesBetween(startUTC, endUTC, pageable);
     }
 
     /**
@@ -279,32 +293,69 @@ public class MatchService {
                 .findAllByTeamIdAndStatuses(teamId, acceptedStatuses, pageable)
                 .stream()
                 .collect(Collectors.groupingBy(CompactMatchDto::getCompetitionId));
-        return matchesGroupedByCompetitionId
-                .entrySet().parallelStream()
-                .map(this::enrichWithFullCompetitionInfo)
-                .toList();
+        return enrichWithFullCompetitionInfo(matchesGroupedByCompetitionId);
     }
 
     /**
      * Finds the lineup of the match with the specified id.
+     *
+     * Lineups are cached until they are updated.
+     *
      * @param matchId id of the match whose lineup will be fetched
-     * @return the lineup of the match
+     * @return the lineup of the match (empty if the match does not exist)
      */
     public LineupDto findMatchLineup(UUID matchId) {
-        var formations = matchRepository
-                .findLineupFormationsByMatchId(matchId)
-                .orElse(LineupFormationsDto.from(null, null));
-        var homeLineup = new LineupDto.TeamLineup(
-                matchRepository.findHomeStartingPlayersByMatchId(matchId),
-                matchRepository.findHomeSubstitutePlayersByMatchId(matchId),
-                formations.getHomeFormation()
-        );
-        var awayLineup = new LineupDto.TeamLineup(
-                matchRepository.findAwayStartingPlayersByMatchId(matchId),
-                matchRepository.findAwaySubstitutePlayersByMatchId(matchId),
-                formations.getAwayFormation()
-        );
-        return new LineupDto(homeLineup, awayLineup);
+        return matchLineupCache
+                .find(matchId, this::loadMatchLineup)
+                .orElseGet(() -> new LineupDto(
+                        new LineupDto.TeamLineup(List.of(), List.of(), null),
+                        new LineupDto.TeamLineup(List.of(), List.of(), null)
+                ));
+    }
+
+    /**
+     * Reads both lineups of the match with the specified id from the database, using a single query.
+     *
+     * @param matchId id of the match whose lineup will be read
+     * @return the lineup of the match, or an empty optional if the match does not exist or is marked as deleted
+     */
+    private Optional<LineupDto> loadMatchLineup(UUID matchId) {
+        List<TeamPlayerDto> homeStarting = new ArrayList<>();
+        List<TeamPlayerDto> homeSubstitutes = new ArrayList<>();
+        List<TeamPlayerDto> awayStarting = new ArrayList<>();
+        List<TeamPlayerDto> awaySubstitutes = new ArrayList<>();
+        String[] formations = new String[2];
+        boolean[] found = new boolean[1];
+
+        try (var entries = matchRepository.findLineupEntriesByMatchId(matchId)) {
+            entries.forEach(entry -> {
+                found[0] = true;
+                boolean home = entry.getSide().equals(LineupEntryDto.HOME);
+                switch (entry.getRole()) {
+                    case LineupEntryDto.FORMATION -> formations[home ? 0 : 1] = entry.getFormation();
+                    case LineupEntryDto.STARTING -> (home ? homeStarting : awayStarting).add(entry.toTeamPlayerDto());
+                    case LineupEntryDto.SUBSTITUTE -> (home ? homeSubstitutes : awaySubstitutes).add(entry.toTeamPlayerDto());
+                    default -> throw new IllegalStateException("Unknown role of a lineup entry: " + entry.getRole());
+                }
+            });
+        }
+
+        if (!found[0]) {
+            return Optional.empty();
+        }
+        // cached lineups are shared between all callers, therefore they must not be modified
+        return Optional.of(new LineupDto(
+                new LineupDto.TeamLineup(
+                        Collections.unmodifiableList(homeStarting),
+                        Collections.unmodifiableList(homeSubstitutes),
+                        formations[0]
+                ),
+                new LineupDto.TeamLineup(
+                        Collections.unmodifiableList(awayStarting),
+                        Collections.unmodifiableList(awaySubstitutes),
+                        formations[1]
+                )
+        ));
     }
 
     /**
@@ -397,6 +448,10 @@ public class MatchService {
         lineup.setSubstitutePlayers(substitutePlayers);
         lineup.setFormation(lineupDto.formation());
         matchRepository.save(match);
+
+        // the in-memory state of a live match holds a copy of its lineup, which is now outdated
+        liveMatchStateRegistry.evict(matchId);
+        matchLineupEvictionService.evictLineup(matchId);
     }
 
     /**
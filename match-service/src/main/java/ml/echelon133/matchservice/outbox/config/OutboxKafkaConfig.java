@@ -0,0 +1,43 @@
+package ml.echelon133.matchservice.outbox.config;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.serialization.UUIDSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Configuration
+@EnableScheduling
+public class OutboxKafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    /**
+     * Producer used by {@link ml.echelon133.matchservice.outbox.service.OutboxRelay}, whose values are
+     * already serialized payloads of messages.
+     *
+     * The producer is idempotent, therefore retries of failed sends never write the same record twice.
+     */
+    @Bean
+    public KafkaProducer<UUID, String> outboxKafkaProducer() {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+                ProducerConfig.LINGER_MS_CONFIG, 5
+        );
+        return new KafkaProducer<>(
+                props,
+                new UUIDSerializer(),
+                new StringSerializer()
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package ml.echelon133.matchservice.outbox.model;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Kafka record which has been saved in the same transaction as the change it describes, and is waiting
+ * to be sent to Kafka by {@link ml.echelon133.matchservice.outbox.service.OutboxRelay}.
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxMessage {
+
+    // ids are generated from a sequence, so that messages can be sent in the order in which they were saved
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @CreatedDate
+    private Date dateCreated;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(nullable = false)
+    private UUID recordKey;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    public OutboxMessage() {}
+    public OutboxMessage(String topic, UUID recordKey, String payload) {
+        this.topic = topic;
+        this.recordKey = recordKey;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Date dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public UUID getRecordKey() {
+        return recordKey;
+    }
+
+    public void setRecordKey(UUID recordKey) {
+        this.recordKey = recordKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
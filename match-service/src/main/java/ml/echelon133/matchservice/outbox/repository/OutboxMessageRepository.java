@@ -0,0 +1,28 @@
+package ml.echelon133.matchservice.outbox.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import ml.echelon133.matchservice.outbox.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Finds the oldest messages which are waiting to be sent, and locks them until the end of the transaction.
+     *
+     * Messages already locked by another transaction (e.g. by the relay of another instance of the service)
+     * are skipped, so that every message is being sent by at most one relay at a time.
+     *
+     * @param pageable information about the wanted page
+     * @return a list of messages ordered from the oldest
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is the value of LockOptions.SKIP_LOCKED, which makes the locking query skip already locked rows
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxMessage> findAllByOrderByIdAsc(Pageable pageable);
+}
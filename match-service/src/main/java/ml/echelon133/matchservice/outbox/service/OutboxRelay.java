@@ -0,0 +1,109 @@
+package ml.echelon133.matchservice.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import ml.echelon133.matchservice.outbox.model.OutboxMessage;
+import ml.echelon133.matchservice.outbox.repository.OutboxMessageRepository;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Periodically sends messages saved in the outbox table to Kafka, and removes them from the table
+ * once Kafka acknowledges them.
+ *
+ * <p>
+ *     Messages are sent in batches, in the order in which they were saved. Every message acknowledged by Kafka
+ *     is removed, while messages which could not be sent stay in the table, and are sent again during the next run.
+ * </p>
+ * <p>
+ *     Messages are delivered at least once: a message whose acknowledgement is lost (or which has been sent
+ *     right before the process stopped, but not removed yet) is sent again. Consumers deduplicate such messages
+ *     by their keys (e.g. the ids of match events).
+ * </p>
+ */
+@Service
+@Transactional
+public class OutboxRelay {
+
+    private final static Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final KafkaProducer<UUID, String> outboxKafkaProducer;
+    private final int batchSize;
+    private final Counter relayedMessages;
+    private final Counter failedMessages;
+
+    @Autowired
+    public OutboxRelay(
+            OutboxMessageRepository outboxMessageRepository,
+            KafkaProducer<UUID, String> outboxKafkaProducer,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.outboxKafkaProducer = outboxKafkaProducer;
+        this.batchSize = batchSize;
+        this.relayedMessages = Counter.builder("outbox.messages.relayed")
+                .description("Number of outbox messages acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedMessages = Counter.builder("outbox.messages.failed")
+                .description("Number of outbox messages which could not be sent to Kafka")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends a single batch of the oldest messages from the outbox table to Kafka.
+     *
+     * @return number of messages which have been acknowledged by Kafka and removed from the table
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:100}")
+    public int relay() {
+        var messages = outboxMessageRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<RecordMetadata>> results = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            results.add(outboxKafkaProducer.send(
+                    new ProducerRecord<>(message.getTopic(), message.getRecordKey(), message.getPayload())
+            ));
+        }
+        outboxKafkaProducer.flush();
+
+        // remove every acknowledged message, because messages which stay in the table would be sent again
+        List<OutboxMessage> sentMessages = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                results.get(i).get();
+                sentMessages.add(messages.get(i));
+            } catch (ExecutionException ex) {
+                failedMessages.increment();
+                logger.error("Outbox message {} could not be sent", messages.get(i).getId(), ex.getCause());
+            } catch (InterruptedException ex) {
+                // messages whose results have not been checked stay in the table
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        outboxMessageRepository.deleteAllInBatch(sentMessages);
+        relayedMessages.increment(sentMessages.size());
+        return sentMessages.size();
+    }
+}
@@ -0,0 +1,59 @@
+package ml.echelon133.matchservice.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.transaction.Transactional;
+import ml.echelon133.common.event.dto.MatchInfo;
+import ml.echelon133.common.event.dto.kafka.KafkaObjectMapper;
+import ml.echelon133.matchservice.outbox.model.OutboxMessage;
+import ml.echelon133.matchservice.outbox.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Saves Kafka records in the outbox table, instead of sending them to Kafka directly.
+ *
+ * Records are saved in the transaction of the caller, therefore a record is sent if and only if
+ * the change it describes has been committed.
+ */
+@Service
+@Transactional(Transactional.TxType.MANDATORY)
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    public OutboxService(OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    /**
+     * Saves a record whose value has already been serialized.
+     *
+     * @param topic topic to which the record will be sent
+     * @param key key of the record
+     * @param payload serialized value of the record
+     */
+    public void save(String topic, UUID key, String payload) {
+        outboxMessageRepository.save(new OutboxMessage(topic, key, payload));
+    }
+
+    /**
+     * Saves a record which contains information about a match.
+     *
+     * @param topic topic to which the record will be sent
+     * @param key key of the record
+     * @param matchInfo value of the record, serialized the same way as by
+     *                  {@link ml.echelon133.common.event.dto.kafka.MatchInfoSerializer}
+     */
+    public void save(String topic, UUID key, MatchInfo matchInfo) {
+        String payload;
+        try {
+            payload = KafkaObjectMapper.getInstance().writeValueAsString(matchInfo);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("failed serialization of " + matchInfo.getClass(), ex);
+        }
+        save(topic, key, payload);
+    }
+}
@@ -2,6 +2,7 @@ package ml.echelon133.matchservice.player.service;
 
 import ml.echelon133.common.constants.DateFormatConstants;
 import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.match.service.MatchLineupEvictionService;
 import ml.echelon133.matchservice.player.model.Player;
 import ml.echelon133.matchservice.player.model.PlayerDto;
 import ml.echelon133.matchservice.player.model.Position;
@@ -25,10 +26,12 @@ public class PlayerService {
     public static final DateTimeFormatter DATE_OF_BIRTH_FORMATTER = DateTimeFormatter.ofPattern(DATE_OF_BIRTH_FORMAT);
 
     private final PlayerRepository playerRepository;
+    private final MatchLineupEvictionService matchLineupEvictionService;
 
     @Autowired
-    public PlayerService(PlayerRepository playerRepository) {
+    public PlayerService(PlayerRepository playerRepository, MatchLineupEvictionService matchLineupEvictionService) {
         this.playerRepository = playerRepository;
+        this.matchLineupEvictionService = matchLineupEvictionService;
     }
 
     /**
@@ -81,7 +84,10 @@ public class PlayerService {
 
         playerToUpdate.setCountryCode(playerDto.countryCode());
 
-        return PlayerMapper.entityToDto(playerRepository.save(playerToUpdate));
+        var updatedPlayer = PlayerMapper.entityToDto(playerRepository.save(playerToUpdate));
+        // cached lineups which list the player show their previous information
+        matchLineupEvictionService.evictPlayer(id);
+        return updatedPlayer;
     }
 
     /**
@@ -123,6 +129,9 @@ public class PlayerService {
      * @return how many entities have been affected
      */
     public Integer markPlayerAsDeleted(UUID id)  {
-        return playerRepository.markPlayerAsDeleted(id);
+        var deleted = playerRepository.markPlayerAsDeleted(id);
+        // lineups do not list deleted players
+        matchLineupEvictionService.evictPlayer(id);
+        return deleted;
     }
 }
@@ -1,6 +1,7 @@
 package ml.echelon133.matchservice.team.service;
 
 import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.match.service.MatchLineupEvictionService;
 import ml.echelon133.matchservice.team.model.TeamDto;
 import ml.echelon133.matchservice.team.model.TeamPlayerDto;
 import ml.echelon133.matchservice.player.model.Position;
@@ -26,14 +27,17 @@ public class TeamPlayerService {
     private final TeamPlayerRepository teamPlayerRepository;
     private final TeamRepository teamRepository;
     private final PlayerService playerService;
+    private final MatchLineupEvictionService matchLineupEvictionService;
 
     @Autowired
     public TeamPlayerService(TeamPlayerRepository teamPlayerRepository,
                              TeamRepository teamRepository,
-                             PlayerService playerService) {
+                             PlayerService playerService,
+                             MatchLineupEvictionService matchLineupEvictionService) {
         this.teamPlayerRepository = teamPlayerRepository;
         this.teamRepository = teamRepository;
         this.playerService = playerService;
+        this.matchLineupEvictionService = matchLineupEvictionService;
     }
 
     /**
@@ -163,10 +167,14 @@ public class TeamPlayerService {
         // this `Position.valueOfIgnoreCase` should never fail because the Position value is pre-validated
         var position = Position.valueOfIgnoreCase(teamPlayerDto.position());
 
+        // cached lineups list the team player together with the player who has been assigned to it so far
+        var previousPlayerId = teamPlayer.getPlayer().getId();
         teamPlayer.setPlayer(player);
         teamPlayer.setPosition(position);
         teamPlayer.setNumber(teamPlayerDto.number());
-        return TeamPlayerMapper.entityToDto(teamPlayerRepository.save(teamPlayer));
+        var updatedTeamPlayer = TeamPlayerMapper.entityToDto(teamPlayerRepository.save(teamPlayer));
+        matchLineupEvictionService.evictPlayer(previousPlayerId);
+        return updatedTeamPlayer;
     }
 
     /**
@@ -3,6 +3,7 @@ package ml.echelon133.matchservice.team.service;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchResult;
 import ml.echelon133.matchservice.coach.service.CoachService;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
 import ml.echelon133.matchservice.team.model.*;
 import ml.echelon133.matchservice.team.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,11 +22,17 @@ public class TeamService {
 
     private final TeamRepository teamRepository;
     private final CoachService coachService;
+    private final MatchScheduleService matchScheduleService;
 
     @Autowired
-    public TeamService(TeamRepository teamRepository, CoachService coachService) {
+    public TeamService(
+            TeamRepository teamRepository,
+            CoachService coachService,
+            MatchScheduleService matchScheduleService
+    ) {
         this.teamRepository = teamRepository;
         this.coachService = coachService;
+        this.matchScheduleService = matchScheduleService;
     }
 
     /**
@@ -81,7 +88,10 @@ public class TeamService {
         var coach = coachService.findEntityById(coachId);
         teamToUpdate.setCoach(coach);
 
-        return TeamMapper.entityToDto(teamRepository.save(teamToUpdate));
+        var savedTeam = teamRepository.save(teamToUpdate);
+        // matches of the team are listed with its current name and crest
+        matchScheduleService.refreshTeam(savedTeam);
+        return TeamMapper.entityToDto(savedTeam);
     }
 
     /**
@@ -132,7 +142,9 @@ public class TeamService {
      * @return how many entities have been affected
      */
     public Integer markTeamAsDeleted(UUID id)  {
-        return teamRepository.markTeamAsDeleted(id);
+        var deleted = teamRepository.markTeamAsDeleted(id);
+        matchScheduleService.hideTeam(id);
+        return deleted;
     }
 
     /**
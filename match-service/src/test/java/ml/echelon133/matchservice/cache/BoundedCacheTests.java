@@ -0,0 +1,128 @@
+package ml.echelon133.matchservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedCache<String, Integer> boundedCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        boundedCache = new BoundedCache<>(2, "test.cache", "Number of lookups", meterRegistry);
+    }
+
+    private double countLookups(String result) {
+        return meterRegistry.get("test.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("find counts lookups which found a usable value as hits and all other lookups as misses")
+    public void find_ManyLookups_CountsHitsAndMisses() {
+        boundedCache.put("a", 1);
+
+        // when
+        var found = boundedCache.find("a");
+        var notUsable = boundedCache.find("a", value -> value > 1);
+        var notCached = boundedCache.find("b");
+
+        // then
+        assertEquals(Optional.of(1), found);
+        assertTrue(notUsable.isEmpty());
+        assertTrue(notCached.isEmpty());
+        assertEquals(1, countLookups("hit"));
+        assertEquals(2, countLookups("miss"));
+    }
+
+    @Test
+    @DisplayName("findOrLoad only calls the loader when the value is not cached or cannot be used")
+    public void findOrLoad_CalledMany_LoadsOnlyMissingValues() {
+        var loads = new AtomicInteger();
+
+        // when
+        boundedCache.findOrLoad("a", key -> Optional.of(loads.incrementAndGet()));
+        var cached = boundedCache.findOrLoad("a", key -> Optional.of(loads.incrementAndGet()));
+        var reloaded = boundedCache.findOrLoad("a", value -> false, key -> Optional.of(loads.incrementAndGet()));
+
+        // then
+        assertEquals(Optional.of(1), cached);
+        assertEquals(Optional.of(2), reloaded);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("findOrLoad does not cache a value when the key is evicted while the value is being loaded")
+    public void findOrLoad_EvictedDuringLoad_DoesNotCacheValue() {
+        // when
+        var loaded = boundedCache.findOrLoad("a", key -> {
+            boundedCache.evict(key);
+            return Optional.of(1);
+        });
+
+        // then
+        assertEquals(Optional.of(1), loaded);
+        assertNull(boundedCache.peek("a"));
+    }
+
+    @Test
+    @DisplayName("putAllIfNotEvictedSince only caches values when nothing has been evicted since they started being loaded")
+    public void putAllIfNotEvictedSince_EvictionInBetween_DoesNotCacheValues() {
+        var evictionsBeforeFirstLoad = boundedCache.evictions();
+        boundedCache.putAllIfNotEvictedSince(evictionsBeforeFirstLoad, Map.of("a", 1));
+        var evictionsBeforeSecondLoad = boundedCache.evictions();
+        boundedCache.evict("c");
+
+        // when
+        boundedCache.putAllIfNotEvictedSince(evictionsBeforeSecondLoad, Map.of("b", 2));
+
+        // then
+        assertEquals(1, boundedCache.peek("a"));
+        assertNull(boundedCache.peek("b"));
+    }
+
+    @Test
+    @DisplayName("put evicts the least recently used value when the cache is full")
+    public void put_CacheFull_EvictsLeastRecentlyUsed() {
+        boundedCache.put("a", 1);
+        boundedCache.put("b", 2);
+        // use the first value, so that the second value becomes the least recently used
+        boundedCache.find("a");
+
+        // when
+        boundedCache.put("c", 3);
+
+        // then
+        assertEquals(1, boundedCache.peek("a"));
+        assertNull(boundedCache.peek("b"));
+        assertEquals(3, boundedCache.peek("c"));
+    }
+
+    @Test
+    @DisplayName("evictIf removes the values which match the condition and returns their keys")
+    public void evictIf_SomeValuesMatch_RemovesMatchingValues() {
+        boundedCache.put("a", 1);
+        boundedCache.put("b", 2);
+        var evictionsBefore = boundedCache.evictions();
+
+        // when
+        var evictedKeys = boundedCache.evictIf(value -> value > 1);
+
+        // then
+        assertEquals(List.of("b"), evictedKeys);
+        assertEquals(1, boundedCache.peek("a"));
+        assertNull(boundedCache.peek("b"));
+        assertNotEquals(evictionsBefore, boundedCache.evictions());
+    }
+}
@@ -0,0 +1,124 @@
+package ml.echelon133.matchservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteCallExecutorTests {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RemoteCallExecutor remoteCallExecutor;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        // a single thread, a single waiting call, and calls which are abandoned after 200ms
+        remoteCallExecutor = new RemoteCallExecutor(1, 1, 200, meterRegistry);
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        remoteCallExecutor.destroy();
+    }
+
+    private double countCalls(String result) {
+        return meterRegistry.get("match.remote.calls").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("call returns the result of a successful call")
+    public void call_CallSucceeds_ReturnsResult() {
+        // when
+        var result = remoteCallExecutor.call(() -> "result", ex -> "fallback");
+
+        // then
+        assertEquals("result", result);
+        assertEquals(1, countCalls("success"));
+    }
+
+    @Test
+    @DisplayName("call passes the exception thrown by a failed call to the fallback")
+    public void call_CallThrows_ReturnsFallback() {
+        var exception = new IllegalStateException("service unavailable");
+
+        // when
+        var result = remoteCallExecutor.call(
+                () -> { throw exception; },
+                ex -> ex == exception ? "fallback" : "unexpected exception"
+        );
+
+        // then
+        assertEquals("fallback", result);
+        assertEquals(1, countCalls("failure"));
+    }
+
+    @Test
+    @DisplayName("call returns the fallback when the call does not finish in time")
+    public void call_CallTooSlow_ReturnsFallback() {
+        var release = new CountDownLatch(1);
+
+        // when
+        var result = remoteCallExecutor.call(
+                () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ignore) {}
+                    return "result";
+                },
+                ex -> ex instanceof TimeoutException ? "fallback" : "unexpected exception"
+        );
+        release.countDown();
+
+        // then
+        assertEquals("fallback", result);
+        assertEquals(1, countCalls("timeout"));
+    }
+
+    @Test
+    @DisplayName("call returns the fallback right away when too many calls are waiting")
+    public void call_ExecutorSaturated_ReturnsFallback() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        // occupies the only thread
+        var blockingCall = CompletableFuture.supplyAsync(() -> remoteCallExecutor.call(
+                () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ignore) {}
+                    return "result";
+                },
+                ex -> "fallback"
+        ));
+        started.await(5, TimeUnit.SECONDS);
+        // occupies the only place in the queue
+        var waitingCall = CompletableFuture.supplyAsync(() -> remoteCallExecutor.call(() -> "result", ex -> "fallback"));
+        while (meterRegistry.get("match.remote.calls.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        var result = remoteCallExecutor.call(
+                () -> "result",
+                ex -> ex instanceof RejectedExecutionException ? "rejected" : "unexpected exception"
+        );
+        release.countDown();
+        blockingCall.get(5, TimeUnit.SECONDS);
+        waitingCall.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals("rejected", result);
+        assertEquals(1, countCalls("rejected"));
+    }
+}
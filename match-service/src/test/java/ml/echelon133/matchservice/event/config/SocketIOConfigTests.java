@@ -0,0 +1,82 @@
+package ml.echelon133.matchservice.event.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SocketIOConfigTests {
+
+    private static SocketIOProperties bind(Map<String, String> properties) {
+        var binder = new Binder(new MapConfigurationPropertySource(properties));
+        return binder.bindOrCreate("socket-io", SocketIOProperties.class);
+    }
+
+    @Test
+    @DisplayName("createConfiguration uses one worker thread per core when worker threads are not configured")
+    public void createConfiguration_DefaultProperties_WorkerThreadsSizedToCores() {
+        // given
+        var properties = bind(Map.of("socket-io.host", "0.0.0.0", "socket-io.port", "81"));
+
+        // when
+        var config = SocketIOConfig.createConfiguration(properties, true);
+
+        // then
+        assertEquals("0.0.0.0", config.getHostname());
+        assertEquals(81, config.getPort());
+        assertEquals(1, config.getBossThreads());
+        assertEquals(Runtime.getRuntime().availableProcessors(), config.getWorkerThreads());
+        assertTrue(config.isUseLinuxNativeEpoll());
+        assertTrue(config.getSocketConfig().isTcpNoDelay());
+        assertEquals(25000, config.getPingInterval());
+        assertEquals(60000, config.getPingTimeout());
+    }
+
+    @Test
+    @DisplayName("createConfiguration copies all configured properties")
+    public void createConfiguration_ConfiguredProperties_Copied() {
+        // given
+        var properties = bind(Map.ofEntries(
+                Map.entry("socket-io.host", "localhost"),
+                Map.entry("socket-io.port", "8081"),
+                Map.entry("socket-io.worker-threads", "3"),
+                Map.entry("socket-io.tcp-no-delay", "false"),
+                Map.entry("socket-io.tcp-send-buffer-size", "1024"),
+                Map.entry("socket-io.write-buffer-high-water-mark", "2048"),
+                Map.entry("socket-io.write-buffer-low-water-mark", "512"),
+                Map.entry("socket-io.ping-interval", "10s"),
+                Map.entry("socket-io.max-frame-payload-length", "4096"),
+                Map.entry("socket-io.websocket-compression", "false")
+        ));
+
+        // when
+        var config = SocketIOConfig.createConfiguration(properties, true);
+
+        // then
+        assertEquals(3, config.getWorkerThreads());
+        assertFalse(config.getSocketConfig().isTcpNoDelay());
+        assertEquals(1024, config.getSocketConfig().getTcpSendBufferSize());
+        assertEquals(2048, config.getSocketConfig().getWriteBufferWaterMarkHigh());
+        assertEquals(512, config.getSocketConfig().getWriteBufferWaterMarkLow());
+        assertEquals(10000, config.getPingInterval());
+        assertEquals(4096, config.getMaxFramePayloadLength());
+        assertFalse(config.isWebsocketCompression());
+    }
+
+    @Test
+    @DisplayName("createConfiguration does not use native epoll when it's not available")
+    public void createConfiguration_EpollUnavailable_NativeEpollNotUsed() {
+        // given
+        var properties = bind(Map.of("socket-io.host", "0.0.0.0", "socket-io.port", "81"));
+
+        // when
+        var config = SocketIOConfig.createConfiguration(properties, false);
+
+        // then
+        assertFalse(config.isUseLinuxNativeEpoll());
+    }
+}
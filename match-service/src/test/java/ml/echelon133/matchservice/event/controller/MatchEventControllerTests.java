@@ -2,14 +2,23 @@ package ml.echelon133.matchservice.event.controller;
 
 import jakarta.validation.ConstraintValidator;
 import ml.echelon133.common.event.dto.MatchEventDto;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.MatchAggregateVerificationSummary;
 import ml.echelon133.common.event.dto.StatusEventDetailsDto;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchStatus;
 import ml.echelon133.matchservice.MatchServiceApplication;
 import ml.echelon133.matchservice.TestValidatorFactory;
+import ml.echelon133.matchservice.event.exceptions.MatchEventBatchInvalidException;
 import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventLaneBusyException;
 import ml.echelon133.matchservice.event.model.dto.*;
+import ml.echelon133.matchservice.event.service.MatchAggregateVerificationJob;
+import ml.echelon133.matchservice.event.service.MatchEventSequencer;
 import ml.echelon133.matchservice.event.service.MatchEventService;
+import ml.echelon133.matchservice.event.service.MatchEventStorageMigrationJob;
+import ml.echelon133.matchservice.event.service.MatchEventStreamService;
 import ml.echelon133.matchservice.match.model.Match;
 import ml.echelon133.matchservice.team.constraints.TeamPlayerExists;
 import ml.echelon133.matchservice.team.repository.TeamPlayerRepository;
@@ -25,17 +34,23 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,6 +67,18 @@ public class MatchEventControllerTests {
     @Mock
     private MatchEventService matchEventService;
 
+    @Mock
+    private MatchEventSequencer matchEventSequencer;
+
+    @Mock
+    private MatchAggregateVerificationJob matchAggregateVerificationJob;
+
+    @Mock
+    private MatchEventStorageMigrationJob matchEventStorageMigrationJob;
+
+    @Mock
+    private MatchEventStreamService matchEventStreamService;
+
     @InjectMocks
     private MatchEventExceptionHandler matchEventExceptionHandler;
 
@@ -62,6 +89,13 @@ public class MatchEventControllerTests {
 
     private JacksonTester<UpsertMatchEvent> jsonUpsertMatchEvent;
 
+    // encodes events the same way as MatchEventEncoder, so that the tests can verify that the already serialized
+    // events are returned in exactly the same form as MatchEventDto
+    private EncodedMatchEventDto encode(MatchEventDto event) throws Exception {
+        var json = MatchServiceApplication.objectMapper().writeValueAsString(event.event());
+        return new EncodedMatchEventDto(event.id(), event.sequence(), json);
+    }
+
     private List<UpsertMatchEvent> createTestEventsWithMinute(String minute) {
         return List.of(
                 new UpsertStatusEventDto(minute, MatchStatus.FIRST_HALF.name()),
@@ -105,13 +139,14 @@ public class MatchEventControllerTests {
         var matchEvents = List.of(
                 new MatchEventDto(
                         UUID.randomUUID(),
+                        1L,
                         new StatusEventDetailsDto("1", UUID.randomUUID(), MatchStatus.FIRST_HALF, null, null, null)
                 )
         );
         var expectedJson = jsonMatchEventDtos.write(matchEvents).getJson();
 
         // given
-        given(matchEventService.findAllByMatchId(matchId)).willReturn(matchEvents);
+        given(matchEventService.findAllByMatchId(matchId)).willReturn(List.of(encode(matchEvents.get(0))));
 
         // when
         mvc.perform(
@@ -123,6 +158,113 @@ public class MatchEventControllerTests {
                 .andExpect(content().string(expectedJson));
     }
 
+    @Test
+    @DisplayName("GET /api/matches/:id/events?afterSeq returns 200 and a list of events which happened after the sequence number")
+    public void getEvents_AfterSeqProvided_StatusOk() throws Exception {
+        var matchId = UUID.randomUUID();
+        var afterSeq = 5L;
+        var matchEvents = List.of(
+                new MatchEventDto(
+                        UUID.randomUUID(),
+                        afterSeq + 1,
+                        new StatusEventDetailsDto("45", UUID.randomUUID(), MatchStatus.HALF_TIME, null, null, null)
+                )
+        );
+        var expectedJson = jsonMatchEventDtos.write(matchEvents).getJson();
+
+        // given
+        given(matchEventService.findAllByMatchIdAfterSequence(matchId, afterSeq)).willReturn(List.of(encode(matchEvents.get(0))));
+
+        // when
+        mvc.perform(
+                        get("/api/matches/" + matchId + "/events")
+                                .param("afterSeq", String.valueOf(afterSeq))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string(expectedJson));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/:id/events/stream returns 404 when the match does not exist")
+    public void streamEvents_MatchNotFound_StatusNotFound() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventStreamService.streamMatchEvents(matchId, null)).willThrow(
+                new ResourceNotFoundException(Match.class, matchId)
+        );
+
+        // when
+        mvc.perform(
+                        get("/api/matches/" + matchId + "/events/stream")
+                                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.messages[0]", is(
+                        String.format("match %s could not be found", matchId)
+                )));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/:id/events/stream resumes the stream after the event from Last-Event-ID")
+    public void streamEvents_LastEventIdProvided_StreamResumed() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventStreamService.streamMatchEvents(matchId, 7L)).willReturn(new SseEmitter());
+
+        // when
+        mvc.perform(
+                        get("/api/matches/" + matchId + "/events/stream")
+                                .header("Last-Event-ID", "7")
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted());
+
+        // then
+        verify(matchEventStreamService).streamMatchEvents(matchId, 7L);
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/events/stream opens a global stream with the filter from query params")
+    public void streamGlobalEvents_FilterProvided_StreamOpened() throws Exception {
+        var competitionId = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+        var expectedFilter = new GlobalMatchEventFilter(Set.of(competitionId), Set.of(teamId));
+
+        // given
+        given(matchEventStreamService.streamGlobalMatchEvents(expectedFilter)).willReturn(new SseEmitter());
+
+        // when
+        mvc.perform(
+                        get("/api/matches/events/stream")
+                                .param("competition_id", competitionId.toString())
+                                .param("team_id", teamId.toString())
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted());
+
+        // then
+        verify(matchEventStreamService).streamGlobalMatchEvents(expectedFilter);
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/events/stream returns 400 when an id of the filter is not valid")
+    public void streamGlobalEvents_InvalidTeamId_StatusBadRequest() throws Exception {
+        // when
+        mvc.perform(
+                        get("/api/matches/events/stream")
+                                .param("team_id", "a")
+                                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        // then
+        verify(matchEventStreamService, never()).streamGlobalMatchEvents(any());
+    }
+
     @Test
     @DisplayName("POST /api/matches/:id/events returns 404 when resource not found")
     public void processMatchEvent_MatchNotFound_StatusNotFound() throws Exception {
@@ -132,7 +274,7 @@ public class MatchEventControllerTests {
 
         // given
         doThrow(new ResourceNotFoundException(Match.class, matchId))
-                .when(matchEventService)
+                .when(matchEventSequencer)
                 .processEvent(eq(matchId), any());
 
         // when
@@ -148,6 +290,31 @@ public class MatchEventControllerTests {
                 )));
     }
 
+    @Test
+    @DisplayName("POST /api/matches/:id/events returns 503 when the lane of the match is too busy")
+    public void processMatchEvent_LaneBusy_StatusServiceUnavailable() throws Exception {
+        var matchId = UUID.randomUUID();
+        var event = new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name());
+        var json = jsonUpsertMatchEvent.write(event).getJson();
+
+        // given
+        doThrow(new MatchEventLaneBusyException(matchId))
+                .when(matchEventSequencer)
+                .processEvent(eq(matchId), any());
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(json)
+                )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.messages[0]", is(
+                        String.format("events of match %s could not be processed in time, try again", matchId)
+                )));
+    }
+
     @Test
     @DisplayName("POST /api/matches/:id/events returns 422 for all event types when minute is not provided")
     public void processMatchEvent_MinuteNotProvided_StatusUnprocessableEntity() throws Exception {
@@ -963,7 +1130,7 @@ public class MatchEventControllerTests {
 
         // given
         doThrow(new MatchEventInvalidException("exception message"))
-                .when(matchEventService)
+                .when(matchEventSequencer)
                 .processEvent(eq(matchId), any());
 
         // when
@@ -976,4 +1143,179 @@ public class MatchEventControllerTests {
                 .andExpect(status().isUnprocessableEntity())
                 .andExpect(jsonPath("$.messages[0]", is("exception message")));
     }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/batch returns 200 and the number of processed events")
+    public void processMatchEvents_EventsValid_StatusOk() throws Exception {
+        var matchId = UUID.randomUUID();
+        var json = """
+                {"events": [
+                    {"type": "STATUS", "minute": "1", "targetStatus": "FIRST_HALF"},
+                    {"type": "COMMENTARY", "minute": "1", "message": "some message"}
+                ]}
+                """;
+
+        // given
+        given(matchEventSequencer.processEvents(eq(matchId), argThat(events -> events.size() == 2))).willReturn(2);
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(json)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(2)));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/batch returns 422 when there are no events")
+    public void processMatchEvents_NoEvents_StatusUnprocessableEntity() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content("{\"events\": []}")
+                )
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(
+                        jsonPath("$.messages", hasEntry("events", List.of("should contain between 1 and 1000 events")))
+                );
+        verify(matchEventSequencer, never()).processEvents(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/batch returns 422 when any event is invalid")
+    public void processMatchEvents_EventInvalid_StatusUnprocessableEntity() throws Exception {
+        var matchId = UUID.randomUUID();
+        var json = """
+                {"events": [
+                    {"type": "COMMENTARY", "minute": "1", "message": "some message"},
+                    {"type": "COMMENTARY", "minute": "1"}
+                ]}
+                """;
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(json)
+                )
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.messages", hasKey("events[1].message")));
+        verify(matchEventSequencer, never()).processEvents(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/batch returns 422 with the index of the rejected event")
+    public void processMatchEvents_EventRejected_StatusUnprocessableEntity() throws Exception {
+        var matchId = UUID.randomUUID();
+        var json = """
+                {"events": [
+                    {"type": "COMMENTARY", "minute": "1", "message": "some message"}
+                ]}
+                """;
+
+        // given
+        given(matchEventSequencer.processEvents(eq(matchId), any()))
+                .willThrow(new MatchEventBatchInvalidException(0, "exception message"));
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(json)
+                )
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.messages[0]", is("event at index 0 rejected: exception message")));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/rebuild returns 404 when the match does not exist")
+    public void rebuildMatchFromEvents_MatchNotFound_StatusNotFound() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventSequencer.rebuildAggregate(matchId, true))
+                .willThrow(new ResourceNotFoundException(Match.class, matchId));
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/rebuild")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.messages[0]", is(String.format("match %s could not be found", matchId))));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/:id/events/rebuild returns 200 and whether the match has drifted")
+    public void rebuildMatchFromEvents_MatchExists_StatusOk() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventSequencer.rebuildAggregate(matchId, true)).willReturn(true);
+
+        // when
+        mvc.perform(
+                        post("/api/matches/" + matchId + "/events/rebuild")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.drifted", is(true)));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/events/verification does not repair matches by default")
+    public void verifyMatchesAgainstEvents_NoRepairParam_DoesNotRepair() throws Exception {
+        // given
+        given(matchAggregateVerificationJob.verifyAll(false)).willReturn(new MatchAggregateVerificationSummary(10, 2, false));
+
+        // when
+        mvc.perform(
+                        post("/api/matches/events/verification")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.verified", is(10)))
+                .andExpect(jsonPath("$.drifted", is(2)))
+                .andExpect(jsonPath("$.repaired", is(false)));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/events/verification repairs matches when requested")
+    public void verifyMatchesAgainstEvents_RepairParam_Repairs() throws Exception {
+        // given
+        given(matchAggregateVerificationJob.verifyAll(true)).willReturn(new MatchAggregateVerificationSummary(10, 2, true));
+
+        // when
+        mvc.perform(
+                        post("/api/matches/events/verification")
+                                .param("repair", "true")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaired", is(true)));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/events/storage/migration returns 200 and the number of migrated events")
+    public void migrateEventsToBinaryStorage_EventsMigrated_StatusOk() throws Exception {
+        // given
+        given(matchEventStorageMigrationJob.migrateAllToBinary()).willReturn(25);
+
+        // when
+        mvc.perform(
+                        post("/api/matches/events/storage/migration")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.migrated", is(25)));
+    }
 }
@@ -0,0 +1,90 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.matchservice.match.model.GlobalGoalEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalMatchEventFilterTests {
+
+    private static GlobalMatchEvent goal(UUID competitionId, UUID homeTeamId, UUID awayTeamId) {
+        return new GlobalGoalEventDto(
+                UUID.randomUUID(), competitionId, homeTeamId, awayTeamId, GlobalMatchEvent.EventSide.HOME
+        );
+    }
+
+    @Test
+    @DisplayName("fromUrlParams returns the filter matching all events when no params are given")
+    public void fromUrlParams_NoParams_ReturnsAll() {
+        // when
+        var filter = GlobalMatchEventFilter.fromUrlParams(null, "");
+
+        // then
+        assertEquals(GlobalMatchEventFilter.ALL, filter);
+        assertTrue(filter.matches(goal(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())));
+        assertTrue(filter.matches(goal(null, UUID.randomUUID(), UUID.randomUUID())));
+    }
+
+    @Test
+    @DisplayName("fromUrlParams reads comma-separated ids of competitions and teams")
+    public void fromUrlParams_CommaSeparatedIds_ReturnsFilterWithIds() {
+        var competitionId1 = UUID.randomUUID();
+        var competitionId2 = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+
+        // when
+        var filter = GlobalMatchEventFilter.fromUrlParams(
+                competitionId1 + ", " + competitionId2, teamId.toString()
+        );
+
+        // then
+        assertEquals(Set.of(competitionId1, competitionId2), filter.competitionIds());
+        assertEquals(Set.of(teamId), filter.teamIds());
+    }
+
+    @Test
+    @DisplayName("fromUrlParams throws when any of the ids is not a valid uuid")
+    public void fromUrlParams_InvalidId_Throws() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> {
+            GlobalMatchEventFilter.fromUrlParams(UUID.randomUUID() + ",asdf", null);
+        });
+    }
+
+    @Test
+    @DisplayName("matches returns true when the event belongs to a competition or a team of the filter")
+    public void matches_CompetitionOrTeamOfFilter_ReturnsTrue() {
+        var competitionId = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+        var filter = new GlobalMatchEventFilter(Set.of(competitionId), Set.of(teamId));
+
+        // when & then
+        assertTrue(filter.matches(goal(competitionId, UUID.randomUUID(), UUID.randomUUID())));
+        assertTrue(filter.matches(goal(UUID.randomUUID(), teamId, UUID.randomUUID())));
+        assertTrue(filter.matches(goal(UUID.randomUUID(), UUID.randomUUID(), teamId)));
+        assertFalse(filter.matches(goal(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())));
+        assertFalse(filter.matches(goal(null, null, null)));
+    }
+
+    @Test
+    @DisplayName("roomName does not depend on the order in which ids were given")
+    public void roomName_SameIdsInDifferentOrder_SameRoomName() {
+        var competitionId1 = UUID.randomUUID();
+        var competitionId2 = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+
+        // when
+        var filter1 = GlobalMatchEventFilter.fromUrlParams(competitionId1 + "," + competitionId2, teamId.toString());
+        var filter2 = GlobalMatchEventFilter.fromUrlParams(competitionId2 + "," + competitionId1, teamId.toString());
+
+        // then
+        assertEquals(filter1, filter2);
+        assertEquals(filter1.roomName(), filter2.roomName());
+        assertNotEquals(GlobalMatchEventFilter.ALL.roomName(), filter1.roomName());
+    }
+}
@@ -0,0 +1,95 @@
+package ml.echelon133.matchservice.event.model;
+
+import ml.echelon133.common.event.dto.*;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchEventBinaryCodecTests {
+
+    private static SerializedPlayer player(String name) {
+        return new SerializedPlayer(UUID.randomUUID(), UUID.randomUUID(), name);
+    }
+
+    private static List<MatchEventDetails> eventsOfAllTypes() {
+        var competitionId = UUID.randomUUID();
+        var teamId = UUID.randomUUID();
+        return List.of(
+                new StatusEventDetailsDto(
+                        "90+3", competitionId, MatchStatus.FINISHED,
+                        new SerializedTeam(teamId, UUID.randomUUID()), MatchResult.HOME_WIN, new SerializedScore(3, 2)
+                ),
+                new CommentaryEventDetailsDto("45", competitionId, "Zażółć gęślą jaźń"),
+                new CardEventDetailsDto("12", competitionId, teamId, CardEventDetailsDto.CardType.SECOND_YELLOW, player("Carded")),
+                new GoalEventDetailsDto("20", competitionId, teamId, player("Scoring"), player("Assisting"), false),
+                new GoalEventDetailsDto("21", competitionId, teamId, player("Scoring"), null, true),
+                new SubstitutionEventDetailsDto("60", competitionId, teamId, player("In"), player("Out")),
+                new PenaltyEventDetailsDto("120", competitionId, teamId, player("Shooting"), false, true)
+        );
+    }
+
+    @Test
+    @DisplayName("decode returns the details which have been encoded, for every type of event")
+    public void decode_EventsOfAllTypes_SameDetails() {
+        for (MatchEventDetails details : eventsOfAllTypes()) {
+            // when
+            var decoded = MatchEventBinaryCodec.decode(MatchEventBinaryCodec.encode(details));
+
+            // then
+            assertEquals(details, decoded);
+        }
+    }
+
+    @Test
+    @DisplayName("encode produces a smaller representation than JSON, for every type of event")
+    public void encode_EventsOfAllTypes_SmallerThanJson() throws Exception {
+        var objectMapper = MatchServiceApplication.objectMapper();
+        for (MatchEventDetails details : eventsOfAllTypes()) {
+            // when
+            var binarySize = MatchEventBinaryCodec.encode(details).length;
+            var jsonSize = objectMapper.writeValueAsString(details).getBytes(StandardCharsets.UTF_8).length;
+
+            // then
+            assertTrue(binarySize < jsonSize, details.type() + " is not smaller than its JSON");
+        }
+    }
+
+    @Test
+    @DisplayName("decode throws when the content has an unsupported version of the format")
+    public void decode_UnsupportedVersion_Throws() {
+        var encoded = MatchEventBinaryCodec.encode(eventsOfAllTypes().get(0));
+        encoded[0] = 2;
+
+        // when
+        String message = assertThrows(IllegalArgumentException.class, () -> {
+            MatchEventBinaryCodec.decode(encoded);
+        }).getMessage();
+
+        // then
+        assertEquals("unsupported version of the format: 2", message);
+    }
+
+    @Test
+    @DisplayName("decode throws when the content is truncated")
+    public void decode_TruncatedContent_Throws() {
+        var encoded = MatchEventBinaryCodec.encode(eventsOfAllTypes().get(0));
+        var truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        // when
+        String message = assertThrows(IllegalArgumentException.class, () -> {
+            MatchEventBinaryCodec.decode(truncated);
+        }).getMessage();
+
+        // then
+        assertEquals("failed decoding of an event", message);
+    }
+}
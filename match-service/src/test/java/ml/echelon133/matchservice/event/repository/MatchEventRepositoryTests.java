@@ -0,0 +1,155 @@
+package ml.echelon133.matchservice.event.repository;
+
+import ml.echelon133.common.event.dto.CommentaryEventDetailsDto;
+import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.model.MatchEventBinaryCodec;
+import ml.echelon133.matchservice.event.model.MatchEventJson;
+import ml.echelon133.matchservice.match.TestMatch;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Disable kubernetes during tests
+@TestPropertySource(properties = "spring.cloud.kubernetes.enabled=false")
+@DataJpaTest
+public class MatchEventRepositoryTests {
+
+    private final MatchRepository matchRepository;
+    private final MatchEventRepository matchEventRepository;
+    private final TestEntityManager entityManager;
+
+    @Autowired
+    public MatchEventRepositoryTests(
+            MatchRepository matchRepository,
+            MatchEventRepository matchEventRepository,
+            TestEntityManager entityManager
+    ) {
+        this.matchRepository = matchRepository;
+        this.matchEventRepository = matchEventRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Test
+    @DisplayName("findAllJsonByMatchIdAfterSequence only finds events of the match after the sequence")
+    public void findAllJsonByMatchIdAfterSequence_MultipleEvents_OnlyFindsTail() {
+        var match = matchRepository.save(TestMatch.builder().build());
+        var otherMatch = matchRepository.save(TestMatch.builder().build());
+
+        // save events in a shuffled order to make sure that the query orders them
+        for (long sequence : List.of(3L, 1L, 5L, 2L, 4L)) {
+            matchEventRepository.save(new MatchEvent(
+                    match, sequence, new CommentaryEventDetailsDto("1", match.getCompetitionId(), "message")
+            ));
+        }
+        LongStream.rangeClosed(1, 5).forEach(sequence -> matchEventRepository.save(new MatchEvent(
+                otherMatch, sequence, new CommentaryEventDetailsDto("1", otherMatch.getCompetitionId(), "message")
+        )));
+
+        // when
+        var events = matchEventRepository.findAllJsonByMatchIdAfterSequence(match.getId(), 2L);
+
+        // then
+        assertEquals(List.of(3L, 4L, 5L), events.stream().map(MatchEventJson::getSequence).toList());
+    }
+
+    @Test
+    @DisplayName("findAllJsonByMatchId finds events of the match in their stored form ordered by their sequence")
+    public void findAllJsonByMatchId_MultipleEvents_FindsStoredJson() {
+        var match = matchRepository.save(TestMatch.builder().build());
+        var otherMatch = matchRepository.save(TestMatch.builder().build());
+
+        for (long sequence : List.of(2L, 1L)) {
+            matchEventRepository.save(new MatchEvent(
+                    match, sequence, new CommentaryEventDetailsDto("1", match.getCompetitionId(), "message " + sequence)
+            ));
+        }
+        matchEventRepository.save(new MatchEvent(
+                otherMatch, 1L, new CommentaryEventDetailsDto("1", otherMatch.getCompetitionId(), "other message")
+        ));
+
+        // when
+        var events = matchEventRepository.findAllJsonByMatchId(match.getId());
+
+        // then
+        assertEquals(List.of(1L, 2L), events.stream().map(MatchEventJson::getSequence).toList());
+        assertTrue(events.get(0).getEvent().contains("\"message\":\"message 1\""));
+        assertTrue(events.get(1).getEvent().contains("\"message\":\"message 2\""));
+    }
+
+    @Test
+    @DisplayName("findAllInOrderByMatchId finds events of the match ordered by their sequence")
+    public void findAllInOrderByMatchId_MultipleEvents_FindsOrderedEvents() {
+        var match = matchRepository.save(TestMatch.builder().build());
+        var otherMatch = matchRepository.save(TestMatch.builder().build());
+
+        for (long sequence : List.of(3L, 1L, 2L)) {
+            matchEventRepository.save(new MatchEvent(
+                    match, sequence, new CommentaryEventDetailsDto("1", match.getCompetitionId(), "message " + sequence)
+            ));
+        }
+        matchEventRepository.save(new MatchEvent(
+                otherMatch, 1L, new CommentaryEventDetailsDto("1", otherMatch.getCompetitionId(), "other message")
+        ));
+
+        // when
+        var events = matchEventRepository.findAllInOrderByMatchId(match.getId());
+
+        // then
+        assertEquals(
+                List.of("message 1", "message 2", "message 3"),
+                events.stream().map(e -> ((CommentaryEventDetailsDto) e.getEvent()).message()).toList()
+        );
+    }
+
+    @Test
+    @DisplayName("events stored in the binary format are read back with the same details")
+    public void save_EventStoredAsBinary_ReadBackWithSameDetails() {
+        var match = matchRepository.save(TestMatch.builder().build());
+        var details = new CommentaryEventDetailsDto("1", match.getCompetitionId(), "some message");
+        var event = new MatchEvent(match, 1L, details);
+        event.storeAsBinary();
+        matchEventRepository.save(event);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        var savedEvent = matchEventRepository.findById(event.getId()).orElseThrow();
+        var savedJson = matchEventRepository.findAllJsonByMatchId(match.getId());
+
+        // then
+        assertTrue(savedEvent.isStoredAsBinary());
+        assertEquals(details, savedEvent.getEvent());
+        assertNull(savedJson.get(0).getEvent());
+        assertEquals(details, MatchEventBinaryCodec.decode(savedJson.get(0).getEventBinary()));
+    }
+
+    @Test
+    @DisplayName("findAllStoredAsJson only finds events whose details are stored as JSON")
+    public void findAllStoredAsJson_EventsInBothFormats_OnlyFindsJson() {
+        var match = matchRepository.save(TestMatch.builder().build());
+        var jsonEvent = matchEventRepository.save(new MatchEvent(
+                match, 1L, new CommentaryEventDetailsDto("1", match.getCompetitionId(), "message")
+        ));
+        var binaryEvent = new MatchEvent(match, 2L, new CommentaryEventDetailsDto("1", match.getCompetitionId(), "message"));
+        binaryEvent.storeAsBinary();
+        matchEventRepository.save(binaryEvent);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        var events = matchEventRepository.findAllStoredAsJson(Pageable.ofSize(10));
+
+        // then
+        assertEquals(List.of(jsonEvent.getId()), events.stream().map(MatchEvent::getId).toList());
+    }
+}
@@ -0,0 +1,125 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.match.model.GlobalGoalEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.model.GlobalRedCardEventDto;
+import ml.echelon133.matchservice.match.model.GlobalStatusEventDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactGlobalMatchEventEncoderTests {
+
+    private final CompactGlobalMatchEventEncoder encoder = new CompactGlobalMatchEventEncoder();
+
+    private static GlobalMatchEvent goal(UUID matchId, GlobalMatchEvent.EventSide side) {
+        return new GlobalGoalEventDto(matchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), side);
+    }
+
+    @Test
+    @DisplayName("encode assigns a handle to a match only once")
+    public void encode_SameMatch_SameHandle() {
+        var matchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+
+        // when
+        var first = encoder.encode(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+        var other = encoder.encode(goal(otherMatchId, GlobalMatchEvent.EventSide.HOME));
+        var second = encoder.encode(goal(matchId, GlobalMatchEvent.EventSide.AWAY));
+
+        // then
+        assertEquals(0, first.handle());
+        assertTrue(first.newHandle());
+        assertEquals(1, other.handle());
+        assertTrue(other.newHandle());
+        assertEquals(0, second.handle());
+        assertFalse(second.newHandle());
+    }
+
+    @Test
+    @DisplayName("encode writes events as arrays of the handle, the type and the indexes of their values")
+    public void encode_AllTypes_EncodedAsArrays() {
+        var matchId = UUID.randomUUID();
+        var redCard = new GlobalRedCardEventDto(
+                matchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), GlobalMatchEvent.EventSide.AWAY
+        );
+        var status = new GlobalStatusEventDto(
+                matchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                MatchStatus.FINISHED, MatchResult.HOME_WIN
+        );
+
+        // when
+        var encodedGoal = encoder.encode(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+        var encodedRedCard = encoder.encode(redCard);
+        var encodedStatus = encoder.encode(status);
+
+        // then
+        assertEquals("[0,0,0]", encodedGoal.json());
+        assertEquals("[0,1,1]", encodedRedCard.json());
+        assertEquals("[0,2,4,1]", encodedStatus.json());
+    }
+
+    @Test
+    @DisplayName("legend contains all assigned handles and names whose indexes are sent")
+    public void legend_HandlesAssigned_LegendContainsHandles() {
+        var matchId = UUID.randomUUID();
+        encoder.encode(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        var legend = encoder.legend();
+
+        // then
+        assertEquals(Map.of(0, matchId), legend.matches());
+        assertEquals("STATUS", legend.types().get(2));
+        assertEquals("AWAY", legend.sides().get(1));
+        assertEquals("FINISHED", legend.statuses().get(4));
+        assertEquals("HOME_WIN", legend.results().get(1));
+    }
+
+    @Test
+    @DisplayName("releaseFinishedMatches releases handles of matches over before the previous call")
+    public void releaseFinishedMatches_MatchOver_HandleReleasedBySecondCall() {
+        var finishedMatchId = UUID.randomUUID();
+        var liveMatchId = UUID.randomUUID();
+        encoder.encode(goal(liveMatchId, GlobalMatchEvent.EventSide.HOME));
+        encoder.encode(new GlobalStatusEventDto(
+                finishedMatchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                MatchStatus.FINISHED, MatchResult.HOME_WIN
+        ));
+
+        // when
+        encoder.releaseFinishedMatches();
+        var legendBeforeRelease = encoder.legend();
+        encoder.releaseFinishedMatches();
+        var legendAfterRelease = encoder.legend();
+
+        // then
+        assertEquals(Map.of(0, liveMatchId, 1, finishedMatchId), legendBeforeRelease.matches());
+        assertEquals(Map.of(0, liveMatchId), legendAfterRelease.matches());
+    }
+
+    @Test
+    @DisplayName("encode assigns a new handle to a match whose handle has been released")
+    public void encode_HandleReleased_NewHandleAssigned() {
+        var matchId = UUID.randomUUID();
+        encoder.encode(new GlobalStatusEventDto(
+                matchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                MatchStatus.ABANDONED, MatchResult.NONE
+        ));
+        encoder.releaseFinishedMatches();
+        encoder.releaseFinishedMatches();
+
+        // when
+        var encoded = encoder.encode(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+
+        // then
+        assertEquals(1, encoded.handle());
+        assertTrue(encoded.newHandle());
+    }
+}
@@ -0,0 +1,337 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.event.model.CompactGlobalMatchEventFrame;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFrame;
+import ml.echelon133.matchservice.match.model.GlobalGoalEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.model.GlobalRedCardEventDto;
+import ml.echelon133.matchservice.match.model.GlobalStatusEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalMatchEventAggregatorTests {
+
+    private final ObjectMapper objectMapper = MatchServiceApplication.objectMapper();
+    private final UUID competitionId = UUID.randomUUID();
+    private final UUID homeTeamId = UUID.randomUUID();
+    private final UUID awayTeamId = UUID.randomUUID();
+    private Set<GlobalMatchEventFilter> subscribedFilters;
+    private Map<GlobalMatchEventFilter, List<GlobalMatchEventFrame>> sentFramesByFilter;
+    private List<GlobalMatchEventFrame> sentFrames;
+    private Set<GlobalMatchEventFilter> compactSubscribedFilters;
+    private List<CompactGlobalMatchEventFrame> sentCompactFrames;
+    private CompactGlobalMatchEventEncoder compactEncoder;
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalMatchEventAggregator aggregator;
+
+    @BeforeEach
+    public void beforeEach() {
+        subscribedFilters = new HashSet<>(Set.of(GlobalMatchEventFilter.ALL));
+        sentFramesByFilter = new ConcurrentHashMap<>();
+        sentFrames = new CopyOnWriteArrayList<>();
+        compactSubscribedFilters = new HashSet<>();
+        sentCompactFrames = new CopyOnWriteArrayList<>();
+        compactEncoder = new CompactGlobalMatchEventEncoder();
+        meterRegistry = new SimpleMeterRegistry();
+        // not started, so that frames are only sent when the test flushes the aggregator
+        aggregator = createAggregator(250);
+    }
+
+    private GlobalMatchEventAggregator createAggregator(long windowMs) {
+        return new GlobalMatchEventAggregator(
+                objectMapper,
+                windowMs,
+                () -> subscribedFilters,
+                (filter, frame) -> {
+                    sentFrames.add(frame);
+                    sentFramesByFilter.computeIfAbsent(filter, f -> new CopyOnWriteArrayList<>()).add(frame);
+                },
+                compactEncoder,
+                () -> compactSubscribedFilters,
+                (filter, frame) -> sentCompactFrames.add(frame),
+                meterRegistry
+        );
+    }
+
+    private GlobalMatchEvent goal(UUID matchId, GlobalMatchEvent.EventSide side) {
+        return new GlobalGoalEventDto(matchId, competitionId, homeTeamId, awayTeamId, side);
+    }
+
+    private GlobalMatchEvent redCard(UUID matchId, GlobalMatchEvent.EventSide side) {
+        return new GlobalRedCardEventDto(matchId, competitionId, homeTeamId, awayTeamId, side);
+    }
+
+    private GlobalMatchEvent status(UUID matchId, MatchStatus targetStatus, MatchResult result) {
+        return new GlobalStatusEventDto(matchId, competitionId, homeTeamId, awayTeamId, targetStatus, result);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        aggregator.close();
+    }
+
+    private JsonNode eventsOfFrame(int index) throws Exception {
+        return readEvents(sentFrames.get(index));
+    }
+
+    private JsonNode readEvents(GlobalMatchEventFrame frame) throws Exception {
+        // the frame is read exactly like a client would read it, i.e. after its serialization
+        return objectMapper.readTree(objectMapper.writeValueAsString(frame)).get("events");
+    }
+
+    private double counterValue(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("flush does not send a frame when no events have been added")
+    public void flush_NoEvents_NoFrame() {
+        // when
+        aggregator.flush();
+
+        // then
+        assertTrue(sentFrames.isEmpty());
+        assertEquals(0, counterValue("match.events.global.frames.sent"));
+    }
+
+    @Test
+    @DisplayName("flush sends all added events in a single frame, in the order in which they were added")
+    public void flush_MultipleEvents_SingleFrameInOrder() throws Exception {
+        var matchId1 = UUID.randomUUID();
+        var matchId2 = UUID.randomUUID();
+        aggregator.add(goal(matchId1, GlobalMatchEvent.EventSide.HOME));
+        aggregator.add(redCard(matchId2, GlobalMatchEvent.EventSide.AWAY));
+        aggregator.add(goal(matchId1, GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertEquals(1, sentFrames.size());
+        var events = eventsOfFrame(0);
+        assertEquals(3, events.size());
+        assertEquals("GOAL", events.get(0).get("type").asText());
+        assertEquals(matchId1.toString(), events.get(0).get("matchId").asText());
+        assertEquals("HOME", events.get(0).get("side").asText());
+        assertEquals("CARD", events.get(1).get("type").asText());
+        assertEquals(matchId2.toString(), events.get(1).get("matchId").asText());
+        assertEquals("GOAL", events.get(2).get("type").asText());
+        assertEquals(1, counterValue("match.events.global.frames.sent"));
+        assertEquals(2, counterValue("match.events.global.frames.saved"));
+    }
+
+    @Test
+    @DisplayName("flush only sends the most recent status of a match, without dropping other events")
+    public void flush_MultipleStatusesOfMatch_OnlyMostRecentStatusSent() throws Exception {
+        var matchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+        aggregator.add(status(matchId, MatchStatus.SECOND_HALF, MatchResult.NONE));
+        aggregator.add(status(otherMatchId, MatchStatus.HALF_TIME, MatchResult.NONE));
+        aggregator.add(goal(matchId, GlobalMatchEvent.EventSide.AWAY));
+        aggregator.add(status(matchId, MatchStatus.FINISHED, MatchResult.AWAY_WIN));
+
+        // when
+        aggregator.flush();
+
+        // then
+        var events = eventsOfFrame(0);
+        assertEquals(3, events.size());
+        assertEquals(otherMatchId.toString(), events.get(0).get("matchId").asText());
+        assertEquals("GOAL", events.get(1).get("type").asText());
+        assertEquals("STATUS", events.get(2).get("type").asText());
+        assertEquals("FINISHED", events.get(2).get("targetStatus").asText());
+        assertEquals("AWAY_WIN", events.get(2).get("result").asText());
+        assertEquals(1, counterValue("match.events.global.superseded"));
+    }
+
+    @Test
+    @DisplayName("flush sends events added after the previous flush in a new frame")
+    public void flush_EventsAddedAfterFlush_SentInNewFrame() throws Exception {
+        var matchId = UUID.randomUUID();
+        aggregator.add(status(matchId, MatchStatus.SECOND_HALF, MatchResult.NONE));
+        aggregator.flush();
+        aggregator.add(status(matchId, MatchStatus.FINISHED, MatchResult.DRAW));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertEquals(2, sentFrames.size());
+        assertEquals("SECOND_HALF", eventsOfFrame(0).get(0).get("targetStatus").asText());
+        assertEquals("FINISHED", eventsOfFrame(1).get(0).get("targetStatus").asText());
+        assertEquals(0, counterValue("match.events.global.superseded"));
+    }
+
+    @Test
+    @DisplayName("close sends events which have been added but not sent yet")
+    public void close_PendingEvents_Sent() {
+        aggregator.add(goal(UUID.randomUUID(), GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        aggregator.close();
+
+        // then
+        assertEquals(1, sentFrames.size());
+    }
+
+    @Test
+    @DisplayName("started aggregator sends a frame at the end of the window")
+    public void start_EventAdded_FrameSentAfterWindow() throws InterruptedException {
+        var startedAggregator = createAggregator(10).start();
+
+        // when
+        startedAggregator.add(goal(UUID.randomUUID(), GlobalMatchEvent.EventSide.HOME));
+
+        // then
+        for (int i = 0; i < 500 && sentFrames.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        startedAggregator.close();
+        assertEquals(1, sentFrames.size());
+    }
+
+    @Test
+    @DisplayName("flush only sends every room the events which match the filter of that room")
+    public void flush_MultipleFilters_EveryRoomReceivesMatchingEvents() throws Exception {
+        var otherCompetitionId = UUID.randomUUID();
+        var otherTeamId = UUID.randomUUID();
+        var competitionFilter = new GlobalMatchEventFilter(Set.of(competitionId), Set.of());
+        var teamFilter = new GlobalMatchEventFilter(Set.of(), Set.of(otherTeamId));
+        subscribedFilters.addAll(List.of(competitionFilter, teamFilter));
+        var matchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+        aggregator.add(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+        aggregator.add(new GlobalGoalEventDto(
+                otherMatchId, otherCompetitionId, UUID.randomUUID(), otherTeamId, GlobalMatchEvent.EventSide.AWAY
+        ));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertEquals(3, sentFrames.size());
+        assertEquals(2, readEvents(sentFramesByFilter.get(GlobalMatchEventFilter.ALL).get(0)).size());
+        var competitionEvents = readEvents(sentFramesByFilter.get(competitionFilter).get(0));
+        assertEquals(1, competitionEvents.size());
+        assertEquals(matchId.toString(), competitionEvents.get(0).get("matchId").asText());
+        var teamEvents = readEvents(sentFramesByFilter.get(teamFilter).get(0));
+        assertEquals(1, teamEvents.size());
+        assertEquals(otherMatchId.toString(), teamEvents.get(0).get("matchId").asText());
+    }
+
+    @Test
+    @DisplayName("flush does not send a frame to a room whose filter does not match any event")
+    public void flush_NoMatchingEvents_NoFrameForRoom() {
+        subscribedFilters.clear();
+        subscribedFilters.add(new GlobalMatchEventFilter(Set.of(UUID.randomUUID()), Set.of()));
+        aggregator.add(goal(UUID.randomUUID(), GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertTrue(sentFrames.isEmpty());
+        assertEquals(0, counterValue("match.events.global.frames.sent"));
+    }
+
+    @Test
+    @DisplayName("constructor throws when the window is not positive")
+    public void constructor_NonPositiveWindow_Throws() {
+        // when
+        String message = assertThrows(IllegalArgumentException.class, () -> {
+            createAggregator(0);
+        }).getMessage();
+
+        // then
+        assertEquals("window of global match events has to be positive", message);
+    }
+
+    @Test
+    @DisplayName("flush sends compact frames to rooms of clients which asked for them")
+    public void flush_CompactSubscribers_CompactFrameSent() throws Exception {
+        var matchId = UUID.randomUUID();
+        subscribedFilters.clear();
+        compactSubscribedFilters.add(GlobalMatchEventFilter.ALL);
+        aggregator.add(goal(matchId, GlobalMatchEvent.EventSide.AWAY));
+        aggregator.add(redCard(matchId, GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertTrue(sentFrames.isEmpty());
+        assertEquals(1, sentCompactFrames.size());
+        assertEquals(
+                "{\"m\":{\"0\":\"" + matchId + "\"},\"e\":[[0,0,1],[0,1,0]]}",
+                objectMapper.writeValueAsString(sentCompactFrames.get(0))
+        );
+    }
+
+    @Test
+    @DisplayName("flush only sends ids of matches in the first compact frame which uses their handles")
+    public void flush_HandleAlreadySent_IdOfMatchNotSentAgain() throws Exception {
+        var matchId = UUID.randomUUID();
+        compactSubscribedFilters.add(GlobalMatchEventFilter.ALL);
+        aggregator.add(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+        aggregator.flush();
+        aggregator.add(goal(matchId, GlobalMatchEvent.EventSide.HOME));
+
+        // when
+        aggregator.flush();
+
+        // then
+        assertEquals(2, sentCompactFrames.size());
+        assertEquals("{\"e\":[[0,0,0]]}", objectMapper.writeValueAsString(sentCompactFrames.get(1)));
+    }
+
+    @Test
+    @DisplayName("flush sends the id of a match with a new handle even if the event which got the handle has been superseded")
+    public void flush_NewHandleOfSupersededStatus_IdOfMatchSent() throws Exception {
+        var matchId = UUID.randomUUID();
+        compactSubscribedFilters.add(GlobalMatchEventFilter.ALL);
+        aggregator.add(status(matchId, MatchStatus.FIRST_HALF, MatchResult.NONE));
+        aggregator.add(status(matchId, MatchStatus.HALF_TIME, MatchResult.NONE));
+
+        // when
+        aggregator.flush();
+
+        // then
+        var frame = sentCompactFrames.get(0);
+        assertEquals("{\"0\":\"" + matchId + "\"}", frame.matches());
+        assertEquals("[[0,2,2,0]]", frame.events());
+    }
+
+    @Test
+    @DisplayName("flush releases the handle of a finished match one frame after sending its final status")
+    public void flush_MatchFinished_HandleReleasedByNextFlush() {
+        var matchId = UUID.randomUUID();
+        compactSubscribedFilters.add(GlobalMatchEventFilter.ALL);
+        aggregator.add(status(matchId, MatchStatus.FINISHED, MatchResult.DRAW));
+
+        // when
+        aggregator.flush();
+        var legendAfterFinalStatus = compactEncoder.legend();
+        aggregator.flush();
+        var legendAfterNextFlush = compactEncoder.legend();
+
+        // then
+        assertEquals(1, sentCompactFrames.size());
+        assertEquals(Map.of(0, matchId), legendAfterFinalStatus.matches());
+        assertTrue(legendAfterNextFlush.matches().isEmpty());
+    }
+}
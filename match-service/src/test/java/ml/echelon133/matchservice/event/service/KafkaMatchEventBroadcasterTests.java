@@ -0,0 +1,291 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.match.model.GlobalGoalEventDto;
+import ml.echelon133.matchservice.match.model.GlobalMatchEvent;
+import ml.echelon133.matchservice.match.model.GlobalStatusEventDto;
+import ml.echelon133.matchservice.match.service.MatchLineupCache;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.serialization.UUIDSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KafkaMatchEventBroadcasterTests {
+
+    @Mock
+    private MatchEventWebsocketService matchEventWebsocketService;
+
+    @Mock
+    private MatchEventFeedCache matchEventFeedCache;
+
+    @Mock
+    private MatchSnapshotCache matchSnapshotCache;
+
+    @Mock
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    @Mock
+    private MatchLineupCache matchLineupCache;
+
+    private MockProducer<UUID, String> producer;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaMatchEventBroadcaster broadcaster;
+
+    @BeforeEach
+    public void beforeEach() {
+        producer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = createBroadcaster(producer);
+    }
+
+    private KafkaMatchEventBroadcaster createBroadcaster(MockProducer<UUID, String> producer) {
+        return new KafkaMatchEventBroadcaster(
+                matchEventWebsocketService,
+                matchEventFeedCache,
+                matchSnapshotCache,
+                liveMatchStateRegistry,
+                matchLineupCache,
+                producer,
+                MatchServiceApplication.objectMapper(),
+                meterRegistry
+        );
+    }
+
+    // turns a record published by one replica into a record consumed by another replica
+    private static ConsumerRecord<UUID, String> consume(ProducerRecord<UUID, String> published) {
+        var record = new ConsumerRecord<>(published.topic(), 0, 0L, published.key(), published.value());
+        published.headers().forEach(header -> record.headers().add(header));
+        return record;
+    }
+
+    private static String header(ProducerRecord<UUID, String> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("broadcastMatchEvent delivers the event locally and publishes it keyed by the id of the match")
+    public void broadcastMatchEvent_Event_DeliveredLocallyAndPublished() {
+        var matchId = UUID.randomUUID();
+        var event = new EncodedMatchEventDto(UUID.randomUUID(), 5L, "{\"type\":\"COMMENTARY\"}");
+
+        // when
+        broadcaster.broadcastMatchEvent(matchId, event);
+
+        // then
+        verify(matchEventWebsocketService).sendMatchEvent(matchId, event);
+        assertEquals(1, producer.history().size());
+        var record = producer.history().get(0);
+        assertEquals(KafkaTopicNames.MATCH_BROADCASTS, record.topic());
+        assertEquals(matchId, record.key());
+        assertEquals(event.event(), record.value());
+        assertEquals(KafkaMatchEventBroadcaster.MATCH_EVENT_TYPE, header(record, KafkaMatchEventBroadcaster.TYPE_HEADER));
+        assertEquals(broadcaster.getInstanceId().toString(), header(record, KafkaMatchEventBroadcaster.ORIGIN_HEADER));
+    }
+
+    @Test
+    @DisplayName("onMessage delivers the match event published by another replica to local clients")
+    public void onMessage_MatchEventOfOtherReplica_DeliveredLocally() {
+        var otherProducer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        var otherReplica = createBroadcaster(otherProducer);
+        var matchId = UUID.randomUUID();
+        var event = new EncodedMatchEventDto(UUID.randomUUID(), 5L, "{\"type\":\"COMMENTARY\"}");
+        otherReplica.broadcastMatchEvent(matchId, event);
+        clearInvocations(matchEventWebsocketService);
+
+        // when
+        broadcaster.onMessage(consume(otherProducer.history().get(0)));
+
+        // then
+        verify(matchEventWebsocketService).sendMatchEvent(matchId, event);
+        assertEquals(1, meterRegistry.get("match.events.broadcast.received").counter().count());
+    }
+
+    @Test
+    @DisplayName("onMessage updates the cached state of the match with the match event published by another replica")
+    public void onMessage_MatchEventOfOtherReplica_UpdatesCachedState() {
+        var otherProducer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        var otherReplica = createBroadcaster(otherProducer);
+        var matchId = UUID.randomUUID();
+        var event = new EncodedMatchEventDto(UUID.randomUUID(), 5L, "{\"type\":\"GOAL\"}");
+        otherReplica.broadcastMatchEvent(matchId, event);
+
+        // when
+        broadcaster.onMessage(consume(otherProducer.history().get(0)));
+
+        // then
+        verify(matchEventFeedCache).append(matchId, event);
+        verify(matchSnapshotCache).evict(matchId);
+        verify(liveMatchStateRegistry).evict(matchId);
+    }
+
+    @Test
+    @DisplayName("broadcastLineupChange publishes the change keyed by the id of the match")
+    public void broadcastLineupChange_MatchId_Published() {
+        var matchId = UUID.randomUUID();
+
+        // when
+        broadcaster.broadcastLineupChange(matchId);
+
+        // then
+        assertEquals(1, producer.history().size());
+        var record = producer.history().get(0);
+        assertEquals(matchId, record.key());
+        assertEquals(KafkaMatchEventBroadcaster.LINEUP_CHANGE_TYPE, header(record, KafkaMatchEventBroadcaster.TYPE_HEADER));
+        verifyNoInteractions(matchLineupCache);
+    }
+
+    @Test
+    @DisplayName("onMessage evicts the cached lineup and live state of the match whose lineup was changed by another replica")
+    public void onMessage_LineupChangeOfOtherReplica_EvictsLineup() {
+        var otherProducer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        var otherReplica = createBroadcaster(otherProducer);
+        var matchId = UUID.randomUUID();
+        otherReplica.broadcastLineupChange(matchId);
+
+        // when
+        broadcaster.onMessage(consume(otherProducer.history().get(0)));
+
+        // then
+        verify(matchLineupCache).evict(matchId);
+        verify(liveMatchStateRegistry).evict(matchId);
+        verifyNoInteractions(matchEventWebsocketService);
+        assertEquals(1, meterRegistry.get("match.events.broadcast.received").counter().count());
+    }
+
+    @Test
+    @DisplayName("broadcastPlayerChange publishes the change keyed by the id of the player")
+    public void broadcastPlayerChange_PlayerId_Published() {
+        var playerId = UUID.randomUUID();
+
+        // when
+        broadcaster.broadcastPlayerChange(playerId);
+
+        // then
+        assertEquals(1, producer.history().size());
+        var record = producer.history().get(0);
+        assertEquals(playerId, record.key());
+        assertEquals(KafkaMatchEventBroadcaster.PLAYER_CHANGE_TYPE, header(record, KafkaMatchEventBroadcaster.TYPE_HEADER));
+        verifyNoInteractions(matchLineupCache);
+    }
+
+    @Test
+    @DisplayName("onMessage evicts cached lineups and live states of matches listing the player changed by another replica")
+    public void onMessage_PlayerChangeOfOtherReplica_EvictsLineupsOfPlayer() {
+        var otherProducer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        var otherReplica = createBroadcaster(otherProducer);
+        var playerId = UUID.randomUUID();
+        var matchId = UUID.randomUUID();
+        otherReplica.broadcastPlayerChange(playerId);
+
+        // given
+        given(matchLineupCache.evictPlayer(playerId)).willReturn(List.of(matchId));
+
+        // when
+        broadcaster.onMessage(consume(otherProducer.history().get(0)));
+
+        // then
+        verify(liveMatchStateRegistry).evict(matchId);
+        verifyNoInteractions(matchEventWebsocketService);
+        assertEquals(1, meterRegistry.get("match.events.broadcast.received").counter().count());
+    }
+
+    @Test
+    @DisplayName("onMessage delivers the global event published by another replica to local clients")
+    public void onMessage_GlobalEventsOfOtherReplica_DeliveredLocally() {
+        var otherProducer = new MockProducer<>(true, new UUIDSerializer(), new StringSerializer());
+        var otherReplica = createBroadcaster(otherProducer);
+        var matchId = UUID.randomUUID();
+        var competitionId = UUID.randomUUID();
+        var homeTeamId = UUID.randomUUID();
+        var awayTeamId = UUID.randomUUID();
+        GlobalMatchEvent goal = new GlobalGoalEventDto(
+                matchId, competitionId, homeTeamId, awayTeamId, GlobalMatchEvent.EventSide.AWAY
+        );
+        GlobalMatchEvent status = new GlobalStatusEventDto(
+                matchId, competitionId, homeTeamId, awayTeamId, MatchStatus.FINISHED, MatchResult.AWAY_WIN
+        );
+        otherReplica.broadcastGlobalMatchEvent(goal);
+        otherReplica.broadcastGlobalMatchEvent(status);
+        clearInvocations(matchEventWebsocketService);
+
+        // when
+        otherProducer.history().forEach(record -> broadcaster.onMessage(consume(record)));
+
+        // then
+        verify(matchEventWebsocketService).sendGlobalMatchEvent(goal);
+        verify(matchEventWebsocketService).sendGlobalMatchEvent(status);
+        assertEquals(2, meterRegistry.get("match.events.broadcast.received").counter().count());
+    }
+
+    @Test
+    @DisplayName("onMessage does not deliver events published by this replica again")
+    public void onMessage_EventOfThisReplica_NotDeliveredAgain() {
+        var matchId = UUID.randomUUID();
+        broadcaster.broadcastMatchEvent(matchId, new EncodedMatchEventDto(UUID.randomUUID(), 1L, "{}"));
+        broadcaster.broadcastGlobalMatchEvent(new GlobalGoalEventDto(
+                matchId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), GlobalMatchEvent.EventSide.HOME
+        ));
+        clearInvocations(matchEventWebsocketService);
+
+        // when
+        producer.history().forEach(record -> broadcaster.onMessage(consume(record)));
+
+        // then
+        verifyNoInteractions(matchEventWebsocketService, matchEventFeedCache, matchSnapshotCache, liveMatchStateRegistry);
+        assertEquals(0, meterRegistry.get("match.events.broadcast.received").counter().count());
+    }
+
+    @Test
+    @DisplayName("onMessage counts records which cannot be delivered instead of throwing")
+    public void onMessage_MalformedRecord_CountedAsFailure() {
+        var record = new ConsumerRecord<>(KafkaTopicNames.MATCH_BROADCASTS, 0, 0L, UUID.randomUUID(), "not json");
+        record.headers().add(
+                KafkaMatchEventBroadcaster.TYPE_HEADER,
+                KafkaMatchEventBroadcaster.GLOBAL_MATCH_EVENT_TYPE.getBytes(StandardCharsets.UTF_8)
+        );
+
+        // when
+        broadcaster.onMessage(record);
+
+        // then
+        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        assertEquals(1, meterRegistry.get("match.events.broadcast.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("broadcastMatchEvent counts events which could not be published")
+    public void broadcastMatchEvent_PublishingFails_CountedAsFailure() {
+        var failingProducer = new MockProducer<>(false, new UUIDSerializer(), new StringSerializer());
+        var failingBroadcaster = createBroadcaster(failingProducer);
+
+        // when
+        failingBroadcaster.broadcastMatchEvent(UUID.randomUUID(), new EncodedMatchEventDto(UUID.randomUUID(), 1L, "{}"));
+        failingProducer.errorNext(new RuntimeException("broker unavailable"));
+
+        // then
+        verify(matchEventWebsocketService).sendMatchEvent(any(), any());
+        assertEquals(1, meterRegistry.get("match.events.broadcast.failures").counter().count());
+    }
+}
@@ -0,0 +1,242 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.common.event.dto.*;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.common.match.MatchResult;
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.repository.MatchEventRepository;
+import ml.echelon133.matchservice.match.TestMatch;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.RedCardInfo;
+import ml.echelon133.matchservice.match.model.ScoreInfo;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
+import ml.echelon133.matchservice.match.service.MatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchAggregateServiceTests {
+
+    @Mock
+    private MatchService matchService;
+
+    @Mock
+    private MatchEventRepository matchEventRepository;
+
+    @Spy
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    @Spy
+    private MatchEventFeedCache matchEventFeedCache = new MatchEventFeedCache(10, new SimpleMeterRegistry());
+
+    @Spy
+    private MatchSnapshotCache matchSnapshotCache = new MatchSnapshotCache(10, 5, new SimpleMeterRegistry());
+
+    @Mock
+    private MatchScheduleService matchScheduleService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchAggregateService matchAggregateService;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        matchAggregateService = new MatchAggregateService(
+                matchService,
+                matchEventRepository,
+                liveMatchStateRegistry,
+                matchEventFeedCache,
+                matchSnapshotCache,
+                matchScheduleService,
+                meterRegistry
+        );
+    }
+
+    private static MatchEvent event(MatchEventDetails details) {
+        return new MatchEvent(null, details);
+    }
+
+    private static MatchEvent status(Match match, MatchStatus targetStatus, MatchResult result) {
+        return event(new StatusEventDetailsDto(
+                "1", match.getCompetitionId(), targetStatus,
+                new SerializedTeam(match.getHomeTeam().getId(), match.getAwayTeam().getId()),
+                result, new SerializedScore(0, 0)
+        ));
+    }
+
+    private static MatchEvent goal(Match match, UUID teamId) {
+        var player = new SerializedPlayer(UUID.randomUUID(), UUID.randomUUID(), "Player");
+        return event(new GoalEventDetailsDto("10", match.getCompetitionId(), teamId, player, null, false));
+    }
+
+    private static MatchEvent penalty(Match match, UUID teamId, boolean countAsGoal, boolean scored) {
+        var player = new SerializedPlayer(UUID.randomUUID(), UUID.randomUUID(), "Player");
+        return event(new PenaltyEventDetailsDto("10", match.getCompetitionId(), teamId, player, countAsGoal, scored));
+    }
+
+    private static MatchEvent card(Match match, UUID teamId, CardEventDetailsDto.CardType cardType) {
+        var player = new SerializedPlayer(UUID.randomUUID(), UUID.randomUUID(), "Player");
+        return event(new CardEventDetailsDto("10", match.getCompetitionId(), teamId, cardType, player));
+    }
+
+    // events of a match which went to penalties, together with the columns which these events should produce
+    private static List<MatchEvent> eventsOfMatchFinishedAfterPenalties(Match match) {
+        var homeTeamId = match.getHomeTeam().getId();
+        var awayTeamId = match.getAwayTeam().getId();
+        return List.of(
+                status(match, MatchStatus.FIRST_HALF, MatchResult.NONE),
+                goal(match, homeTeamId),
+                card(match, awayTeamId, CardEventDetailsDto.CardType.YELLOW),
+                status(match, MatchStatus.HALF_TIME, MatchResult.NONE),
+                status(match, MatchStatus.SECOND_HALF, MatchResult.NONE),
+                card(match, awayTeamId, CardEventDetailsDto.CardType.SECOND_YELLOW),
+                penalty(match, awayTeamId, true, true),
+                event(new CommentaryEventDetailsDto("80", match.getCompetitionId(), "message")),
+                status(match, MatchStatus.EXTRA_TIME, MatchResult.NONE),
+                card(match, homeTeamId, CardEventDetailsDto.CardType.DIRECT_RED),
+                status(match, MatchStatus.PENALTIES, MatchResult.NONE),
+                penalty(match, homeTeamId, false, true),
+                penalty(match, awayTeamId, false, false),
+                status(match, MatchStatus.FINISHED, MatchResult.HOME_WIN)
+        );
+    }
+
+    private static void assertColumnsOfMatchFinishedAfterPenalties(Match match) {
+        assertEquals(MatchStatus.FINISHED, match.getStatus());
+        assertEquals(MatchResult.HOME_WIN, match.getResult());
+        assertEquals(ScoreInfo.of(1, 0), match.getHalfTimeScoreInfo());
+        assertEquals(ScoreInfo.of(1, 1), match.getScoreInfo());
+        assertEquals(ScoreInfo.of(1, 0), match.getPenaltiesInfo());
+        assertEquals(RedCardInfo.of(1, 1), match.getRedCardInfo());
+    }
+
+    @Test
+    @DisplayName("rebuild throws when the match does not exist")
+    public void rebuild_MatchNotFound_Throws() throws ResourceNotFoundException {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchService.findEntityById(matchId)).willThrow(new ResourceNotFoundException(Match.class, matchId));
+
+        // when
+        String message = assertThrows(ResourceNotFoundException.class, () -> {
+            matchAggregateService.rebuild(matchId, true);
+        }).getMessage();
+
+        // then
+        assertEquals(String.format("match %s could not be found", matchId), message);
+    }
+
+    @Test
+    @DisplayName("rebuild does not report drift when the columns of the match reflect its events")
+    public void rebuild_ColumnsReflectEvents_NoDrift() throws ResourceNotFoundException {
+        var match = TestMatch.builder()
+                .status(MatchStatus.FINISHED)
+                .result(MatchResult.HOME_WIN)
+                .halfTimeScoreInfo(ScoreInfo.of(1, 0))
+                .scoreInfo(ScoreInfo.of(1, 1))
+                .penaltiesInfo(ScoreInfo.of(1, 0))
+                .build();
+        match.setRedCardInfo(RedCardInfo.of(1, 1));
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllInOrderByMatchId(matchId)).willReturn(eventsOfMatchFinishedAfterPenalties(match));
+
+        // when
+        var drifted = matchAggregateService.rebuild(matchId, false);
+
+        // then
+        assertFalse(drifted);
+        assertColumnsOfMatchFinishedAfterPenalties(match);
+        assertEquals(0, meterRegistry.get("match.aggregates.drifted").counter().count());
+    }
+
+    @Test
+    @DisplayName("rebuild reports drift without modifying the match when not repairing")
+    public void rebuild_ColumnsDriftedNoRepair_MatchUnchanged() throws ResourceNotFoundException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllInOrderByMatchId(matchId)).willReturn(eventsOfMatchFinishedAfterPenalties(match));
+
+        // when
+        var drifted = matchAggregateService.rebuild(matchId, false);
+
+        // then
+        assertTrue(drifted);
+        assertEquals(MatchStatus.NOT_STARTED, match.getStatus());
+        assertEquals(ScoreInfo.of(0, 0), match.getScoreInfo());
+        assertEquals(1, meterRegistry.get("match.aggregates.drifted").counter().count());
+        verify(matchEventFeedCache, never()).evict(matchId);
+        verify(matchSnapshotCache, never()).evict(matchId);
+        verify(matchScheduleService, never()).refresh(any());
+    }
+
+    @Test
+    @DisplayName("rebuild overwrites drifted columns of the match with values replayed from its events")
+    public void rebuild_ColumnsDriftedRepair_MatchRebuilt() throws ResourceNotFoundException {
+        var match = TestMatch.builder()
+                .status(MatchStatus.PENALTIES)
+                .scoreInfo(ScoreInfo.of(3, 1))
+                .build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllInOrderByMatchId(matchId)).willReturn(eventsOfMatchFinishedAfterPenalties(match));
+
+        // when
+        var drifted = matchAggregateService.rebuild(matchId, true);
+
+        // then
+        assertTrue(drifted);
+        assertColumnsOfMatchFinishedAfterPenalties(match);
+        verify(liveMatchStateRegistry).evict(matchId);
+        verify(matchEventFeedCache).evict(matchId);
+        verify(matchSnapshotCache).evict(matchId);
+        verify(matchScheduleService).refresh(match);
+    }
+
+    @Test
+    @DisplayName("rebuild of a match whose events have all been deleted resets the columns of the match")
+    public void rebuild_NoEvents_MatchReset() throws ResourceNotFoundException {
+        var match = TestMatch.builder()
+                .status(MatchStatus.FIRST_HALF)
+                .halfTimeScoreInfo(ScoreInfo.of(1, 0))
+                .scoreInfo(ScoreInfo.of(1, 0))
+                .build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllInOrderByMatchId(matchId)).willReturn(List.of());
+
+        // when
+        var drifted = matchAggregateService.rebuild(matchId, true);
+
+        // then
+        assertTrue(drifted);
+        assertEquals(MatchStatus.NOT_STARTED, match.getStatus());
+        assertEquals(MatchResult.NONE, match.getResult());
+        assertEquals(ScoreInfo.of(0, 0), match.getHalfTimeScoreInfo());
+        assertEquals(ScoreInfo.of(0, 0), match.getScoreInfo());
+    }
+}
@@ -0,0 +1,101 @@
+package ml.echelon133.matchservice.event.service;
+
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchAggregateVerificationJobTests {
+
+    private static final int PAGE_SIZE = 2;
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private MatchEventSequencer matchEventSequencer;
+
+    private MatchAggregateVerificationJob matchAggregateVerificationJob;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchAggregateVerificationJob = new MatchAggregateVerificationJob(matchRepository, matchEventSequencer, PAGE_SIZE, false);
+    }
+
+    @Test
+    @DisplayName("verifyAll visits every match page by page, starting each page after the last visited match")
+    public void verifyAll_MultiplePages_VisitsAllMatches() throws ResourceNotFoundException {
+        var firstId = UUID.randomUUID();
+        var secondId = UUID.randomUUID();
+        var thirdId = UUID.randomUUID();
+
+        // given
+        given(matchRepository.findIdsAfter(FIRST_ID, PageRequest.of(0, PAGE_SIZE))).willReturn(List.of(firstId, secondId));
+        given(matchRepository.findIdsAfter(secondId, PageRequest.of(0, PAGE_SIZE))).willReturn(List.of(thirdId));
+        given(matchEventSequencer.rebuildAggregate(firstId, true)).willReturn(false);
+        given(matchEventSequencer.rebuildAggregate(secondId, true)).willReturn(true);
+        given(matchEventSequencer.rebuildAggregate(thirdId, true)).willReturn(false);
+
+        // when
+        var summary = matchAggregateVerificationJob.verifyAll(true);
+
+        // then
+        assertEquals(3, summary.verified());
+        assertEquals(1, summary.drifted());
+        assertTrue(summary.repaired());
+        verify(matchRepository, times(2)).findIdsAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("verifyAll reads the next page when the last page is full")
+    public void verifyAll_LastPageFull_ReadsNextPage() throws ResourceNotFoundException {
+        var firstId = UUID.randomUUID();
+        var secondId = UUID.randomUUID();
+
+        // given
+        given(matchRepository.findIdsAfter(FIRST_ID, PageRequest.of(0, PAGE_SIZE))).willReturn(List.of(firstId, secondId));
+        given(matchRepository.findIdsAfter(secondId, PageRequest.of(0, PAGE_SIZE))).willReturn(List.of());
+
+        // when
+        var summary = matchAggregateVerificationJob.verifyAll(false);
+
+        // then
+        assertEquals(2, summary.verified());
+        assertEquals(0, summary.drifted());
+        verify(matchEventSequencer).rebuildAggregate(firstId, false);
+        verify(matchEventSequencer).rebuildAggregate(secondId, false);
+    }
+
+    @Test
+    @DisplayName("verifyAll skips matches which have been deleted during the verification")
+    public void verifyAll_MatchDeleted_Skipped() throws ResourceNotFoundException {
+        var firstId = UUID.randomUUID();
+
+        // given
+        given(matchRepository.findIdsAfter(FIRST_ID, PageRequest.of(0, PAGE_SIZE))).willReturn(List.of(firstId));
+        given(matchEventSequencer.rebuildAggregate(firstId, false))
+                .willThrow(new ResourceNotFoundException(Match.class, firstId));
+
+        // when
+        var summary = matchAggregateVerificationJob.verifyAll(false);
+
+        // then
+        assertEquals(0, summary.verified());
+        assertEquals(0, summary.drifted());
+    }
+}
@@ -0,0 +1,161 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchEventDispatcherTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchEventDispatcher matchEventDispatcher;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        matchEventDispatcher = new MatchEventDispatcher(100, 10, 1000, meterRegistry);
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        matchEventDispatcher.destroy();
+    }
+
+    @Test
+    @DisplayName("dispatchAfterCommit dispatches actions in order when there is no transaction")
+    public void dispatchAfterCommit_NoTransaction_DispatchesInOrder() throws InterruptedException {
+        var dispatched = new CopyOnWriteArrayList<Integer>();
+        var latch = new CountDownLatch(50);
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            var value = i;
+            matchEventDispatcher.dispatchAfterCommit(() -> {
+                dispatched.add(value);
+                latch.countDown();
+            });
+        }
+
+        // then
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(50, dispatched.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, dispatched.get(i));
+        }
+        assertEquals(50, meterRegistry.get("match.events.dispatch.lag").timer().count());
+    }
+
+    @Test
+    @DisplayName("dispatchAfterCommit only dispatches actions after the transaction commits")
+    public void dispatchAfterCommit_TransactionActive_WaitsForCommit() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        matchEventDispatcher.dispatchAfterCommit(latch::countDown);
+
+        // then
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("dispatchAfterCommit never dispatches actions when the transaction does not commit")
+    public void dispatchAfterCommit_TransactionRolledBack_DoesNotDispatch() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        matchEventDispatcher.dispatchAfterCommit(latch::countDown);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("dispatchAfterCommit waits for a free place in the full queue, and keeps the order of actions")
+    public void dispatchAfterCommit_QueueFull_WaitsAndKeepsOrder() throws InterruptedException {
+        var blocker = new CountDownLatch(1);
+        var dispatcher = new MatchEventDispatcher(1, 1, 5000, meterRegistry);
+        var dispatched = new CopyOnWriteArrayList<Integer>();
+        var latch = new CountDownLatch(2);
+
+        // when
+        // the first action blocks the dispatching thread, the second one fills the queue
+        dispatcher.dispatchAfterCommit(() -> {
+            try {
+                blocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {}
+        });
+        // give the dispatching thread some time to take the first action from the queue
+        Thread.sleep(100);
+        dispatcher.dispatchAfterCommit(() -> {
+            dispatched.add(1);
+            latch.countDown();
+        });
+        // the queue gets a free place once the first action is done
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignore) {}
+            blocker.countDown();
+        }).start();
+        dispatcher.dispatchAfterCommit(() -> {
+            dispatched.add(2);
+            latch.countDown();
+        });
+
+        // then
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), dispatched);
+        assertEquals(0.0, meterRegistry.get("match.events.dispatch.overflows").counter().count());
+        dispatcher.destroy();
+    }
+
+    @Test
+    @DisplayName("dispatchAfterCommit drops the action when the queue stays full, instead of executing it out of order")
+    public void dispatchAfterCommit_QueueStaysFull_DropsAction() throws InterruptedException {
+        var blocker = new CountDownLatch(1);
+        var dispatcher = new MatchEventDispatcher(1, 1, 100, meterRegistry);
+        var dropped = new CountDownLatch(1);
+
+        // when
+        // the first action blocks the dispatching thread, the second one fills the queue
+        dispatcher.dispatchAfterCommit(() -> {
+            try {
+                blocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {}
+        });
+        // give the dispatching thread some time to take the first action from the queue
+        Thread.sleep(100);
+        dispatcher.dispatchAfterCommit(() -> {});
+        dispatcher.dispatchAfterCommit(dropped::countDown);
+        blocker.countDown();
+
+        // then
+        assertFalse(dropped.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(1.0, meterRegistry.get("match.events.dispatch.overflows").counter().count());
+        dispatcher.destroy();
+    }
+}
@@ -0,0 +1,146 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchEventFeedCacheTests {
+
+    private MatchEventFeedCache matchEventFeedCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchEventFeedCache = new MatchEventFeedCache(2, new SimpleMeterRegistry());
+    }
+
+    private static EncodedMatchEventDto createTestEvent(Long sequence) {
+        return new EncodedMatchEventDto(UUID.randomUUID(), sequence, "{}");
+    }
+
+    @Test
+    @DisplayName("findAll only calls the loader when the events of the match are not cached")
+    public void findAll_CalledTwice_LoadsOnce() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchEventFeedCache.findAll(matchId, id -> {
+            loads.incrementAndGet();
+            return List.of(createTestEvent(1L));
+        });
+        var events = matchEventFeedCache.findAll(matchId, id -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    @DisplayName("append adds an event which directly follows the last cached event")
+    public void append_NextSequence_AddsEvent() {
+        var matchId = UUID.randomUUID();
+        matchEventFeedCache.findAll(matchId, id -> List.of(createTestEvent(1L)));
+        var appendedEvent = createTestEvent(2L);
+
+        // when
+        matchEventFeedCache.append(matchId, appendedEvent);
+
+        // then
+        var events = matchEventFeedCache.findAll(matchId, id -> fail("events should be cached"));
+        assertEquals(2, events.size());
+        assertEquals(appendedEvent, events.get(1));
+    }
+
+    @Test
+    @DisplayName("append does not change the events which have already been returned")
+    public void append_ManyEvents_PreviouslyReturnedEventsUnchanged() {
+        var matchId = UUID.randomUUID();
+        // events saved before sequence numbers existed come first
+        matchEventFeedCache.findAll(matchId, id -> List.of(createTestEvent(null), createTestEvent(1L)));
+        var returnedEvents = matchEventFeedCache.findAll(matchId, id -> fail("events should be cached"));
+
+        // when
+        // appends enough events to make the feed grow a few times
+        LongStream.rangeClosed(2, 100).forEach(sequence -> matchEventFeedCache.append(matchId, createTestEvent(sequence)));
+
+        // then
+        assertEquals(2, returnedEvents.size());
+        var events = matchEventFeedCache.findAll(matchId, id -> fail("events should be cached"));
+        assertEquals(101, events.size());
+        assertEquals(100L, events.get(100).sequence());
+        assertThrows(UnsupportedOperationException.class, () -> events.add(createTestEvent(101L)));
+    }
+
+    @Test
+    @DisplayName("append evicts the events of the match when an event has been missed")
+    public void append_SequenceGap_EvictsEvents() {
+        var matchId = UUID.randomUUID();
+        matchEventFeedCache.findAll(matchId, id -> List.of(createTestEvent(1L)));
+
+        // when
+        matchEventFeedCache.append(matchId, createTestEvent(3L));
+
+        // then
+        var events = matchEventFeedCache.findAll(matchId, id -> List.of());
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    @DisplayName("append skips an event which is already cached")
+    public void append_EventAlreadyCached_SkipsEvent() {
+        var matchId = UUID.randomUUID();
+        var cachedEvent = createTestEvent(1L);
+        matchEventFeedCache.findAll(matchId, id -> List.of(cachedEvent));
+
+        // when
+        matchEventFeedCache.append(matchId, cachedEvent);
+
+        // then
+        var events = matchEventFeedCache.findAll(matchId, id -> fail("events should be cached"));
+        assertEquals(List.of(cachedEvent), events);
+    }
+
+    @Test
+    @DisplayName("append does not cache events of matches which are not cached")
+    public void append_MatchNotCached_DoesNothing() {
+        var matchId = UUID.randomUUID();
+
+        // when
+        matchEventFeedCache.append(matchId, createTestEvent(1L));
+
+        // then
+        var events = matchEventFeedCache.findAll(matchId, id -> List.of());
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    @DisplayName("findAll evicts the least recently used events when the cache is full")
+    public void findAll_CacheFull_EvictsLeastRecentlyUsed() {
+        var firstMatchId = UUID.randomUUID();
+        var secondMatchId = UUID.randomUUID();
+        var thirdMatchId = UUID.randomUUID();
+        matchEventFeedCache.findAll(firstMatchId, id -> List.of(createTestEvent(1L)));
+        matchEventFeedCache.findAll(secondMatchId, id -> List.of(createTestEvent(1L)));
+        // use the events of the first match, so that the events of the second match become the least recently used
+        matchEventFeedCache.findAll(firstMatchId, id -> fail("events should be cached"));
+
+        // when
+        matchEventFeedCache.findAll(thirdMatchId, id -> List.of(createTestEvent(1L)));
+
+        // then
+        assertEquals(1, matchEventFeedCache.findAll(firstMatchId, id -> List.of()).size());
+        assertEquals(0, matchEventFeedCache.findAll(secondMatchId, id -> List.of()).size());
+    }
+}
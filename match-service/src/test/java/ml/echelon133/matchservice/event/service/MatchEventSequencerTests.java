@@ -0,0 +1,286 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.exceptions.MatchEventLaneBusyException;
+import ml.echelon133.matchservice.event.model.dto.UpsertCommentaryEventDto;
+import ml.echelon133.matchservice.match.model.Match;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchEventSequencerTests {
+
+    private static final int LANES = 2;
+
+    @Mock
+    private MatchEventService matchEventService;
+
+    @Mock
+    private MatchAggregateService matchAggregateService;
+
+    private MatchEventSequencer matchEventSequencer;
+    private ExecutorService clients;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchEventSequencer = new MatchEventSequencer(
+                matchEventService, matchAggregateService, LANES, 100, 10000, new SimpleMeterRegistry()
+        );
+        clients = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        clients.shutdownNow();
+        matchEventSequencer.destroy();
+    }
+
+    // finds an id of a match which is assigned to the lane with the specified index
+    private static UUID matchIdInLane(int lane) {
+        UUID matchId;
+        do {
+            matchId = UUID.randomUUID();
+        } while (Math.floorMod(matchId.hashCode(), LANES) != lane);
+        return matchId;
+    }
+
+    @Test
+    @DisplayName("processEvent never processes events of the same match concurrently")
+    public void processEvent_SameMatch_ProcessedOneAtATime() throws Exception {
+        var matchId = UUID.randomUUID();
+        var processing = new AtomicInteger();
+        var maxProcessing = new AtomicInteger();
+
+        // given
+        doAnswer(inv -> {
+            maxProcessing.accumulateAndGet(processing.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            processing.decrementAndGet();
+            return null;
+        }).when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(clients.submit(() -> {
+                matchEventSequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertEquals(1, maxProcessing.get());
+        verify(matchEventService, times(20)).processEvent(eq(matchId), any());
+    }
+
+    @Test
+    @DisplayName("processEvent processes events of matches in different lanes in parallel")
+    public void processEvent_DifferentLanes_ProcessedInParallel() throws Exception {
+        var firstMatchId = matchIdInLane(0);
+        var secondMatchId = matchIdInLane(1);
+        var bothStarted = new CountDownLatch(2);
+
+        // given
+        // every event waits until both events are being processed, which is only possible when they run in parallel
+        doAnswer(inv -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(matchEventService).processEvent(any(), any());
+
+        // when
+        var first = clients.submit(() -> {
+            matchEventSequencer.processEvent(firstMatchId, new UpsertCommentaryEventDto("1", "message"));
+            return null;
+        });
+        var second = clients.submit(() -> {
+            matchEventSequencer.processEvent(secondMatchId, new UpsertCommentaryEventDto("1", "message"));
+            return null;
+        });
+
+        // then
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    @DisplayName("processEvent rethrows MatchEventInvalidException thrown while processing")
+    public void processEvent_EventInvalid_Rethrows() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        doThrow(new MatchEventInvalidException("exception message"))
+                .when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        String message = assertThrows(MatchEventInvalidException.class, () -> {
+            matchEventSequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+        }).getMessage();
+
+        // then
+        assertEquals("exception message", message);
+    }
+
+    @Test
+    @DisplayName("processEvent rethrows ResourceNotFoundException thrown while processing")
+    public void processEvent_MatchNotFound_Rethrows() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        doThrow(new ResourceNotFoundException(Match.class, matchId))
+                .when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        String message = assertThrows(ResourceNotFoundException.class, () -> {
+            matchEventSequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+        }).getMessage();
+
+        // then
+        assertEquals(String.format("match %s could not be found", matchId), message);
+    }
+
+    @Test
+    @DisplayName("rebuildAggregate rebuilds the match in its lane and returns whether it drifted")
+    public void rebuildAggregate_MatchExists_ReturnsDrift() throws Exception {
+        var matchId = UUID.randomUUID();
+        var laneThread = new AtomicReference<String>();
+
+        // given
+        given(matchAggregateService.rebuild(matchId, true)).willAnswer(inv -> {
+            laneThread.set(Thread.currentThread().getName());
+            return true;
+        });
+
+        // when
+        var drifted = matchEventSequencer.rebuildAggregate(matchId, true);
+
+        // then
+        assertTrue(drifted);
+        assertTrue(laneThread.get().startsWith("match-event-lane-"));
+    }
+
+    @Test
+    @DisplayName("processEvent rejects events without processing them when too many events wait in their lane")
+    public void processEvent_LaneFull_RejectedWithoutProcessing() throws Exception {
+        var meterRegistry = new SimpleMeterRegistry();
+        var sequencer = new MatchEventSequencer(matchEventService, matchAggregateService, 1, 1, 10000, meterRegistry);
+        var matchId = UUID.randomUUID();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // given
+        doAnswer(inv -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        // the first event occupies the lane, while the second one takes the only place in its queue
+        var first = clients.submit(() -> {
+            sequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var second = clients.submit(() -> {
+            sequencer.processEvent(matchId, new UpsertCommentaryEventDto("2", "message"));
+            return null;
+        });
+        Thread.sleep(200);
+        var message = assertThrows(MatchEventLaneBusyException.class, () -> {
+            sequencer.processEvent(matchId, new UpsertCommentaryEventDto("3", "message"));
+        }).getMessage();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        sequencer.destroy();
+
+        // then
+        assertEquals(String.format("events of match %s could not be processed in time, try again", matchId), message);
+        verify(matchEventService, times(2)).processEvent(eq(matchId), any());
+        assertEquals(1, meterRegistry.get("match.events.lane.rejections").tag("reason", "full").counter().count());
+    }
+
+    @Test
+    @DisplayName("processEvent rejects events which have not been started in time and never processes them")
+    public void processEvent_NotStartedInTime_RejectedWithoutProcessing() throws Exception {
+        var meterRegistry = new SimpleMeterRegistry();
+        var sequencer = new MatchEventSequencer(matchEventService, matchAggregateService, 1, 10, 100, meterRegistry);
+        var matchId = UUID.randomUUID();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // given
+        doAnswer(inv -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        var first = clients.submit(() -> {
+            sequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(MatchEventLaneBusyException.class, () -> {
+            sequencer.processEvent(matchId, new UpsertCommentaryEventDto("2", "message"));
+        });
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        sequencer.destroy();
+
+        // then
+        verify(matchEventService, times(1)).processEvent(eq(matchId), any());
+        assertEquals(1, meterRegistry.get("match.events.lane.rejections").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    @DisplayName("processEvent waits for events which have been started, even past the wait timeout")
+    public void processEvent_StartedButSlow_WaitsForResult() throws Exception {
+        var sequencer = new MatchEventSequencer(
+                matchEventService, matchAggregateService, 1, 10, 100, new SimpleMeterRegistry()
+        );
+        var matchId = UUID.randomUUID();
+
+        // given
+        doAnswer(inv -> {
+            Thread.sleep(300);
+            return null;
+        }).when(matchEventService).processEvent(eq(matchId), any());
+
+        // when
+        sequencer.processEvent(matchId, new UpsertCommentaryEventDto("1", "message"));
+        sequencer.destroy();
+
+        // then
+        verify(matchEventService).processEvent(eq(matchId), any());
+    }
+}
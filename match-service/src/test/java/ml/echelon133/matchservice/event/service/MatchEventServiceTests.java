@@ -5,20 +5,28 @@ import ml.echelon133.common.event.dto.*;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchResult;
 import ml.echelon133.common.match.MatchStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.event.exceptions.MatchEventBatchInvalidException;
 import ml.echelon133.matchservice.event.exceptions.MatchEventInvalidException;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.LiveMatchState;
 import ml.echelon133.matchservice.event.model.MatchEvent;
+import ml.echelon133.matchservice.event.model.MatchEventBinaryCodec;
+import ml.echelon133.matchservice.event.model.MatchEventJson;
 import ml.echelon133.matchservice.event.model.dto.*;
 import ml.echelon133.matchservice.event.repository.MatchEventRepository;
 import ml.echelon133.matchservice.match.TestLineupDto;
 import ml.echelon133.matchservice.match.TestMatch;
 import ml.echelon133.matchservice.match.model.*;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
 import ml.echelon133.matchservice.match.service.MatchService;
+import ml.echelon133.matchservice.outbox.service.OutboxService;
 import ml.echelon133.matchservice.player.model.Player;
 import ml.echelon133.matchservice.player.model.Position;
 import ml.echelon133.matchservice.team.TestTeam;
 import ml.echelon133.matchservice.team.model.TeamPlayer;
 import ml.echelon133.matchservice.team.service.TeamPlayerService;
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,6 +34,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.exceptions.misusing.InvalidUseOfMatchersException;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -55,10 +64,29 @@ public class MatchEventServiceTests {
     private TeamPlayerService teamPlayerService;
 
     @Mock
-    private MatchEventWebsocketService matchEventWebsocketService;
+    private MatchEventBroadcaster matchEventBroadcaster;
+
+    @Spy
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    @Spy
+    private MatchEventEncoder matchEventEncoder =
+            new MatchEventEncoder(MatchServiceApplication.objectMapper(), new SimpleMeterRegistry(), false);
+
+    @Spy
+    private MatchEventFeedCache matchEventFeedCache = new MatchEventFeedCache(10, new SimpleMeterRegistry());
+
+    @Spy
+    private MatchSnapshotCache matchSnapshotCache = new MatchSnapshotCache(10, 5, new SimpleMeterRegistry());
+
+    @Mock
+    private MatchEventDispatcher matchEventDispatcher;
 
     @Mock
-    private KafkaProducer<UUID, MatchEventDetails> matchEventDetailsProducer;
+    private OutboxService outboxService;
+
+    @Mock
+    private MatchScheduleService matchScheduleService;
 
     @InjectMocks
     private MatchEventService matchEventService;
@@ -70,6 +98,16 @@ public class MatchEventServiceTests {
         // This solution should be lenient to also avoid UnnecessaryStubbingException.
         Mockito.lenient().when(clock.instant()).thenReturn(Clock.systemUTC().instant());
         Mockito.lenient().when(clock.getZone()).thenReturn(ZoneOffset.MIN);
+
+        // Hydration of the live match state always reads the lineup of the match, even when
+        // the tested event gets rejected before any lineup-related check.
+        Mockito.lenient().when(matchService.findMatchLineup(any())).thenReturn(TestLineupDto.builder().build());
+
+        // Dispatch actions right away, so that the tests can verify what gets published after the commit.
+        Mockito.lenient().doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(matchEventDispatcher).dispatchAfterCommit(any());
     }
 
     // this method simplifies binding concrete arguments to concrete responses from mocked
@@ -91,7 +129,35 @@ public class MatchEventServiceTests {
     }
 
     private void givenMatchReturnEvents(UUID matchId, List<MatchEvent> matchEvents) {
-        given(matchEventRepository.findAllByMatch_IdOrderByDateCreatedAsc(matchId)).willReturn(matchEvents);
+        given(matchEventRepository.findAllInOrderByMatchId(matchId)).willReturn(matchEvents);
+    }
+
+    private MatchEventJson createTestEventJson(UUID id, Long sequence, String event) {
+        return createTestEventJson(id, sequence, event, null);
+    }
+
+    private MatchEventJson createTestEventJson(UUID id, Long sequence, String event, byte[] eventBinary) {
+        return new MatchEventJson() {
+            @Override
+            public String getId() {
+                return id.toString();
+            }
+
+            @Override
+            public Long getSequence() {
+                return sequence;
+            }
+
+            @Override
+            public String getEvent() {
+                return event;
+            }
+
+            @Override
+            public byte[] getEventBinary() {
+                return eventBinary;
+            }
+        };
     }
 
     private MatchEvent createTestCardEvent(Match match, UUID receivingTeamPlayerId, CardEventDetailsDto.CardType type) {
@@ -169,7 +235,7 @@ public class MatchEventServiceTests {
     }
 
     private void assertGlobalEventNotBroadcast() {
-        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        verify(matchEventBroadcaster, never()).broadcastGlobalMatchEvent(any());
     }
 
     @Test
@@ -178,7 +244,7 @@ public class MatchEventServiceTests {
         var matchId = UUID.randomUUID();
 
         // given
-        givenMatchReturnEvents(matchId, List.of());
+        given(matchEventRepository.findAllJsonByMatchId(matchId)).willReturn(List.of());
 
         // when
         var events = matchEventService.findAllByMatchId(matchId);
@@ -190,29 +256,398 @@ public class MatchEventServiceTests {
     @Test
     @DisplayName("findAllByMatchId returns expected event dtos")
     public void findAllByMatchId_HasStatusEvent_ReturnsDto() {
+        var matchId = UUID.randomUUID();
+        var eventId = UUID.randomUUID();
+        var json = "{\"type\":\"STATUS\",\"minute\":\"1\",\"targetStatus\":\"FIRST_HALF\"}";
+
+        // given
+        given(matchEventRepository.findAllJsonByMatchId(matchId))
+                .willReturn(List.of(createTestEventJson(eventId, 1L, json)));
+
+        // when
+        var events = matchEventService.findAllByMatchId(matchId);
+
+        // then
+        assertEquals(List.of(new EncodedMatchEventDto(eventId, 1L, json)), events);
+    }
+
+    @Test
+    @DisplayName("findAllByMatchId serializes events stored in the binary format into the same JSON as events stored as JSON")
+    public void findAllByMatchId_EventStoredAsBinary_ReturnsJson() throws Exception {
+        var matchId = UUID.randomUUID();
+        var eventId = UUID.randomUUID();
+        var details = new CommentaryEventDetailsDto("1", UUID.randomUUID(), "some message");
+        var expectedJson = MatchServiceApplication.objectMapper().writeValueAsString(details);
+
+        // given
+        given(matchEventRepository.findAllJsonByMatchId(matchId))
+                .willReturn(List.of(createTestEventJson(eventId, 1L, null, MatchEventBinaryCodec.encode(details))));
+
+        // when
+        var events = matchEventService.findAllByMatchId(matchId);
+
+        // then
+        assertEquals(List.of(new EncodedMatchEventDto(eventId, 1L, expectedJson)), events);
+    }
+
+    @Test
+    @DisplayName("findAllByMatchId only reads the events of the match from the database once")
+    public void findAllByMatchId_CalledTwice_ReadsDatabaseOnce() {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventRepository.findAllJsonByMatchId(matchId))
+                .willReturn(List.of(createTestEventJson(UUID.randomUUID(), 1L, "{}")));
+
+        // when
+        var firstEvents = matchEventService.findAllByMatchId(matchId);
+        var secondEvents = matchEventService.findAllByMatchId(matchId);
+
+        // then
+        assertEquals(firstEvents, secondEvents);
+        verify(matchEventRepository, times(1)).findAllJsonByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("findAllByMatchIdAfterSequence filters the cached events of the match")
+    public void findAllByMatchIdAfterSequence_EventsCached_ReturnsDtos() {
+        var matchId = UUID.randomUUID();
+        var eventId = UUID.randomUUID();
+
+        // given
+        given(matchEventRepository.findAllJsonByMatchId(matchId)).willReturn(List.of(
+                createTestEventJson(UUID.randomUUID(), 1L, "{}"),
+                createTestEventJson(UUID.randomUUID(), 2L, "{}"),
+                createTestEventJson(eventId, 3L, "{}")
+        ));
+        matchEventService.findAllByMatchId(matchId);
+
+        // when
+        var events = matchEventService.findAllByMatchIdAfterSequence(matchId, 2L);
+
+        // then
+        assertEquals(1, events.size());
+        assertEquals(eventId, events.get(0).id());
+        assertEquals(3L, events.get(0).sequence());
+        verify(matchEventRepository, never()).findAllJsonByMatchIdAfterSequence(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("findAllByMatchIdAfterSequence only reads the missed events when the events are not cached")
+    public void findAllByMatchIdAfterSequence_EventsNotCached_ReadsMissedEvents() {
+        var matchId = UUID.randomUUID();
+        var eventId = UUID.randomUUID();
+
+        // given
+        given(matchEventRepository.findAllJsonByMatchIdAfterSequence(matchId, 2L))
+                .willReturn(List.of(createTestEventJson(eventId, 3L, "{}")));
+
+        // when
+        var events = matchEventService.findAllByMatchIdAfterSequence(matchId, 2L);
+
+        // then
+        assertEquals(1, events.size());
+        assertEquals(eventId, events.get(0).id());
+        verify(matchEventRepository, never()).findAllJsonByMatchId(any());
+    }
+
+    @Test
+    @DisplayName("findSnapshot returns the state of the match with its most recent events, and only builds it once")
+    public void findSnapshot_CalledTwice_ReturnsSnapshotBuiltOnce() throws ResourceNotFoundException {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).scoreInfo(ScoreInfo.of(2, 1)).build();
+        var matchId = match.getId();
+        List<MatchEventJson> history = new ArrayList<>();
+        for (long sequence = 1; sequence <= 7; sequence++) {
+            history.add(createTestEventJson(UUID.randomUUID(), sequence, "{}"));
+        }
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllJsonByMatchId(matchId)).willReturn(history);
+
+        // when
+        var firstSnapshot = matchEventService.findSnapshot(matchId).orElseThrow();
+        var secondSnapshot = matchEventService.findSnapshot(matchId).orElseThrow();
+
+        // then
+        assertEquals(firstSnapshot, secondSnapshot);
+        assertEquals(MatchStatus.FIRST_HALF.name(), firstSnapshot.status());
+        assertEquals(new ScoreInfoDto(2, 1), firstSnapshot.scoreInfo());
+        assertEquals(7L, firstSnapshot.lastSequence());
+        // only the most recent events are kept in the snapshot
+        assertEquals(
+                List.of(3L, 4L, 5L, 6L, 7L),
+                firstSnapshot.events().stream().map(EncodedMatchEventDto::sequence).toList()
+        );
+        verify(matchService, times(1)).findEntityById(matchId);
+        verify(matchEventRepository, times(1)).findAllJsonByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("findSnapshot returns an empty optional when the match does not exist")
+    public void findSnapshot_MatchNotFound_ReturnsEmpty() throws ResourceNotFoundException {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchService.findEntityById(matchId)).willThrow(new ResourceNotFoundException(Match.class, matchId));
+
+        // when
+        var snapshot = matchEventService.findSnapshot(matchId);
+
+        // then
+        assertTrue(snapshot.isEmpty());
+    }
+
+    @Test
+    @DisplayName("findCachedSnapshot never reads from the database")
+    public void findCachedSnapshot_SnapshotNotCached_ReturnsEmpty() throws ResourceNotFoundException {
+        var matchId = UUID.randomUUID();
+
+        // when
+        var snapshot = matchEventService.findCachedSnapshot(matchId);
+
+        // then
+        assertTrue(snapshot.isEmpty());
+        verify(matchService, never()).findEntityById(matchId);
+        verify(matchEventRepository, never()).findAllJsonByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("processEvent applies the processed event to the cached snapshot of the match")
+    public void processEvent_SnapshotCached_SnapshotUpdated() throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllJsonByMatchId(matchId)).willReturn(List.of());
+        // load the snapshot of the match into the cache
+        matchEventService.findSnapshot(matchId);
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name()));
+
+        // then
+        var snapshot = matchEventService.findSnapshot(matchId).orElseThrow();
+        assertEquals(MatchStatus.FIRST_HALF.name(), snapshot.status());
+        assertEquals(match.getStatusLastModifiedUTC(), snapshot.statusLastModifiedUTC());
+        assertEquals(1L, snapshot.lastSequence());
+        assertEquals(1, snapshot.events().size());
+        assertTrue(snapshot.events().get(0).event().contains("FIRST_HALF"));
+        verify(matchEventRepository, times(1)).findAllJsonByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("processEvent serializes the details of an event once and reuses them")
+    public void processEvent_CommentaryEvent_SerializesDetailsOnce()
+            throws ResourceNotFoundException, MatchEventInvalidException {
         var match = TestMatch.builder().build();
         var matchId = match.getId();
-        var targetStatus = MatchStatus.FIRST_HALF;
-        var statusEvent = new MatchEvent(
-                match, new StatusEventDetailsDto("1", match.getCompetitionId(), targetStatus, null, null, null)
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(matchEventRepository.findAllJsonByMatchId(matchId)).willReturn(List.of());
+        // load the (empty) events of the match into the cache
+        matchEventService.findAllByMatchId(matchId);
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertCommentaryEventDto("1", "Some message"));
+
+        // then
+        verify(matchEventEncoder, times(1)).encode(any());
+        verify(matchEventBroadcaster).broadcastMatchEvent(eq(matchId), argThat(e ->
+                e.event().contains("Some message")
+        ));
+        verify(outboxService).save(eq(KafkaTopicNames.MATCH_EVENTS), any(), contains("Some message"));
+        var cachedEvents = matchEventService.findAllByMatchId(matchId);
+        assertEquals(1, cachedEvents.size());
+        assertTrue(cachedEvents.get(0).event().contains("Some message"));
+        verify(matchEventRepository, times(1)).findAllJsonByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("processEvent assigns consecutive sequence numbers to events of the match")
+    public void processEvent_MultipleEvents_AssignsConsecutiveSequenceNumbers()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+        match.setLastEventSequence(7L);
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertCommentaryEventDto("1", "First message"));
+        matchEventService.processEvent(matchId, new UpsertCommentaryEventDto("1", "Second message"));
+
+        // then
+        verify(matchEventRepository).save(argThat(e -> e.getSequence().equals(8L)));
+        verify(matchEventRepository).save(argThat(e -> e.getSequence().equals(9L)));
+        assertEquals(9L, match.getLastEventSequence());
+    }
+
+    @Test
+    @DisplayName("processEvent does not dispatch anything when the event is rejected")
+    public void processEvent_EventRejected_NothingDispatched() throws ResourceNotFoundException {
+        var match = TestMatch.builder().status(MatchStatus.FINISHED).build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        assertThrows(MatchEventInvalidException.class, () -> {
+            matchEventService.processEvent(matchId, new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name()));
+        });
+
+        // then
+        verify(matchEventDispatcher, never()).dispatchAfterCommit(any());
+        verify(matchEventRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("processEvents saves all events together and dispatches their broadcast once")
+    public void processEvents_AllEventsValid_SavesAllAndDispatchesOnce()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+        List<UpsertMatchEvent> events = List.of(
+                new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name()),
+                new UpsertCommentaryEventDto("1", "First message"),
+                new UpsertCommentaryEventDto("2", "Second message")
         );
 
         // given
-        givenMatchReturnEvents(matchId, List.of(statusEvent));
+        given(matchService.findEntityById(matchId)).willReturn(match);
 
         // when
-        var events = matchEventService.findAllByMatchId(matchId);
+        var processed = matchEventService.processEvents(matchId, events);
 
         // then
+        assertEquals(3, processed);
+        verify(matchEventRepository).saveAll(argThat((List<MatchEvent> saved) ->
+                saved.size() == 3 &&
+                saved.get(0).getSequence().equals(1L) &&
+                saved.get(1).getSequence().equals(2L) &&
+                saved.get(2).getSequence().equals(3L)
+        ));
+        verify(matchEventRepository, never()).save(any());
+        verify(outboxService, times(3)).save(eq(KafkaTopicNames.MATCH_EVENTS), any(UUID.class), anyString());
+        verify(matchEventBroadcaster, times(3)).broadcastMatchEvent(eq(matchId), any());
+        // one dispatch for the global status event, and one for all events of the match
+        verify(matchEventDispatcher, times(2)).dispatchAfterCommit(any());
+    }
+
+    @Test
+    @DisplayName("processEvents reports the index of the first rejected event and saves nothing")
+    public void processEvents_EventRejected_ThrowsWithIndex() throws ResourceNotFoundException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+        List<UpsertMatchEvent> events = List.of(
+                new UpsertStatusEventDto("1", MatchStatus.FIRST_HALF.name()),
+                new UpsertCommentaryEventDto("1", "Some message"),
+                // the match cannot go back to the status in which it has not started
+                new UpsertStatusEventDto("2", MatchStatus.NOT_STARTED.name()),
+                new UpsertCommentaryEventDto("2", "Another message")
+        );
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        var exception = assertThrows(MatchEventBatchInvalidException.class, () -> {
+            matchEventService.processEvents(matchId, events);
+        });
+
+        // then
+        assertEquals(2, exception.getIndex());
+        assertEquals(
+                "event at index 2 rejected: current status of the match cannot be changed to the requested target status",
+                exception.getMessage()
+        );
+        verify(matchEventRepository, never()).saveAll(any());
+        verify(outboxService, never()).save(eq(KafkaTopicNames.MATCH_EVENTS), any(UUID.class), anyString());
+    }
+
+    @Test
+    @DisplayName("processEvents reports the index of the first event which refers to a player who does not exist")
+    public void processEvents_PlayerOfEventNotFound_ThrowsWithIndex() throws ResourceNotFoundException {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).build();
+        var matchId = match.getId();
+        var scoringPlayerId = UUID.randomUUID();
+        List<UpsertMatchEvent> events = List.of(
+                new UpsertCommentaryEventDto("1", "Some message"),
+                new UpsertGoalEventDto("2", scoringPlayerId.toString(), null, false)
+        );
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        bindTeamPlayerIdsToTeamPlayers(Map.of(scoringPlayerId, Optional.empty()));
+
+        // when
+        var exception = assertThrows(MatchEventBatchInvalidException.class, () -> {
+            matchEventService.processEvents(matchId, events);
+        });
+
+        // then
+        assertEquals(1, exception.getIndex());
         assertEquals(
-                1,
-                events.stream().filter(e -> {
-                    var innerEvent = (StatusEventDetailsDto)e.event();
-                    return e.id().equals(statusEvent.getId()) &&
-                            innerEvent.minute().equals(statusEvent.getEvent().minute()) &&
-                            innerEvent.targetStatus().equals(targetStatus);
-                }).count()
+                String.format("event at index 1 rejected: teamplayer %s could not be found", scoringPlayerId),
+                exception.getMessage()
         );
+        verify(matchEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("processEvents does not count goals of the second half towards the half-time score")
+    public void processEvents_GoalsInBothHalves_HalfTimeScoreOnlyFromFirstHalf()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).build();
+        var matchId = match.getId();
+
+        var scoringTeamPlayer = new TeamPlayer(match.getHomeTeam(), new Player(), Position.FORWARD, 9);
+        var scoringTeamPlayerId = scoringTeamPlayer.getId();
+        List<UpsertMatchEvent> events = List.of(
+                new UpsertGoalEventDto("10", scoringTeamPlayerId.toString(), null, false),
+                new UpsertStatusEventDto("45", MatchStatus.HALF_TIME.name()),
+                new UpsertStatusEventDto("46", MatchStatus.SECOND_HALF.name()),
+                new UpsertGoalEventDto("60", scoringTeamPlayerId.toString(), null, false)
+        );
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(teamPlayerService.findEntityById(scoringTeamPlayerId)).willReturn(scoringTeamPlayer);
+        given(matchService.findMatchLineup(matchId))
+                .willReturn(TestLineupDto.builder().homeStarting(scoringTeamPlayerId).build());
+
+        // when
+        matchEventService.processEvents(matchId, events);
+
+        // then
+        assertMatchScoreEqual(match, ScoreInfo.of(1, 0), ScoreInfo.of(2, 0), ScoreInfo.of(0, 0));
+    }
+
+    @Test
+    @DisplayName("processEvent stores the event in the binary format when the binary storage is enabled")
+    public void processEvent_BinaryStorageEnabled_StoresEventAsBinary()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        doReturn(true).when(matchEventEncoder).isBinaryStorageEnabled();
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertCommentaryEventDto("1", "some message"));
+
+        // then
+        verify(matchEventRepository).save(argThat(matchEvent ->
+                matchEvent.isStoredAsBinary() &&
+                        ((CommentaryEventDetailsDto) matchEvent.getEvent()).message().equals("some message")
+        ));
+        // JSON of the event is still published, even though it's not stored
+        verify(outboxService).save(eq(KafkaTopicNames.MATCH_EVENTS), any(UUID.class), contains("some message"));
     }
 
     @Test
@@ -249,8 +684,9 @@ public class MatchEventServiceTests {
                 new UpsertCommentaryEventDto("1", "Some message"),
                 new UpsertCardEventDto("1", teamPlayer1Id.toString(), false),
                 new UpsertSubstitutionEventDto("1", teamPlayer2Id.toString(), teamPlayer1Id.toString()),
-                new UpsertGoalEventDto("1", teamPlayer1Id.toString(), null, false),
-                new UpsertPenaltyEventDto("1", teamPlayer1Id.toString(), true)
+                // teamPlayer1 is already substituted off, therefore only teamPlayer2 can score
+                new UpsertGoalEventDto("1", teamPlayer2Id.toString(), null, false),
+                new UpsertPenaltyEventDto("1", teamPlayer2Id.toString(), true)
         );
 
         var teamLineup = TestLineupDto.builder()
@@ -273,11 +709,11 @@ public class MatchEventServiceTests {
         }
 
         // then
-        verify(matchEventWebsocketService, times(testEvents.size())).sendMatchEvent(
+        verify(matchEventBroadcaster, times(testEvents.size())).broadcastMatchEvent(
                 eq(matchId), any()
         );
-        verify(matchEventDetailsProducer, times(testEvents.size())).send(
-                argThat(a -> a.topic().equals(KafkaTopicNames.MATCH_EVENTS))
+        verify(outboxService, times(testEvents.size())).save(
+                eq(KafkaTopicNames.MATCH_EVENTS), any(UUID.class), anyString()
         );
     }
 
@@ -437,9 +873,12 @@ public class MatchEventServiceTests {
             matchEventService.processEvent(matchId, statusEvent);
 
             // then
-            verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+            verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
                 var sentGlobalEvent = (GlobalStatusEventDto)e;
                 return sentGlobalEvent.matchId().equals(matchId) &&
+                        sentGlobalEvent.competitionId().equals(match.getCompetitionId()) &&
+                        sentGlobalEvent.homeTeamId().equals(match.getHomeTeam().getId()) &&
+                        sentGlobalEvent.awayTeamId().equals(match.getAwayTeam().getId()) &&
                         sentGlobalEvent.result().equals(MatchResult.NONE) &&
                         sentGlobalEvent.targetStatus().toString().equals(statusEvent.targetStatus());
             }));
@@ -513,7 +952,7 @@ public class MatchEventServiceTests {
         matchEventService.processEvent(matchId, finishingStatus);
 
         // then
-        verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
             var sentGlobalEvent = (GlobalStatusEventDto)e;
             return sentGlobalEvent.matchId().equals(matchId) &&
                     sentGlobalEvent.result().equals(MatchResult.HOME_WIN) &&
@@ -521,6 +960,58 @@ public class MatchEventServiceTests {
         }));
     }
 
+    @Test
+    @DisplayName("processEvent saves a finish event of the match in the outbox when the match finishes")
+    public void processEvent_MatchFinishes_SavesFinishEventInOutbox()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+
+        var finishingStatus = new UpsertStatusEventDto("1", MatchStatus.FINISHED.name());
+
+        var match = TestMatch.builder()
+                .status(MatchStatus.SECOND_HALF)
+                .scoreInfo(ScoreInfo.of(2, 1))
+                .build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, finishingStatus);
+
+        // then
+        verify(outboxService).save(
+                eq(KafkaTopicNames.MATCH_INFO),
+                eq(matchId),
+                argThat((MatchInfo m) -> m instanceof MatchInfo.FinishEvent && m.matchId().equals(matchId))
+        );
+    }
+
+    @Test
+    @DisplayName("processEvent refreshes the schedule entry of the match after applying the event")
+    public void processEvent_MatchFinishes_RefreshesScheduleEntry()
+            throws ResourceNotFoundException, MatchEventInvalidException {
+
+        var finishingStatus = new UpsertStatusEventDto("1", MatchStatus.FINISHED.name());
+
+        var match = TestMatch.builder()
+                .status(MatchStatus.SECOND_HALF)
+                .scoreInfo(ScoreInfo.of(2, 1))
+                .build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, finishingStatus);
+
+        // then
+        verify(matchScheduleService).refresh(argThat(m ->
+                m.getId().equals(matchId) && m.getStatus().equals(MatchStatus.FINISHED)
+        ));
+    }
+
     @Test
     @DisplayName("processEvent broadcasts global websocket message with correct result when away team wins")
     public void processEvent_MatchStatusChangesAwayTeamWins_SendsGlobalWebsocketMessage()
@@ -541,7 +1032,7 @@ public class MatchEventServiceTests {
         matchEventService.processEvent(matchId, finishingStatus);
 
         // then
-        verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
             var sentGlobalEvent = (GlobalStatusEventDto)e;
             return sentGlobalEvent.matchId().equals(matchId) &&
                     sentGlobalEvent.result().equals(MatchResult.AWAY_WIN) &&
@@ -569,7 +1060,7 @@ public class MatchEventServiceTests {
         matchEventService.processEvent(matchId, finishingStatus);
 
         // then
-        verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
             var sentGlobalEvent = (GlobalStatusEventDto)e;
             return sentGlobalEvent.matchId().equals(matchId) &&
                     sentGlobalEvent.result().equals(MatchResult.DRAW) &&
@@ -924,6 +1415,25 @@ public class MatchEventServiceTests {
         }));
     }
 
+    @Test
+    @DisplayName("processEvent does not refresh the schedule entry of the match after saving the commentary")
+    public void processEvent_CommentaryPresent_DoesNotRefreshScheduleEntry()
+            throws MatchEventInvalidException, ResourceNotFoundException {
+
+        var match = TestMatch.builder().build();
+        var matchId = match.getId();
+        var testedEvent = new UpsertCommentaryEventDto("45", "This is a test message");
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, testedEvent);
+
+        // then
+        verify(matchScheduleService, never()).refresh(any());
+    }
+
     @Test
     @DisplayName("processEvent rejects CARD events if the ball in the match is not in play")
     public void processEvent_BallNotInPlay_RejectsInvalidCard() throws ResourceNotFoundException {
@@ -1184,14 +1694,14 @@ public class MatchEventServiceTests {
         // then
         assertEquals(match.getRedCardInfo(), expectedRedCardInfo);
         // verify one home card is broadcast via the websocket
-        verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
             var globalRedCardEvent = (GlobalRedCardEventDto)e;
             return globalRedCardEvent.matchId().equals(matchId) &&
                     globalRedCardEvent.side().equals(GlobalMatchEvent.EventSide.HOME);
         }));
 
         // verify two away cards are broadcast via the websocket
-        verify(matchEventWebsocketService, times(2)).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster, times(2)).broadcastGlobalMatchEvent(argThat(e -> {
             var globalRedCardEvent = (GlobalRedCardEventDto)e;
             return globalRedCardEvent.matchId().equals(matchId) &&
                     globalRedCardEvent.side().equals(GlobalMatchEvent.EventSide.AWAY);
@@ -1222,7 +1732,7 @@ public class MatchEventServiceTests {
 
         // then
         assertPlayerIsAlreadyEjected(matchId, testEvent);
-        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        verify(matchEventBroadcaster, never()).broadcastGlobalMatchEvent(any());
     }
 
     @Test
@@ -1249,7 +1759,7 @@ public class MatchEventServiceTests {
 
         // then
         assertPlayerIsAlreadyEjected(matchId, testEvent);
-        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        verify(matchEventBroadcaster, never()).broadcastGlobalMatchEvent(any());
     }
 
     @Test
@@ -1276,7 +1786,7 @@ public class MatchEventServiceTests {
 
         // then
         assertPlayerIsAlreadyEjected(matchId, testEvent);
-        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        verify(matchEventBroadcaster, never()).broadcastGlobalMatchEvent(any());
     }
 
     @Test
@@ -1303,7 +1813,7 @@ public class MatchEventServiceTests {
 
         // then
         assertPlayerIsAlreadyEjected(matchId, testEvent);
-        verify(matchEventWebsocketService, never()).sendGlobalMatchEvent(any());
+        verify(matchEventBroadcaster, never()).broadcastGlobalMatchEvent(any());
     }
 
     @Test
@@ -1748,7 +2258,7 @@ public class MatchEventServiceTests {
     }
 
     private void assertGlobalGoalEventBroadcast(UUID matchId, GlobalMatchEvent.EventSide side) {
-        verify(matchEventWebsocketService).sendGlobalMatchEvent(argThat(e -> {
+        verify(matchEventBroadcaster).broadcastGlobalMatchEvent(argThat(e -> {
             var globalGoalEvent = (GlobalGoalEventDto)e;
             return globalGoalEvent.matchId().equals(matchId) &&
                     globalGoalEvent.side().equals(side);
@@ -3350,4 +3860,103 @@ public class MatchEventServiceTests {
                     !pDto.scored();
         }));
     }
+
+    @Test
+    @DisplayName("processEvent hydrates the live match state once and reuses it for subsequent events")
+    public void processEvent_MultipleEventsOfLiveMatch_HydratesStateOnce() throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).build();
+        var matchId = match.getId();
+
+        var scoringPlayer = new TeamPlayer(match.getHomeTeam(), new Player(), Position.FORWARD, 9);
+        var scoringPlayerId = scoringPlayer.getId();
+
+        var teamLineup = TestLineupDto.builder()
+                .homeStarting(scoringPlayerId)
+                .build();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        given(teamPlayerService.findEntityById(scoringPlayerId)).willReturn(scoringPlayer);
+        givenMatchReturnEvents(matchId, List.of());
+        given(matchService.findMatchLineup(matchId)).willReturn(teamLineup);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            matchEventService.processEvent(matchId, new UpsertGoalEventDto("1", scoringPlayerId.toString(), null, false));
+        }
+
+        // then
+        assertEquals(ScoreInfo.of(3, 0), match.getScoreInfo());
+        verify(matchService, times(1)).findMatchLineup(matchId);
+        verify(matchEventRepository, times(1)).findAllInOrderByMatchId(matchId);
+    }
+
+    @Test
+    @DisplayName("processEvent evicts the live match state when it has missed an event accepted by another replica")
+    public void processEvent_StateMissedEventOfOtherReplica_EvictsLiveMatchState() throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).build();
+        var matchId = match.getId();
+        liveMatchStateRegistry.register(LiveMatchState.hydrate(match, TestLineupDto.builder().build(), List.of()));
+        // e.g. a card accepted by another replica, which this state has never seen
+        match.setLastEventSequence(match.getLastEventSequence() + 1);
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertCommentaryEventDto("1", "Commentary"));
+
+        // then
+        assertTrue(liveMatchStateRegistry.find(matchId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("processEvent rejects events of a player who has been substituted off in a previously accepted event")
+    public void processEvent_PlayerSubstitutedOffInPreviousEvent_Throws() throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().status(MatchStatus.SECOND_HALF).build();
+        var matchId = match.getId();
+
+        var playerIn = new TeamPlayer(match.getAwayTeam(), new Player(), Position.FORWARD, 20);
+        var playerInId = playerIn.getId();
+        var playerOut = new TeamPlayer(match.getAwayTeam(), new Player(), Position.FORWARD, 9);
+        var playerOutId = playerOut.getId();
+
+        var teamLineup = TestLineupDto.builder()
+                .awayStarting(playerOutId)
+                .awaySubstitutes(playerInId)
+                .build();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+        bindTeamPlayerIdsToTeamPlayers(Map.of(
+                playerInId, Optional.of(playerIn),
+                playerOutId, Optional.of(playerOut)
+        ));
+        givenMatchReturnEvents(matchId, List.of());
+        given(matchService.findMatchLineup(matchId)).willReturn(teamLineup);
+
+        // when
+        matchEventService.processEvent(
+                matchId, new UpsertSubstitutionEventDto("1", playerInId.toString(), playerOutId.toString())
+        );
+
+        // then
+        assertPlayerNotOnPitch(matchId, new UpsertGoalEventDto("1", playerOutId.toString(), null, false), playerOutId);
+    }
+
+    @Test
+    @DisplayName("processEvent evicts the live match state when the match finishes")
+    public void processEvent_MatchFinishes_EvictsLiveMatchState() throws ResourceNotFoundException, MatchEventInvalidException {
+        var match = TestMatch.builder().status(MatchStatus.SECOND_HALF).build();
+        var matchId = match.getId();
+
+        // given
+        given(matchService.findEntityById(matchId)).willReturn(match);
+
+        // when
+        matchEventService.processEvent(matchId, new UpsertStatusEventDto("90", MatchStatus.FINISHED.name()));
+
+        // then
+        verify(liveMatchStateRegistry).evict(matchId);
+    }
 }
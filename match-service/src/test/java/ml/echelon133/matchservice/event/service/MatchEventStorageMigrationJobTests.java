@@ -0,0 +1,56 @@
+package ml.echelon133.matchservice.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchEventStorageMigrationJobTests {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private MatchEventStorageService matchEventStorageService;
+
+    private MatchEventStorageMigrationJob matchEventStorageMigrationJob;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchEventStorageMigrationJob = new MatchEventStorageMigrationJob(matchEventStorageService, BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("migrateAllToBinary migrates batches until a batch is not full")
+    public void migrateAllToBinary_MultipleBatches_MigratesUntilBatchNotFull() {
+        // given
+        given(matchEventStorageService.migrateBatchToBinary(BATCH_SIZE)).willReturn(10, 10, 3);
+
+        // when
+        var migrated = matchEventStorageMigrationJob.migrateAllToBinary();
+
+        // then
+        assertEquals(23, migrated);
+        verify(matchEventStorageService, times(3)).migrateBatchToBinary(BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("migrateAllToBinary stops after the first batch when there is nothing to migrate")
+    public void migrateAllToBinary_NothingToMigrate_StopsAfterFirstBatch() {
+        // given
+        given(matchEventStorageService.migrateBatchToBinary(BATCH_SIZE)).willReturn(0);
+
+        // when
+        var migrated = matchEventStorageMigrationJob.migrateAllToBinary();
+
+        // then
+        assertEquals(0, migrated);
+        verify(matchEventStorageService, times(1)).migrateBatchToBinary(BATCH_SIZE);
+    }
+}
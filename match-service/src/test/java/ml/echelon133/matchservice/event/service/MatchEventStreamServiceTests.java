@@ -0,0 +1,343 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.MatchServiceApplication;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFilter;
+import ml.echelon133.matchservice.event.model.GlobalMatchEventFrame;
+import ml.echelon133.matchservice.event.model.MatchSnapshotDto;
+import ml.echelon133.matchservice.match.model.ScoreInfoDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchEventStreamServiceTests {
+
+    @Mock
+    private MatchEventService matchEventService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchEventStreamService matchEventStreamService;
+    private MockMvc mvc;
+    // while set, writes to the streams wait until the latch is released, just like writes to clients which do not read
+    private volatile CountDownLatch blockedWrites;
+    // while set, only writes to the stream opened with this path are blocked
+    private volatile String blockedPath;
+
+    // streams are only written to once they are returned from a request, therefore they are opened through MockMvc
+    @RestController
+    private class StreamController {
+        @GetMapping("/match/{matchId}")
+        public SseEmitter match(
+                @PathVariable UUID matchId, @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+        ) throws ResourceNotFoundException {
+            return matchEventStreamService.streamMatchEvents(matchId, lastEventId);
+        }
+
+        @GetMapping("/global")
+        public SseEmitter global() {
+            return matchEventStreamService.streamGlobalMatchEvents(GlobalMatchEventFilter.ALL);
+        }
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        matchEventStreamService = new MatchEventStreamService(
+                matchEventService, MatchServiceApplication.objectMapper(), 60000, 1, 2, 100, meterRegistry
+        );
+        mvc = MockMvcBuilders.standaloneSetup(new StreamController())
+                .addFilter((request, response, chain) -> chain.doFilter(
+                        request, blockableResponse(((HttpServletRequest) request).getRequestURI(), response)
+                ))
+                .build();
+    }
+
+    private ServletResponse blockableResponse(String path, ServletResponse response) {
+        return new HttpServletResponseWrapper((HttpServletResponse) response) {
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                var outputStream = super.getOutputStream();
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        var latch = blockedWrites;
+                        var onlyBlockedPath = blockedPath;
+                        if (latch != null && (onlyBlockedPath == null || onlyBlockedPath.equals(path))) {
+                            try {
+                                latch.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException ignore) {}
+                        }
+                        outputStream.write(b);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return outputStream.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        outputStream.setWriteListener(writeListener);
+                    }
+                };
+            }
+        };
+    }
+
+    private MockHttpServletResponse open(String path, Long lastEventId) throws Exception {
+        var request = get(path).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private static EncodedMatchEventDto event(long sequence) {
+        return new EncodedMatchEventDto(UUID.randomUUID(), sequence, "{\"type\":\"COMMENTARY\"}");
+    }
+
+    private static MatchSnapshotDto snapshot(UUID matchId, List<EncodedMatchEventDto> events) {
+        return new MatchSnapshotDto(
+                matchId, "FIRST_HALF", LocalDateTime.now(), "NONE", new ScoreInfoDto(0, 0),
+                MatchSnapshotDto.lastSequenceOf(events), events
+        );
+    }
+
+    private double streams(String stream) {
+        return meterRegistry.get("match.events.stream.clients").tag("stream", stream).gauge().value();
+    }
+
+    @Test
+    @DisplayName("streamMatchEvents throws when the match does not exist")
+    public void streamMatchEvents_MatchNotFound_Throws() {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.empty());
+
+        // when
+        String message = assertThrows(ResourceNotFoundException.class, () -> {
+            matchEventStreamService.streamMatchEvents(matchId, null);
+        }).getMessage();
+
+        // then
+        assertEquals(String.format("match %s could not be found", matchId), message);
+        assertEquals(0, streams("match"));
+    }
+
+    @Test
+    @DisplayName("streamMatchEvents sends the snapshot of the match before its events")
+    public void streamMatchEvents_NoLastEventId_SnapshotSentFirst() throws Exception {
+        var matchId = UUID.randomUUID();
+        var nextEvent = event(3);
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of(event(1), event(2)))));
+
+        // when
+        var response = open("/match/" + matchId, null);
+        matchEventStreamService.sendMatchEvent(matchId, nextEvent);
+        matchEventStreamService.destroy();
+
+        // then
+        var content = response.getContentAsString();
+        assertTrue(content.startsWith("id:2\nevent:match-snapshot\ndata:{\"matchId\":\"" + matchId));
+        assertTrue(content.endsWith("id:3\nevent:match-event\ndata:{\"id\":\"" + nextEvent.id() +
+                "\",\"sequence\":3,\"event\":{\"type\":\"COMMENTARY\"}}\n\n"));
+        assertEquals(1, streams("match"));
+    }
+
+    @Test
+    @DisplayName("streamMatchEvents sends missed events to clients which resume the stream")
+    public void streamMatchEvents_LastEventId_MissedEventsSent() throws Exception {
+        var matchId = UUID.randomUUID();
+        var missedEvents = List.of(event(5), event(6));
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of())));
+        given(matchEventService.findAllByMatchIdAfterSequence(matchId, 4)).willReturn(missedEvents);
+
+        // when
+        var response = open("/match/" + matchId, 4L);
+        matchEventStreamService.destroy();
+
+        // then
+        var content = response.getContentAsString();
+        assertFalse(content.contains("match-snapshot"));
+        assertTrue(content.indexOf(missedEvents.get(0).id().toString()) < content.indexOf(missedEvents.get(1).id().toString()));
+        assertTrue(content.startsWith("id:5\nevent:match-event\n"));
+    }
+
+    @Test
+    @DisplayName("streamMatchEvents sends all missed events even if there are more of them than events allowed to wait")
+    public void streamMatchEvents_ManyMissedEvents_AllMissedEventsSent() throws Exception {
+        var matchId = UUID.randomUUID();
+        var missedEvents = List.of(event(5), event(6), event(7), event(8));
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of())));
+        given(matchEventService.findAllByMatchIdAfterSequence(matchId, 4)).willReturn(missedEvents);
+
+        // when
+        var response = open("/match/" + matchId, 4L);
+        matchEventStreamService.destroy();
+
+        // then
+        var content = response.getContentAsString();
+        missedEvents.forEach(event -> assertTrue(content.contains(event.id().toString())));
+        assertEquals(0, meterRegistry.get("match.events.stream.overflows").counter().count());
+    }
+
+    @Test
+    @DisplayName("sendMatchEvent does not send events which are already reflected in the snapshot")
+    public void sendMatchEvent_EventInSnapshot_NotSentAgain() throws Exception {
+        var matchId = UUID.randomUUID();
+        var eventInSnapshot = event(1);
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of(eventInSnapshot))));
+
+        // when
+        var response = open("/match/" + matchId, null);
+        matchEventStreamService.sendMatchEvent(matchId, eventInSnapshot);
+        matchEventStreamService.destroy();
+
+        // then
+        assertFalse(response.getContentAsString().contains("event:match-event"));
+    }
+
+    @Test
+    @DisplayName("sendMatchEvent only sends events to streams of their match")
+    public void sendMatchEvent_OtherMatch_NotSent() throws Exception {
+        var matchId = UUID.randomUUID();
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of())));
+
+        // when
+        var response = open("/match/" + matchId, null);
+        matchEventStreamService.sendMatchEvent(UUID.randomUUID(), event(1));
+        matchEventStreamService.destroy();
+
+        // then
+        assertFalse(response.getContentAsString().contains("event:match-event"));
+    }
+
+    @Test
+    @DisplayName("sendGlobalMatchEventFrame sends frames to global streams with the same filter")
+    public void sendGlobalMatchEventFrame_SubscribedFilter_FrameSent() throws Exception {
+        var otherFilter = new GlobalMatchEventFilter(Set.of(UUID.randomUUID()), Set.of());
+
+        // when
+        var response = open("/global", null);
+        matchEventStreamService.sendGlobalMatchEventFrame(GlobalMatchEventFilter.ALL, new GlobalMatchEventFrame("[1]"));
+        matchEventStreamService.sendGlobalMatchEventFrame(otherFilter, new GlobalMatchEventFrame("[2]"));
+        var subscribedFilters = Set.copyOf(matchEventStreamService.subscribedFilters());
+        matchEventStreamService.destroy();
+
+        // then
+        assertEquals(Set.of(GlobalMatchEventFilter.ALL), subscribedFilters);
+        assertEquals("event:global-match-events\ndata:{\"events\":[1]}\n\n", response.getContentAsString());
+        assertEquals(1, streams("global"));
+    }
+
+    @Test
+    @DisplayName("sendMatchEvent closes streams which fall behind instead of skipping their events")
+    public void sendMatchEvent_StreamFallsBehind_StreamClosed() throws Exception {
+        var matchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of())));
+        given(matchEventService.findSnapshot(otherMatchId)).willReturn(Optional.of(snapshot(otherMatchId, List.of())));
+
+        // when
+        open("/match/" + matchId, null);
+        blockedWrites = new CountDownLatch(1);
+        // the only sender thread gets stuck on the first event, while the next events wait in the queue of the stream
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            matchEventStreamService.sendMatchEvent(matchId, event(sequence));
+        }
+        var streamsAfterOverflow = streams("match");
+        blockedWrites.countDown();
+        blockedWrites = null;
+        var otherResponse = open("/match/" + otherMatchId, null);
+        matchEventStreamService.sendMatchEvent(otherMatchId, event(1));
+        matchEventStreamService.destroy();
+
+        // then
+        assertEquals(0, streamsAfterOverflow);
+        assertEquals(1, meterRegistry.get("match.events.stream.overflows").counter().count());
+        assertTrue(otherResponse.getContentAsString().contains("event:match-event"));
+    }
+
+    @Test
+    @DisplayName("closeStalledStreams closes streams whose write does not finish in time, without holding up other streams")
+    public void closeStalledStreams_WriteDoesNotFinish_StreamClosed() throws Exception {
+        var matchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+
+        // given
+        given(matchEventService.findSnapshot(matchId)).willReturn(Optional.of(snapshot(matchId, List.of())));
+        given(matchEventService.findSnapshot(otherMatchId)).willReturn(Optional.of(snapshot(otherMatchId, List.of())));
+
+        // when
+        open("/match/" + matchId, null);
+        blockedPath = "/match/" + matchId;
+        blockedWrites = new CountDownLatch(1);
+        // the only sender thread gets stuck on the event, longer than the write timeout
+        matchEventStreamService.sendMatchEvent(matchId, event(1));
+        Thread.sleep(200);
+        matchEventStreamService.closeStalledStreams();
+        var streamsAfterStall = streams("match");
+        var otherResponse = open("/match/" + otherMatchId, null);
+        matchEventStreamService.sendMatchEvent(otherMatchId, event(1));
+        var deadline = System.currentTimeMillis() + 2000;
+        while (!otherResponse.getContentAsString().contains("event:match-event") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        var otherContent = otherResponse.getContentAsString();
+        blockedWrites.countDown();
+        matchEventStreamService.destroy();
+
+        // then
+        assertEquals(0, streamsAfterStall);
+        assertEquals(1, meterRegistry.get("match.events.stream.stalls").counter().count());
+        assertTrue(otherContent.contains("event:match-event"));
+    }
+}
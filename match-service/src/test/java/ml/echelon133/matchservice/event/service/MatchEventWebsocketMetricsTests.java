@@ -0,0 +1,138 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.corundumstudio.socketio.BroadcastOperations;
+import com.corundumstudio.socketio.SocketIOClient;
+import com.corundumstudio.socketio.namespace.Namespace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchEventWebsocketMetricsTests {
+
+    private static final String NAMESPACE = "/api/ws/match-events";
+
+    @Mock
+    private Namespace namespace;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchEventWebsocketMetrics websocketMetrics;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        websocketMetrics = new MatchEventWebsocketMetrics(meterRegistry, 2);
+        lenient().when(namespace.getName()).thenReturn(NAMESPACE);
+    }
+
+    private static BroadcastOperations roomWithClients(int clients) {
+        var room = mock(BroadcastOperations.class);
+        List<SocketIOClient> roomClients = Collections.nCopies(clients, mock(SocketIOClient.class));
+        lenient().when(room.getClients()).thenReturn(roomClients);
+        // behaves like a room, which only sends the event to clients which are not excluded
+        lenient().doAnswer(inv -> {
+            Predicate<SocketIOClient> excluded = inv.getArgument(1);
+            roomClients.forEach(excluded::test);
+            return null;
+        }).when(room).sendEvent(anyString(), any(Predicate.class), (Object) any());
+        return room;
+    }
+
+    @Test
+    @DisplayName("registerNamespace publishes the number of clients connected to the namespace")
+    public void registerNamespace_ConnectedClients_Published() {
+        // given
+        given(namespace.getAllClients()).willReturn(Collections.nCopies(3, mock(SocketIOClient.class)));
+
+        // when
+        websocketMetrics.registerNamespace(namespace);
+
+        // then
+        var gauge = meterRegistry.get("match.events.websocket.clients").tag("namespace", NAMESPACE).gauge();
+        assertEquals(3, gauge.value());
+    }
+
+    @Test
+    @DisplayName("recordHandshakeRejected counts rejections by their reason")
+    public void recordHandshakeRejected_Reasons_CountedSeparately() {
+        // when
+        websocketMetrics.recordHandshakeRejected(namespace, "invalid_match_id");
+        websocketMetrics.recordHandshakeRejected(namespace, "invalid_match_id");
+        websocketMetrics.recordHandshakeRejected(namespace, "match_not_found");
+
+        // then
+        var name = "match.events.websocket.handshakes.rejected";
+        assertEquals(2, meterRegistry.get(name).tag("reason", "invalid_match_id").counter().count());
+        assertEquals(1, meterRegistry.get(name).tag("reason", "match_not_found").counter().count());
+    }
+
+    @Test
+    @DisplayName("broadcast sends the event, and counts messages and bytes sent to every client of the room")
+    public void broadcast_RoomWithClients_SentAndCounted() {
+        var room = roomWithClients(4);
+        var payload = new Object();
+
+        // when
+        websocketMetrics.broadcast(namespace, room, client -> false, "match-event", payload, 100);
+
+        // then
+        verify(room).sendEvent(eq("match-event"), any(Predicate.class), eq(payload));
+        assertEquals(4, meterRegistry.get("match.events.websocket.frames.sent").counter().count());
+        assertEquals(400, meterRegistry.get("match.events.websocket.bytes.sent").counter().count());
+        assertEquals(1, meterRegistry.get("match.events.websocket.broadcast").timer().count());
+    }
+
+    @Test
+    @DisplayName("broadcast does not count messages which are not sent to excluded clients")
+    public void broadcast_ExcludedClients_NotCounted() {
+        var room = roomWithClients(4);
+        var excluded = new AtomicInteger();
+
+        // when
+        websocketMetrics.broadcast(namespace, room, client -> excluded.incrementAndGet() <= 3, "match-event", "{}", 10);
+
+        // then
+        assertEquals(1, meterRegistry.get("match.events.websocket.frames.sent").counter().count());
+        assertEquals(10, meterRegistry.get("match.events.websocket.bytes.sent").counter().count());
+    }
+
+    @Test
+    @DisplayName("refreshRoomSizes only publishes the sizes of the largest rooms")
+    public void refreshRoomSizes_ManyRooms_OnlyLargestPublished() {
+        var smallRoom = roomWithClients(1);
+        var largeRoom = roomWithClients(10);
+        var mediumRoom = roomWithClients(5);
+
+        // given
+        given(namespace.getRooms()).willReturn(Set.of("", "small", "large", "medium"));
+        given(namespace.getRoomOperations("small")).willReturn(smallRoom);
+        given(namespace.getRoomOperations("large")).willReturn(largeRoom);
+        given(namespace.getRoomOperations("medium")).willReturn(mediumRoom);
+
+        // when
+        websocketMetrics.refreshRoomSizes(List.of(namespace));
+
+        // then
+        var gauges = meterRegistry.get("match.events.websocket.room.clients").gauges();
+        assertEquals(2, gauges.size());
+        var name = "match.events.websocket.room.clients";
+        assertEquals(10, meterRegistry.get(name).tag("room", "large").gauge().value());
+        assertEquals(5, meterRegistry.get(name).tag("room", "medium").gauge().value());
+        assertNull(meterRegistry.find(name).tag("room", "small").gauge());
+    }
+}
@@ -0,0 +1,206 @@
+package ml.echelon133.matchservice.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.matchservice.event.model.EncodedMatchEventDto;
+import ml.echelon133.matchservice.event.model.MatchSnapshotDto;
+import ml.echelon133.matchservice.match.model.ScoreInfoDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchSnapshotCacheTests {
+
+    private MatchSnapshotCache matchSnapshotCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchSnapshotCache = new MatchSnapshotCache(2, 3, new SimpleMeterRegistry());
+    }
+
+    private static EncodedMatchEventDto createTestEvent(Long sequence) {
+        return new EncodedMatchEventDto(UUID.randomUUID(), sequence, "{}");
+    }
+
+    private static MatchSnapshotDto createTestSnapshot(UUID matchId, String status, List<EncodedMatchEventDto> events) {
+        return new MatchSnapshotDto(
+                matchId,
+                status,
+                LocalDateTime.now(),
+                "NONE",
+                new ScoreInfoDto(0, 0),
+                MatchSnapshotDto.lastSequenceOf(events),
+                events
+        );
+    }
+
+    private MatchSnapshotDto findCached(UUID matchId) {
+        return matchSnapshotCache.find(matchId, id -> fail("snapshot should be cached")).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("find only calls the loader when the snapshot of the match is not cached")
+    public void find_CalledTwice_LoadsOnce() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of(createTestEvent(1L))));
+        });
+        var snapshot = matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("FIRST_HALF", snapshot.orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("findCached only returns snapshots which have already been loaded")
+    public void findCached_SnapshotLoaded_ReturnsSnapshot() {
+        var matchId = UUID.randomUUID();
+
+        // when
+        var beforeLoad = matchSnapshotCache.findCached(matchId);
+        matchSnapshotCache.load(matchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of())));
+        var afterLoad = matchSnapshotCache.findCached(matchId);
+
+        // then
+        assertTrue(beforeLoad.isEmpty());
+        assertEquals("FIRST_HALF", afterLoad.orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("load does not call the loader when the snapshot has been cached in the meantime")
+    public void load_SnapshotAlreadyCached_DoesNotLoad() {
+        var matchId = UUID.randomUUID();
+        matchSnapshotCache.load(matchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of())));
+
+        // when
+        var snapshot = matchSnapshotCache.load(matchId, id -> fail("snapshot should be cached"));
+
+        // then
+        assertEquals("FIRST_HALF", snapshot.orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("find does not cache anything when the match does not exist")
+    public void find_MatchNotFound_NothingCached() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        var snapshot = matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // then
+        assertEquals(2, loads.get());
+        assertTrue(snapshot.isEmpty());
+    }
+
+    @Test
+    @DisplayName("find only keeps the most recent events of the loaded snapshot")
+    public void find_ManyEvents_KeepsMostRecentEvents() {
+        var matchId = UUID.randomUUID();
+        var events = List.of(createTestEvent(1L), createTestEvent(2L), createTestEvent(3L), createTestEvent(4L));
+
+        // when
+        var snapshot = matchSnapshotCache.find(matchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", events)));
+
+        // then
+        assertEquals(events.subList(1, 4), snapshot.orElseThrow().events());
+        assertEquals(4L, snapshot.orElseThrow().lastSequence());
+    }
+
+    @Test
+    @DisplayName("update applies events which directly follow the last sequence number of the cached snapshot")
+    public void update_NextSequence_SnapshotUpdated() {
+        var matchId = UUID.randomUUID();
+        var cachedEvents = List.of(createTestEvent(1L), createTestEvent(2L));
+        matchSnapshotCache.find(matchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", cachedEvents)));
+        var newEvents = List.of(createTestEvent(3L), createTestEvent(4L));
+
+        // when
+        matchSnapshotCache.update(createTestSnapshot(matchId, "HALF_TIME", newEvents));
+
+        // then
+        var snapshot = findCached(matchId);
+        assertEquals("HALF_TIME", snapshot.status());
+        assertEquals(4L, snapshot.lastSequence());
+        assertEquals(List.of(cachedEvents.get(1), newEvents.get(0), newEvents.get(1)), snapshot.events());
+    }
+
+    @Test
+    @DisplayName("update evicts the cached snapshot when some event has been missed")
+    public void update_SequenceGap_SnapshotEvicted() {
+        var matchId = UUID.randomUUID();
+        matchSnapshotCache.find(matchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of(createTestEvent(1L)))));
+        var loads = new AtomicInteger();
+
+        // when
+        matchSnapshotCache.update(createTestSnapshot(matchId, "HALF_TIME", List.of(createTestEvent(3L))));
+
+        // then
+        matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("update does not cache the snapshot of a match which is not cached")
+    public void update_NotCached_NothingCached() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchSnapshotCache.update(createTestSnapshot(matchId, "FIRST_HALF", List.of(createTestEvent(1L))));
+
+        // then
+        matchSnapshotCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("find evicts the least recently used snapshot when the cache is full")
+    public void find_CacheFull_EvictsLeastRecentlyUsed() {
+        var firstMatchId = UUID.randomUUID();
+        var secondMatchId = UUID.randomUUID();
+        var thirdMatchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchSnapshotCache.find(firstMatchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of())));
+        matchSnapshotCache.find(secondMatchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of())));
+        matchSnapshotCache.find(thirdMatchId, id -> Optional.of(createTestSnapshot(id, "FIRST_HALF", List.of())));
+
+        // then
+        matchSnapshotCache.find(firstMatchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(1, loads.get());
+        findCached(thirdMatchId);
+    }
+}
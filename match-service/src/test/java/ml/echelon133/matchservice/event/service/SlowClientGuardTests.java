@@ -0,0 +1,139 @@
+package ml.echelon133.matchservice.event.service;
+
+import com.corundumstudio.socketio.Transport;
+import com.corundumstudio.socketio.handler.ClientHead;
+import com.corundumstudio.socketio.protocol.Packet;
+import com.corundumstudio.socketio.transport.NamespaceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SlowClientGuardTests {
+
+    @Mock
+    private NamespaceClient client;
+
+    @Mock
+    private ClientHead clientHead;
+
+    private final Queue<Packet> packetsQueue = new LinkedList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SlowClientGuard slowClientGuard;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        slowClientGuard = new SlowClientGuard(2, 3, meterRegistry);
+        lenient().when(client.getSessionId()).thenReturn(UUID.randomUUID());
+        lenient().when(client.getTransport()).thenReturn(Transport.WEBSOCKET);
+        lenient().when(client.getBaseClient()).thenReturn(clientHead);
+        lenient().when(clientHead.getPacketsQueue(any())).thenReturn(packetsQueue);
+    }
+
+    private double counterValue(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("test does not exclude clients which keep up with sent messages")
+    public void test_WritableClient_NotExcluded() {
+        // given
+        given(client.isWritable()).willReturn(true);
+
+        // when
+        var excluded = slowClientGuard.test(client);
+
+        // then
+        assertFalse(excluded);
+        assertEquals(0, counterValue("match.events.websocket.frames.dropped"));
+    }
+
+    @Test
+    @DisplayName("test excludes clients whose websocket channel is not writable")
+    public void test_NotWritableClient_Excluded() {
+        // given
+        given(client.isWritable()).willReturn(false);
+
+        // when
+        var excluded = slowClientGuard.test(client);
+
+        // then
+        assertTrue(excluded);
+        assertEquals(1, counterValue("match.events.websocket.frames.dropped"));
+    }
+
+    @Test
+    @DisplayName("test excludes polling clients which have too many queued messages")
+    public void test_PollingClientWithFullQueue_Excluded() {
+        // given
+        given(client.getTransport()).willReturn(Transport.POLLING);
+        packetsQueue.addAll(Collections.nCopies(3, mock(Packet.class)));
+
+        // when
+        var excluded = slowClientGuard.test(client);
+
+        // then
+        assertTrue(excluded);
+    }
+
+    @Test
+    @DisplayName("evictPending disconnects clients which missed too many consecutive messages")
+    public void evictPending_TooManyDroppedMessages_ClientDisconnected() {
+        // given
+        given(client.isWritable()).willReturn(false);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            slowClientGuard.test(client);
+        }
+        slowClientGuard.evictPending();
+
+        // then
+        verify(client).disconnect();
+        assertEquals(1, counterValue("match.events.websocket.evictions"));
+    }
+
+    @Test
+    @DisplayName("evictPending does not disconnect clients which caught up before missing too many messages")
+    public void evictPending_ClientCaughtUp_ClientNotDisconnected() {
+        // given
+        given(client.isWritable()).willReturn(false, false, true, false, false);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            slowClientGuard.test(client);
+        }
+        slowClientGuard.evictPending();
+
+        // then
+        verify(client, never()).disconnect();
+        assertEquals(4, counterValue("match.events.websocket.frames.dropped"));
+        assertEquals(0, counterValue("match.events.websocket.evictions"));
+    }
+
+    @Test
+    @DisplayName("constructor throws when limits are not positive")
+    public void constructor_NonPositiveLimits_Throws() {
+        // when
+        String message = assertThrows(IllegalArgumentException.class, () -> {
+            new SlowClientGuard(0, 3, meterRegistry);
+        }).getMessage();
+
+        // then
+        assertEquals("limits of slow websocket clients have to be positive", message);
+    }
+}
@@ -9,6 +9,7 @@ import ml.echelon133.matchservice.match.TestMatchDto;
 import ml.echelon133.matchservice.match.TestUpsertMatchDto;
 import ml.echelon133.matchservice.match.controller.validators.MatchCriteriaValidator;
 import ml.echelon133.matchservice.match.model.*;
+import ml.echelon133.matchservice.match.service.MatchScheduleRebuildJob;
 import ml.echelon133.matchservice.match.service.MatchService;
 import ml.echelon133.matchservice.referee.constraints.RefereeExists;
 import ml.echelon133.matchservice.referee.repository.RefereeRepository;
@@ -78,6 +79,9 @@ public class MatchControllerTests {
     @Mock
     private MatchService matchService;
 
+    @Mock
+    private MatchScheduleRebuildJob matchScheduleRebuildJob;
+
     @InjectMocks
     private MatchExceptionHandler matchExceptionHandler;
 
@@ -951,6 +955,21 @@ public class MatchControllerTests {
                 .andExpect(content().string("{\"deleted\":1}"));
     }
 
+    @Test
+    @DisplayName("POST /api/matches/schedule/rebuild returns 200 and the number of rebuilt schedule entries")
+    public void rebuildSchedule_EntriesRebuilt_StatusOk() throws Exception {
+        // given
+        given(matchScheduleRebuildJob.rebuildAll()).willReturn(42);
+
+        // when
+        mvc.perform(
+                        post("/api/matches/schedule/rebuild")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"rebuilt\":42}"));
+    }
+
     @Test
     @DisplayName("GET /api/matches/grouped returns 400 when provided `date` has an incorrect format")
     public void getMatchesByCriteria_IncorrectDateProvided_StatusBadRequest() throws Exception {
@@ -4,8 +4,8 @@ import ml.echelon133.common.entity.BaseEntity;
 import ml.echelon133.common.match.MatchResult;
 import ml.echelon133.common.match.MatchStatus;
 import ml.echelon133.matchservice.match.model.CompactMatchDto;
+import ml.echelon133.matchservice.match.model.LineupEntryDto;
 import ml.echelon133.matchservice.match.model.MatchDto;
-import ml.echelon133.matchservice.team.model.TeamPlayerDto;
 import ml.echelon133.matchservice.match.TestMatch;
 import ml.echelon133.matchservice.match.TestMatchLineup;
 import ml.echelon133.matchservice.match.model.Match;
@@ -25,7 +25,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -210,169 +212,6 @@ public class MatchRepositoryTests {
         assertEquals(0, countDeleted);
     }
 
-    @Test
-    @DisplayName("findAllBetween native query does not fetch matches marked as deleted")
-    public void findAllBetween_MatchMarkedAsDeleted_SizeIsZero() {
-        // start the match 2023/01/01 8:00AM
-        var startDate = LocalDateTime.of(2023, 1, 1, 8, 0);
-        var matchToDelete = TestMatch.builder()
-                .startTimeUTC(startDate)
-                .deleted(true)
-                .build();
-        matchRepository.save(matchToDelete);
-
-        // when
-        var result = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                Pageable.unpaged()
-        );
-
-        // then
-        assertEquals(0, result.size());
-    }
-
-    @Test
-    @DisplayName("findAllBetween native query does not leak deleted home team of a found match")
-    public void findAllBetween_HomeTeamDeleted_DoesNotLeakDeletedEntity() {
-        var teamBuilder = TestTeam.builder().deleted(true);
-        // start the match 2023/01/01 8:00AM
-        var startDate = LocalDateTime.of(2023, 1, 1, 8, 0);
-        var match = TestMatch.builder().startTimeUTC(startDate).homeTeam(teamBuilder).build();
-        matchRepository.save(match);
-
-        // when
-        var result = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                Pageable.unpaged()
-        );
-
-        // then
-        assertEquals(1, result.size());
-        var compactMatchDtoValue = result.get(0);
-        assertEntityAndDtoEqual(match, compactMatchDtoValue);
-        // make sure that the home team is definitely null
-        assertNull(compactMatchDtoValue.getHomeTeam());
-    }
-
-    @Test
-    @DisplayName("findAllBetween native query does not leak deleted away team of a found match")
-    public void findAllBetween_AwayTeamDeleted_DoesNotLeakDeletedEntity() {
-        var teamBuilder = TestTeam.builder().deleted(true);
-        // start the match 2023/01/01 8:00AM
-        var startDate = LocalDateTime.of(2023, 1, 1, 8, 0);
-        var match = TestMatch.builder().startTimeUTC(startDate).awayTeam(teamBuilder).build();
-        matchRepository.save(match);
-
-        // when
-        var result = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                Pageable.unpaged()
-        );
-
-        // then
-        assertEquals(1, result.size());
-        var compactMatchDtoValue = result.get(0);
-        assertEntityAndDtoEqual(match, compactMatchDtoValue);
-        // make sure that the away team is definitely null
-        assertNull(compactMatchDtoValue.getAwayTeam());
-    }
-
-    @Test
-    @DisplayName("findAllBetween native query only finds matches that start between two specified dates")
-    public void findAllBetween_MultipleMatches_OnlyFindsMatchesBetweenTwoDates() {
-        // create four matches:
-        //  0 -> starts 2023/01/01 00:00
-        var startTime0 = LocalDateTime.of(2023, 1, 1, 0, 0);
-        //  1 -> starts 2023/01/01 11:59PM
-        var startTime1 = LocalDateTime.of(2023, 1, 1, 23, 59);
-        //  2 -> starts 2023/01/02 00:00
-        var startTime2 = LocalDateTime.of(2023, 1, 2, 0, 0);
-        //  3 -> starts 2023/01/02 11:59PM
-        var startTime3 = LocalDateTime.of(2023, 1, 2, 23, 59);
-
-        var match0 = matchRepository.save(TestMatch.builder().startTimeUTC(startTime0).build());
-        var match1 = matchRepository.save(TestMatch.builder().startTimeUTC(startTime1).build());
-        var match2 = matchRepository.save(TestMatch.builder().startTimeUTC(startTime2).build());
-        var match3 = matchRepository.save(TestMatch.builder().startTimeUTC(startTime3).build());
-
-        // when
-        // find matches that started on 2023/01/01 (should return match0 and match1)
-        var result0 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                Pageable.unpaged()
-        );
-        // find matches that started on 2023/01/02 (should return match2 and match3)
-        var result1 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 2, 0, 0),
-                LocalDateTime.of(2023, 1, 2, 23, 59),
-                Pageable.unpaged()
-        );
-        // find matches between 2023/01/01 and 2023/01/04 (should return all matches)
-        var result2 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 4, 0, 0),
-                Pageable.unpaged()
-        );
-
-        // then
-        // result0 should only contain match0 and match1
-        assertEquals(
-                2,
-                result0.stream().filter(m ->
-                        m.getId().equals(match0.getId()) || m.getId().equals(match1.getId())
-                ).count()
-        );
-        // result1 should only contain match2 and match3
-        assertEquals(
-                2,
-                result1.stream().filter(m ->
-                        m.getId().equals(match2.getId()) || m.getId().equals(match3.getId())
-                ).count()
-        );
-        // result2 should contain all four matches
-        assertEquals(4, result2.size());
-    }
-
-    @Test
-    @DisplayName("findAllBetween native query takes pageable into account")
-    public void findAllBetween_CustomPageable_ResultsPaged() {
-        var startDate = LocalDateTime.of(2023, 1, 1, 0, 0);
-        // create four random test matches
-        IntStream.range(0, 4)
-                .mapToObj(i -> TestMatch.builder().startTimeUTC(startDate).build())
-                .forEach(matchRepository::save);
-
-        // when
-        var pageable = Pageable.ofSize(1);
-        // first page should return 1 match
-        var result0 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                pageable
-        );
-        // fourth page should return 1 match
-        var result1 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                pageable.withPage(3)
-        );
-        // fifth page should be empty
-        var result2 = matchRepository.findAllBetween(
-                LocalDateTime.of(2023, 1, 1, 0, 0),
-                LocalDateTime.of(2023, 1, 1, 23, 59),
-                pageable.withPage(4)
-        );
-
-        // then
-        assertEquals(1, result0.size());
-        assertEquals(1, result1.size());
-        assertEquals(0, result2.size());
-    }
-
     @Test
     @DisplayName("findAllByTeamIdAndStatuses native query does not fetch matches marked as deleted")
     public void findAllByTeamIdAndStatuses_MatchMarkedAsDeleted_SizeIsZero() {
@@ -766,212 +605,133 @@ public class MatchRepositoryTests {
         assertEquals(entity.getResult(), resultDto);
     }
 
-    @Test
-    @DisplayName("findHomeStartingPlayersByMatchId native query returns empty list if match does not exist")
-    public void findHomeStartingPlayersByMatchId_MatchDoesNotExist_IsEmpty() {
-        var matchId = UUID.randomUUID();
-
-        // when
-        var homeStartingPlayers = matchRepository.findHomeStartingPlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, homeStartingPlayers.size());
-    }
-
-    @Test
-    @DisplayName("findHomeStartingPlayersByMatchId native query returns empty list if match is marked as deleted")
-    public void findHomeStartingPlayersByMatchId_MatchExistsButMarkedAsDeleted_IsEmpty() {
-        var match = TestMatchLineup.createTestMatchWithLineup();
-        match.setDeleted(true);
-        match = matchRepository.save(match);
-        var matchId = match.getId();
-
-        // when
-        var homeStartingPlayers = matchRepository.findHomeStartingPlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, homeStartingPlayers.size());
-    }
-
-    @Test
-    @DisplayName("findHomeStartingPlayersByMatchId native query returns players from particular lineup")
-    public void findHomeStartingPlayersByMatchId_MultipleExistingMatches_OnlyFetchesParticularLineup() {
-        var match1 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match2 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match1Id = match1.getId();
-        var match2Id = match2.getId();
-
-        // when
-        var homeStartingPlayers1 = matchRepository.findHomeStartingPlayersByMatchId(match1Id);
-        var homeStartingPlayers2 = matchRepository.findHomeStartingPlayersByMatchId(match2Id);
-
-        // then
-        assertLineupContainsPlayers(homeStartingPlayers1, match1.getHomeLineup().getStartingPlayers());
-        assertLineupContainsPlayers(homeStartingPlayers2, match2.getHomeLineup().getStartingPlayers());
-    }
-
-    @Test
-    @DisplayName("findHomeSubstitutePlayersByMatchId native query returns empty list if match does not exist")
-    public void findHomeSubstitutePlayersByMatchId_MatchDoesNotExist_IsEmpty() {
-        var matchId = UUID.randomUUID();
-
-        // when
-        var homeSubstitutePlayers = matchRepository.findHomeSubstitutePlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, homeSubstitutePlayers.size());
-    }
-
-    @Test
-    @DisplayName("findHomeSubstitutePlayersByMatchId native query returns empty list if match is marked as deleted")
-    public void findHomeSubstitutePlayersByMatchId_MatchExistsButMarkedAsDeleted_IsEmpty() {
-        var match = TestMatchLineup.createTestMatchWithLineup();
-        match.setDeleted(true);
-        match = matchRepository.save(match);
-        var matchId = match.getId();
-
-        // when
-        var homeSubstitutePlayers = matchRepository.findHomeSubstitutePlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, homeSubstitutePlayers.size());
-    }
-
-    @Test
-    @DisplayName("findHomeSubstitutePlayersByMatchId native query returns players from particular lineup")
-    public void findHomeSubstitutePlayersByMatchId_MultipleExistingMatches_OnlyFetchesParticularLineup() {
-        var match1 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match2 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match1Id = match1.getId();
-        var match2Id = match2.getId();
-
-        // when
-        var homeSubstitutePlayers1 = matchRepository.findHomeSubstitutePlayersByMatchId(match1Id);
-        var homeSubstitutePlayers2 = matchRepository.findHomeSubstitutePlayersByMatchId(match2Id);
-
-        // then
-        assertLineupContainsPlayers(homeSubstitutePlayers1, match1.getHomeLineup().getSubstitutePlayers());
-        assertLineupContainsPlayers(homeSubstitutePlayers2, match2.getHomeLineup().getSubstitutePlayers());
+    private List<LineupEntryDto> findLineupEntries(UUID matchId) {
+        try (var entries = matchRepository.findLineupEntriesByMatchId(matchId)) {
+            return entries.toList();
+        }
     }
 
-    @Test
-    @DisplayName("findAwayStartingPlayersByMatchId native query returns empty list if match does not exist")
-    public void findAwayStartingPlayersByMatchId_MatchDoesNotExist_IsEmpty() {
-        var matchId = UUID.randomUUID();
-
-        // when
-        var awayStartingPlayers = matchRepository.findAwayStartingPlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, awayStartingPlayers.size());
+    private static List<UUID> idsOfPlayers(List<LineupEntryDto> entries, String side, String role) {
+        return entries.stream()
+                .filter(e -> e.getSide().equals(side) && e.getRole().equals(role))
+                .map(LineupEntryDto::getId)
+                .collect(Collectors.toList());
     }
 
-    @Test
-    @DisplayName("findAwayStartingPlayersByMatchId native query returns empty list if match is marked as deleted")
-    public void findAwayStartingPlayersByMatchId_MatchExistsButMarkedAsDeleted_IsEmpty() {
-        var match = TestMatchLineup.createTestMatchWithLineup();
-        match.setDeleted(true);
-        match = matchRepository.save(match);
-        var matchId = match.getId();
-
-        // when
-        var awayStartingPlayers = matchRepository.findAwayStartingPlayersByMatchId(matchId);
-
-        // then
-        assertEquals(0, awayStartingPlayers.size());
+    private static LineupEntryDto formationOf(List<LineupEntryDto> entries, String side) {
+        var formations = entries.stream()
+                .filter(e -> e.getSide().equals(side) && e.getRole().equals(LineupEntryDto.FORMATION))
+                .toList();
+        assertEquals(1, formations.size());
+        return formations.get(0);
     }
 
-    @Test
-    @DisplayName("findAwayStartingPlayersByMatchId native query returns players from particular lineup")
-    public void findAwayStartingPlayersByMatchId_MultipleExistingMatches_OnlyFetchesParticularLineup() {
-        var match1 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match2 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match1Id = match1.getId();
-        var match2Id = match2.getId();
-
-        // when
-        var awayStartingPlayers1 = matchRepository.findAwayStartingPlayersByMatchId(match1Id);
-        var awayStartingPlayers2 = matchRepository.findAwayStartingPlayersByMatchId(match2Id);
-
-        // then
-        assertLineupContainsPlayers(awayStartingPlayers1, match1.getAwayLineup().getStartingPlayers());
-        assertLineupContainsPlayers(awayStartingPlayers2, match2.getAwayLineup().getStartingPlayers());
+    private static void assertLineupContainsPlayers(List<UUID> foundIds, List<TeamPlayer> expectedLineup) {
+        var expectedIds = expectedLineup.stream().map(BaseEntity::getId).collect(Collectors.toList());
+        assertEquals(expectedIds.size(), foundIds.size());
+        assertTrue(foundIds.containsAll(expectedIds));
     }
 
     @Test
-    @DisplayName("findAwaySubstitutePlayersByMatchId native query returns empty list if match does not exist")
-    public void findAwaySubstitutePlayersByMatchId_MatchDoesNotExist_IsEmpty() {
+    @DisplayName("findLineupEntriesByMatchId native query returns nothing if match does not exist")
+    public void findLineupEntriesByMatchId_MatchDoesNotExist_IsEmpty() {
         var matchId = UUID.randomUUID();
 
         // when
-        var awaySubstitutePlayers = matchRepository.findAwaySubstitutePlayersByMatchId(matchId);
+        var entries = findLineupEntries(matchId);
 
         // then
-        assertEquals(0, awaySubstitutePlayers.size());
+        assertEquals(0, entries.size());
     }
 
     @Test
-    @DisplayName("findAwaySubstitutePlayersByMatchId native query returns empty list if match is marked as deleted")
-    public void findAwaySubstitutePlayersByMatchId_MatchExistsButMarkedAsDeleted_IsEmpty() {
+    @DisplayName("findLineupEntriesByMatchId native query returns nothing if match is marked as deleted")
+    public void findLineupEntriesByMatchId_MatchExistsButMarkedAsDeleted_IsEmpty() {
         var match = TestMatchLineup.createTestMatchWithLineup();
         match.setDeleted(true);
         match = matchRepository.save(match);
         var matchId = match.getId();
 
         // when
-        var awaySubstitutePlayers = matchRepository.findAwaySubstitutePlayersByMatchId(matchId);
+        var entries = findLineupEntries(matchId);
 
         // then
-        assertEquals(0, awaySubstitutePlayers.size());
+        assertEquals(0, entries.size());
     }
 
     @Test
-    @DisplayName("findAwaySubstitutePlayersByMatchId native query returns players from particular lineup")
-    public void findAwaySubstitutePlayersByMatchId_MultipleExistingMatches_OnlyFetchesParticularLineup() {
+    @DisplayName("findLineupEntriesByMatchId native query returns players from both lineups of a particular match")
+    public void findLineupEntriesByMatchId_MultipleExistingMatches_OnlyFetchesParticularLineups() {
         var match1 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
         var match2 = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
-        var match1Id = match1.getId();
-        var match2Id = match2.getId();
 
         // when
-        var awaySubstitutePlayers1 = matchRepository.findAwaySubstitutePlayersByMatchId(match1Id);
-        var awaySubstitutePlayers2 = matchRepository.findAwaySubstitutePlayersByMatchId(match2Id);
+        var entries1 = findLineupEntries(match1.getId());
+        var entries2 = findLineupEntries(match2.getId());
 
         // then
-        assertLineupContainsPlayers(awaySubstitutePlayers1, match1.getAwayLineup().getSubstitutePlayers());
-        assertLineupContainsPlayers(awaySubstitutePlayers2, match2.getAwayLineup().getSubstitutePlayers());
+        for (var match : List.of(match1, match2)) {
+            var entries = match == match1 ? entries1 : entries2;
+            assertLineupContainsPlayers(
+                    idsOfPlayers(entries, LineupEntryDto.HOME, LineupEntryDto.STARTING),
+                    match.getHomeLineup().getStartingPlayers()
+            );
+            assertLineupContainsPlayers(
+                    idsOfPlayers(entries, LineupEntryDto.HOME, LineupEntryDto.SUBSTITUTE),
+                    match.getHomeLineup().getSubstitutePlayers()
+            );
+            assertLineupContainsPlayers(
+                    idsOfPlayers(entries, LineupEntryDto.AWAY, LineupEntryDto.STARTING),
+                    match.getAwayLineup().getStartingPlayers()
+            );
+            assertLineupContainsPlayers(
+                    idsOfPlayers(entries, LineupEntryDto.AWAY, LineupEntryDto.SUBSTITUTE),
+                    match.getAwayLineup().getSubstitutePlayers()
+            );
+        }
     }
 
     @Test
-    @DisplayName("findLineupFormationsByMatchId native query returns an empty result when match does not exist")
-    public void findLineupFormationsByMatchId_MatchNotFound_ResultEmpty() {
-        var matchId = UUID.randomUUID();
+    @DisplayName("findLineupEntriesByMatchId native query returns all information about players")
+    public void findLineupEntriesByMatchId_MatchWithSetLineup_PlayerInformationCorrect() {
+        var match = matchRepository.save(TestMatchLineup.createTestMatchWithLineup());
+        var expectedTeamPlayer = match.getAwayLineup().getSubstitutePlayers().get(0);
 
         // when
-        var lineupFormations = matchRepository.findLineupFormationsByMatchId(matchId);
+        var entries = findLineupEntries(match.getId());
 
         // then
-        assertTrue(lineupFormations.isEmpty());
+        var entry = entries.stream()
+                .filter(e -> expectedTeamPlayer.getId().equals(e.getId()))
+                .findFirst().orElseThrow();
+        var teamPlayer = entry.toTeamPlayerDto();
+        assertEquals(expectedTeamPlayer.getPosition().name(), teamPlayer.getPosition());
+        assertEquals(expectedTeamPlayer.getNumber(), teamPlayer.getNumber());
+        assertEquals(expectedTeamPlayer.getPlayer().getId(), teamPlayer.getPlayer().getId());
+        assertEquals(expectedTeamPlayer.getPlayer().getName(), teamPlayer.getPlayer().getName());
+        assertEquals(expectedTeamPlayer.getPlayer().getDateOfBirth(), teamPlayer.getPlayer().getDateOfBirth());
+        assertEquals(expectedTeamPlayer.getPlayer().getCountryCode(), teamPlayer.getCountryCode());
+        assertNull(entry.getFormation());
     }
 
     @Test
-    @DisplayName("findLineupFormationsByMatchId native query returns null for both home and away formations when they are set to default values")
-    public void findLineupFormationsByMatchId_MatchWithEmptyLineup_BothFormationsAreNull() {
+    @DisplayName("findLineupEntriesByMatchId native query returns null for both home and away formations when they are set to default values")
+    public void findLineupEntriesByMatchId_MatchWithEmptyLineup_BothFormationsAreNull() {
         var matchId = UUID.randomUUID();
         matchRepository.save(TestMatch.builder().id(matchId).build());
 
         // when
-        var lineupFormations = matchRepository.findLineupFormationsByMatchId(matchId);
+        var entries = findLineupEntries(matchId);
 
         // then
-        assertTrue(lineupFormations.isPresent());
-        assertNull(lineupFormations.get().getHomeFormation());
-        assertNull(lineupFormations.get().getAwayFormation());
+        assertEquals(2, entries.size());
+        assertNull(formationOf(entries, LineupEntryDto.HOME).getFormation());
+        assertNull(formationOf(entries, LineupEntryDto.AWAY).getFormation());
     }
 
     @Test
-    @DisplayName("findLineupFormationsByMatchId native query returns correct values for both home and away formations when they are set to custom values")
-    public void findLineupFormationsByMatchId_MatchWithSetLineup_BothFormationsAreCorrect() {
+    @DisplayName("findLineupEntriesByMatchId native query returns correct values for both home and away formations when they are set to custom values")
+    public void findLineupEntriesByMatchId_MatchWithSetLineup_BothFormationsAreCorrect() {
         var match = TestMatchLineup.createTestMatchWithLineup();
         // set both home and away formations
         var expectedHomeFormation = "4-4-2";
@@ -982,18 +742,11 @@ public class MatchRepositoryTests {
         var matchId = match.getId();
 
         // when
-        var lineupFormations = matchRepository.findLineupFormationsByMatchId(matchId);
+        var entries = findLineupEntries(matchId);
 
         // then
-        assertTrue(lineupFormations.isPresent());
-        assertEquals(expectedHomeFormation, lineupFormations.get().getHomeFormation());
-        assertEquals(expectedAwayFormation, lineupFormations.get().getAwayFormation());
-    }
-
-    private static void assertLineupContainsPlayers(List<TeamPlayerDto> foundLineup, List<TeamPlayer> expectedLineup) {
-        var foundIds = foundLineup.stream().map(TeamPlayerDto::getId).collect(Collectors.toList());
-        var expectedIds = expectedLineup.stream().map(BaseEntity::getId).collect(Collectors.toList());
-        assertTrue(foundIds.containsAll(expectedIds));
+        assertEquals(expectedHomeFormation, formationOf(entries, LineupEntryDto.HOME).getFormation());
+        assertEquals(expectedAwayFormation, formationOf(entries, LineupEntryDto.AWAY).getFormation());
     }
 
     @Test
@@ -1061,4 +814,29 @@ public class MatchRepositoryTests {
         assertEquals(1, result.size());
         assertTrue(result.stream().anyMatch(m -> m.getId().equals(nonDeletedId)));
     }
+
+    @Test
+    @DisplayName("findIdsAfter lets the caller visit every non-deleted match page by page")
+    public void findIdsAfter_MultiplePages_VisitsAllNonDeletedMatches() {
+        var savedIds = IntStream.range(0, 5)
+                .mapToObj(i -> matchRepository.save(TestMatch.builder().build()).getId())
+                .collect(Collectors.toSet());
+        matchRepository.save(TestMatch.builder().deleted(true).build());
+
+        // when
+        List<UUID> visitedIds = new ArrayList<>();
+        var lastId = new UUID(0, 0);
+        List<UUID> page;
+        do {
+            page = matchRepository.findIdsAfter(lastId, Pageable.ofSize(2));
+            visitedIds.addAll(page);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1);
+            }
+        } while (page.size() == 2);
+
+        // then
+        assertEquals(5, visitedIds.size());
+        assertEquals(savedIds, Set.copyOf(visitedIds));
+    }
 }
@@ -0,0 +1,299 @@
+package ml.echelon133.matchservice.match.repository;
+
+import ml.echelon133.matchservice.match.TestMatch;
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.ScheduledMatch;
+import ml.echelon133.matchservice.team.TestTeam;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Disable kubernetes during tests
+@TestPropertySource(properties = "spring.cloud.kubernetes.enabled=false")
+@DataJpaTest
+public class ScheduledMatchRepositoryTests {
+
+    private final ScheduledMatchRepository scheduledMatchRepository;
+    private final TestEntityManager entityManager;
+
+    @Autowired
+    public ScheduledMatchRepositoryTests(
+            ScheduledMatchRepository scheduledMatchRepository,
+            TestEntityManager entityManager
+    ) {
+        this.scheduledMatchRepository = scheduledMatchRepository;
+        this.entityManager = entityManager;
+    }
+
+    private ScheduledMatch saveScheduled(Match match) {
+        var scheduledMatch = new ScheduledMatch(match.getId());
+        scheduledMatch.copyFrom(match);
+        return scheduledMatchRepository.save(scheduledMatch);
+    }
+
+    private List<ScheduledMatch> findAllBetween(LocalDateTime startUTC, LocalDateTime endUTC, Pageable pageable) {
+        return scheduledMatchRepository.findAllInHoursBetween(
+                ScheduledMatch.hourOf(startUTC), ScheduledMatch.hourOf(endUTC), startUTC, endUTC, pageable
+        );
+    }
+
+    @Test
+    @DisplayName("findAllInHoursBetween does not leak deleted home team of a found match")
+    public void findAllInHoursBetween_HomeTeamDeleted_DoesNotLeakDeletedEntity() {
+        var teamBuilder = TestTeam.builder().deleted(true);
+        // start the match 2023/01/01 8:00AM
+        var startDate = LocalDateTime.of(2023, 1, 1, 8, 0);
+        var match = TestMatch.builder().startTimeUTC(startDate).homeTeam(teamBuilder).build();
+        saveScheduled(match);
+
+        // when
+        var result = findAllBetween(
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 23, 59),
+                Pageable.unpaged()
+        );
+
+        // then
+        assertEquals(1, result.size());
+        var compactMatchDto = result.get(0).toCompactMatchDto();
+        assertEquals(match.getId(), compactMatchDto.getId());
+        assertNull(compactMatchDto.getHomeTeam());
+        assertEquals(match.getAwayTeam().getId(), compactMatchDto.getAwayTeam().id());
+    }
+
+    @Test
+    @DisplayName("findAllInHoursBetween does not leak deleted away team of a found match")
+    public void findAllInHoursBetween_AwayTeamDeleted_DoesNotLeakDeletedEntity() {
+        var teamBuilder = TestTeam.builder().deleted(true);
+        // start the match 2023/01/01 8:00AM
+        var startDate = LocalDateTime.of(2023, 1, 1, 8, 0);
+        var match = TestMatch.builder().startTimeUTC(startDate).awayTeam(teamBuilder).build();
+        saveScheduled(match);
+
+        // when
+        var result = findAllBetween(
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 23, 59),
+                Pageable.unpaged()
+        );
+
+        // then
+        assertEquals(1, result.size());
+        var compactMatchDto = result.get(0).toCompactMatchDto();
+        assertEquals(match.getId(), compactMatchDto.getId());
+        assertEquals(match.getHomeTeam().getId(), compactMatchDto.getHomeTeam().id());
+        assertNull(compactMatchDto.getAwayTeam());
+    }
+
+    @Test
+    @DisplayName("findAllInHoursBetween only finds matches that start between two specified dates")
+    public void findAllInHoursBetween_MultipleMatches_OnlyFindsMatchesBetweenTwoDates() {
+        // create four matches:
+        //  0 -> starts 2023/01/01 00:00
+        var match0 = saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 1, 0, 0)).build());
+        //  1 -> starts 2023/01/01 11:59PM
+        var match1 = saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 1, 23, 59)).build());
+        //  2 -> starts 2023/01/02 00:00
+        var match2 = saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 2, 0, 0)).build());
+        //  3 -> starts 2023/01/02 11:59PM
+        var match3 = saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 2, 23, 59)).build());
+
+        // when
+        var result0 = findAllBetween(
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 1, 1, 23, 59),
+                Pageable.unpaged()
+        );
+        var result1 = findAllBetween(
+                LocalDateTime.of(2023, 1, 2, 0, 0),
+                LocalDateTime.of(2023, 1, 2, 23, 59),
+                Pageable.unpaged()
+        );
+        var result2 = findAllBetween(
+                LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 1, 4, 0, 0),
+                Pageable.unpaged()
+        );
+
+        // then
+        // results are ordered by the start times of matches
+        assertEquals(List.of(match0.getId(), match1.getId()), result0.stream().map(ScheduledMatch::getId).toList());
+        assertEquals(List.of(match2.getId(), match3.getId()), result1.stream().map(ScheduledMatch::getId).toList());
+        assertEquals(4, result2.size());
+    }
+
+    @Test
+    @DisplayName("findAllInHoursBetween respects the exact boundaries of a day of a time zone with a half-hour offset")
+    public void findAllInHoursBetween_HalfHourOffset_OnlyFindsMatchesOfThatDay() {
+        // 2023/01/01 in UTC+05:30 lasts from 2022/12/31 18:30 until 2023/01/01 18:29 in UTC
+        var startUTC = LocalDateTime.of(2023, 1, 1, 0, 0)
+                .toInstant(ZoneOffset.ofHoursMinutes(5, 30))
+                .atOffset(ZoneOffset.UTC)
+                .toLocalDateTime();
+        var endUTC = startUTC.plusHours(23).plusMinutes(59);
+
+        // both matches are in the first bucket, but only one of them starts during the day
+        saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2022, 12, 31, 18, 15)).build());
+        var firstMatch = saveScheduled(
+                TestMatch.builder().startTimeUTC(LocalDateTime.of(2022, 12, 31, 18, 30)).build()
+        );
+        // both matches are in the last bucket, but only one of them starts during the day
+        var lastMatch = saveScheduled(
+                TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 1, 18, 29)).build()
+        );
+        saveScheduled(TestMatch.builder().startTimeUTC(LocalDateTime.of(2023, 1, 1, 18, 45)).build());
+
+        // when
+        var result = findAllBetween(startUTC, endUTC, Pageable.unpaged());
+
+        // then
+        assertEquals(List.of(firstMatch.getId(), lastMatch.getId()), result.stream().map(ScheduledMatch::getId).toList());
+    }
+
+    @Test
+    @DisplayName("findAllInHoursBetween takes pageable into account")
+    public void findAllInHoursBetween_CustomPageable_ResultsPaged() {
+        var startDate = LocalDateTime.of(2023, 1, 1, 0, 0);
+        // create four random test matches
+        IntStream.range(0, 4)
+                .mapToObj(i -> TestMatch.builder().startTimeUTC(startDate).build())
+                .forEach(this::saveScheduled);
+
+        // when
+        var pageable = Pageable.ofSize(1);
+        var startUTC = LocalDateTime.of(2023, 1, 1, 0, 0);
+        var endUTC = LocalDateTime.of(2023, 1, 1, 23, 59);
+        // first page should return 1 match
+        var result0 = findAllBetween(startUTC, endUTC, pageable);
+        // fourth page should return 1 match
+        var result1 = findAllBetween(startUTC, endUTC, pageable.withPage(3));
+        // fifth page should be empty
+        var result2 = findAllBetween(startUTC, endUTC, pageable.withPage(4));
+
+        // then
+        assertEquals(1, result0.size());
+        assertEquals(1, result1.size());
+        assertEquals(0, result2.size());
+    }
+
+    @Test
+    @DisplayName("updateTeam copies the name and crest of a team into its home and away matches")
+    public void updateTeam_TeamPlaysHomeAndAway_BothSidesUpdated() {
+        var team = TestTeam.builder().name("Old Name").build();
+        var homeMatch = saveScheduled(TestMatch.builder().homeTeam(team).build());
+        var awayMatch = saveScheduled(TestMatch.builder().awayTeam(team).build());
+        var otherMatch = saveScheduled(TestMatch.builder().build());
+
+        // when
+        var updated = scheduledMatchRepository.updateTeam(team.getId(), "New Name", "http://new-crest.com");
+        // bulk updates bypass the persistence context, which would otherwise return outdated entities
+        entityManager.clear();
+
+        // then
+        assertEquals(2, updated);
+        var homeTeam = scheduledMatchRepository.findById(homeMatch.getId()).orElseThrow().toCompactMatchDto().getHomeTeam();
+        assertEquals("New Name", homeTeam.name());
+        assertEquals("http://new-crest.com", homeTeam.crestUrl());
+        var awayTeam = scheduledMatchRepository.findById(awayMatch.getId()).orElseThrow().toCompactMatchDto().getAwayTeam();
+        assertEquals("New Name", awayTeam.name());
+        assertEquals("http://new-crest.com", awayTeam.crestUrl());
+        var untouched = scheduledMatchRepository.findById(otherMatch.getId()).orElseThrow().toCompactMatchDto();
+        assertEquals("Team A", untouched.getHomeTeam().name());
+        assertEquals("Team B", untouched.getAwayTeam().name());
+    }
+
+    @Test
+    @DisplayName("markTeamAsDeleted hides a team only on the side on which it plays")
+    public void markTeamAsDeleted_TeamPlaysHome_OnlyHomeTeamHidden() {
+        var team = TestTeam.builder().build();
+        var match = saveScheduled(TestMatch.builder().homeTeam(team).build());
+
+        // when
+        var updated = scheduledMatchRepository.markTeamAsDeleted(team.getId());
+        // bulk updates bypass the persistence context, which would otherwise return outdated entities
+        entityManager.clear();
+
+        // then
+        assertEquals(1, updated);
+        var compactMatchDto = scheduledMatchRepository.findById(match.getId()).orElseThrow().toCompactMatchDto();
+        assertNull(compactMatchDto.getHomeTeam());
+        assertNotNull(compactMatchDto.getAwayTeam());
+    }
+
+    @Test
+    @DisplayName("clearCompetition only removes information about the specified competition")
+    public void clearCompetition_MultipleCompetitions_OnlySpecifiedCompetitionCleared() {
+        var match = TestMatch.builder().build();
+        var scheduledMatch = new ScheduledMatch(match.getId());
+        scheduledMatch.copyFrom(match);
+        scheduledMatch.copyCompetition(new CompetitionDto(match.getCompetitionId(), "Test", "2023/24", "", true, 38, false));
+        scheduledMatchRepository.save(scheduledMatch);
+        var otherMatch = TestMatch.builder().build();
+        var otherScheduledMatch = new ScheduledMatch(otherMatch.getId());
+        otherScheduledMatch.copyFrom(otherMatch);
+        otherScheduledMatch.copyCompetition(new CompetitionDto(otherMatch.getCompetitionId(), "Other", "2023/24", "", true, 38, false));
+        scheduledMatchRepository.save(otherScheduledMatch);
+
+        // when
+        var updated = scheduledMatchRepository.clearCompetition(match.getCompetitionId());
+        entityManager.clear();
+
+        // then
+        assertEquals(1, updated);
+        var cleared = scheduledMatchRepository.findById(match.getId()).orElseThrow();
+        assertNull(cleared.toCompetitionDto());
+        assertEquals(match.getCompetitionId(), cleared.getCompetitionId());
+        assertNotNull(scheduledMatchRepository.findById(otherMatch.getId()).orElseThrow().toCompetitionDto());
+    }
+
+    @Test
+    @DisplayName("updateCompetition only fills in the competition when the match is still in that competition")
+    public void updateCompetition_MatchMovedInTheMeantime_OnlyCurrentCompetitionFilledIn() {
+        var match = saveScheduled(TestMatch.builder().build());
+
+        // when
+        var updatedWithPrevious = scheduledMatchRepository.updateCompetition(
+                match.getId(), UUID.randomUUID(), "Previous", "2023/24", "", true, 38, false
+        );
+        var updated = scheduledMatchRepository.updateCompetition(
+                match.getId(), match.getCompetitionId(), "Test", "2023/24", "", true, 38, false
+        );
+        entityManager.clear();
+
+        // then
+        assertEquals(0, updatedWithPrevious);
+        assertEquals(1, updated);
+        assertEquals(
+                new CompetitionDto(match.getCompetitionId(), "Test", "2023/24", "", true, 38, false),
+                scheduledMatchRepository.findById(match.getId()).orElseThrow().toCompetitionDto()
+        );
+    }
+
+    @Test
+    @DisplayName("deleteByMatchId removes the scheduled match")
+    public void deleteByMatchId_ScheduledMatchExists_Removed() {
+        var match = saveScheduled(TestMatch.builder().build());
+
+        // when
+        var deleted = scheduledMatchRepository.deleteByMatchId(match.getId());
+        entityManager.clear();
+
+        // then
+        assertEquals(1, deleted);
+        assertTrue(scheduledMatchRepository.findById(match.getId()).isEmpty());
+        assertEquals(0, scheduledMatchRepository.deleteByMatchId(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,256 @@
+package ml.echelon133.matchservice.match.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.matchservice.client.CompetitionServiceClient;
+import ml.echelon133.matchservice.client.RemoteCallExecutor;
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CompetitionCacheTests {
+
+    private static final Instant NOW = Instant.parse("2023-01-01T12:00:00Z");
+
+    @Mock
+    private CompetitionServiceClient competitionServiceClient;
+
+    @Mock
+    private Clock clock;
+
+    private RemoteCallExecutor remoteCallExecutor;
+
+    private CompetitionCache competitionCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        var meterRegistry = new SimpleMeterRegistry();
+        remoteCallExecutor = new RemoteCallExecutor(1, 10, 5000, meterRegistry);
+        competitionCache = new CompetitionCache(
+                2, 60, competitionServiceClient, remoteCallExecutor, clock, meterRegistry
+        );
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        remoteCallExecutor.destroy();
+    }
+
+    private static CompetitionDto createTestCompetitionDto(UUID id, String name) {
+        return new CompetitionDto(id, name, "2023/24", "", true, 38, false);
+    }
+
+    @Test
+    @DisplayName("find only fetches the competition when it is not cached")
+    public void find_CalledTwice_FetchesOnce() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(competitionId))
+                .willReturn(createTestCompetitionDto(competitionId, "Test"));
+
+        // when
+        competitionCache.find(competitionId);
+        var competition = competitionCache.find(competitionId);
+
+        // then
+        verify(competitionServiceClient, times(1)).getCompetitionById(competitionId);
+        assertEquals("Test", competition.orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("find fetches the competition again when its cached information has expired")
+    public void find_CachedCompetitionExpired_FetchesAgain() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW, NOW.plusSeconds(59), NOW.plusSeconds(60));
+        given(competitionServiceClient.getCompetitionById(competitionId)).willReturn(
+                createTestCompetitionDto(competitionId, "Old"),
+                createTestCompetitionDto(competitionId, "New")
+        );
+
+        // when
+        competitionCache.find(competitionId);
+        var beforeExpiry = competitionCache.find(competitionId);
+        var afterExpiry = competitionCache.find(competitionId);
+
+        // then
+        assertEquals("Old", beforeExpiry.orElseThrow().name());
+        assertEquals("New", afterExpiry.orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("find does not cache anything when the competition cannot be fetched")
+    public void find_FetchFails_NothingCached() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(competitionId))
+                .willThrow(new RuntimeException("competition-service unavailable"))
+                .willReturn(createTestCompetitionDto(competitionId, "Test"));
+
+        // when
+        var failed = competitionCache.find(competitionId);
+        var competition = competitionCache.find(competitionId);
+
+        // then
+        assertTrue(failed.isEmpty());
+        assertTrue(competition.isPresent());
+        verify(competitionServiceClient, times(2)).getCompetitionById(competitionId);
+    }
+
+    @Test
+    @DisplayName("evict makes find fetch the competition again")
+    public void evict_CompetitionCached_FetchesAgain() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(competitionId)).willReturn(
+                createTestCompetitionDto(competitionId, "Old"),
+                createTestCompetitionDto(competitionId, "New")
+        );
+        competitionCache.find(competitionId);
+
+        // when
+        competitionCache.evict(competitionId);
+        var competition = competitionCache.find(competitionId);
+
+        // then
+        assertEquals("New", competition.orElseThrow().name());
+    }
+
+    @Test
+    @DisplayName("find does not cache a competition fetched while a competition was evicted")
+    public void find_EvictedDuringFetching_NothingCached() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(competitionId)).willAnswer(inv -> {
+            // e.g. the competition gets deleted while its outdated information is being fetched
+            competitionCache.evict(competitionId);
+            return createTestCompetitionDto(competitionId, "Test");
+        });
+
+        // when
+        var competition = competitionCache.find(competitionId);
+        competitionCache.find(competitionId);
+
+        // then
+        assertTrue(competition.isPresent());
+        verify(competitionServiceClient, times(2)).getCompetitionById(competitionId);
+    }
+
+    @Test
+    @DisplayName("find evicts the least recently used competition when the cache is full")
+    public void find_CacheFull_EvictsLeastRecentlyUsed() {
+        var competitionId1 = UUID.randomUUID();
+        var competitionId2 = UUID.randomUUID();
+        var competitionId3 = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(any(UUID.class)))
+                .willAnswer(inv -> createTestCompetitionDto(inv.getArgument(0), "Test"));
+        competitionCache.find(competitionId1);
+        competitionCache.find(competitionId2);
+        // makes the first competition more recently used than the second one
+        competitionCache.find(competitionId1);
+
+        // when
+        competitionCache.find(competitionId3);
+        competitionCache.find(competitionId1);
+        competitionCache.find(competitionId2);
+
+        // then
+        verify(competitionServiceClient, times(1)).getCompetitionById(competitionId1);
+        verify(competitionServiceClient, times(2)).getCompetitionById(competitionId2);
+    }
+
+    @Test
+    @DisplayName("findAll fetches all competitions which are not cached with a single request")
+    public void findAll_SomeCompetitionsCached_FetchesMissingCompetitionsAtOnce() {
+        var cachedId = UUID.randomUUID();
+        var missingId0 = UUID.randomUUID();
+        var missingId1 = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(cachedId))
+                .willReturn(createTestCompetitionDto(cachedId, "Cached"));
+        given(competitionServiceClient.getCompetitionsByIds(Set.of(missingId0, missingId1))).willReturn(List.of(
+                createTestCompetitionDto(missingId0, "Missing0"),
+                createTestCompetitionDto(missingId1, "Missing1")
+        ));
+        competitionCache.find(cachedId);
+
+        // when
+        var competitions = competitionCache.findAll(List.of(cachedId, missingId0, missingId1));
+
+        // then
+        assertEquals(3, competitions.size());
+        assertEquals("Cached", competitions.get(cachedId).name());
+        assertEquals("Missing1", competitions.get(missingId1).name());
+        verify(competitionServiceClient, times(1)).getCompetitionsByIds(any());
+    }
+
+    @Test
+    @DisplayName("findAll does not make a request when all competitions are cached")
+    public void findAll_AllCompetitionsCached_NoRequest() {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionsByIds(Set.of(competitionId)))
+                .willReturn(List.of(createTestCompetitionDto(competitionId, "Test")));
+        competitionCache.findAll(List.of(competitionId));
+
+        // when
+        var competitions = competitionCache.findAll(List.of(competitionId));
+
+        // then
+        assertEquals("Test", competitions.get(competitionId).name());
+        verify(competitionServiceClient, times(1)).getCompetitionsByIds(any());
+    }
+
+    @Test
+    @DisplayName("findAll returns cached competitions when the missing ones cannot be fetched")
+    public void findAll_FetchFails_ReturnsCachedCompetitions() {
+        var cachedId = UUID.randomUUID();
+        var missingId = UUID.randomUUID();
+
+        // given
+        given(clock.instant()).willReturn(NOW);
+        given(competitionServiceClient.getCompetitionById(cachedId))
+                .willReturn(createTestCompetitionDto(cachedId, "Cached"));
+        given(competitionServiceClient.getCompetitionsByIds(Set.of(missingId)))
+                .willThrow(new RuntimeException("competition-service unavailable"));
+        competitionCache.find(cachedId);
+
+        // when
+        var competitions = competitionCache.findAll(List.of(cachedId, missingId));
+
+        // then
+        assertEquals(1, competitions.size());
+        assertTrue(competitions.containsKey(cachedId));
+    }
+}
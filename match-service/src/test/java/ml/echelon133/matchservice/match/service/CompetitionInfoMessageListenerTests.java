@@ -0,0 +1,58 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.common.event.dto.CompetitionInfo;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CompetitionInfoMessageListenerTests {
+
+    @Mock
+    private CompetitionCache competitionCache;
+
+    @Mock
+    private MatchScheduleService matchScheduleService;
+
+    @InjectMocks
+    private CompetitionInfoMessageListener competitionInfoMessageListener;
+
+    @Test
+    @DisplayName("onMessage evicts a deleted competition and removes it from the schedule")
+    public void onMessage_CompetitionDeleted_EvictsCompetition() {
+        var competitionId = UUID.randomUUID();
+        var record = new ConsumerRecord<UUID, CompetitionInfo>(
+                KafkaTopicNames.COMPETITION_INFO, 0, 0, competitionId, new CompetitionInfo.DeletionEvent(competitionId)
+        );
+
+        // when
+        competitionInfoMessageListener.onMessage(record);
+
+        // then
+        verify(competitionCache).evict(competitionId);
+        verify(matchScheduleService).forgetCompetition(competitionId);
+    }
+
+    @Test
+    @DisplayName("onMessage ignores records which could not be deserialized")
+    public void onMessage_NullValue_Ignored() {
+        var record = new ConsumerRecord<UUID, CompetitionInfo>(
+                KafkaTopicNames.COMPETITION_INFO, 0, 0, UUID.randomUUID(), null
+        );
+
+        // when
+        competitionInfoMessageListener.onMessage(record);
+
+        // then
+        verifyNoInteractions(competitionCache, matchScheduleService);
+    }
+}
@@ -0,0 +1,160 @@
+package ml.echelon133.matchservice.match.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.matchservice.match.model.LineupDto;
+import ml.echelon133.matchservice.team.TestTeamPlayerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchLineupCacheTests {
+
+    private MatchLineupCache matchLineupCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchLineupCache = new MatchLineupCache(2, new SimpleMeterRegistry());
+    }
+
+    private static LineupDto createTestLineup(String homeFormation) {
+        return new LineupDto(
+                new LineupDto.TeamLineup(List.of(), List.of(), homeFormation),
+                new LineupDto.TeamLineup(List.of(), List.of(), null)
+        );
+    }
+
+    private static Optional<LineupDto> countingLoader(AtomicInteger loads, String homeFormation) {
+        loads.incrementAndGet();
+        return Optional.of(createTestLineup(homeFormation));
+    }
+
+    @Test
+    @DisplayName("find only calls the loader when the lineup of the match is not cached")
+    public void find_CalledTwice_LoadsOnce() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchLineupCache.find(matchId, id -> countingLoader(loads, "4-4-2"));
+        var lineup = matchLineupCache.find(matchId, id -> countingLoader(loads, "4-3-3"));
+
+        // then
+        assertEquals(1, loads.get());
+        assertEquals("4-4-2", lineup.orElseThrow().home().formation());
+    }
+
+    @Test
+    @DisplayName("find does not cache anything when the match does not exist")
+    public void find_MatchNotFound_NothingCached() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        matchLineupCache.find(matchId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        var lineup = matchLineupCache.find(matchId, id -> countingLoader(loads, "4-4-2"));
+
+        // then
+        assertEquals(2, loads.get());
+        assertTrue(lineup.isPresent());
+    }
+
+    @Test
+    @DisplayName("evict makes find load the lineup of the match again")
+    public void evict_LineupCached_LoadsAgain() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+        matchLineupCache.find(matchId, id -> countingLoader(loads, "4-4-2"));
+
+        // when
+        matchLineupCache.evict(matchId);
+        var lineup = matchLineupCache.find(matchId, id -> countingLoader(loads, "4-3-3"));
+
+        // then
+        assertEquals(2, loads.get());
+        assertEquals("4-3-3", lineup.orElseThrow().home().formation());
+    }
+
+    @Test
+    @DisplayName("find does not cache a lineup loaded while a lineup was evicted")
+    public void find_EvictedDuringLoading_NothingCached() {
+        var matchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        // when
+        var lineup = matchLineupCache.find(matchId, id -> {
+            // e.g. the lineup gets updated by another request while the outdated lineup is being loaded
+            matchLineupCache.evict(id);
+            return countingLoader(loads, "4-4-2");
+        });
+        matchLineupCache.find(matchId, id -> countingLoader(loads, "4-3-3"));
+
+        // then
+        assertEquals(2, loads.get());
+        assertEquals("4-4-2", lineup.orElseThrow().home().formation());
+    }
+
+    @Test
+    @DisplayName("find evicts the least recently used lineup when the cache is full")
+    public void find_CacheFull_EvictsLeastRecentlyUsed() {
+        var matchId1 = UUID.randomUUID();
+        var matchId2 = UUID.randomUUID();
+        var matchId3 = UUID.randomUUID();
+        var loads = new AtomicInteger();
+        matchLineupCache.find(matchId1, id -> countingLoader(loads, "4-4-2"));
+        matchLineupCache.find(matchId2, id -> countingLoader(loads, "4-4-2"));
+        // makes the lineup of the first match more recently used than the lineup of the second one
+        matchLineupCache.find(matchId1, id -> countingLoader(loads, "4-4-2"));
+
+        // when
+        matchLineupCache.find(matchId3, id -> countingLoader(loads, "4-4-2"));
+        matchLineupCache.find(matchId1, id -> countingLoader(loads, "4-4-2"));
+        matchLineupCache.find(matchId2, id -> countingLoader(loads, "4-4-2"));
+
+        // then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("evictPlayer evicts only the lineups which list the player and returns ids of their matches")
+    public void evictPlayer_PlayerListedInSomeLineups_EvictsThoseLineups() {
+        var playerId = UUID.randomUUID();
+        var listingMatchId = UUID.randomUUID();
+        var otherMatchId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+        var player = TestTeamPlayerDto.builder().playerId(playerId).build();
+        var otherPlayer = TestTeamPlayerDto.builder().build();
+        matchLineupCache.find(listingMatchId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new LineupDto(
+                    new LineupDto.TeamLineup(List.of(otherPlayer), List.of(), null),
+                    new LineupDto.TeamLineup(List.of(), List.of(player), null)
+            ));
+        });
+        matchLineupCache.find(otherMatchId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new LineupDto(
+                    new LineupDto.TeamLineup(List.of(otherPlayer), List.of(), null),
+                    new LineupDto.TeamLineup(List.of(), List.of(), null)
+            ));
+        });
+
+        // when
+        var evictedMatchIds = matchLineupCache.evictPlayer(playerId);
+        matchLineupCache.find(listingMatchId, id -> countingLoader(loads, "4-4-2"));
+        matchLineupCache.find(otherMatchId, id -> countingLoader(loads, "4-4-2"));
+
+        // then
+        assertEquals(List.of(listingMatchId), evictedMatchIds);
+        assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,112 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.matchservice.event.service.LiveMatchStateRegistry;
+import ml.echelon133.matchservice.event.service.MatchEventBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchLineupEvictionServiceTests {
+
+    @Mock
+    private MatchLineupCache matchLineupCache;
+
+    @Mock
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    @Mock
+    private MatchEventBroadcaster matchEventBroadcaster;
+
+    @InjectMocks
+    private MatchLineupEvictionService matchLineupEvictionService;
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    }
+
+    @Test
+    @DisplayName("evictLineup evicts the lineup and broadcasts the change right away when there is no transaction")
+    public void evictLineup_NoTransaction_EvictsAndBroadcasts() {
+        var matchId = UUID.randomUUID();
+
+        // when
+        matchLineupEvictionService.evictLineup(matchId);
+
+        // then
+        verify(matchLineupCache, times(2)).evict(matchId);
+        verify(matchEventBroadcaster).broadcastLineupChange(matchId);
+    }
+
+    @Test
+    @DisplayName("evictLineup evicts the lineup again and broadcasts the change once the transaction commits")
+    public void evictLineup_TransactionCommitted_EvictsAgainAndBroadcasts() {
+        var matchId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        matchLineupEvictionService.evictLineup(matchId);
+        verify(matchLineupCache).evict(matchId);
+        verifyNoInteractions(matchEventBroadcaster);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // then
+        verify(matchLineupCache, times(2)).evict(matchId);
+        verify(matchEventBroadcaster).broadcastLineupChange(matchId);
+    }
+
+    @Test
+    @DisplayName("evictLineup does not broadcast the change when the transaction rolls back")
+    public void evictLineup_TransactionRolledBack_DoesNotBroadcast() {
+        var matchId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        matchLineupEvictionService.evictLineup(matchId);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // then
+        verify(matchLineupCache, times(2)).evict(matchId);
+        verifyNoInteractions(matchEventBroadcaster);
+    }
+
+    @Test
+    @DisplayName("evictPlayer evicts lineups and live states of matches listing the player, and broadcasts the change once the transaction commits")
+    public void evictPlayer_TransactionCommitted_EvictsMatchesOfPlayerAndBroadcasts() {
+        var playerId = UUID.randomUUID();
+        var matchId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // given
+        given(matchLineupCache.evictPlayer(playerId)).willReturn(List.of(matchId), List.of());
+
+        // when
+        matchLineupEvictionService.evictPlayer(playerId);
+        verify(liveMatchStateRegistry).evict(matchId);
+        verifyNoInteractions(matchEventBroadcaster);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // then
+        verify(matchLineupCache, times(2)).evictPlayer(playerId);
+        verify(matchEventBroadcaster).broadcastPlayerChange(playerId);
+    }
+}
@@ -0,0 +1,102 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import ml.echelon133.matchservice.match.repository.ScheduledMatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchScheduleCompetitionLoaderTests {
+
+    @Mock
+    private CompetitionCache competitionCache;
+
+    @Mock
+    private ScheduledMatchRepository scheduledMatchRepository;
+
+    private MatchScheduleCompetitionLoader matchScheduleCompetitionLoader;
+
+    @BeforeEach
+    public void beforeEach() {
+        matchScheduleCompetitionLoader = new MatchScheduleCompetitionLoader(
+                competitionCache, scheduledMatchRepository, 1, 10
+        );
+    }
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("loadAfterCommit only looks up the competition and fills it in once the transaction commits")
+    public void loadAfterCommit_TransactionCommitted_FillsInCompetition() throws Exception {
+        var matchId = UUID.randomUUID();
+        var competitionId = UUID.randomUUID();
+        var competition = new CompetitionDto(competitionId, "Test Competition", "2023/24", "", true, 38, false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // given
+        given(competitionCache.find(competitionId)).willReturn(Optional.of(competition));
+
+        // when
+        matchScheduleCompetitionLoader.loadAfterCommit(matchId, competitionId);
+        verifyNoInteractions(competitionCache);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        // waits for the loads in progress
+        matchScheduleCompetitionLoader.destroy();
+
+        // then
+        verify(scheduledMatchRepository).updateCompetition(
+                matchId, competitionId, "Test Competition", "2023/24", "", true, 38, false
+        );
+    }
+
+    @Test
+    @DisplayName("loadAfterCommit does not look up the competition when the transaction rolls back")
+    public void loadAfterCommit_TransactionRolledBack_DoesNotLoadCompetition() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        matchScheduleCompetitionLoader.loadAfterCommit(UUID.randomUUID(), UUID.randomUUID());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        matchScheduleCompetitionLoader.destroy();
+
+        // then
+        verifyNoInteractions(competitionCache, scheduledMatchRepository);
+    }
+
+    @Test
+    @DisplayName("loadAfterCommit leaves the entry without its competition when the competition cannot be fetched")
+    public void loadAfterCommit_CompetitionFetchFails_DoesNotUpdateEntry() throws Exception {
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(competitionCache.find(competitionId)).willReturn(Optional.empty());
+
+        // when
+        matchScheduleCompetitionLoader.loadAfterCommit(UUID.randomUUID(), competitionId);
+        matchScheduleCompetitionLoader.destroy();
+
+        // then
+        verify(competitionCache).find(competitionId);
+        verifyNoInteractions(scheduledMatchRepository);
+    }
+}
@@ -0,0 +1,254 @@
+package ml.echelon133.matchservice.match.service;
+
+import ml.echelon133.common.match.MatchStatus;
+import ml.echelon133.matchservice.match.TestMatch;
+import ml.echelon133.matchservice.match.model.CompetitionDto;
+import ml.echelon133.matchservice.match.model.CompetitionGroupedMatches;
+import ml.echelon133.matchservice.match.model.Match;
+import ml.echelon133.matchservice.match.model.ScheduledMatch;
+import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.match.repository.ScheduledMatchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchScheduleServiceTests {
+
+    @Mock
+    private ScheduledMatchRepository scheduledMatchRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private CompetitionCache competitionCache;
+
+    @Mock
+    private MatchScheduleCompetitionLoader competitionLoader;
+
+    @InjectMocks
+    private MatchScheduleService matchScheduleService;
+
+    private static CompetitionDto createTestCompetitionDto(UUID id) {
+        return new CompetitionDto(id, "Test Competition", "2023/24", "", true, 38, false);
+    }
+
+    private static ScheduledMatch createScheduledMatch(Match match, CompetitionDto competition) {
+        var scheduledMatch = new ScheduledMatch(match.getId());
+        scheduledMatch.copyFrom(match);
+        scheduledMatch.copyCompetition(competition);
+        return scheduledMatch;
+    }
+
+    @Test
+    @DisplayName("findMatchesBetween reads the buckets of the hours of the search period")
+    public void findMatchesBetween_HalfHourOffset_ReadsBucketsOfHours() {
+        var startUTC = LocalDateTime.of(2022, 12, 31, 18, 30);
+        var endUTC = LocalDateTime.of(2023, 1, 1, 18, 29);
+        var pageable = Pageable.ofSize(5);
+
+        // when
+        matchScheduleService.findMatchesBetween(startUTC, endUTC, pageable);
+
+        // then
+        verify(scheduledMatchRepository).findAllInHoursBetween(
+                eq(LocalDateTime.of(2022, 12, 31, 18, 0)),
+                eq(LocalDateTime.of(2023, 1, 1, 18, 0)),
+                eq(startUTC),
+                eq(endUTC),
+                eq(pageable)
+        );
+    }
+
+    @Test
+    @DisplayName("findMatchesBetween groups matches by their competitions without fetching the competitions")
+    public void findMatchesBetween_MultipleResults_GroupsResultsByCompetitionId() {
+        var competition0 = createTestCompetitionDto(UUID.randomUUID());
+        var competition1 = createTestCompetitionDto(UUID.randomUUID());
+        var match0 = TestMatch.builder().competitionId(competition0.id()).build();
+        var match1 = TestMatch.builder().competitionId(competition1.id()).build();
+        var match2 = TestMatch.builder().competitionId(competition1.id()).build();
+
+        // given
+        given(scheduledMatchRepository.findAllInHoursBetween(any(), any(), any(), any(), any())).willReturn(List.of(
+                createScheduledMatch(match0, competition0),
+                createScheduledMatch(match1, competition1),
+                createScheduledMatch(match2, competition1)
+        ));
+
+        // when
+        List<CompetitionGroupedMatches> results = matchScheduleService.findMatchesBetween(
+                LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
+        );
+
+        // then
+        assertEquals(2, results.size());
+        // groups are in the order of the first match of every competition
+        assertEquals(competition0, results.get(0).competition());
+        assertEquals(List.of(match0.getId()), results.get(0).matches().stream().map(m -> m.getId()).toList());
+        assertEquals(competition1, results.get(1).competition());
+        assertEquals(
+                List.of(match1.getId(), match2.getId()),
+                results.get(1).matches().stream().map(m -> m.getId()).toList()
+        );
+        verifyNoInteractions(competitionCache);
+    }
+
+    @Test
+    @DisplayName("findMatchesBetween lists matches without their competition when it's not known")
+    public void findMatchesBetween_CompetitionUnknown_CompetitionNull() {
+        var match = TestMatch.builder().build();
+
+        // given
+        given(scheduledMatchRepository.findAllInHoursBetween(any(), any(), any(), any(), any()))
+                .willReturn(List.of(createScheduledMatch(match, null)));
+
+        // when
+        var results = matchScheduleService.findMatchesBetween(
+                LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
+        );
+
+        // then
+        assertEquals(1, results.size());
+        assertNull(results.get(0).competition());
+        assertEquals(match.getCompetitionId(), results.get(0).matches().get(0).getCompetitionId());
+    }
+
+    @Test
+    @DisplayName("refresh creates the entry of a new match and loads its competition after the transaction commits")
+    public void refresh_EntryDoesNotExist_CreatesEntryAndLoadsCompetitionAfterCommit() {
+        var match = TestMatch.builder().build();
+
+        // given
+        given(scheduledMatchRepository.findById(match.getId())).willReturn(Optional.empty());
+
+        // when
+        matchScheduleService.refresh(match);
+
+        // then
+        verify(scheduledMatchRepository).save(argThat(sm ->
+                sm.getId().equals(match.getId()) &&
+                sm.getStartTimeUTC().equals(match.getStartTimeUTC()) &&
+                !sm.isCompetitionKnown()
+        ));
+        verify(competitionLoader).loadAfterCommit(match.getId(), match.getCompetitionId());
+        verifyNoInteractions(competitionCache);
+    }
+
+    @Test
+    @DisplayName("refresh does not load the competition when the match stays in the same competition")
+    public void refresh_CompetitionNotChanged_DoesNotLoadCompetition() {
+        var match = TestMatch.builder().status(MatchStatus.FIRST_HALF).build();
+        // the entry still holds the status the match had before the event
+        var scheduledMatch = createScheduledMatch(
+                TestMatch.builder().id(match.getId()).competitionId(match.getCompetitionId()).build(),
+                createTestCompetitionDto(match.getCompetitionId())
+        );
+
+        // given
+        given(scheduledMatchRepository.findById(match.getId())).willReturn(Optional.of(scheduledMatch));
+
+        // when
+        matchScheduleService.refresh(match);
+
+        // then
+        verifyNoInteractions(competitionCache, competitionLoader);
+        verify(scheduledMatchRepository).save(argThat(sm ->
+                sm.toCompactMatchDto().getStatus().equals("FIRST_HALF") &&
+                sm.isCompetitionKnown()
+        ));
+    }
+
+    @Test
+    @DisplayName("refresh forgets the previous competition and loads the new one when the match has been moved")
+    public void refresh_CompetitionChanged_ForgetsPreviousCompetitionAndLoadsNewOne() {
+        var match = TestMatch.builder().build();
+        var scheduledMatch = createScheduledMatch(
+                TestMatch.builder().id(match.getId()).build(), createTestCompetitionDto(UUID.randomUUID())
+        );
+
+        // given
+        given(scheduledMatchRepository.findById(match.getId())).willReturn(Optional.of(scheduledMatch));
+
+        // when
+        matchScheduleService.refresh(match);
+
+        // then
+        verify(scheduledMatchRepository).save(argThat(sm ->
+                match.getCompetitionId().equals(sm.getCompetitionId()) && !sm.isCompetitionKnown()
+        ));
+        verify(competitionLoader).loadAfterCommit(match.getId(), match.getCompetitionId());
+    }
+
+    @Test
+    @DisplayName("refresh keeps the known competition and loads it again when asked to refresh the competition")
+    public void refresh_RefreshCompetition_KeepsCompetitionAndLoadsItAgain() {
+        var match = TestMatch.builder().build();
+        var scheduledMatch = createScheduledMatch(match, createTestCompetitionDto(match.getCompetitionId()));
+
+        // given
+        given(scheduledMatchRepository.findById(match.getId())).willReturn(Optional.of(scheduledMatch));
+
+        // when
+        matchScheduleService.refresh(match, true);
+
+        // then
+        verify(scheduledMatchRepository).save(argThat(ScheduledMatch::isCompetitionKnown));
+        verify(competitionLoader).loadAfterCommit(match.getId(), match.getCompetitionId());
+    }
+
+    @Test
+    @DisplayName("forgetCompetition removes information about the competition from the entries of its matches")
+    public void forgetCompetition_CompetitionDeleted_ClearsCompetition() {
+        var competitionId = UUID.randomUUID();
+
+        // when
+        matchScheduleService.forgetCompetition(competitionId);
+
+        // then
+        verify(scheduledMatchRepository).clearCompetition(competitionId);
+    }
+
+    @Test
+    @DisplayName("rebuild skips deleted matches and fetches all competitions at once")
+    public void rebuild_MultipleMatches_FetchesAllCompetitionsAtOnce() {
+        var competitionId = UUID.randomUUID();
+        var match0 = TestMatch.builder().competitionId(competitionId).build();
+        var match1 = TestMatch.builder().competitionId(competitionId).build();
+        var deletedMatch = TestMatch.builder().competitionId(competitionId).deleted(true).build();
+        var matchIds = List.of(match0.getId(), match1.getId(), deletedMatch.getId());
+
+        // given
+        given(matchRepository.findAllById(matchIds)).willReturn(List.of(match0, match1, deletedMatch));
+        given(scheduledMatchRepository.findById(any())).willReturn(Optional.empty());
+        given(competitionCache.findAll(Set.of(competitionId)))
+                .willReturn(Map.of(competitionId, createTestCompetitionDto(competitionId)));
+
+        // when
+        var rebuilt = matchScheduleService.rebuild(matchIds);
+
+        // then
+        assertEquals(2, rebuilt);
+        verify(competitionCache, times(1)).findAll(any());
+        verify(competitionCache, never()).find(any());
+        verify(scheduledMatchRepository, times(2)).save(argThat(ScheduledMatch::isCompetitionKnown));
+        verify(scheduledMatchRepository, never()).findById(deletedMatch.getId());
+    }
+}
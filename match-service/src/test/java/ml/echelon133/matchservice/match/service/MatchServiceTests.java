@@ -1,15 +1,17 @@
 package ml.echelon133.matchservice.match.service;
 
+import ml.echelon133.common.event.KafkaTopicNames;
 import ml.echelon133.common.event.dto.MatchInfo;
 import ml.echelon133.common.exception.ResourceNotFoundException;
 import ml.echelon133.common.match.MatchStatus;
-import ml.echelon133.matchservice.client.CompetitionServiceClient;
+import ml.echelon133.matchservice.event.service.LiveMatchStateRegistry;
 import ml.echelon133.matchservice.match.TestMatch;
 import ml.echelon133.matchservice.match.TestMatchDto;
 import ml.echelon133.matchservice.match.TestUpsertMatchDto;
 import ml.echelon133.matchservice.match.exceptions.LineupPlayerInvalidException;
 import ml.echelon133.matchservice.match.model.*;
 import ml.echelon133.matchservice.match.repository.MatchRepository;
+import ml.echelon133.matchservice.outbox.service.OutboxService;
 import ml.echelon133.matchservice.referee.model.Referee;
 import ml.echelon133.matchservice.referee.service.RefereeService;
 import ml.echelon133.matchservice.team.TestTeamPlayerDto;
@@ -20,7 +22,6 @@ import ml.echelon133.matchservice.team.service.TeamPlayerService;
 import ml.echelon133.matchservice.team.service.TeamService;
 import ml.echelon133.matchservice.venue.model.Venue;
 import ml.echelon133.matchservice.venue.service.VenueService;
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,12 +37,16 @@ import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -63,10 +68,22 @@ public class MatchServiceTests {
     private MatchRepository matchRepository;
 
     @Mock
-    private CompetitionServiceClient competitionServiceClient;
+    private CompetitionCache competitionCache;
 
     @Mock
-    private KafkaProducer<UUID, MatchInfo> matchInfoKafkaProducer;
+    private OutboxService outboxService;
+
+    @Mock
+    private LiveMatchStateRegistry liveMatchStateRegistry;
+
+    @Mock
+    private MatchLineupCache matchLineupCache;
+
+    @Mock
+    private MatchScheduleService matchScheduleService;
+
+    @Mock
+    private MatchLineupEvictionService matchLineupEvictionService;
 
     @InjectMocks
     private MatchService matchService;
@@ -169,6 +186,8 @@ public class MatchServiceTests {
 
         // then
         assertEquals(1, countDeleted);
+        verify(matchLineupEvictionService).evictLineup(idToDelete);
+        verify(matchScheduleService).remove(idToDelete);
     }
 
     @Test
@@ -320,11 +339,15 @@ public class MatchServiceTests {
         );
 
         // then
-        verify(matchInfoKafkaProducer).send(argThat(m ->
-                m.key().equals(expectedMatch.getId()) &&
-                m.value().matchId().equals(expectedMatch.getId()) &&
-                m.value().competitionId().equals(expectedMatch.getCompetitionId())
-        ));
+        verify(outboxService).save(
+                eq(KafkaTopicNames.MATCH_INFO),
+                eq(expectedMatch.getId()),
+                argThat((MatchInfo m) ->
+                        m.matchId().equals(expectedMatch.getId()) &&
+                        m.competitionId().equals(expectedMatch.getCompetitionId())
+                )
+        );
+        verify(matchScheduleService).refresh(expectedMatch);
         assertEquals(expectedMatch.getId(), receivedDto.getId());
         assertNull(receivedDto.getReferee());
     }
@@ -422,11 +445,14 @@ public class MatchServiceTests {
         );
 
         // then
-        verify(matchInfoKafkaProducer).send(argThat(m ->
-           m.key().equals(expectedMatch.getId()) &&
-           m.value().matchId().equals(expectedMatch.getId()) &&
-           m.value().competitionId().equals(expectedMatch.getCompetitionId())
-        ));
+        verify(outboxService).save(
+                eq(KafkaTopicNames.MATCH_INFO),
+                eq(expectedMatch.getId()),
+                argThat((MatchInfo m) ->
+                        m.matchId().equals(expectedMatch.getId()) &&
+                        m.competitionId().equals(expectedMatch.getCompetitionId())
+                )
+        );
         assertEquals(expectedMatch.getId(), receivedDto.getId());
         assertEquals(refereeEntity.getId(), receivedDto.getReferee().getId());
     }
@@ -619,6 +645,7 @@ public class MatchServiceTests {
         );
 
         // then
+        verify(matchScheduleService).refresh(expectedMatch, true);
         assertEquals(expectedMatch.getId(), receivedDto.getId());
         assertNull(receivedDto.getReferee());
     }
@@ -731,6 +758,7 @@ public class MatchServiceTests {
         );
 
         // then
+        verify(matchScheduleService).refresh(expectedMatch, true);
         assertEquals(expectedMatch.getId(), receivedDto.getId());
         assertEquals(newRefereeEntity.getId(), receivedDto.getReferee().getId());
     }
@@ -749,7 +777,7 @@ public class MatchServiceTests {
         matchService.findMatchesByDate(date, zoneOffset, pageable);
 
         // then
-        verify(matchRepository).findAllBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
+        verify(matchScheduleService).findMatchesBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
     }
 
     @Test
@@ -766,7 +794,7 @@ public class MatchServiceTests {
         matchService.findMatchesByDate(date, zoneOffset, pageable);
 
         // then
-        verify(matchRepository).findAllBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
+        verify(matchScheduleService).findMatchesBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
     }
 
     @Test
@@ -783,7 +811,7 @@ public class MatchServiceTests {
         matchService.findMatchesByDate(date, zoneOffset, pageable);
 
         // then
-        verify(matchRepository).findAllBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
+        verify(matchScheduleService).findMatchesBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
     }
 
     @Test
@@ -800,49 +828,13 @@ public class MatchServiceTests {
         matchService.findMatchesByDate(date, zoneOffset, pageable);
 
         // then
-        verify(matchRepository).findAllBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
+        verify(matchScheduleService).findMatchesBetween(eq(expectedStartUTC), eq(expectedEndUTC), eq(pageable));
     }
 
     private CompetitionDto createTestCompetitionDto(UUID id) {
         return new CompetitionDto(id, "", "", "", true, 1, true);
     }
 
-    @Test
-    @DisplayName("findMatchesByDate correctly groups results by competitionId")
-    public void findMatchesByDate_MultipleResults_GroupsResultsByCompetitionId() {
-        var competition0 = UUID.randomUUID();
-        var competition1 = UUID.randomUUID();
-        List<CompactMatchDto> testResults = List.of(
-                CompactMatchDto.builder().competitionId(competition0).build(),
-                CompactMatchDto.builder().competitionId(competition1).build(),
-                CompactMatchDto.builder().competitionId(competition1).build()
-        );
-
-        // given
-        given(matchRepository.findAllBetween(any(), any(), any())).willReturn(testResults);
-        given(competitionServiceClient.getCompetitionById(any(UUID.class)))
-                .willAnswer(inv -> createTestCompetitionDto(inv.getArgument(0)));
-
-        // when
-        List<CompetitionGroupedMatches> results = matchService.findMatchesByDate(
-                LocalDate.now(), ZoneOffset.UTC, Pageable.unpaged()
-        );
-
-        // then
-        assertEquals(2, results.size());
-        // check competition0
-        var competition0Results = results.stream().filter(r -> r.competition().id().equals(competition0)).toList().get(0);
-        assertEquals(1, competition0Results.matches().size());
-        assertEquals(competition0, competition0Results.matches().get(0).getCompetitionId());
-        // check competition1
-        var competition1Results = results.stream().filter(r -> r.competition().id().equals(competition1)).toList().get(0);
-        assertEquals(2, competition1Results.matches().size());
-        var first = competition1Results.matches().get(0);
-        var second = competition1Results.matches().get(1);
-        assertEquals(competition1, first.getCompetitionId());
-        assertEquals(competition1, second.getCompetitionId());
-    }
-
     @Test
     @DisplayName("findMatchesByTeam fetches finished matches when matchFinished is true")
     public void findMatchesByTeam_MatchFinishedTrue_FetchesFinishedMatches() {
@@ -896,8 +888,10 @@ public class MatchServiceTests {
         // given
         given(matchRepository.findAllByTeamIdAndStatuses(eq(teamId), eq(MatchStatus.FIXTURE_TYPE_STATUSES), any()))
                 .willReturn(testResults);
-        given(competitionServiceClient.getCompetitionById(any(UUID.class)))
-                .willAnswer(inv -> createTestCompetitionDto(inv.getArgument(0)));
+        given(competitionCache.findAll(Set.of(competition0, competition1))).willReturn(Map.of(
+                competition0, createTestCompetitionDto(competition0),
+                competition1, createTestCompetitionDto(competition1)
+        ));
 
         // when
         List<CompetitionGroupedMatches> results = matchService.findMatchesByTeam(
@@ -920,7 +914,27 @@ public class MatchServiceTests {
     }
 
     @Test
-    @DisplayName("findMatchLineup correctly fetches match lineups")
+    @DisplayName("findMatchesByTeam lists matches without their competition when it could not be fetched")
+    public void findMatchesByTeam_CompetitionNotFetched_CompetitionNull() {
+        var teamId = UUID.randomUUID();
+        var competitionId = UUID.randomUUID();
+
+        // given
+        given(matchRepository.findAllByTeamIdAndStatuses(eq(teamId), eq(MatchStatus.FIXTURE_TYPE_STATUSES), any()))
+                .willReturn(List.of(CompactMatchDto.builder().competitionId(competitionId).build()));
+        given(competitionCache.findAll(Set.of(competitionId))).willReturn(Map.of());
+
+        // when
+        var results = matchService.findMatchesByTeam(teamId, false, Pageable.unpaged());
+
+        // then
+        assertEquals(1, results.size());
+        assertNull(results.get(0).competition());
+        assertEquals(competitionId, results.get(0).matches().get(0).getCompetitionId());
+    }
+
+    @Test
+    @DisplayName("findMatchLineup correctly assembles match lineups from a single query")
     public void findMatchLineup_MatchLineupsExist_CorrectlyFetchesLineups() {
         var matchId = UUID.randomUUID();
 
@@ -930,14 +944,17 @@ public class MatchServiceTests {
         var awaySubstitutePlayer= TestTeamPlayerDto.builder().build();
         var homeFormation = "4-4-2";
         var awayFormation = "4-3-3";
-        var lineupFormations = LineupFormationsDto.from(homeFormation, awayFormation);
 
         // given
-        given(matchRepository.findHomeStartingPlayersByMatchId(matchId)).willReturn(List.of(homeStartingPlayer));
-        given(matchRepository.findHomeSubstitutePlayersByMatchId(matchId)).willReturn(List.of(homeSubstitutePlayer));
-        given(matchRepository.findAwayStartingPlayersByMatchId(matchId)).willReturn(List.of(awayStartingPlayer));
-        given(matchRepository.findAwaySubstitutePlayersByMatchId(matchId)).willReturn(List.of(awaySubstitutePlayer));
-        given(matchRepository.findLineupFormationsByMatchId(matchId)).willReturn(Optional.of(lineupFormations));
+        givenLineupNotCached(matchId);
+        given(matchRepository.findLineupEntriesByMatchId(matchId)).willReturn(Stream.of(
+                LineupEntryDto.formation(LineupEntryDto.HOME, homeFormation),
+                LineupEntryDto.formation(LineupEntryDto.AWAY, awayFormation),
+                LineupEntryDto.player(LineupEntryDto.HOME, LineupEntryDto.STARTING, homeStartingPlayer),
+                LineupEntryDto.player(LineupEntryDto.AWAY, LineupEntryDto.STARTING, awayStartingPlayer),
+                LineupEntryDto.player(LineupEntryDto.HOME, LineupEntryDto.SUBSTITUTE, homeSubstitutePlayer),
+                LineupEntryDto.player(LineupEntryDto.AWAY, LineupEntryDto.SUBSTITUTE, awaySubstitutePlayer)
+        ));
 
         // when
         var lineup = matchService.findMatchLineup(matchId);
@@ -945,7 +962,12 @@ public class MatchServiceTests {
         // then
         var homeLineup = lineup.home();
         var awayLineup = lineup.away();
+        assertEquals(1, homeLineup.startingPlayers().size());
+        assertEquals(1, homeLineup.substitutePlayers().size());
+        assertEquals(1, awayLineup.startingPlayers().size());
+        assertEquals(1, awayLineup.substitutePlayers().size());
         assertEquals(homeStartingPlayer.getId(), homeLineup.startingPlayers().get(0).getId());
+        assertEquals(homeStartingPlayer.getPlayer().getName(), homeLineup.startingPlayers().get(0).getPlayer().getName());
         assertEquals(homeSubstitutePlayer.getId(), homeLineup.substitutePlayers().get(0).getId());
         assertEquals(awayStartingPlayer.getId(), awayLineup.startingPlayers().get(0).getId());
         assertEquals(awaySubstitutePlayer.getId(), awayLineup.substitutePlayers().get(0).getId());
@@ -953,6 +975,54 @@ public class MatchServiceTests {
         assertEquals(awayFormation, awayLineup.formation());
     }
 
+    @Test
+    @DisplayName("findMatchLineup returns empty lineups when the match does not exist")
+    public void findMatchLineup_MatchNotFound_ReturnsEmptyLineups() {
+        var matchId = UUID.randomUUID();
+
+        // given
+        givenLineupNotCached(matchId);
+        given(matchRepository.findLineupEntriesByMatchId(matchId)).willReturn(Stream.of());
+
+        // when
+        var lineup = matchService.findMatchLineup(matchId);
+
+        // then
+        assertTrue(lineup.home().startingPlayers().isEmpty());
+        assertTrue(lineup.home().substitutePlayers().isEmpty());
+        assertNull(lineup.home().formation());
+        assertTrue(lineup.away().startingPlayers().isEmpty());
+        assertTrue(lineup.away().substitutePlayers().isEmpty());
+        assertNull(lineup.away().formation());
+    }
+
+    @Test
+    @DisplayName("findMatchLineup does not query the database when the lineup is cached")
+    public void findMatchLineup_LineupCached_DoesNotQueryDatabase() {
+        var matchId = UUID.randomUUID();
+        var cachedLineup = new LineupDto(
+                new LineupDto.TeamLineup(List.of(), List.of(), "4-4-2"),
+                new LineupDto.TeamLineup(List.of(), List.of(), "4-3-3")
+        );
+
+        // given
+        given(matchLineupCache.find(eq(matchId), any())).willReturn(Optional.of(cachedLineup));
+
+        // when
+        var lineup = matchService.findMatchLineup(matchId);
+
+        // then
+        assertEquals(cachedLineup, lineup);
+        verify(matchRepository, never()).findLineupEntriesByMatchId(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenLineupNotCached(UUID matchId) {
+        given(matchLineupCache.find(eq(matchId), any())).willAnswer(inv ->
+                inv.getArgument(1, Function.class).apply(matchId)
+        );
+    }
+
     @Test
     @DisplayName("updateHomeLineup throws when the match does not exist")
     public void updateHomeLineup_MatchDoesNotExist_Throws() {
@@ -1105,6 +1175,8 @@ public class MatchServiceTests {
                 m.getHomeLineup().getFormation().equals(homeFormation) &&
                 m.getAwayLineup().getFormation() == null
         ));
+        verify(liveMatchStateRegistry).evict(matchId);
+        verify(matchLineupEvictionService).evictLineup(matchId);
     }
 
     @Test
@@ -1260,6 +1332,8 @@ public class MatchServiceTests {
                 m.getAwayLineup().getFormation().equals(awayFormation)
 
         ));
+        verify(liveMatchStateRegistry).evict(matchId);
+        verify(matchLineupEvictionService).evictLineup(matchId);
     }
 
     @Test
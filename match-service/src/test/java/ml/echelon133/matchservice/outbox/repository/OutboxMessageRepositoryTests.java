@@ -0,0 +1,44 @@
+package ml.echelon133.matchservice.outbox.repository;
+
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.matchservice.outbox.model.OutboxMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Disable kubernetes during tests
+@TestPropertySource(properties = "spring.cloud.kubernetes.enabled=false")
+@DataJpaTest
+public class OutboxMessageRepositoryTests {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    public OutboxMessageRepositoryTests(OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    @Test
+    @DisplayName("findAllByOrderByIdAsc finds the oldest messages in the order of saving")
+    public void findAllByOrderByIdAsc_MultipleMessages_FindsOldestInOrder() {
+        for (int i = 0; i < 5; i++) {
+            outboxMessageRepository.save(new OutboxMessage(KafkaTopicNames.MATCH_EVENTS, UUID.randomUUID(), "" + i));
+        }
+
+        // when
+        var messages = outboxMessageRepository.findAllByOrderByIdAsc(PageRequest.of(0, 3));
+
+        // then
+        assertEquals(3, messages.size());
+        assertEquals("0", messages.get(0).getPayload());
+        assertEquals("1", messages.get(1).getPayload());
+        assertEquals("2", messages.get(2).getPayload());
+    }
+}
@@ -0,0 +1,106 @@
+package ml.echelon133.matchservice.outbox.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ml.echelon133.common.event.KafkaTopicNames;
+import ml.echelon133.matchservice.outbox.model.OutboxMessage;
+import ml.echelon133.matchservice.outbox.repository.OutboxMessageRepository;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTests {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private KafkaProducer<UUID, String> outboxKafkaProducer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxMessageRepository, outboxKafkaProducer, 10, meterRegistry);
+    }
+
+    private static OutboxMessage createTestMessage(long id) {
+        var message = new OutboxMessage(KafkaTopicNames.MATCH_EVENTS, UUID.randomUUID(), "{}");
+        message.setId(id);
+        return message;
+    }
+
+    @Test
+    @DisplayName("relay does not send anything when the outbox is empty")
+    public void relay_NoMessages_SendsNothing() {
+        // given
+        given(outboxMessageRepository.findAllByOrderByIdAsc(any())).willReturn(List.of());
+
+        // when
+        var relayed = outboxRelay.relay();
+
+        // then
+        assertEquals(0, relayed);
+        verify(outboxKafkaProducer, never()).send(any());
+    }
+
+    @Test
+    @DisplayName("relay sends all messages and removes them from the outbox")
+    public void relay_MessagesSent_RemovesMessages() {
+        var messages = List.of(createTestMessage(1), createTestMessage(2));
+
+        // given
+        given(outboxMessageRepository.findAllByOrderByIdAsc(any())).willReturn(messages);
+        given(outboxKafkaProducer.send(any())).willReturn(CompletableFuture.completedFuture(mock(RecordMetadata.class)));
+
+        // when
+        var relayed = outboxRelay.relay();
+
+        // then
+        assertEquals(2, relayed);
+        verify(outboxKafkaProducer).send(argThat(r ->
+                r.topic().equals(KafkaTopicNames.MATCH_EVENTS) && r.key().equals(messages.get(0).getRecordKey())
+        ));
+        verify(outboxKafkaProducer).flush();
+        verify(outboxMessageRepository).deleteAllInBatch(messages);
+    }
+
+    @Test
+    @DisplayName("relay removes all acknowledged messages and keeps messages which could not be sent")
+    public void relay_SendFailed_KeepsOnlyFailedMessages() {
+        var messages = List.of(createTestMessage(1), createTestMessage(2), createTestMessage(3));
+
+        // given
+        given(outboxMessageRepository.findAllByOrderByIdAsc(any())).willReturn(messages);
+        given(outboxKafkaProducer.send(any())).willReturn(
+                CompletableFuture.completedFuture(mock(RecordMetadata.class)),
+                CompletableFuture.failedFuture(new RuntimeException("broker unavailable")),
+                CompletableFuture.completedFuture(mock(RecordMetadata.class))
+        );
+
+        // when
+        var relayed = outboxRelay.relay();
+
+        // then
+        assertEquals(2, relayed);
+        verify(outboxMessageRepository).deleteAllInBatch(List.of(messages.get(0), messages.get(2)));
+        assertEquals(1, meterRegistry.get("outbox.messages.failed").counter().count());
+    }
+}
@@ -1,6 +1,7 @@
 package ml.echelon133.matchservice.player.service;
 
 import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.match.service.MatchLineupEvictionService;
 import ml.echelon133.matchservice.player.TestPlayerDto;
 import ml.echelon133.matchservice.player.TestUpsertPlayerDto;
 import ml.echelon133.matchservice.player.model.Player;
@@ -26,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class PlayerServiceTests {
@@ -33,6 +35,9 @@ public class PlayerServiceTests {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private MatchLineupEvictionService matchLineupEvictionService;
+
     @InjectMocks
     private PlayerService playerService;
 
@@ -201,6 +206,7 @@ public class PlayerServiceTests {
         assertEquals(updateDto.position(), playerDto.getPosition());
         assertEquals(newDateOfBirth, playerDto.getDateOfBirth());
         assertEquals(updateDto.countryCode(), playerDto.getCountryCode());
+        verify(matchLineupEvictionService).evictPlayer(oldPlayer.getId());
     }
 
     @Test
@@ -216,6 +222,7 @@ public class PlayerServiceTests {
 
         // then
         assertEquals(1, countDeleted);
+        verify(matchLineupEvictionService).evictPlayer(idToDelete);
     }
 
     @Test
@@ -1,6 +1,7 @@
 package ml.echelon133.matchservice.team.service;
 
 import ml.echelon133.common.exception.ResourceNotFoundException;
+import ml.echelon133.matchservice.match.service.MatchLineupEvictionService;
 import ml.echelon133.matchservice.player.model.Player;
 import ml.echelon133.matchservice.player.model.Position;
 import ml.echelon133.matchservice.player.service.PlayerService;
@@ -29,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class TeamPlayerServiceTests {
@@ -42,6 +44,9 @@ public class TeamPlayerServiceTests {
     @Mock
     private PlayerService playerService;
 
+    @Mock
+    private MatchLineupEvictionService matchLineupEvictionService;
+
     @InjectMocks
     private TeamPlayerService teamPlayerService;
 
@@ -418,6 +423,7 @@ public class TeamPlayerServiceTests {
         var oldTeamPlayer = getTestTeamPlayer();
         var teamPlayerId = oldTeamPlayer.getId();
         var teamId = oldTeamPlayer.getTeam().getId();
+        var oldPlayerId = oldTeamPlayer.getPlayer().getId();
 
         var newPlayer = new Player(
                 "Player",
@@ -468,6 +474,7 @@ public class TeamPlayerServiceTests {
         assertEquals(expectedDto.getPlayer().getId(), result.getPlayer().getId());
         assertEquals(expectedDto.getPlayer().getName(), result.getPlayer().getName());
         assertEquals(expectedDto.getPlayer().getDateOfBirth(), result.getPlayer().getDateOfBirth());
+        verify(matchLineupEvictionService).evictPlayer(oldPlayerId);
     }
 
     @Test
@@ -5,6 +5,7 @@ import ml.echelon133.matchservice.coach.model.Coach;
 import ml.echelon133.matchservice.coach.service.CoachService;
 import ml.echelon133.matchservice.match.model.ScoreInfoDto;
 import ml.echelon133.matchservice.match.model.ShortTeamDto;
+import ml.echelon133.matchservice.match.service.MatchScheduleService;
 import ml.echelon133.matchservice.team.TestTeam;
 import ml.echelon133.matchservice.team.TestTeamDto;
 import ml.echelon133.matchservice.team.TestUpsertTeamDto;
@@ -33,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class TeamServiceTests {
@@ -43,6 +45,9 @@ public class TeamServiceTests {
     @Mock
     private CoachService coachService;
 
+    @Mock
+    private MatchScheduleService matchScheduleService;
+
     @InjectMocks
     private TeamService teamService;
 
@@ -237,6 +242,7 @@ public class TeamServiceTests {
         assertEquals(updateDto.countryCode(), teamDto.getCountryCode());
         assertEquals(updateDto.coachId(), teamDto.getCoach().getId().toString());
         assertEquals(updateDto.crestUrl(), teamDto.getCrestUrl());
+        verify(matchScheduleService).refreshTeam(expectedTeam);
     }
 
     @Test
@@ -252,6 +258,7 @@ public class TeamServiceTests {
 
         // then
         assertEquals(1, countDeleted);
+        verify(matchScheduleService).hideTeam(idToDelete);
     }
 
     @Test